@@ -2397,6 +2397,16 @@ public class BesuCommand implements DefaultCommandValues, Runnable {
         && !dataStorageConfiguration.getHistoryExpiryPruneEnabled()) {
       rocksDBPlugin.addIgnorableSegmentIdentifier(KeyValueSegmentIdentifier.CHAIN_PRUNER_STATE);
     }
+    if (!unstableEvmOptions.toDomainObject().persistentCodeAnalysisEnabled()) {
+      rocksDBPlugin.addIgnorableSegmentIdentifier(KeyValueSegmentIdentifier.CODE_ANALYSIS);
+    }
+    if (!dataStorageConfiguration
+        .getPathBasedExtraStorageConfiguration()
+        .getUnstable()
+        .getTrieLogCompactionEnabled()) {
+      rocksDBPlugin.addIgnorableSegmentIdentifier(
+          KeyValueSegmentIdentifier.TRIE_LOG_RANGE_DIFF_STORAGE);
+    }
   }
 
   private void validatePostMergeCheckpointBlockRequirements() {
@@ -29,6 +29,13 @@ public class EvmOptions implements CLIOptions<EvmConfiguration> {
   /** The constant WORLDSTATE_UPDATE_MODE. */
   public static final String WORLDSTATE_UPDATE_MODE = "--Xevm-worldstate-update-mode";
 
+  /** The constant PRE_DECODED_CODE_ENABLED. */
+  public static final String PRE_DECODED_CODE_ENABLED = "--Xevm-pre-decoded-code-enabled";
+
+  /** The constant PERSISTENT_CODE_ANALYSIS_ENABLED. */
+  public static final String PERSISTENT_CODE_ANALYSIS_ENABLED =
+      "--Xevm-persistent-code-analysis-enabled";
+
   /** Default constructor. */
   EvmOptions() {}
 
@@ -63,13 +70,43 @@ public class EvmOptions implements CLIOptions<EvmConfiguration> {
       EvmConfiguration.WorldUpdaterMode
           .STACKED; // Stacked Updater.  Years of battle tested correctness.
 
+  @SuppressWarnings({"FieldCanBeFinal", "FieldMayBeFinal"})
+  @CommandLine.Option(
+      names = {PRE_DECODED_CODE_ENABLED},
+      description =
+          "Execute cached contract code from pre-decoded basic blocks, charging their static gas"
+              + " once per block (default: ${DEFAULT-VALUE})",
+      fallbackValue = "true",
+      hidden = true,
+      arity = "0..1")
+  private Boolean preDecodedCodeEnabled = false;
+
+  @SuppressWarnings({"FieldCanBeFinal", "FieldMayBeFinal"})
+  @CommandLine.Option(
+      names = {PERSISTENT_CODE_ANALYSIS_ENABLED},
+      description =
+          "Persist the code analysis of the most used contracts in the database, and load it in"
+              + " the code cache of the chain head fork at startup (default: ${DEFAULT-VALUE})",
+      fallbackValue = "true",
+      hidden = true,
+      arity = "0..1")
+  private Boolean persistentCodeAnalysisEnabled = false;
+
   @Override
   public EvmConfiguration toDomainObject() {
-    return new EvmConfiguration(jumpDestCacheWeightKilobytes, worldstateUpdateMode);
+    return new EvmConfiguration(
+        jumpDestCacheWeightKilobytes,
+        worldstateUpdateMode,
+        preDecodedCodeEnabled,
+        persistentCodeAnalysisEnabled);
   }
 
   @Override
   public List<String> getCLIOptions() {
-    return List.of(JUMPDEST_CACHE_WEIGHT, WORLDSTATE_UPDATE_MODE);
+    return List.of(
+        JUMPDEST_CACHE_WEIGHT,
+        WORLDSTATE_UPDATE_MODE,
+        PRE_DECODED_CODE_ENABLED + "=" + preDecodedCodeEnabled,
+        PERSISTENT_CODE_ANALYSIS_ENABLED + "=" + persistentCodeAnalysisEnabled);
   }
 }
@@ -29,6 +29,7 @@ import static org.hyperledger.besu.ethereum.core.MiningConfiguration.Unstable.DE
 import static org.hyperledger.besu.ethereum.core.MiningConfiguration.Unstable.DEFAULT_POW_JOB_TTL;
 import static org.hyperledger.besu.ethereum.core.MiningConfiguration.Unstable.DEFAULT_REMOTE_SEALERS_LIMIT;
 import static org.hyperledger.besu.ethereum.core.MiningConfiguration.Unstable.DEFAULT_REMOTE_SEALERS_TTL;
+import static org.hyperledger.besu.ethereum.core.MiningConfiguration.Unstable.DEFAULT_SPECULATIVE_TX_SELECTION_CANDIDATES;
 
 import org.hyperledger.besu.cli.converter.PositiveNumberConverter;
 import org.hyperledger.besu.cli.util.CommandLineUtils;
@@ -205,6 +206,15 @@ public class MiningOptions implements CLIOptions<MiningConfiguration> {
                 + " then it waits before next repetition. Must be positive and ≤ 2000 (default: ${DEFAULT-VALUE} milliseconds)")
     private Long posBlockCreationRepetitionMinDuration =
         DEFAULT_POS_BLOCK_CREATION_REPETITION_MIN_DURATION;
+
+    @CommandLine.Option(
+        hidden = true,
+        names = {"--Xblock-txs-selection-speculative-candidates"},
+        description =
+            "Number of best pending transactions executed speculatively in parallel during the"
+                + " transaction selection, only with Bonsai, 0 to disable"
+                + " (default: ${DEFAULT-VALUE})")
+    private Integer speculativeTxSelectionCandidates = DEFAULT_SPECULATIVE_TX_SELECTION_CANDIDATES;
   }
 
   private TransactionSelectionService transactionSelectionService;
@@ -300,6 +310,11 @@ public class MiningOptions implements CLIOptions<MiningConfiguration> {
           commandLine, "--Xpos-block-creation-repetition-min-duration must be positive and ≤ 2000");
     }
 
+    if (unstableOptions.speculativeTxSelectionCandidates < 0) {
+      throw new ParameterException(
+          commandLine, "--Xblock-txs-selection-speculative-candidates must be positive or zero");
+    }
+
     if (genesisConfigOptions.isPoa()) {
       CommandLineUtils.failIfOptionDoesntMeetRequirement(
           commandLine,
@@ -348,6 +363,8 @@ public class MiningOptions implements CLIOptions<MiningConfiguration> {
         miningConfiguration.getUnstable().getPosBlockCreationMaxTime();
     miningOptions.unstableOptions.posBlockCreationRepetitionMinDuration =
         miningConfiguration.getUnstable().getPosBlockCreationRepetitionMinDuration();
+    miningOptions.unstableOptions.speculativeTxSelectionCandidates =
+        miningConfiguration.getUnstable().getSpeculativeTxSelectionCandidates();
 
     miningConfiguration.getCoinbase().ifPresent(coinbase -> miningOptions.coinbase = coinbase);
     miningConfiguration.getTargetGasLimit().ifPresent(tgl -> miningOptions.targetGasLimit = tgl);
@@ -393,6 +410,7 @@ public class MiningOptions implements CLIOptions<MiningConfiguration> {
                 .posBlockCreationMaxTime(unstableOptions.posBlockCreationMaxTime)
                 .posBlockCreationRepetitionMinDuration(
                     unstableOptions.posBlockCreationRepetitionMinDuration)
+                .speculativeTxSelectionCandidates(unstableOptions.speculativeTxSelectionCandidates)
                 .build())
         .build();
   }
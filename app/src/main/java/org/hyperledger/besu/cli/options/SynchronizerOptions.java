@@ -19,9 +19,12 @@ import static org.hyperledger.besu.ethereum.eth.sync.snapsync.SnapSyncConfigurat
 import org.hyperledger.besu.ethereum.eth.sync.SynchronizerConfiguration;
 import org.hyperledger.besu.ethereum.eth.sync.snapsync.ImmutableSnapSyncConfiguration;
 import org.hyperledger.besu.ethereum.eth.sync.snapsync.SnapSyncConfiguration;
+import org.hyperledger.besu.services.pipeline.WaitStrategy;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import com.google.common.collect.Range;
 import org.apache.tuweni.units.bigints.UInt256;
@@ -49,6 +52,8 @@ public class SynchronizerOptions implements CLIOptions<SynchronizerConfiguration
       "--Xsynchronizer-transactions-parallelism";
   private static final String COMPUTATION_PARALLELISM_FLAG =
       "--Xsynchronizer-computation-parallelism";
+  private static final String PIPELINE_WAIT_STRATEGY_FLAG =
+      "--Xsynchronizer-pipeline-wait-strategy";
   private static final String PIVOT_DISTANCE_FROM_HEAD_FLAG =
       "--Xsynchronizer-fast-sync-pivot-distance";
   private static final String FULL_VALIDATION_RATE_FLAG =
@@ -92,6 +97,9 @@ public class SynchronizerOptions implements CLIOptions<SynchronizerConfiguration
   private static final String SNAP_SYNC_SAVE_PRE_MERGE_HEADERS_ONLY_FLAG =
       "--Xsnapsync-synchronizer-pre-merge-headers-only-enabled";
 
+  private static final String SNAP_SYNC_SST_INGESTION_ENABLED_FLAG =
+      "--Xsnapsync-sst-ingestion-enabled";
+
   /**
    * Parse block propagation range.
    *
@@ -177,6 +185,14 @@ public class SynchronizerOptions implements CLIOptions<SynchronizerConfiguration
           "Number of threads to make available for bulk hash computations during downloads (default: # of processors)")
   private int computationParallelism = Runtime.getRuntime().availableProcessors();
 
+  @CommandLine.Option(
+      names = PIPELINE_WAIT_STRATEGY_FLAG,
+      hidden = true,
+      paramLabel = "<STRATEGY>",
+      description =
+          "Connect the stages of the full sync download pipeline with lock-free ring buffers, that wait for each other using this strategy, one of ${COMPLETION-CANDIDATES}, instead of blocking queues (default: blocking queues)")
+  private Optional<WaitStrategy> pipelineWaitStrategy = Optional.empty();
+
   @CommandLine.Option(
       names = PIVOT_DISTANCE_FROM_HEAD_FLAG,
       hidden = true,
@@ -348,6 +364,16 @@ public class SynchronizerOptions implements CLIOptions<SynchronizerConfiguration
   private Boolean snapSyncSavePreMergeHeadersOnlyEnabled =
       DEFAULT_SNAP_SYNC_SAVE_PRE_MERGE_HEADERS_ONLY_ENABLED;
 
+  @CommandLine.Option(
+      names = SNAP_SYNC_SST_INGESTION_ENABLED_FLAG,
+      paramLabel = "<Boolean>",
+      hidden = true,
+      arity = "0..1",
+      description =
+          "Enable snap sync to write the downloaded account and storage ranges by ingesting sorted files into the database, only with Bonsai. (default: ${DEFAULT-VALUE})")
+  private Boolean snapSyncSstIngestionEnabled =
+      SnapSyncConfiguration.DEFAULT_SNAP_SYNC_SST_INGESTION_ENABLED;
+
   private SynchronizerOptions() {}
 
   /**
@@ -404,6 +430,7 @@ public class SynchronizerOptions implements CLIOptions<SynchronizerConfiguration
     options.downloaderParallelism = config.getDownloaderParallelism();
     options.transactionsParallelism = config.getTransactionsParallelism();
     options.computationParallelism = config.getComputationParallelism();
+    options.pipelineWaitStrategy = config.getPipelineWaitStrategy();
     options.fastSyncPivotDistance = config.getSyncPivotDistance();
     options.fastSyncFullValidationRate = config.getFastSyncFullValidationRate();
     options.worldStateHashCountPerRequest = config.getWorldStateHashCountPerRequest();
@@ -429,6 +456,8 @@ public class SynchronizerOptions implements CLIOptions<SynchronizerConfiguration
     options.snapsyncServerEnabled = config.getSnapSyncConfiguration().isSnapServerEnabled();
     options.snapTransactionIndexingEnabled =
         config.getSnapSyncConfiguration().isSnapSyncTransactionIndexingEnabled();
+    options.snapSyncSstIngestionEnabled =
+        config.getSnapSyncConfiguration().isSnapSyncSstIngestionEnabled();
     options.snapSyncSavePreMergeHeadersOnlyEnabled =
         config.isSnapSyncSavePreMergeHeadersOnlyEnabled();
     return options;
@@ -446,6 +475,7 @@ public class SynchronizerOptions implements CLIOptions<SynchronizerConfiguration
     builder.downloaderParallelism(downloaderParallelism);
     builder.transactionsParallelism(transactionsParallelism);
     builder.computationParallelism(computationParallelism);
+    builder.pipelineWaitStrategy(pipelineWaitStrategy);
     builder.syncPivotDistance(fastSyncPivotDistance);
     builder.fastSyncFullValidationRate(fastSyncFullValidationRate);
     builder.worldStateHashCountPerRequest(worldStateHashCountPerRequest);
@@ -464,6 +494,7 @@ public class SynchronizerOptions implements CLIOptions<SynchronizerConfiguration
             .localFlatStorageCountToHealPerRequest(snapsyncFlatStorageHealedCountPerRequest)
             .isSnapServerEnabled(snapsyncServerEnabled)
             .isSnapSyncTransactionIndexingEnabled(snapTransactionIndexingEnabled)
+            .isSnapSyncSstIngestionEnabled(snapSyncSstIngestionEnabled)
             .build());
     builder.checkpointPostMergeEnabled(checkpointPostMergeSyncEnabled);
     builder.isPeerTaskSystemEnabled(isPeerTaskSystemEnabled);
@@ -526,7 +557,14 @@ public class SynchronizerOptions implements CLIOptions<SynchronizerConfiguration
             SNAP_TRANSACTION_INDEXING_ENABLED_FLAG,
             OptionParser.format(snapTransactionIndexingEnabled),
             SNAP_SYNC_SAVE_PRE_MERGE_HEADERS_ONLY_FLAG,
-            OptionParser.format(snapSyncSavePreMergeHeadersOnlyEnabled));
+            OptionParser.format(snapSyncSavePreMergeHeadersOnlyEnabled),
+            SNAP_SYNC_SST_INGESTION_ENABLED_FLAG,
+            OptionParser.format(snapSyncSstIngestionEnabled));
+    if (pipelineWaitStrategy.isPresent()) {
+      value = new ArrayList<>(value);
+      value.add(PIPELINE_WAIT_STRATEGY_FLAG);
+      value.add(pipelineWaitStrategy.get().name());
+    }
     return value;
   }
 }
@@ -253,6 +253,8 @@ public class TransactionPoolOptions implements CLIOptions<TransactionPoolConfigu
     private static final String MAX_TRACKED_SEEN_TXS_PER_PEER = "--Xmax-tracked-seen-txs-per-peer";
     private static final String PEER_TRACKER_FORGET_EVICTED_TXS_FLAG =
         "--Xpeer-tracker-forget-evicted-txs";
+    private static final String SENDER_ACCOUNT_CACHE_SIZE_FLAG =
+        "--Xtx-pool-sender-account-cache-size";
 
     @CommandLine.Option(
         names = {TX_MESSAGE_KEEP_ALIVE_SEC_FLAG},
@@ -294,6 +296,16 @@ public class TransactionPoolOptions implements CLIOptions<TransactionPoolConfigu
         arity = "0..1",
         fallbackValue = "true")
     private Boolean peerTrackerForgetEvictedTxs;
+
+    @CommandLine.Option(
+        names = {SENDER_ACCOUNT_CACHE_SIZE_FLAG},
+        paramLabel = "<INTEGER>",
+        hidden = true,
+        description =
+            "Max number of sender accounts of the chain head state cached to validate incoming transactions, 0 to disable the cache (default: ${DEFAULT-VALUE})",
+        arity = "1")
+    private int senderAccountCacheSize =
+        TransactionPoolConfiguration.Unstable.DEFAULT_SENDER_ACCOUNT_CACHE_SIZE;
   }
 
   private TransactionPoolOptions() {}
@@ -358,6 +370,8 @@ public class TransactionPoolOptions implements CLIOptions<TransactionPoolConfigu
         config.getUnstable().getMaxTrackedSeenTxsPerPeer();
     options.unstableOptions.peerTrackerForgetEvictedTxs =
         config.getUnstable().getPeerTrackerForgetEvictedTxs();
+    options.unstableOptions.senderAccountCacheSize =
+        config.getUnstable().getSenderAccountCacheSize();
     return options;
   }
 
@@ -419,6 +433,7 @@ public class TransactionPoolOptions implements CLIOptions<TransactionPoolConfigu
                 .peerTrackerForgetEvictedTxs(
                     Optional.ofNullable(unstableOptions.peerTrackerForgetEvictedTxs)
                         .orElse(deriveDefaultPeersTrackerForgetEvictedTxs(txPoolImplementation)))
+                .senderAccountCacheSize(unstableOptions.senderAccountCacheSize)
                 .build())
         .build();
   }
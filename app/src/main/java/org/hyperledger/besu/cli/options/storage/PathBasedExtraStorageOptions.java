@@ -20,6 +20,9 @@ import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConf
 import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration.MINIMUM_TRIE_LOG_RETENTION_LIMIT;
 import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration.PathBasedUnstable.DEFAULT_CODE_USING_CODE_HASH_ENABLED;
 import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration.PathBasedUnstable.DEFAULT_FULL_FLAT_DB_ENABLED;
+import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration.PathBasedUnstable.DEFAULT_STORAGE_ROOT_THREADS;
+import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration.PathBasedUnstable.DEFAULT_TRIE_LOG_COMPACTION_ENABLED;
+import static org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration.PathBasedUnstable.DEFAULT_TRIE_NODE_CACHE_SIZE;
 
 import org.hyperledger.besu.cli.options.CLIOptions;
 import org.hyperledger.besu.cli.util.CommandLineUtils;
@@ -112,6 +115,30 @@ public class PathBasedExtraStorageOptions
             "Enables parallelization of transactions to optimize processing speed by concurrently loading and executing necessary data in advance. (default: ${DEFAULT-VALUE})")
     private Boolean isParallelTxProcessingEnabled = false;
 
+    @Option(
+        hidden = true,
+        names = {"--Xbonsai-trie-node-cache-size"},
+        arity = "1",
+        description =
+            "Size in bytes of the off-heap cache of trie nodes used to speed up the state root calculation, 0 to disable it. (default: ${DEFAULT-VALUE})")
+    private Long trieNodeCacheSize = DEFAULT_TRIE_NODE_CACHE_SIZE;
+
+    @Option(
+        hidden = true,
+        names = {"--Xbonsai-trie-log-compaction-enabled"},
+        arity = "1",
+        description =
+            "Enables merging consecutive trie logs into range diffs, to roll the world state across many blocks faster. (default: ${DEFAULT-VALUE})")
+    private Boolean trieLogCompactionEnabled = DEFAULT_TRIE_LOG_COMPACTION_ENABLED;
+
+    @Option(
+        hidden = true,
+        names = {"--Xbonsai-storage-root-threads"},
+        arity = "1",
+        description =
+            "Number of threads computing the storage roots of the accounts with many updated slots in parallel, 0 to compute them all on the block processing thread. (default: ${DEFAULT-VALUE})")
+    private Integer storageRootThreads = DEFAULT_STORAGE_ROOT_THREADS;
+
     /** Default Constructor. */
     Unstable() {}
   }
@@ -160,6 +187,20 @@ public class PathBasedExtraStorageOptions
                   maxLayersToLoad));
         }
       }
+      if (unstableOptions.trieNodeCacheSize < 0) {
+        throw new CommandLine.ParameterException(
+            commandLine,
+            String.format(
+                "--Xbonsai-trie-node-cache-size=%d must not be negative",
+                unstableOptions.trieNodeCacheSize));
+      }
+      if (unstableOptions.storageRootThreads < 0) {
+        throw new CommandLine.ParameterException(
+            commandLine,
+            String.format(
+                "--Xbonsai-storage-root-threads=%d must not be negative",
+                unstableOptions.storageRootThreads));
+      }
     } else {
       if (unstableOptions.isParallelTxProcessingEnabled) {
         throw new CommandLine.ParameterException(
@@ -187,6 +228,12 @@ public class PathBasedExtraStorageOptions
         domainObject.getUnstable().getCodeStoredByCodeHashEnabled();
     dataStorageOptions.unstableOptions.isParallelTxProcessingEnabled =
         domainObject.getUnstable().isParallelTxProcessingEnabled();
+    dataStorageOptions.unstableOptions.trieNodeCacheSize =
+        domainObject.getUnstable().getTrieNodeCacheSize();
+    dataStorageOptions.unstableOptions.trieLogCompactionEnabled =
+        domainObject.getUnstable().getTrieLogCompactionEnabled();
+    dataStorageOptions.unstableOptions.storageRootThreads =
+        domainObject.getUnstable().getStorageRootThreads();
 
     return dataStorageOptions;
   }
@@ -202,6 +249,9 @@ public class PathBasedExtraStorageOptions
                 .fullFlatDbEnabled(unstableOptions.fullFlatDbEnabled)
                 .codeStoredByCodeHashEnabled(unstableOptions.codeUsingCodeHashEnabled)
                 .isParallelTxProcessingEnabled(unstableOptions.isParallelTxProcessingEnabled)
+                .trieNodeCacheSize(unstableOptions.trieNodeCacheSize)
+                .trieLogCompactionEnabled(unstableOptions.trieLogCompactionEnabled)
+                .storageRootThreads(unstableOptions.storageRootThreads)
                 .build())
         .build();
   }
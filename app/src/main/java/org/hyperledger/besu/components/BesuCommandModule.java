@@ -25,6 +25,7 @@ import org.hyperledger.besu.cli.options.P2PDiscoveryOptions;
 import org.hyperledger.besu.cli.options.RPCOptions;
 import org.hyperledger.besu.controller.BesuController;
 import org.hyperledger.besu.ethereum.p2p.discovery.P2PDiscoveryConfiguration;
+import org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration;
 import org.hyperledger.besu.metrics.prometheus.MetricsConfiguration;
 import org.hyperledger.besu.services.BesuPluginContextImpl;
 
@@ -67,6 +68,11 @@ public class BesuCommandModule {
     return provideFrom.metricsConfiguration();
   }
 
+  @Provides
+  DataStorageConfiguration provideDataStorageConfiguration(final BesuCommand provideFrom) {
+    return provideFrom.getDataStorageConfiguration();
+  }
+
   @Provides
   @Singleton
   RPCOptions provideRPCOptions() {
@@ -82,12 +82,14 @@ import org.hyperledger.besu.ethereum.mainnet.ProtocolSpec;
 import org.hyperledger.besu.ethereum.p2p.config.NetworkingConfiguration;
 import org.hyperledger.besu.ethereum.p2p.config.SubProtocolConfiguration;
 import org.hyperledger.besu.ethereum.storage.StorageProvider;
+import org.hyperledger.besu.ethereum.storage.keyvalue.CodeAnalysisKeyValueStorage;
 import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier;
 import org.hyperledger.besu.ethereum.transaction.TransactionSimulator;
 import org.hyperledger.besu.ethereum.trie.forest.ForestWorldStateArchive;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.BonsaiWorldStateProvider;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.cache.BonsaiCachedMerkleTrieLoader;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.trielog.TrieLogCompactor;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.trielog.TrieLogManager;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.trielog.TrieLogPruner;
 import org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration;
@@ -97,6 +99,7 @@ import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive.WorldStateHeal
 import org.hyperledger.besu.ethereum.worldstate.WorldStateKeyValueStorage;
 import org.hyperledger.besu.ethereum.worldstate.WorldStatePreimageStorage;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateStorageCoordinator;
+import org.hyperledger.besu.evm.internal.CodeAnalysisStore;
 import org.hyperledger.besu.evm.internal.EvmConfiguration;
 import org.hyperledger.besu.metrics.ObservableMetricsSystem;
 import org.hyperledger.besu.plugin.ServiceManager;
@@ -116,8 +119,11 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import org.slf4j.Logger;
@@ -565,6 +571,15 @@ public abstract class BesuControllerBuilder implements MiningParameterOverrides
     checkNotNull(besuComponent, "Must supply a BesuComponent");
     prepForBuild();
 
+    if (evmConfiguration.persistentCodeAnalysisEnabled()
+        && evmConfiguration.codeAnalysisStore() == CodeAnalysisStore.NONE) {
+      evmConfiguration(
+          evmConfiguration.withCodeAnalysisStore(
+              new CodeAnalysisKeyValueStorage(
+                  storageProvider.getStorageBySegmentIdentifier(
+                      KeyValueSegmentIdentifier.CODE_ANALYSIS))));
+    }
+
     final ProtocolSchedule protocolSchedule = createProtocolSchedule();
 
     final VariablesStorage variablesStorage = storageProvider.createVariablesStorage();
@@ -591,10 +606,27 @@ public abstract class BesuControllerBuilder implements MiningParameterOverrides
             reorgLoggingThreshold,
             dataDirectory.toString(),
             numberOfBlocksToCache);
+    if (evmConfiguration.persistentCodeAnalysisEnabled()) {
+      // every fork has its own EVM and code cache, only the one of the chain head is warmed up so
+      // that the persisted entries are not loaded once per fork.
+      final int warmedUp =
+          protocolSchedule
+              .getByBlockHeader(blockchain.getChainHeadHeader())
+              .getEvm()
+              .warmUpCodeCache();
+      LOG.info("Loaded the code analysis of {} contracts into the code cache", warmedUp);
+    }
     final BonsaiCachedMerkleTrieLoader bonsaiCachedMerkleTrieLoader =
         besuComponent
             .map(BesuComponent::getCachedMerkleTrieLoader)
-            .orElseGet(() -> new BonsaiCachedMerkleTrieLoader(metricsSystem));
+            .orElseGet(
+                () ->
+                    new BonsaiCachedMerkleTrieLoader(
+                        metricsSystem,
+                        dataStorageConfiguration
+                            .getPathBasedExtraStorageConfiguration()
+                            .getUnstable()
+                            .getTrieNodeCacheSize()));
 
     final var worldStateHealerSupplier = new AtomicReference<WorldStateHealer>();
 
@@ -789,22 +821,47 @@ public abstract class BesuControllerBuilder implements MiningParameterOverrides
         createAdditionalJsonRpcMethodFactory(
             protocolContext, protocolSchedule, miningConfiguration);
 
+    final List<Closeable> closeables = new ArrayList<>();
+
     if (DataStorageFormat.BONSAI.equals(dataStorageConfiguration.getDataStorageFormat())) {
       final PathBasedExtraStorageConfiguration subStorageConfiguration =
           dataStorageConfiguration.getPathBasedExtraStorageConfiguration();
+      final TrieLogManager trieLogManager =
+          ((BonsaiWorldStateProvider) worldStateArchive).getTrieLogManager();
       if (subStorageConfiguration.getLimitTrieLogsEnabled()) {
-        final TrieLogManager trieLogManager =
-            ((BonsaiWorldStateProvider) worldStateArchive).getTrieLogManager();
         final BonsaiWorldStateKeyValueStorage worldStateKeyValueStorage =
             worldStateStorageCoordinator.getStrategy(BonsaiWorldStateKeyValueStorage.class);
+        // pruning runs on its own thread, so a backlog of trie logs to prune does not hold up the
+        // service tasks shared with the rest of the node
+        final ExecutorService trieLogPrunerExecutor =
+            MonitoredExecutors.newSingleThreadExecutor("TrieLogPruner", metricsSystem);
+        closeables.add(() -> shutdownTrieLogPrunerExecutor(trieLogPrunerExecutor));
         final TrieLogPruner trieLogPruner =
-            createTrieLogPruner(worldStateKeyValueStorage, blockchain, scheduler);
+            createTrieLogPruner(
+                worldStateKeyValueStorage, blockchain, trieLogPrunerExecutor::execute);
         trieLogManager.subscribe(trieLogPruner);
       }
+      if (subStorageConfiguration.getUnstable().getTrieLogCompactionEnabled()) {
+        final TrieLogCompactor trieLogCompactor =
+            new TrieLogCompactor(
+                storageProvider.getStorageBySegmentIdentifier(
+                    KeyValueSegmentIdentifier.TRIE_LOG_RANGE_DIFF_STORAGE),
+                trieLogManager,
+                blockchain,
+                scheduler::executeServiceTask,
+                subStorageConfiguration.getMaxLayersToLoad());
+        trieLogManager.setTrieLogCompactor(trieLogCompactor);
+        blockchain.observeBlockAdded(trieLogCompactor);
+      }
     }
 
-    final List<Closeable> closeables = new ArrayList<>();
+    closeables.add(peerTaskExecutor::stop);
     closeables.add(protocolContext.getWorldStateArchive());
+    if (evmConfiguration.codeAnalysisStore()
+        instanceof CodeAnalysisKeyValueStorage codeAnalysisKeyValueStorage) {
+      // flushes the pending writes before the storage is closed
+      closeables.add(codeAnalysisKeyValueStorage);
+    }
     closeables.add(storageProvider);
 
     return new BesuController(
@@ -848,7 +905,7 @@ public abstract class BesuControllerBuilder implements MiningParameterOverrides
   private TrieLogPruner createTrieLogPruner(
       final WorldStateKeyValueStorage worldStateStorage,
       final Blockchain blockchain,
-      final EthScheduler scheduler) {
+      final Consumer<Runnable> executeAsync) {
     final boolean isProofOfStake = genesisConfigOptions.getTerminalTotalDifficulty().isPresent();
     final PathBasedExtraStorageConfiguration subStorageConfiguration =
         dataStorageConfiguration.getPathBasedExtraStorageConfiguration();
@@ -856,7 +913,7 @@ public abstract class BesuControllerBuilder implements MiningParameterOverrides
         new TrieLogPruner(
             (BonsaiWorldStateKeyValueStorage) worldStateStorage,
             blockchain,
-            scheduler::executeServiceTask,
+            executeAsync,
             subStorageConfiguration.getMaxLayersToLoad(),
             subStorageConfiguration.getTrieLogPruningWindowSize(),
             isProofOfStake,
@@ -866,6 +923,19 @@ public abstract class BesuControllerBuilder implements MiningParameterOverrides
     return trieLogPruner;
   }
 
+  // lets a running prune finish before the storage it deletes from is closed
+  private static void shutdownTrieLogPrunerExecutor(final ExecutorService executor) {
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+        executor.shutdownNow();
+      }
+    } catch (final InterruptedException e) {
+      executor.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+
   /**
    * Create synchronizer synchronizer.
    *
@@ -1142,6 +1212,17 @@ public abstract class BesuControllerBuilder implements MiningParameterOverrides
       case BONSAI -> {
         final BonsaiWorldStateKeyValueStorage worldStateKeyValueStorage =
             worldStateStorageCoordinator.getStrategy(BonsaiWorldStateKeyValueStorage.class);
+        final int storageRootThreads =
+            dataStorageConfiguration
+                .getPathBasedExtraStorageConfiguration()
+                .getUnstable()
+                .getStorageRootThreads();
+        final Optional<ExecutorService> storageRootExecutor =
+            storageRootThreads > 0
+                ? Optional.of(
+                    MonitoredExecutors.newFixedThreadPool(
+                        "BonsaiStorageRoot", storageRootThreads, storageRootThreads, metricsSystem))
+                : Optional.empty();
 
         yield new BonsaiWorldStateProvider(
             worldStateKeyValueStorage,
@@ -1153,7 +1234,8 @@ public abstract class BesuControllerBuilder implements MiningParameterOverrides
             bonsaiCachedMerkleTrieLoader,
             besuComponent.map(BesuComponent::getBesuPluginContext).orElse(null),
             evmConfiguration,
-            worldStateHealerSupplier);
+            worldStateHealerSupplier,
+            storageRootExecutor);
       }
       case FOREST -> {
         final WorldStatePreimageStorage preimageStorage =
@@ -297,6 +297,32 @@ public class MiningOptionsTest extends AbstractCLIOptionsTest<MiningConfiguratio
         "17000");
   }
 
+  @Test
+  public void speculativeTxSelectionCandidatesDefaultValue() {
+    internalTestSuccess(
+        miningParams ->
+            assertThat(miningParams.getUnstable().getSpeculativeTxSelectionCandidates())
+                .isZero());
+  }
+
+  @Test
+  public void speculativeTxSelectionCandidatesOption() {
+    internalTestSuccess(
+        miningParams ->
+            assertThat(miningParams.getUnstable().getSpeculativeTxSelectionCandidates())
+                .isEqualTo(64),
+        "--Xblock-txs-selection-speculative-candidates",
+        "64");
+  }
+
+  @Test
+  public void speculativeTxSelectionCandidatesCannotBeNegative() {
+    internalTestFailure(
+        "--Xblock-txs-selection-speculative-candidates must be positive or zero",
+        "--Xblock-txs-selection-speculative-candidates",
+        "-1");
+  }
+
   @Test
   public void blockTxsSelectionMaxTimeDefaultValue() {
     internalTestSuccess(
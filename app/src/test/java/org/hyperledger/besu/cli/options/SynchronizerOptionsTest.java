@@ -17,9 +17,11 @@ package org.hyperledger.besu.cli.options;
 import org.hyperledger.besu.ethereum.eth.sync.SynchronizerConfiguration;
 import org.hyperledger.besu.ethereum.eth.sync.snapsync.ImmutableSnapSyncConfiguration;
 import org.hyperledger.besu.ethereum.eth.sync.snapsync.SnapSyncConfiguration;
+import org.hyperledger.besu.services.pipeline.WaitStrategy;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import com.google.common.collect.Range;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -66,6 +68,7 @@ public class SynchronizerOptionsTest
         .downloaderParallelism(SynchronizerConfiguration.DEFAULT_DOWNLOADER_PARALLELISM + 2)
         .transactionsParallelism(SynchronizerConfiguration.DEFAULT_TRANSACTIONS_PARALLELISM + 2)
         .computationParallelism(SynchronizerConfiguration.DEFAULT_COMPUTATION_PARALLELISM + 2)
+        .pipelineWaitStrategy(Optional.of(WaitStrategy.PARK))
         .snapSyncConfiguration(
             ImmutableSnapSyncConfiguration.builder()
                 .pivotBlockWindowValidity(
@@ -79,6 +82,7 @@ public class SynchronizerOptionsTest
                     SnapSyncConfiguration.DEFAULT_BYTECODE_COUNT_PER_REQUEST + 2)
                 .isSnapServerEnabled(Boolean.TRUE)
                 .isSnapSyncTransactionIndexingEnabled(Boolean.TRUE)
+                .isSnapSyncSstIngestionEnabled(Boolean.TRUE)
                 .build())
         .snapSyncSavePreMergeHeadersOnlyEnabled(
             SnapSyncConfiguration.DEFAULT_SNAP_SYNC_SAVE_PRE_MERGE_HEADERS_ONLY_ENABLED);
@@ -152,6 +152,64 @@ public class DataStorageOptionsTest
         "false");
   }
 
+  @Test
+  public void pathbasedTrieNodeCacheSizeCanBeSet() {
+    internalTestSuccess(
+        dataStorageConfiguration ->
+            assertThat(
+                    dataStorageConfiguration
+                        .getPathBasedExtraStorageConfiguration()
+                        .getUnstable()
+                        .getTrieNodeCacheSize())
+                .isEqualTo(1_073_741_824L),
+        "--Xbonsai-trie-node-cache-size",
+        "1073741824");
+  }
+
+  @Test
+  public void pathbasedTrieLogCompactionCanBeEnabled() {
+    internalTestSuccess(
+        dataStorageConfiguration ->
+            assertThat(
+                    dataStorageConfiguration
+                        .getPathBasedExtraStorageConfiguration()
+                        .getUnstable()
+                        .getTrieLogCompactionEnabled())
+                .isTrue(),
+        "--Xbonsai-trie-log-compaction-enabled",
+        "true");
+  }
+
+  @Test
+  public void pathbasedTrieNodeCacheSizeShouldNotBeNegative() {
+    internalTestFailure(
+        "--Xbonsai-trie-node-cache-size=-1 must not be negative",
+        "--Xbonsai-trie-node-cache-size",
+        "-1");
+  }
+
+  @Test
+  public void pathbasedStorageRootThreadsCanBeSet() {
+    internalTestSuccess(
+        dataStorageConfiguration ->
+            assertThat(
+                    dataStorageConfiguration
+                        .getPathBasedExtraStorageConfiguration()
+                        .getUnstable()
+                        .getStorageRootThreads())
+                .isEqualTo(2),
+        "--Xbonsai-storage-root-threads",
+        "2");
+  }
+
+  @Test
+  public void pathbasedStorageRootThreadsShouldNotBeNegative() {
+    internalTestFailure(
+        "--Xbonsai-storage-root-threads=-1 must not be negative",
+        "--Xbonsai-storage-root-threads",
+        "-1");
+  }
+
   @Test
   public void receiptCompactionCanBeEnabledWithImplicitTrueValue() {
     internalTestSuccess(
@@ -25,6 +25,7 @@ import org.hyperledger.besu.datatypes.TransactionType;
 import org.hyperledger.besu.datatypes.Wei;
 import org.hyperledger.besu.ethereum.ProtocolContext;
 import org.hyperledger.besu.ethereum.blockcreation.txselection.BlockTransactionSelector;
+import org.hyperledger.besu.ethereum.blockcreation.txselection.SpeculativeTransactionExecutor;
 import org.hyperledger.besu.ethereum.blockcreation.txselection.TransactionSelectionResults;
 import org.hyperledger.besu.ethereum.core.Block;
 import org.hyperledger.besu.ethereum.core.BlockBody;
@@ -51,10 +52,12 @@ import org.hyperledger.besu.ethereum.mainnet.feemarket.ExcessBlobGasCalculator;
 import org.hyperledger.besu.ethereum.mainnet.requests.RequestProcessingContext;
 import org.hyperledger.besu.ethereum.mainnet.requests.RequestProcessorCoordinator;
 import org.hyperledger.besu.ethereum.mainnet.systemcall.BlockProcessingContext;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.PathBasedWorldState;
 import org.hyperledger.besu.evm.account.MutableAccount;
 import org.hyperledger.besu.evm.worldstate.WorldUpdater;
 import org.hyperledger.besu.plugin.services.exception.StorageException;
 import org.hyperledger.besu.plugin.services.securitymodule.SecurityModuleException;
+import org.hyperledger.besu.plugin.services.tracer.BlockAwareOperationTracer;
 import org.hyperledger.besu.plugin.services.txselection.PluginTransactionSelector;
 import org.hyperledger.besu.plugin.services.txselection.SelectorsStateManager;
 
@@ -356,6 +359,27 @@ public abstract class AbstractBlockCreator implements AsyncBlockCreator {
     return null;
   }
 
+  /**
+   * Speculative execution is only possible when selecting from the pool on a Bonsai world state,
+   * and when no plugin needs to trace the execution of the transactions.
+   */
+  private Optional<SpeculativeTransactionExecutor> createSpeculativeExecutor(
+      final MutableWorldState disposableWorldState,
+      final Optional<List<Transaction>> transactions,
+      final MainnetTransactionProcessor transactionProcessor,
+      final PluginTransactionSelector pluginTransactionSelector) {
+    final int candidates = miningConfiguration.getUnstable().getSpeculativeTxSelectionCandidates();
+    if (candidates > 0
+        && transactions.isEmpty()
+        && disposableWorldState instanceof PathBasedWorldState
+        && pluginTransactionSelector.getOperationTracer() == BlockAwareOperationTracer.NO_TRACING) {
+      return Optional.of(
+          new SpeculativeTransactionExecutor(
+              protocolContext, transactionProcessor, ethScheduler, candidates));
+    }
+    return Optional.empty();
+  }
+
   private TransactionSelectionResults selectTransactions(
       final ProcessableBlockHeader processableBlockHeader,
       final MutableWorldState disposableWorldState,
@@ -394,7 +418,12 @@ public abstract class AbstractBlockCreator implements AsyncBlockCreator {
             protocolSpec.getBlockHashProcessor(),
             pluginTransactionSelector,
             ethScheduler,
-            selectorsStateManager);
+            selectorsStateManager,
+            createSpeculativeExecutor(
+                disposableWorldState,
+                transactions,
+                transactionProcessor,
+                pluginTransactionSelector));
 
     if (transactions.isPresent()) {
       return selector.evaluateTransactions(transactions.get());
@@ -14,6 +14,7 @@
  */
 package org.hyperledger.besu.ethereum.blockcreation.txselection;
 
+import static org.hyperledger.besu.plugin.data.TransactionSelectionResult.BLOCK_FULL;
 import static org.hyperledger.besu.plugin.data.TransactionSelectionResult.BLOCK_SELECTION_TIMEOUT;
 import static org.hyperledger.besu.plugin.data.TransactionSelectionResult.BLOCK_SELECTION_TIMEOUT_INVALID_TX;
 import static org.hyperledger.besu.plugin.data.TransactionSelectionResult.INVALID_TX_EVALUATION_TOO_LONG;
@@ -45,6 +46,7 @@ import org.hyperledger.besu.ethereum.mainnet.MainnetTransactionProcessor;
 import org.hyperledger.besu.ethereum.mainnet.TransactionValidationParams;
 import org.hyperledger.besu.ethereum.mainnet.blockhash.BlockHashProcessor;
 import org.hyperledger.besu.ethereum.mainnet.feemarket.FeeMarket;
+import org.hyperledger.besu.ethereum.mainnet.parallelization.ParallelizedTransactionContext;
 import org.hyperledger.besu.ethereum.processing.TransactionProcessingResult;
 import org.hyperledger.besu.evm.blockhash.BlockHashLookup;
 import org.hyperledger.besu.evm.gascalculator.GasCalculator;
@@ -58,7 +60,10 @@ import org.hyperledger.besu.plugin.services.txselection.SelectorsStateManager;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.FutureTask;
@@ -114,6 +119,7 @@ public class BlockTransactionSelector implements BlockTransactionSelectionServic
   private WorldUpdater txWorldStateUpdater;
   private volatile TransactionEvaluationContext currTxEvaluationContext;
   private final List<Runnable> selectedTxPendingActions = new ArrayList<>(1);
+  private final Optional<SpeculativeTransactionExecutor> speculativeExecutor;
 
   public BlockTransactionSelector(
       final MiningConfiguration miningConfiguration,
@@ -132,13 +138,15 @@ public class BlockTransactionSelector implements BlockTransactionSelectionServic
       final BlockHashProcessor blockHashProcessor,
       final PluginTransactionSelector pluginTransactionSelector,
       final EthScheduler ethScheduler,
-      final SelectorsStateManager selectorsStateManager) {
+      final SelectorsStateManager selectorsStateManager,
+      final Optional<SpeculativeTransactionExecutor> speculativeExecutor) {
     this.transactionProcessor = transactionProcessor;
     this.blockchain = blockchain;
     this.worldState = worldState;
     this.transactionReceiptFactory = transactionReceiptFactory;
     this.isCancelled = isCancelled;
     this.ethScheduler = ethScheduler;
+    this.speculativeExecutor = speculativeExecutor;
     this.blockSelectionContext =
         new BlockSelectionContext(
             miningConfiguration,
@@ -184,7 +192,16 @@ public class BlockTransactionSelector implements BlockTransactionSelectionServic
    *     evaluation.
    */
   public TransactionSelectionResults buildTransactionListForBlock() {
-    timeLimitedSelection();
+    try {
+      // collecting the candidates is done before starting the time limited selection, so it does
+      // not reduce the time available to select the transactions
+      speculativeExecutor.ifPresent(this::startSpeculativeExecution);
+      timeLimitedSelection();
+    } finally {
+      speculativeExecutor.ifPresent(
+          executor ->
+              LOG.debug("Speculative execution results used for {} transactions", executor.stop()));
+    }
     LOG.atTrace()
         .setMessage("Transaction selection result {}")
         .addArgument(transactionSelectionResults::toTraceLog)
@@ -241,6 +258,34 @@ public class BlockTransactionSelector implements BlockTransactionSelectionServic
     }
   }
 
+  /**
+   * Collects the best candidates from the pool, without evaluating them, and starts their
+   * speculative execution, so they could be already executed when the selection reaches them. Only
+   * the first transaction of each sender is a candidate, since the following ones are executed on
+   * the parent state, where they would always fail with a nonce too high.
+   *
+   * @param executor the speculative executor
+   */
+  private void startSpeculativeExecution(final SpeculativeTransactionExecutor executor) {
+    final List<PendingTransaction> candidates = new ArrayList<>(executor.getMaxCandidates());
+    final Set<Address> senders = new HashSet<>();
+    blockSelectionContext
+        .transactionPool()
+        .selectTransactions(
+            candidate -> {
+              if (senders.add(candidate.getTransaction().getSender())) {
+                candidates.add(candidate);
+              }
+              return candidates.size() < executor.getMaxCandidates() ? SELECTED : BLOCK_FULL;
+            });
+    executor.start(
+        blockSelectionContext.pendingBlockHeader(),
+        candidates,
+        blockSelectionContext.miningBeneficiary(),
+        this::createBlockHashLookup,
+        blockSelectionContext.blobGasPrice());
+  }
+
   private void cancelEvaluatingTxWithGraceTime(final FutureTask<Void> txSelectionTask) {
     final long elapsedTime =
         currTxEvaluationContext.getEvaluationTimer().elapsed(TimeUnit.MILLISECONDS);
@@ -331,8 +376,29 @@ public class BlockTransactionSelector implements BlockTransactionSelectionServic
       return handleTransactionNotSelected(evaluationContext, selectionResult);
     }
 
+    final Optional<ParallelizedTransactionContext> maybeSpeculativeResult =
+        speculativeExecutor.flatMap(
+            executor ->
+                executor.getValidResult(
+                    evaluationContext.getTransaction(),
+                    blockSelectionContext.miningBeneficiary(),
+                    blockWorldStateUpdater));
+
+    // a speculative result is applied to the transaction updater, like a normal execution, so its
+    // changes are visible to the post-processing selectors and committed or rolled back with it
+    maybeSpeculativeResult.ifPresent(
+        speculativeResult ->
+            speculativeExecutor
+                .orElseThrow()
+                .apply(
+                    speculativeResult,
+                    blockSelectionContext.miningBeneficiary(),
+                    txWorldStateUpdater));
+
     final TransactionProcessingResult processingResult =
-        processTransaction(evaluationContext.getTransaction());
+        maybeSpeculativeResult
+            .map(ParallelizedTransactionContext::transactionProcessingResult)
+            .orElseGet(() -> processTransaction(evaluationContext.getTransaction()));
 
     txWorldStateUpdater.markTransactionBoundary();
 
@@ -445,21 +511,23 @@ public class BlockTransactionSelector implements BlockTransactionSelectionServic
    * @return The result of the transaction processing.
    */
   private TransactionProcessingResult processTransaction(final Transaction transaction) {
-    final BlockHashLookup blockHashLookup =
-        blockSelectionContext
-            .blockHashProcessor()
-            .createBlockHashLookup(blockchain, blockSelectionContext.pendingBlockHeader());
     return transactionProcessor.processTransaction(
         txWorldStateUpdater,
         blockSelectionContext.pendingBlockHeader(),
         transaction,
         blockSelectionContext.miningBeneficiary(),
         operationTracer,
-        blockHashLookup,
+        createBlockHashLookup(),
         TransactionValidationParams.mining(),
         blockSelectionContext.blobGasPrice());
   }
 
+  private BlockHashLookup createBlockHashLookup() {
+    return blockSelectionContext
+        .blockHashProcessor()
+        .createBlockHashLookup(blockchain, blockSelectionContext.pendingBlockHeader());
+  }
+
   /**
    * Handles a selected transaction by committing the world state updates, creating a transaction
    * receipt, updating the TransactionSelectionResults with the selected transaction, and notifying
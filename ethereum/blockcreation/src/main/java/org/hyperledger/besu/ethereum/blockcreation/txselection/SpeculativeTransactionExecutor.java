@@ -0,0 +1,335 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.blockcreation.txselection;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.ProtocolContext;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.ProcessableBlockHeader;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.eth.manager.EthScheduler;
+import org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction;
+import org.hyperledger.besu.ethereum.mainnet.MainnetTransactionProcessor;
+import org.hyperledger.besu.ethereum.mainnet.TransactionValidationParams;
+import org.hyperledger.besu.ethereum.mainnet.parallelization.ParallelizedTransactionContext;
+import org.hyperledger.besu.ethereum.mainnet.parallelization.TransactionCollisionDetector;
+import org.hyperledger.besu.ethereum.processing.TransactionProcessingResult;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.BonsaiWorldState;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.PathBasedAccount;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.PathBasedValue;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.provider.WorldStateQueryParams;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.accumulator.PathBasedWorldStateUpdateAccumulator;
+import org.hyperledger.besu.evm.account.MutableAccount;
+import org.hyperledger.besu.evm.blockhash.BlockHashLookup;
+import org.hyperledger.besu.evm.tracing.OperationTracer;
+import org.hyperledger.besu.evm.worldstate.WorldUpdater;
+import org.hyperledger.besu.evm.worldstate.WorldView;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes the best candidates for a new block speculatively and in parallel, while the block
+ * transaction selector evaluates them one by one in priority order.
+ *
+ * <p>Every candidate is executed on its own accumulator, on top of the state of the parent block.
+ * When the selector reaches a candidate, the speculative result is used only if it completed
+ * successfully and the {@link TransactionCollisionDetector} reports that it did not touch any
+ * account or slot already modified by the block under construction, otherwise the candidate is
+ * executed again on the block state, as without speculation. Only Bonsai world states are
+ * supported, and the parent must be the chain head.
+ *
+ * <p>The executions run on the computation workers of the {@link EthScheduler}, so they share the
+ * bounded pool of the other CPU bound tasks of the node and are stopped with it.
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class SpeculativeTransactionExecutor {
+  private static final Logger LOG = LoggerFactory.getLogger(SpeculativeTransactionExecutor.class);
+
+  private final ProtocolContext protocolContext;
+  private final MainnetTransactionProcessor transactionProcessor;
+  private final EthScheduler ethScheduler;
+  private final TransactionCollisionDetector transactionCollisionDetector;
+  private final int maxCandidates;
+  private final Map<Hash, CompletableFuture<Optional<ParallelizedTransactionContext>>>
+      executionsByHash = new ConcurrentHashMap<>();
+  private final AtomicInteger usedCount = new AtomicInteger();
+
+  public SpeculativeTransactionExecutor(
+      final ProtocolContext protocolContext,
+      final MainnetTransactionProcessor transactionProcessor,
+      final EthScheduler ethScheduler,
+      final int maxCandidates) {
+    this.protocolContext = protocolContext;
+    this.transactionProcessor = transactionProcessor;
+    this.ethScheduler = ethScheduler;
+    this.transactionCollisionDetector = new TransactionCollisionDetector();
+    this.maxCandidates = maxCandidates;
+  }
+
+  /**
+   * The max number of candidates to execute speculatively
+   *
+   * @return the max number of candidates
+   */
+  public int getMaxCandidates() {
+    return maxCandidates;
+  }
+
+  /**
+   * Start the speculative execution of the candidates, that is skipped if the parent of the block
+   * is not the chain head anymore.
+   *
+   * @param blockHeader the header of the block under construction
+   * @param candidates the candidates, in priority order, at most one for each sender
+   * @param miningBeneficiary the beneficiary of the block
+   * @param blockHashLookupFactory creates a block hash lookup for each execution
+   * @param blobGasPrice the blob gas price of the block
+   */
+  public void start(
+      final ProcessableBlockHeader blockHeader,
+      final List<PendingTransaction> candidates,
+      final Address miningBeneficiary,
+      final Supplier<BlockHashLookup> blockHashLookupFactory,
+      final Wei blobGasPrice) {
+    final BlockHeader chainHeadHeader = protocolContext.getBlockchain().getChainHeadHeader();
+    if (!chainHeadHeader.getHash().equals(blockHeader.getParentHash())) {
+      LOG.debug("Parent of the block is not the chain head, skipping speculative execution");
+      return;
+    }
+    for (final PendingTransaction candidate : candidates) {
+      final Transaction transaction = candidate.getTransaction();
+      executionsByHash.put(
+          transaction.getHash(),
+          ethScheduler.scheduleComputationTask(
+              () ->
+                  execute(
+                      chainHeadHeader,
+                      blockHeader,
+                      transaction,
+                      miningBeneficiary,
+                      blockHashLookupFactory.get(),
+                      blobGasPrice)));
+    }
+  }
+
+  /**
+   * Get the speculative result of the transaction, if its execution has already completed
+   * successfully and it does not collide with the changes of the block under construction.
+   * Executions not yet completed are cancelled, since the transaction is going to be executed on
+   * the block state anyway.
+   *
+   * @param transaction the transaction
+   * @param miningBeneficiary the beneficiary of the block
+   * @param blockUpdater the updater with the changes of the block under construction, that is the
+   *     accumulator of the Bonsai world state
+   * @return the speculative result if it can be used in place of a new execution
+   */
+  public Optional<ParallelizedTransactionContext> getValidResult(
+      final Transaction transaction,
+      final Address miningBeneficiary,
+      final WorldUpdater blockUpdater) {
+    final var execution = executionsByHash.remove(transaction.getHash());
+    if (execution == null) {
+      return Optional.empty();
+    }
+    if (!execution.isDone()) {
+      execution.cancel(false);
+      return Optional.empty();
+    }
+    final Optional<ParallelizedTransactionContext> maybeContext =
+        execution.getNow(Optional.empty());
+    return maybeContext.filter(
+        context ->
+            context.transactionProcessingResult().isSuccessful()
+                && !transactionCollisionDetector.hasCollision(
+                    transaction,
+                    miningBeneficiary,
+                    context,
+                    (PathBasedWorldStateUpdateAccumulator) blockUpdater));
+  }
+
+  /**
+   * Apply a speculative result, previously returned by {@link #getValidResult}, to the updater of
+   * the transaction under evaluation, so the changes are visible to the post-processing selectors,
+   * and are then committed to the block or rolled back like the ones of a normal execution.
+   *
+   * @param context the speculative result
+   * @param miningBeneficiary the beneficiary of the block
+   * @param txUpdater the updater of the transaction under evaluation
+   */
+  public void apply(
+      final ParallelizedTransactionContext context,
+      final Address miningBeneficiary,
+      final WorldUpdater txUpdater) {
+    final PathBasedWorldStateUpdateAccumulator<?> source = context.transactionAccumulator();
+    source
+        .getAccountsToUpdate()
+        .forEach((address, value) -> applyAccountChanges(source, address, value, txUpdater));
+    final Wei reward = context.miningBeneficiaryReward();
+    if (!reward.isZero() || !transactionProcessor.getClearEmptyAccounts()) {
+      txUpdater.getOrCreate(miningBeneficiary).incrementBalance(reward);
+    }
+    usedCount.incrementAndGet();
+  }
+
+  private void applyAccountChanges(
+      final PathBasedWorldStateUpdateAccumulator<?> source,
+      final Address address,
+      final PathBasedValue<? extends PathBasedAccount> value,
+      final WorldUpdater txUpdater) {
+    final PathBasedAccount updated = value.getUpdated();
+    if (updated == null) {
+      if (value.getPrior() != null) {
+        txUpdater.deleteAccount(address);
+      }
+      return;
+    }
+    final boolean storageCleared = source.getStorageToClear().contains(address);
+    final var slots = source.getStorageToUpdate().get(address);
+    final boolean storageChanged =
+        slots != null && slots.values().stream().anyMatch(slot -> !slot.isUnchanged());
+    final PathBasedValue<Bytes> code = source.getCodeToUpdate().get(address);
+    final boolean codeChanged = code != null && !code.isUnchanged();
+    if (!isAccountChanged(value) && !storageCleared && !storageChanged && !codeChanged) {
+      // only read by the transaction
+      return;
+    }
+    final MutableAccount account = txUpdater.getOrCreate(address);
+    if (storageCleared) {
+      account.clearStorage();
+    }
+    account.setNonce(updated.getNonce());
+    account.setBalance(updated.getBalance());
+    if (codeChanged) {
+      account.setCode(code.getUpdated() == null ? Bytes.EMPTY : code.getUpdated());
+    }
+    if (slots != null) {
+      slots.forEach(
+          (slotKey, slot) -> {
+            if (!slot.isUnchanged()) {
+              account.setStorageValue(
+                  slotKey.getSlotKey().orElseThrow(),
+                  slot.getUpdated() == null ? UInt256.ZERO : slot.getUpdated());
+            }
+          });
+    }
+  }
+
+  private boolean isAccountChanged(final PathBasedValue<? extends PathBasedAccount> value) {
+    final PathBasedAccount prior = value.getPrior();
+    final PathBasedAccount updated = value.getUpdated();
+    if (prior == null || updated == null) {
+      return prior != updated;
+    }
+    return prior.getNonce() != updated.getNonce()
+        || !prior.getBalance().equals(updated.getBalance())
+        || !prior.getCodeHash().equals(updated.getCodeHash());
+  }
+
+  /**
+   * Cancel the executions that are still pending, to be called when the selection is over.
+   *
+   * @return the number of speculative results that have been applied to the block
+   */
+  public int stop() {
+    executionsByHash.values().forEach(execution -> execution.cancel(false));
+    executionsByHash.clear();
+    return usedCount.get();
+  }
+
+  private Optional<ParallelizedTransactionContext> execute(
+      final BlockHeader parentHeader,
+      final ProcessableBlockHeader blockHeader,
+      final Transaction transaction,
+      final Address miningBeneficiary,
+      final BlockHashLookup blockHashLookup,
+      final Wei blobGasPrice) {
+    try (BonsaiWorldState ws =
+        (BonsaiWorldState)
+            protocolContext
+                .getWorldStateArchive()
+                .getWorldState(
+                    WorldStateQueryParams.withBlockHeaderAndNoUpdateNodeHead(parentHeader))
+                .orElse(null)) {
+      if (ws == null) {
+        return Optional.empty();
+      }
+      ws.disableCacheMerkleTrieLoader();
+      final ParallelizedTransactionContext.Builder contextBuilder =
+          new ParallelizedTransactionContext.Builder();
+      final PathBasedWorldStateUpdateAccumulator<?> transactionUpdater =
+          (PathBasedWorldStateUpdateAccumulator<?>) ws.updater();
+      final TransactionProcessingResult result =
+          transactionProcessor.processTransaction(
+              transactionUpdater,
+              blockHeader,
+              transaction.detachedCopy(),
+              miningBeneficiary,
+              new OperationTracer() {
+                @Override
+                public void traceBeforeRewardTransaction(
+                    final WorldView worldView,
+                    final org.hyperledger.besu.datatypes.Transaction tx,
+                    final Wei miningReward) {
+                  // the beneficiary is only relevant for the collision detection if it was
+                  // accessed before receiving the reward
+                  if (transactionCollisionDetector
+                      .getAddressesTouchedByTransaction(
+                          transaction, Optional.of(transactionUpdater))
+                      .contains(miningBeneficiary)) {
+                    contextBuilder.isMiningBeneficiaryTouchedPreRewardByTransaction(true);
+                  }
+                  contextBuilder.miningBeneficiaryReward(miningReward);
+                }
+              },
+              blockHashLookup,
+              TransactionValidationParams.mining(),
+              blobGasPrice);
+
+      ws.getAccumulator().commit();
+
+      final ParallelizedTransactionContext context =
+          contextBuilder
+              .transactionAccumulator(ws.getAccumulator())
+              .transactionProcessingResult(result)
+              .build();
+      if (!context.isMiningBeneficiaryTouchedPreRewardByTransaction()) {
+        // the reward is added when the result is applied to the block
+        transactionUpdater.getAccountsToUpdate().remove(miningBeneficiary);
+      }
+      return Optional.of(context);
+    } catch (final Exception e) {
+      LOG.atTrace()
+          .setMessage("Speculative execution of {} failed")
+          .addArgument(transaction::toTraceLog)
+          .setCause(e)
+          .log();
+      return Optional.empty();
+    }
+  }
+}
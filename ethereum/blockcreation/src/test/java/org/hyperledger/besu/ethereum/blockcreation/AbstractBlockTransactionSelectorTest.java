@@ -33,7 +33,10 @@ import static org.hyperledger.besu.plugin.data.TransactionSelectionResult.SELECT
 import static org.hyperledger.besu.plugin.data.TransactionSelectionResult.TX_EVALUATION_TOO_LONG;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -48,6 +51,7 @@ import org.hyperledger.besu.datatypes.Wei;
 import org.hyperledger.besu.ethereum.GasLimitCalculator;
 import org.hyperledger.besu.ethereum.ProtocolContext;
 import org.hyperledger.besu.ethereum.blockcreation.txselection.BlockTransactionSelector;
+import org.hyperledger.besu.ethereum.blockcreation.txselection.SpeculativeTransactionExecutor;
 import org.hyperledger.besu.ethereum.blockcreation.txselection.TransactionSelectionResults;
 import org.hyperledger.besu.ethereum.chain.BadBlockManager;
 import org.hyperledger.besu.ethereum.chain.DefaultBlockchain;
@@ -75,6 +79,7 @@ import org.hyperledger.besu.ethereum.mainnet.MainnetTransactionProcessor;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.ethereum.mainnet.ValidationResult;
 import org.hyperledger.besu.ethereum.mainnet.feemarket.FeeMarket;
+import org.hyperledger.besu.ethereum.mainnet.parallelization.ParallelizedTransactionContext;
 import org.hyperledger.besu.ethereum.processing.TransactionProcessingResult;
 import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBlockchainStorage;
 import org.hyperledger.besu.ethereum.storage.keyvalue.VariablesKeyValueStorage;
@@ -83,6 +88,7 @@ import org.hyperledger.besu.ethereum.trie.pathbased.common.provider.WorldStateQu
 import org.hyperledger.besu.evm.gascalculator.GasCalculator;
 import org.hyperledger.besu.evm.gascalculator.LondonGasCalculator;
 import org.hyperledger.besu.evm.internal.EvmConfiguration;
+import org.hyperledger.besu.evm.worldstate.WorldUpdater;
 import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
 import org.hyperledger.besu.plugin.data.TransactionSelectionResult;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
@@ -119,6 +125,7 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.Answers;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
@@ -866,6 +873,107 @@ public abstract class AbstractBlockTransactionSelectorTest {
                     TransactionInvalidReason.NONCE_TOO_HIGH.name())));
   }
 
+  @Test
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public void speculativeExecutionHasAtMostOneCandidateForEachSender() {
+    final Transaction tx0Sender1 = createTransaction(0, Wei.of(10), 21_000, SENDER1);
+    final Transaction tx1Sender1 = createTransaction(1, Wei.of(10), 21_000, SENDER1);
+    final Transaction tx0Sender2 = createTransaction(0, Wei.of(10), 21_000, SENDER2);
+    ensureTransactionIsValid(tx0Sender1, 21_000, 0);
+    ensureTransactionIsValid(tx1Sender1, 21_000, 0);
+    ensureTransactionIsValid(tx0Sender2, 21_000, 0);
+
+    final SpeculativeTransactionExecutor speculativeExecutor =
+        mock(SpeculativeTransactionExecutor.class);
+    when(speculativeExecutor.getMaxCandidates()).thenReturn(3);
+
+    transactionPool = createTransactionPool();
+    transactionPool.addRemoteTransactions(List.of(tx0Sender1, tx1Sender1, tx0Sender2));
+
+    final TransactionSelectionResults results =
+        createBlockSelector(
+                defaultTestMiningConfiguration,
+                transactionProcessor,
+                createBlock(300_000),
+                AddressHelpers.ofValue(1),
+                Wei.ZERO,
+                transactionSelectionService,
+                Optional.of(speculativeExecutor))
+            .buildTransactionListForBlock();
+
+    final ArgumentCaptor<List> candidatesCaptor = ArgumentCaptor.forClass(List.class);
+    verify(speculativeExecutor).start(any(), candidatesCaptor.capture(), any(), any(), any());
+    assertThat(candidatesCaptor.getValue())
+        .extracting("transaction")
+        .containsExactlyInAnyOrder(tx0Sender1, tx0Sender2);
+
+    // without a speculative result the transactions are executed as usual
+    assertThat(results.getSelectedTransactions())
+        .containsExactlyInAnyOrder(tx0Sender1, tx1Sender1, tx0Sender2);
+    verify(speculativeExecutor).stop();
+  }
+
+  @Test
+  public void speculativeResultIsAppliedBeforePostProcessingAndCommittedWithTheTransaction() {
+    final PluginTransactionSelectorFactory transactionSelectorFactory =
+        mock(PluginTransactionSelectorFactory.class);
+    final PluginTransactionSelector transactionSelector = mock(PluginTransactionSelector.class);
+    when(transactionSelector.evaluateTransactionPreProcessing(any())).thenReturn(SELECTED);
+    when(transactionSelector.evaluateTransactionPostProcessing(any(), any())).thenReturn(SELECTED);
+    when(transactionSelectorFactory.create(any())).thenReturn(transactionSelector);
+    transactionSelectionService.registerPluginTransactionSelectorFactory(
+        transactionSelectorFactory);
+
+    final Transaction transaction = createTransaction(0, Wei.of(10), 21_000);
+    final TransactionProcessingResult speculativeProcessingResult =
+        TransactionProcessingResult.successful(
+            new ArrayList<>(), 21_000, 0, Bytes.EMPTY, ValidationResult.valid());
+    final ParallelizedTransactionContext speculativeResult =
+        new ParallelizedTransactionContext(null, speculativeProcessingResult, false, Wei.ZERO);
+    final Address changedAddress = Address.fromHexString("0x99");
+
+    final SpeculativeTransactionExecutor speculativeExecutor =
+        mock(SpeculativeTransactionExecutor.class);
+    when(speculativeExecutor.getMaxCandidates()).thenReturn(1);
+    when(speculativeExecutor.getValidResult(any(), any(), any()))
+        .thenReturn(Optional.of(speculativeResult));
+    doAnswer(
+            invocation -> {
+              final WorldUpdater txUpdater = invocation.getArgument(2);
+              txUpdater.getOrCreate(changedAddress).setBalance(Wei.of(99));
+              return null;
+            })
+        .when(speculativeExecutor)
+        .apply(eq(speculativeResult), any(), any());
+
+    transactionPool = createTransactionPool();
+    transactionPool.addRemoteTransactions(List.of(transaction));
+
+    final TransactionSelectionResults results =
+        createBlockSelector(
+                defaultTestMiningConfiguration,
+                transactionProcessor,
+                createBlock(300_000),
+                AddressHelpers.ofValue(1),
+                Wei.ZERO,
+                transactionSelectionService,
+                Optional.of(speculativeExecutor))
+            .buildTransactionListForBlock();
+
+    assertThat(results.getSelectedTransactions()).containsExactly(transaction);
+    verify(transactionProcessor, never())
+        .processTransaction(any(), any(), any(), any(), any(), any(), any(), any());
+
+    // the plugin selectors evaluate the speculative result, after it has been applied
+    final InOrder inOrder = inOrder(speculativeExecutor, transactionSelector);
+    inOrder.verify(speculativeExecutor).apply(eq(speculativeResult), any(), any());
+    inOrder
+        .verify(transactionSelector)
+        .evaluateTransactionPostProcessing(any(), eq(speculativeProcessingResult));
+
+    assertThat(worldState.get(changedAddress).getBalance()).isEqualTo(Wei.of(99));
+  }
+
   @Test
   public void increaseOfMinGasPriceAtRuntimeExcludeTxFromBeingSelected() {
     final Transaction transaction = createTransaction(0, Wei.of(7L), 100_000);
@@ -1334,6 +1442,24 @@ public abstract class AbstractBlockTransactionSelectorTest {
       final Address miningBeneficiary,
       final Wei blobGasPrice,
       final TransactionSelectionService transactionSelectionService) {
+    return createBlockSelector(
+        miningConfiguration,
+        transactionProcessor,
+        blockHeader,
+        miningBeneficiary,
+        blobGasPrice,
+        transactionSelectionService,
+        Optional.empty());
+  }
+
+  protected BlockTransactionSelector createBlockSelector(
+      final MiningConfiguration miningConfiguration,
+      final MainnetTransactionProcessor transactionProcessor,
+      final ProcessableBlockHeader blockHeader,
+      final Address miningBeneficiary,
+      final Wei blobGasPrice,
+      final TransactionSelectionService transactionSelectionService,
+      final Optional<SpeculativeTransactionExecutor> speculativeExecutor) {
 
     final var selectorsStateManager = new SelectorsStateManager();
     final BlockTransactionSelector selector =
@@ -1354,7 +1480,8 @@ public abstract class AbstractBlockTransactionSelectorTest {
             protocolSchedule.getByBlockHeader(blockHeader).getBlockHashProcessor(),
             transactionSelectionService.createPluginTransactionSelector(selectorsStateManager),
             ethScheduler,
-            selectorsStateManager);
+            selectorsStateManager,
+            speculativeExecutor);
 
     return selector;
   }
@@ -0,0 +1,244 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.blockcreation.txselection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.WorldStateConfig.createStatefulConfigWithTrie;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.ProtocolContext;
+import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.eth.manager.EthScheduler;
+import org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction;
+import org.hyperledger.besu.ethereum.mainnet.MainnetTransactionProcessor;
+import org.hyperledger.besu.ethereum.mainnet.ValidationResult;
+import org.hyperledger.besu.ethereum.mainnet.parallelization.ParallelizedTransactionContext;
+import org.hyperledger.besu.ethereum.processing.TransactionProcessingResult;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.cache.NoOpBonsaiCachedWorldStorageManager;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.cache.NoopBonsaiCachedMerkleTrieLoader;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.BonsaiWorldState;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.trielog.NoOpTrieLogManager;
+import org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+import org.hyperledger.besu.evm.blockhash.BlockHashLookup;
+import org.hyperledger.besu.evm.internal.EvmConfiguration;
+import org.hyperledger.besu.evm.worldstate.WorldUpdater;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SpeculativeTransactionExecutorTest {
+  private static final Address SENDER = Address.fromHexString("0x10");
+  private static final Address CONTRACT = Address.fromHexString("0x20");
+  private static final Address OTHER = Address.fromHexString("0x30");
+  private static final Address MINING_BENEFICIARY = Address.fromHexString("0x40");
+  private static final UInt256 SLOT = UInt256.ONE;
+  private static final UInt256 SLOT_VALUE = UInt256.valueOf(42);
+
+  private final MainnetTransactionProcessor transactionProcessor =
+      mock(MainnetTransactionProcessor.class);
+  private final EthScheduler ethScheduler = mock(EthScheduler.class);
+  private final BlockHeader blockHeader = mock(BlockHeader.class);
+  private final Transaction transaction = mock(Transaction.class);
+  private final PendingTransaction pendingTransaction = mock(PendingTransaction.class);
+
+  private BonsaiWorldStateKeyValueStorage worldStateStorage;
+  private WorldUpdater blockUpdater;
+  private SpeculativeTransactionExecutor executor;
+
+  @BeforeEach
+  void setUp() {
+    worldStateStorage =
+        new BonsaiWorldStateKeyValueStorage(
+            new InMemoryKeyValueStorageProvider(),
+            new NoOpMetricsSystem(),
+            DataStorageConfiguration.DEFAULT_BONSAI_CONFIG);
+    blockUpdater = newWorldState().updater();
+
+    final BlockHeader chainHeadHeader = mock(BlockHeader.class);
+    when(chainHeadHeader.getHash()).thenReturn(Hash.ZERO);
+    when(blockHeader.getParentHash()).thenReturn(Hash.ZERO);
+
+    final ProtocolContext protocolContext = mock(ProtocolContext.class);
+    final MutableBlockchain blockchain = mock(MutableBlockchain.class);
+    when(protocolContext.getBlockchain()).thenReturn(blockchain);
+    when(blockchain.getChainHeadHeader()).thenReturn(chainHeadHeader);
+    final WorldStateArchive worldStateArchive = mock(WorldStateArchive.class);
+    when(protocolContext.getWorldStateArchive()).thenReturn(worldStateArchive);
+    // every speculative execution gets its own world state, like from the archive
+    when(worldStateArchive.getWorldState(any()))
+        .thenAnswer(invocation -> Optional.of(newWorldState()));
+
+    when(transaction.getHash()).thenReturn(Hash.hash(Bytes.of(1)));
+    when(transaction.getSender()).thenReturn(SENDER);
+    doReturn(Optional.of(CONTRACT)).when(transaction).getTo();
+    when(transaction.detachedCopy()).thenReturn(transaction);
+    when(pendingTransaction.getTransaction()).thenReturn(transaction);
+
+    when(transactionProcessor.getClearEmptyAccounts()).thenReturn(true);
+    when(transactionProcessor.processTransaction(
+            any(), any(), any(), any(), any(), any(), any(), any()))
+        .thenAnswer(
+            invocation -> {
+              final WorldUpdater updater = invocation.getArgument(0);
+              updater.getOrCreate(SENDER).setNonce(1);
+              updater.getOrCreate(CONTRACT).setStorageValue(SLOT, SLOT_VALUE);
+              return TransactionProcessingResult.successful(
+                  Collections.emptyList(), 21_000, 0, Bytes.EMPTY, ValidationResult.valid());
+            });
+
+    executor =
+        new SpeculativeTransactionExecutor(protocolContext, transactionProcessor, ethScheduler, 4);
+  }
+
+  private BonsaiWorldState newWorldState() {
+    return new BonsaiWorldState(
+        worldStateStorage,
+        new NoopBonsaiCachedMerkleTrieLoader(),
+        new NoOpBonsaiCachedWorldStorageManager(worldStateStorage),
+        new NoOpTrieLogManager(),
+        EvmConfiguration.DEFAULT,
+        createStatefulConfigWithTrie());
+  }
+
+  @SuppressWarnings("unchecked")
+  private void executeSynchronously() {
+    when(ethScheduler.scheduleComputationTask(any()))
+        .thenAnswer(
+            invocation ->
+                CompletableFuture.completedFuture(
+                    ((Supplier<Object>) invocation.getArgument(0)).get()));
+  }
+
+  private void start() {
+    executor.start(
+        blockHeader,
+        List.of(pendingTransaction),
+        MINING_BENEFICIARY,
+        () -> mock(BlockHashLookup.class),
+        Wei.ZERO);
+  }
+
+  @Test
+  void resultWithoutCollisionIsUsed() {
+    executeSynchronously();
+    blockUpdater.createAccount(OTHER, 0, Wei.ONE);
+    blockUpdater.commit();
+
+    start();
+
+    final Optional<ParallelizedTransactionContext> maybeResult =
+        executor.getValidResult(transaction, MINING_BENEFICIARY, blockUpdater);
+    assertThat(maybeResult).isPresent();
+    assertThat(maybeResult.get().transactionProcessingResult().isSuccessful()).isTrue();
+
+    final WorldUpdater txUpdater = blockUpdater.updater();
+    executor.apply(maybeResult.get(), MINING_BENEFICIARY, txUpdater);
+    txUpdater.commit();
+    blockUpdater.commit();
+
+    assertThat(blockUpdater.get(SENDER).getNonce()).isEqualTo(1);
+    assertThat(blockUpdater.get(CONTRACT).getStorageValue(SLOT)).isEqualTo(SLOT_VALUE);
+    assertThat(blockUpdater.get(OTHER).getBalance()).isEqualTo(Wei.ONE);
+    assertThat(blockUpdater.get(MINING_BENEFICIARY)).isNull();
+    assertThat(executor.stop()).isEqualTo(1);
+  }
+
+  @Test
+  void resultWithCollisionIsNotUsed() {
+    executeSynchronously();
+    // a previous transaction of the block already changed the sender
+    blockUpdater.createAccount(SENDER, 0, Wei.ONE);
+    blockUpdater.commit();
+
+    start();
+
+    assertThat(executor.getValidResult(transaction, MINING_BENEFICIARY, blockUpdater)).isEmpty();
+    assertThat(executor.stop()).isZero();
+  }
+
+  @Test
+  void appliedResultIsVisibleToTheSelectorsBeforeCommit() {
+    executeSynchronously();
+    start();
+
+    final ParallelizedTransactionContext result =
+        executor.getValidResult(transaction, MINING_BENEFICIARY, blockUpdater).orElseThrow();
+    final WorldUpdater txUpdater = blockUpdater.updater();
+    executor.apply(result, MINING_BENEFICIARY, txUpdater);
+
+    // what the post-processing selectors and the plugins see
+    assertThat(txUpdater.get(SENDER).getNonce()).isEqualTo(1);
+    assertThat(txUpdater.get(CONTRACT).getStorageValue(SLOT)).isEqualTo(SLOT_VALUE);
+
+    // a rejected transaction is rolled back by discarding its updater
+    assertThat(blockUpdater.get(SENDER)).isNull();
+    assertThat(blockUpdater.get(CONTRACT)).isNull();
+  }
+
+  @Test
+  void executionNotCompletedIsCancelledAndNotUsed() {
+    final CompletableFuture<Object> pendingExecution = new CompletableFuture<>();
+    doReturn(pendingExecution).when(ethScheduler).scheduleComputationTask(any());
+
+    start();
+
+    assertThat(executor.getValidResult(transaction, MINING_BENEFICIARY, blockUpdater)).isEmpty();
+    assertThat(pendingExecution).isCancelled();
+  }
+
+  @Test
+  void pendingExecutionsAreCancelledOnStop() {
+    final CompletableFuture<Object> pendingExecution = new CompletableFuture<>();
+    doReturn(pendingExecution).when(ethScheduler).scheduleComputationTask(any());
+
+    start();
+
+    assertThat(executor.stop()).isZero();
+    assertThat(pendingExecution).isCancelled();
+    assertThat(executor.getValidResult(transaction, MINING_BENEFICIARY, blockUpdater)).isEmpty();
+  }
+
+  @Test
+  void nothingIsExecutedWhenTheParentIsNotTheChainHead() {
+    when(blockHeader.getParentHash()).thenReturn(Hash.EMPTY);
+
+    start();
+
+    verify(ethScheduler, never()).scheduleComputationTask(any());
+    assertThat(executor.getValidResult(transaction, MINING_BENEFICIARY, blockUpdater)).isEmpty();
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.core;
+
+import org.hyperledger.besu.ethereum.core.encoding.receipt.TransactionReceiptDecoder;
+import org.hyperledger.besu.ethereum.core.encoding.receipt.TransactionReceiptEncoder;
+import org.hyperledger.besu.ethereum.core.encoding.receipt.TransactionReceiptEncodingConfiguration;
+import org.hyperledger.besu.ethereum.mainnet.MainnetBlockHeaderFunctions;
+import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.rlp.RLPInput;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the decoding of block bodies, receipts and transactions from {@link Bytes}, which is
+ * what the node does today, with the decoding straight from a direct {@link ByteBuffer}, as read
+ * from the network or from the database, without copying it first.
+ */
+@State(Scope.Thread)
+@Fork(value = 1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RLPDecodingBenchmark {
+
+  private static final MainnetBlockHeaderFunctions BLOCK_HEADER_FUNCTIONS =
+      new MainnetBlockHeaderFunctions();
+
+  @Param({"200"})
+  public int transactionCount;
+
+  @Param({"bytes", "directByteBuffer"})
+  public String source;
+
+  private Bytes body;
+  private Bytes receipts;
+  private Bytes transactions;
+  private ByteBuffer bodyBuffer;
+  private ByteBuffer receiptsBuffer;
+  private ByteBuffer transactionsBuffer;
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    final BlockDataGenerator generator = new BlockDataGenerator(1);
+    final List<Transaction> txs = new ArrayList<>(generator.transactions(transactionCount));
+    final List<TransactionReceipt> txReceipts = new ArrayList<>(transactionCount);
+    for (int i = 0; i < transactionCount; i++) {
+      txReceipts.add(generator.receipt());
+    }
+
+    final BlockBody blockBody =
+        generator.body(BlockDataGenerator.BlockOptions.create().addTransaction(txs));
+    body = RLP.encode(blockBody::writeWrappedBodyTo);
+    receipts =
+        RLP.encode(
+            out ->
+                out.writeList(
+                    txReceipts,
+                    (receipt, rlp) ->
+                        TransactionReceiptEncoder.writeTo(
+                            receipt, rlp, TransactionReceiptEncodingConfiguration.DEFAULT)));
+    final BytesValueRLPOutput out = new BytesValueRLPOutput();
+    out.writeList(txs, Transaction::writeTo);
+    transactions = out.encoded();
+
+    bodyBuffer = direct(body);
+    receiptsBuffer = direct(receipts);
+    transactionsBuffer = direct(transactions);
+  }
+
+  @Benchmark
+  public BlockBody blockBody() {
+    return BlockBody.readWrappedBodyFrom(input(body, bodyBuffer), BLOCK_HEADER_FUNCTIONS);
+  }
+
+  @Benchmark
+  public List<TransactionReceipt> receipts() {
+    return input(receipts, receiptsBuffer)
+        .readList(rlp -> TransactionReceiptDecoder.readFrom(rlp, true));
+  }
+
+  @Benchmark
+  public List<Transaction> transactions() {
+    return input(transactions, transactionsBuffer).readList(Transaction::readFrom);
+  }
+
+  private RLPInput input(final Bytes bytes, final ByteBuffer buffer) {
+    return "bytes".equals(source) ? RLP.input(bytes) : RLP.input(buffer);
+  }
+
+  private static ByteBuffer direct(final Bytes bytes) {
+    final ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.size());
+    buffer.put(bytes.toArrayUnsafe()).flip();
+    return buffer;
+  }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet;
+
+import org.hyperledger.besu.config.GenesisConfig;
+import org.hyperledger.besu.crypto.KeyPair;
+import org.hyperledger.besu.crypto.SECPPrivateKey;
+import org.hyperledger.besu.crypto.SignatureAlgorithm;
+import org.hyperledger.besu.crypto.SignatureAlgorithmFactory;
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.TransactionType;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.BlockProcessingResult;
+import org.hyperledger.besu.ethereum.ProtocolContext;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.Block;
+import org.hyperledger.besu.ethereum.core.BlockBody;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.BlockHeaderTestFixture;
+import org.hyperledger.besu.ethereum.core.ExecutionContextTestFixture;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.mainnet.parallelization.MainnetParallelBlockProcessor;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.BonsaiWorldStateProvider;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.provider.WorldStateQueryParams;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.storage.DataStorageFormat;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the sequential and the parallel block processors on a synthetic block of transfers.
+ *
+ * <p>With {@code contention=none} every transaction sends to its own recipient, with {@code
+ * contention=hot} every transaction sends to the same recipient, which is the access pattern of
+ * blocks dominated by a single popular contract. The trie is disabled so that only the
+ * transaction execution is measured, the root calculation being identical for both processors.
+ */
+@State(Scope.Thread)
+@Fork(value = 1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParallelBlockProcessorBenchmark {
+
+  private static final Address HOT_RECIPIENT =
+      Address.fromHexString("0x00000000000000000000000000000000000fffff");
+
+  @Param({"200"})
+  public int transactionCount;
+
+  @Param({"none", "hot"})
+  public String contention;
+
+  private ProtocolContext protocolContext;
+  private Blockchain blockchain;
+  private WorldStateArchive worldStateArchive;
+  private BlockHeader genesisHeader;
+  private BlockProcessor sequentialBlockProcessor;
+  private BlockProcessor parallelBlockProcessor;
+  private Block block;
+  private MutableWorldState worldState;
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    final SignatureAlgorithm signatureAlgorithm = SignatureAlgorithmFactory.getInstance();
+    final List<KeyPair> senders = new ArrayList<>(transactionCount);
+    final StringBuilder alloc = new StringBuilder();
+    for (int i = 0; i < transactionCount; i++) {
+      final KeyPair keyPair =
+          signatureAlgorithm.createKeyPair(
+              SECPPrivateKey.create(
+                  Bytes32.leftPad(Bytes.ofUnsignedInt(i + 1L)), SignatureAlgorithm.ALGORITHM));
+      senders.add(keyPair);
+      if (i > 0) {
+        alloc.append(',');
+      }
+      alloc
+          .append('"')
+          .append(Address.extract(keyPair.getPublicKey()).toUnprefixedHexString())
+          .append("\":{\"balance\":\"0x3635C9ADC5DEA00000\"}");
+    }
+
+    final ExecutionContextTestFixture contextTestFixture =
+        ExecutionContextTestFixture.builder(GenesisConfig.fromConfig(genesis(alloc.toString())))
+            .dataStorageFormat(DataStorageFormat.BONSAI)
+            .build();
+    protocolContext = contextTestFixture.getProtocolContext();
+    blockchain = contextTestFixture.getBlockchain();
+    worldStateArchive = contextTestFixture.getStateArchive();
+    ((BonsaiWorldStateProvider) worldStateArchive).getWorldStateSharedSpec().setTrieDisabled(true);
+    genesisHeader = contextTestFixture.getGenesis().getHeader();
+
+    final ProtocolSchedule protocolSchedule = contextTestFixture.getProtocolSchedule();
+    final ProtocolSpec protocolSpec = protocolSchedule.getByBlockHeader(genesisHeader);
+    sequentialBlockProcessor =
+        new MainnetBlockProcessor(
+            protocolSpec.getTransactionProcessor(),
+            protocolSpec.getTransactionReceiptFactory(),
+            Wei.ZERO,
+            BlockHeader::getCoinbase,
+            true,
+            protocolSchedule);
+    parallelBlockProcessor =
+        new MainnetParallelBlockProcessor(
+            protocolSpec.getTransactionProcessor(),
+            protocolSpec.getTransactionReceiptFactory(),
+            Wei.ZERO,
+            BlockHeader::getCoinbase,
+            true,
+            protocolSchedule,
+            new NoOpMetricsSystem());
+
+    final List<Transaction> transactions = new ArrayList<>(transactionCount);
+    for (int i = 0; i < transactionCount; i++) {
+      final Address recipient =
+          "hot".equals(contention)
+              ? HOT_RECIPIENT
+              : Address.fromHexString(String.format("0x%040x", 0x100000 + i));
+      transactions.add(
+          Transaction.builder()
+              .type(TransactionType.EIP1559)
+              .nonce(0)
+              .maxPriorityFeePerGas(Wei.of(5))
+              .maxFeePerGas(Wei.of(7))
+              .gasLimit(21_000L)
+              .to(recipient)
+              .value(Wei.of(1_000_000_000L))
+              .payload(Bytes.EMPTY)
+              .chainId(BigInteger.valueOf(42))
+              .signAndBuild(senders.get(i)));
+    }
+    final BlockHeader blockHeader =
+        new BlockHeaderTestFixture()
+            .number(1L)
+            .parentHash(genesisHeader.getHash())
+            .gasLimit(30_000_000L)
+            .baseFeePerGas(Wei.of(5))
+            .buildHeader();
+    block = new Block(blockHeader, new BlockBody(transactions, Collections.emptyList()));
+  }
+
+  @Setup(Level.Invocation)
+  public void prepareWorldState() {
+    worldState =
+        worldStateArchive
+            .getWorldState(WorldStateQueryParams.withBlockHeaderAndNoUpdateNodeHead(genesisHeader))
+            .orElseThrow();
+  }
+
+  @TearDown(Level.Invocation)
+  public void closeWorldState() throws Exception {
+    worldState.close();
+  }
+
+  @Benchmark
+  public BlockProcessingResult sequential() {
+    return sequentialBlockProcessor.processBlock(protocolContext, blockchain, worldState, block);
+  }
+
+  @Benchmark
+  public BlockProcessingResult parallel() {
+    return parallelBlockProcessor.processBlock(protocolContext, blockchain, worldState, block);
+  }
+
+  private static String genesis(final String alloc) {
+    return "{\"config\":{\"chainId\":42,\"homesteadBlock\":0,\"eip150Block\":0,\"eip155Block\":0,"
+        + "\"eip158Block\":0,\"byzantiumBlock\":0,\"constantinopleBlock\":0,"
+        + "\"petersburgBlock\":0,\"istanbulBlock\":0,\"berlinBlock\":0,\"londonBlock\":0,"
+        + "\"shanghaiTime\":0,\"cancunTime\":0,\"terminalTotalDifficulty\":0},"
+        + "\"coinbase\":\"0x0000000000000000000000000000000000000000\","
+        + "\"difficulty\":\"0x0000001\",\"gasLimit\":\"0x1C9C380\",\"nonce\":\"0x0000000000000107\","
+        + "\"timestamp\":\"0x00\",\"alloc\":{"
+        + alloc
+        + "}}";
+  }
+}
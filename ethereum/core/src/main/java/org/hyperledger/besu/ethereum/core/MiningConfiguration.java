@@ -348,6 +348,7 @@ public abstract class MiningConfiguration {
     int DEFAULT_MAX_OMMERS_DEPTH = 8;
     long DEFAULT_POS_BLOCK_CREATION_MAX_TIME = Duration.ofSeconds(12).toMillis();
     long DEFAULT_POS_BLOCK_CREATION_REPETITION_MIN_DURATION = Duration.ofMillis(500).toMillis();
+    int DEFAULT_SPECULATIVE_TX_SELECTION_CANDIDATES = 0;
 
     MiningConfiguration.Unstable DEFAULT = ImmutableMiningConfiguration.Unstable.builder().build();
 
@@ -381,6 +382,11 @@ public abstract class MiningConfiguration {
       return DEFAULT_POS_BLOCK_CREATION_REPETITION_MIN_DURATION;
     }
 
+    @Value.Default
+    default int getSpeculativeTxSelectionCandidates() {
+      return DEFAULT_SPECULATIVE_TX_SELECTION_CANDIDATES;
+    }
+
     @Value.Default
     default String getStratumExtranonce() {
       return "080c";
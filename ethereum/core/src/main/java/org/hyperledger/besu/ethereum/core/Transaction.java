@@ -43,7 +43,6 @@ import org.hyperledger.besu.ethereum.core.kzg.Blob;
 import org.hyperledger.besu.ethereum.core.kzg.BlobsWithCommitments;
 import org.hyperledger.besu.ethereum.core.kzg.KZGCommitment;
 import org.hyperledger.besu.ethereum.core.kzg.KZGProof;
-import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
 import org.hyperledger.besu.ethereum.rlp.RLP;
 import org.hyperledger.besu.ethereum.rlp.RLPInput;
 import org.hyperledger.besu.ethereum.rlp.RLPOutput;
@@ -527,9 +526,7 @@ public class Transaction
 
   @Override
   public Bytes encoded() {
-    final BytesValueRLPOutput rplOutput = new BytesValueRLPOutput();
-    writeTo(rplOutput);
-    return rplOutput.encoded();
+    return RLP.encode(this::writeTo);
   }
 
   @Override
@@ -1171,6 +1168,10 @@ public class Transaction
    */
   public Transaction detachedCopy() {
     final Optional<Address> detachedTo = to.map(address -> Address.wrap(address.copy()));
+    final Payload detachedPayload =
+        payload.getPayloadBytes() == null || payload.getPayloadBytes().isEmpty()
+            ? payload
+            : new Payload(payload.getPayloadBytes().copy());
     final Optional<List<AccessListEntry>> detachedAccessList =
         maybeAccessList.map(
             accessListEntries ->
@@ -1200,7 +1201,7 @@ public class Transaction
             detachedTo,
             value,
             signature,
-            payload,
+            detachedPayload,
             detachedAccessList,
             sender,
             chainId,
@@ -18,7 +18,6 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.hyperledger.besu.datatypes.TransactionType;
 import org.hyperledger.besu.ethereum.core.Transaction;
-import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
 import org.hyperledger.besu.ethereum.rlp.RLP;
 import org.hyperledger.besu.ethereum.rlp.RLPOutput;
 
@@ -94,18 +93,19 @@ public class TransactionEncoder {
       return RLP.encode(rlpOutput -> FrontierTransactionEncoder.encode(transaction, rlpOutput));
     } else {
       final Encoder encoder = getEncoder(transactionType, encodingContext);
-      final BytesValueRLPOutput out = new BytesValueRLPOutput();
-      transaction
-          .getRawRlp()
-          .ifPresentOrElse(
-              (rawRlp) ->
-                  out.writeRLPBytes(
-                      Bytes.concatenate(Bytes.of(transactionType.getSerializedType()), rawRlp)),
-              () -> {
-                out.writeByte(transaction.getType().getSerializedType());
-                encoder.encode(transaction, out);
-              });
-      return out.encoded();
+      return RLP.encode(
+          out ->
+              transaction
+                  .getRawRlp()
+                  .ifPresentOrElse(
+                      (rawRlp) ->
+                          out.writeRLPBytes(
+                              Bytes.concatenate(
+                                  Bytes.of(transactionType.getSerializedType()), rawRlp)),
+                      () -> {
+                        out.writeByte(transaction.getType().getSerializedType());
+                        encoder.encode(transaction, out);
+                      }));
     }
   }
 
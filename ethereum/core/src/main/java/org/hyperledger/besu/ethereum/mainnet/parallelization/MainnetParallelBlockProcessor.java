@@ -40,6 +40,7 @@ import java.util.Optional;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -52,6 +53,16 @@ public class MainnetParallelBlockProcessor extends MainnetBlockProcessor {
 
   private static final int NCPU = Runtime.getRuntime().availableProcessors();
   private static final Executor executor = Executors.newFixedThreadPool(NCPU);
+  // read set prefetching is best effort, so it gets a smaller pool of low priority threads that
+  // never competes with the optimistic execution of the transactions for a worker
+  private static final Executor prefetchExecutor =
+      Executors.newFixedThreadPool(
+          Math.max(1, NCPU / 2),
+          new ThreadFactoryBuilder()
+              .setNameFormat("ReadSetPrefetcher-%d")
+              .setDaemon(true)
+              .setPriority(Thread.MIN_PRIORITY)
+              .build());
 
   public MainnetParallelBlockProcessor(
       final MainnetTransactionProcessor transactionProcessor,
@@ -133,13 +144,15 @@ public class MainnetParallelBlockProcessor extends MainnetBlockProcessor {
       final Blockchain blockchain,
       final MutableWorldState worldState,
       final Block block) {
-    final BlockProcessingResult blockProcessingResult =
-        super.processBlock(
-            protocolContext,
-            blockchain,
-            worldState,
-            block,
-            new ParallelTransactionPreprocessing(transactionProcessor, executor));
+    final ParallelTransactionPreprocessing preprocessing =
+        new ParallelTransactionPreprocessing(transactionProcessor, executor, prefetchExecutor);
+    final BlockProcessingResult blockProcessingResult;
+    try {
+      blockProcessingResult =
+          super.processBlock(protocolContext, blockchain, worldState, block, preprocessing);
+    } finally {
+      preprocessing.cancelPrefetch();
+    }
 
     if (blockProcessingResult.isFailed()) {
       // Fallback to non-parallel processing if there is a block processing exception .
@@ -0,0 +1,252 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet.parallelization;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Multi-version memory used to track, for each state key, which transaction of a block wrote it
+ * and with which incarnation, in the spirit of Block-STM.
+ *
+ * <p>Each transaction of the block is identified by its index and each of its executions by an
+ * incarnation number. After an execution completes, its read set (the version of every key it
+ * observed) and its write set are recorded. The memory can then answer which version a
+ * transaction would observe for a given key, validate a previously recorded read set against the
+ * current versions and list the transactions that must be re-executed when a lower transaction
+ * writes a key they read.
+ *
+ * <p>The values themselves are not stored, they stay in the per-transaction accumulators; only the
+ * versions are needed to detect conflicts. Keys of transactions that are known to have written
+ * keys that are not tracked (for example a transaction replayed sequentially) are marked as
+ * unknown writers, which invalidates the read set of every higher transaction.
+ *
+ * @param <K> the type of the state keys
+ */
+public class MultiVersionMemory<K> {
+
+  /** Version of a key, the transaction that wrote it and the incarnation of that transaction. */
+  public record Version(int txIndex, int incarnation) {}
+
+  /** Result of a read in the multi-version memory. */
+  public sealed interface ReadResult permits ReadResult.NotFound, ReadResult.Found {
+
+    /** No lower transaction wrote the key, the value comes from the parent state. */
+    record NotFound() implements ReadResult {}
+
+    /**
+     * A lower transaction wrote the key.
+     *
+     * @param version the version of the write
+     */
+    record Found(Version version) implements ReadResult {}
+  }
+
+  private static final ReadResult NOT_FOUND = new ReadResult.NotFound();
+
+  private final Map<K, NavigableMap<Integer, Integer>> incarnationsByKey =
+      new ConcurrentHashMap<>();
+  private final Map<Integer, Set<K>> writeSetByTx = new HashMap<>();
+  private final Map<Integer, Map<K, Optional<Version>>> readSetByTx = new HashMap<>();
+  private final Map<Integer, Integer> incarnationByTx = new HashMap<>();
+  private final Map<Integer, Set<Integer>> dependentsByTx = new HashMap<>();
+  private final NavigableMap<Integer, Boolean> unknownWriters = new ConcurrentSkipListMap<>();
+
+  /**
+   * Records the read and write sets of an execution of a transaction. Keys written by a previous
+   * incarnation but not by this one are removed. An execution older than the last recorded one is
+   * ignored.
+   *
+   * @param txIndex the index of the transaction in the block
+   * @param incarnation the incarnation of the execution
+   * @param readSet the version of every key observed by the execution
+   * @param writeSet the keys written by the execution
+   * @return true if the execution was recorded, false if a newer one is already recorded
+   */
+  public synchronized boolean record(
+      final int txIndex,
+      final int incarnation,
+      final Map<K, Optional<Version>> readSet,
+      final Set<K> writeSet) {
+    final Integer lastIncarnation = incarnationByTx.get(txIndex);
+    if (lastIncarnation != null && lastIncarnation > incarnation) {
+      return false;
+    }
+    final Set<K> previousWriteSet = writeSetByTx.getOrDefault(txIndex, Set.of());
+    for (final K key : previousWriteSet) {
+      if (!writeSet.contains(key)) {
+        final NavigableMap<Integer, Integer> incarnations = incarnationsByKey.get(key);
+        if (incarnations != null) {
+          incarnations.remove(txIndex);
+        }
+      }
+    }
+    for (final K key : writeSet) {
+      incarnationsByKey
+          .computeIfAbsent(key, __ -> new ConcurrentSkipListMap<>())
+          .put(txIndex, incarnation);
+    }
+    incarnationByTx.put(txIndex, incarnation);
+    writeSetByTx.put(txIndex, Set.copyOf(writeSet));
+    readSetByTx.put(txIndex, Map.copyOf(readSet));
+    return true;
+  }
+
+  /**
+   * Returns the version of a key as observed by a transaction, that is the last write of a lower
+   * transaction.
+   *
+   * @param key the key to read
+   * @param txIndex the index of the reading transaction
+   * @return the result of the read
+   */
+  public ReadResult read(final K key, final int txIndex) {
+    final NavigableMap<Integer, Integer> incarnations = incarnationsByKey.get(key);
+    if (incarnations == null) {
+      return NOT_FOUND;
+    }
+    final Map.Entry<Integer, Integer> lower = incarnations.lowerEntry(txIndex);
+    if (lower == null) {
+      return NOT_FOUND;
+    }
+    return new ReadResult.Found(new Version(lower.getKey(), lower.getValue()));
+  }
+
+  /**
+   * Validates the last recorded read set of a transaction against the current versions. The read
+   * set is valid if every key still resolves to the version that was observed, and no lower
+   * transaction is marked as an unknown writer.
+   *
+   * @param txIndex the index of the transaction to validate
+   * @return true if the read set is still valid
+   */
+  public synchronized boolean validateReadSet(final int txIndex) {
+    final Map<K, Optional<Version>> readSet = readSetByTx.get(txIndex);
+    if (readSet == null || hasUnknownWriterBelow(txIndex)) {
+      return false;
+    }
+    for (final Map.Entry<K, Optional<Version>> read : readSet.entrySet()) {
+      final ReadResult current = read(read.getKey(), txIndex);
+      final boolean valid;
+      if (current instanceof ReadResult.Found found) {
+        valid = read.getValue().equals(Optional.of(found.version()));
+      } else {
+        valid = current instanceof ReadResult.NotFound && read.getValue().isEmpty();
+      }
+      if (!valid) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the incarnation of the last recorded execution of a transaction.
+   *
+   * @param txIndex the index of the transaction
+   * @return the incarnation, or empty if no execution was recorded
+   */
+  public synchronized Optional<Integer> getIncarnation(final int txIndex) {
+    return Optional.ofNullable(incarnationByTx.get(txIndex));
+  }
+
+  /**
+   * Returns the higher transactions whose last recorded read set contains one of the given keys.
+   *
+   * @param keys the keys written by a transaction
+   * @param txIndex the index of the writing transaction
+   * @return the indexes of the transactions that read one of the keys
+   */
+  public synchronized Set<Integer> getReaders(final Set<K> keys, final int txIndex) {
+    final Set<Integer> readers = new TreeSet<>();
+    readSetByTx.forEach(
+        (index, readSet) -> {
+          if (index > txIndex && keys.stream().anyMatch(readSet::containsKey)) {
+            readers.add(index);
+          }
+        });
+    return readers;
+  }
+
+  /**
+   * Returns the keys read by the last recorded execution of a transaction.
+   *
+   * @param txIndex the index of the transaction
+   * @return the keys of the read set, empty if no execution was recorded
+   */
+  public synchronized Set<K> getReadKeys(final int txIndex) {
+    return readSetByTx.getOrDefault(txIndex, Map.of()).keySet();
+  }
+
+  /**
+   * Returns the keys written by the last recorded execution of a transaction.
+   *
+   * @param txIndex the index of the transaction
+   * @return the write set, empty if no execution was recorded
+   */
+  public synchronized Set<K> getWriteSet(final int txIndex) {
+    return writeSetByTx.getOrDefault(txIndex, Set.of());
+  }
+
+  /**
+   * Marks a transaction as having written keys that are not tracked by this memory, every higher
+   * transaction read set becomes invalid.
+   *
+   * @param txIndex the index of the transaction
+   */
+  public void markUnknownWriter(final int txIndex) {
+    unknownWriters.put(txIndex, Boolean.TRUE);
+  }
+
+  /**
+   * Returns whether a transaction lower than the given one is marked as an unknown writer, in which
+   * case the read set of the given transaction can never be validated.
+   *
+   * @param txIndex the index of the transaction
+   * @return true if a lower transaction is an unknown writer
+   */
+  public boolean hasUnknownWriterBelow(final int txIndex) {
+    return unknownWriters.lowerKey(txIndex) != null;
+  }
+
+  /**
+   * Registers that a transaction must wait for another one to complete before it can be executed
+   * again.
+   *
+   * @param txIndex the index of the waiting transaction
+   * @param blockingTxIndex the index of the transaction it depends on
+   */
+  public synchronized void addDependency(final int txIndex, final int blockingTxIndex) {
+    dependentsByTx.computeIfAbsent(blockingTxIndex, __ -> new HashSet<>()).add(txIndex);
+  }
+
+  /**
+   * Removes and returns the transactions that were waiting for the given transaction.
+   *
+   * @param blockingTxIndex the index of the transaction that completed
+   * @return the indexes of the transactions that can be resumed
+   */
+  public synchronized Set<Integer> resumeDependencies(final int blockingTxIndex) {
+    final Set<Integer> dependents = dependentsByTx.remove(blockingTxIndex);
+    return dependents == null ? Set.of() : dependents;
+  }
+}
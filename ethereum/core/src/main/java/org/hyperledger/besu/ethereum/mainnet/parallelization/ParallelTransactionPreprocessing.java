@@ -28,17 +28,38 @@ import org.hyperledger.besu.evm.blockhash.BlockHashLookup;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 
 public class ParallelTransactionPreprocessing implements PreprocessingFunction {
 
   private final MainnetTransactionProcessor transactionProcessor;
   private final Executor executor;
+  private final Executor prefetchExecutor;
+  private final TransactionReadSetPrefetcher transactionReadSetPrefetcher;
+  private List<CompletableFuture<Void>> prefetchTasks = List.of();
 
   public ParallelTransactionPreprocessing(
       final MainnetTransactionProcessor transactionProcessor, final Executor executor) {
+    this(transactionProcessor, executor, executor);
+  }
+
+  public ParallelTransactionPreprocessing(
+      final MainnetTransactionProcessor transactionProcessor,
+      final Executor executor,
+      final Executor prefetchExecutor) {
+    this(transactionProcessor, executor, prefetchExecutor, new TransactionReadSetPrefetcher());
+  }
+
+  public ParallelTransactionPreprocessing(
+      final MainnetTransactionProcessor transactionProcessor,
+      final Executor executor,
+      final Executor prefetchExecutor,
+      final TransactionReadSetPrefetcher transactionReadSetPrefetcher) {
     this.transactionProcessor = transactionProcessor;
     this.executor = executor;
+    this.prefetchExecutor = prefetchExecutor;
+    this.transactionReadSetPrefetcher = transactionReadSetPrefetcher;
   }
 
   @Override
@@ -50,6 +71,11 @@ public class ParallelTransactionPreprocessing implements PreprocessingFunction {
       final BlockHashLookup blockHashLookup,
       final Wei blobGasPrice) {
     if ((protocolContext.getWorldStateArchive() instanceof PathBasedWorldStateProvider)) {
+      // the read set prefetch is scheduled first so that the state the transactions need is
+      // already being loaded from the database while the optimistic execution is starting.
+      prefetchTasks =
+          transactionReadSetPrefetcher.prefetch(
+              protocolContext, blockHeader, transactions, miningBeneficiary, prefetchExecutor);
       ParallelizedConcurrentTransactionProcessor parallelizedConcurrentTransactionProcessor =
           new ParallelizedConcurrentTransactionProcessor(transactionProcessor);
       // runAsyncBlock, if activated, facilitates the non-blocking parallel execution
@@ -67,4 +93,13 @@ public class ParallelTransactionPreprocessing implements PreprocessingFunction {
     }
     return Optional.empty();
   }
+
+  /**
+   * Cancels the prefetch tasks that have not started yet. Called once the block is processed, as
+   * warming the caches for it is useless from then on.
+   */
+  public void cancelPrefetch() {
+    prefetchTasks.forEach(task -> task.cancel(false));
+    prefetchTasks = List.of();
+  }
 }
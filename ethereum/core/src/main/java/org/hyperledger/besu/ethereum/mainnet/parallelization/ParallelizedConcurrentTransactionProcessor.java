@@ -15,6 +15,7 @@
 package org.hyperledger.besu.ethereum.mainnet.parallelization;
 
 import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
 import org.hyperledger.besu.datatypes.Wei;
 import org.hyperledger.besu.ethereum.ProtocolContext;
 import org.hyperledger.besu.ethereum.core.BlockHeader;
@@ -22,8 +23,11 @@ import org.hyperledger.besu.ethereum.core.MutableWorldState;
 import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.mainnet.MainnetTransactionProcessor;
 import org.hyperledger.besu.ethereum.mainnet.TransactionValidationParams;
+import org.hyperledger.besu.ethereum.mainnet.parallelization.MultiVersionMemory.Version;
 import org.hyperledger.besu.ethereum.processing.TransactionProcessingResult;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.BonsaiWorldState;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.PathBasedAccount;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.PathBasedValue;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.provider.WorldStateQueryParams;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.PathBasedWorldState;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.accumulator.PathBasedWorldStateUpdateAccumulator;
@@ -32,12 +36,19 @@ import org.hyperledger.besu.evm.tracing.OperationTracer;
 import org.hyperledger.besu.evm.worldstate.WorldView;
 import org.hyperledger.besu.plugin.services.metrics.Counter;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import com.google.common.annotations.VisibleForTesting;
 
@@ -46,6 +57,13 @@ import com.google.common.annotations.VisibleForTesting;
  * Transactions are executed optimistically in a non-blocking manner. After execution, the class
  * checks for potential conflicts among transactions to ensure data integrity before applying the
  * results to the world state.
+ *
+ * <p>The read and write sets of every execution are tracked in a {@link MultiVersionMemory}. When
+ * an execution writes a key that a higher transaction has read, the higher transaction is
+ * re-executed in the background (a new incarnation) on top of the results of the lower
+ * transactions that wrote a key it read, instead of waiting to be replayed sequentially. A
+ * speculative incarnation is only applied if the versions it observed are the ones that were
+ * committed to the block.
  */
 @SuppressWarnings({"unchecked", "rawtypes"})
 public class ParallelizedConcurrentTransactionProcessor {
@@ -54,10 +72,50 @@ public class ParallelizedConcurrentTransactionProcessor {
 
   private final TransactionCollisionDetector transactionCollisionDetector;
 
+  /** Maximum number of speculative re-executions of a single transaction. */
+  private static final int MAX_INCARNATIONS = 8;
+
   private final Map<Integer, ParallelizedTransactionContext>
       parallelizedTransactionContextByLocation = new ConcurrentHashMap<>();
 
-  private CompletableFuture<Void>[] completableFuturesForBackgroundTransactions;
+  private final Map<Integer, ParallelizedTransactionContext> latestContextByLocation =
+      new ConcurrentHashMap<>();
+
+  private final MultiVersionMemory<StateKey> multiVersionMemory = new MultiVersionMemory<>();
+
+  private final Set<Integer> committedLocations = new HashSet<>();
+
+  private final Map<Integer, Integer> scheduledIncarnationByLocation = new HashMap<>();
+
+  private final Object speculationLock = new Object();
+
+  private volatile BlockExecution blockExecution;
+
+  /**
+   * A key of the world state, either an account (empty slot) or a storage slot of an account.
+   *
+   * @param address the address of the account
+   * @param slotKey the storage slot, empty for the account itself
+   */
+  record StateKey(Address address, Optional<StorageSlotKey> slotKey) {
+    static StateKey account(final Address address) {
+      return new StateKey(address, Optional.empty());
+    }
+
+    static StateKey slot(final Address address, final StorageSlotKey slotKey) {
+      return new StateKey(address, Optional.of(slotKey));
+    }
+  }
+
+  private record BlockExecution(
+      ProtocolContext protocolContext,
+      BlockHeader blockHeader,
+      List<Transaction> transactions,
+      Address miningBeneficiary,
+      BlockHashLookup blockHashLookup,
+      Wei blobGasPrice,
+      Executor executor,
+      AtomicReferenceArray<CompletableFuture<Void>> backgroundTransactions) {}
 
   /**
    * Constructs a PreloadConcurrentTransactionProcessor with a specified transaction processor. This
@@ -103,24 +161,37 @@ public class ParallelizedConcurrentTransactionProcessor {
       final Wei blobGasPrice,
       final Executor executor) {
 
-    completableFuturesForBackgroundTransactions = new CompletableFuture[transactions.size()];
+    final BlockExecution execution =
+        new BlockExecution(
+            protocolContext,
+            blockHeader,
+            transactions,
+            miningBeneficiary,
+            blockHashLookup,
+            blobGasPrice,
+            executor,
+            new AtomicReferenceArray<>(transactions.size()));
+    blockExecution = execution;
     for (int i = 0; i < transactions.size(); i++) {
       final Transaction transaction = transactions.get(i);
       final int transactionLocation = i;
       /*
        * All transactions are executed in the background by copying the world state of the block on which the transactions need to be executed, ensuring that each one has its own accumulator.
        */
-      CompletableFuture.runAsync(
-          () ->
-              runTransaction(
-                  protocolContext,
-                  blockHeader,
-                  transactionLocation,
-                  transaction,
-                  miningBeneficiary,
-                  blockHashLookup,
-                  blobGasPrice),
-          executor);
+      final CompletableFuture<Void> future =
+          CompletableFuture.runAsync(
+              () ->
+                  runTransaction(
+                      protocolContext,
+                      blockHeader,
+                      transactionLocation,
+                      transaction,
+                      miningBeneficiary,
+                      blockHashLookup,
+                      blobGasPrice),
+              executor);
+      // a fast first execution may already have scheduled a newer incarnation, which is kept
+      execution.backgroundTransactions().compareAndSet(transactionLocation, null, future);
     }
   }
 
@@ -133,6 +204,30 @@ public class ParallelizedConcurrentTransactionProcessor {
       final Address miningBeneficiary,
       final BlockHashLookup blockHashLookup,
       final Wei blobGasPrice) {
+    runTransaction(
+        protocolContext,
+        blockHeader,
+        transactionLocation,
+        transaction,
+        miningBeneficiary,
+        blockHashLookup,
+        blobGasPrice,
+        0,
+        List.of(),
+        Map.of());
+  }
+
+  private void runTransaction(
+      final ProtocolContext protocolContext,
+      final BlockHeader blockHeader,
+      final int transactionLocation,
+      final Transaction transaction,
+      final Address miningBeneficiary,
+      final BlockHashLookup blockHashLookup,
+      final Wei blobGasPrice,
+      final int incarnation,
+      final List<ParallelizedTransactionContext> lowerContexts,
+      final Map<StateKey, Version> lowerWrites) {
     final BlockHeader chainHeadHeader = protocolContext.getBlockchain().getChainHeadHeader();
     if (chainHeadHeader.getHash().equals(blockHeader.getParentHash())) {
       try (BonsaiWorldState ws =
@@ -145,9 +240,17 @@ public class ParallelizedConcurrentTransactionProcessor {
         if (ws != null) {
           ws.disableCacheMerkleTrieLoader();
           final ParallelizedTransactionContext.Builder contextBuilder =
-              new ParallelizedTransactionContext.Builder();
+              new ParallelizedTransactionContext.Builder().incarnation(incarnation);
           final PathBasedWorldStateUpdateAccumulator<?> roundWorldStateUpdater =
               (PathBasedWorldStateUpdateAccumulator<?>) ws.updater();
+          /*
+           * A speculative incarnation starts from the results of the lower transactions it
+           * depends on, imported in block order on top of the parent state.
+           */
+          for (final ParallelizedTransactionContext lowerContext : lowerContexts) {
+            ((PathBasedWorldStateUpdateAccumulator) roundWorldStateUpdater)
+                .importStateChangesFromSource(lowerContext.transactionAccumulator());
+          }
           final TransactionProcessingResult result =
               transactionProcessor.processTransaction(
                   roundWorldStateUpdater,
@@ -196,8 +299,11 @@ public class ParallelizedConcurrentTransactionProcessor {
              */
             roundWorldStateUpdater.getAccountsToUpdate().remove(miningBeneficiary);
           }
-          parallelizedTransactionContextByLocation.put(
-              transactionLocation, parallelizedTransactionContext);
+          onExecutionCompleted(
+              transactionLocation,
+              parallelizedTransactionContext,
+              lowerWrites,
+              miningBeneficiary);
         }
       } catch (Exception ex) {
         // no op as failing to get worldstate
@@ -238,8 +344,13 @@ public class ParallelizedConcurrentTransactionProcessor {
     final PathBasedWorldState pathBasedWorldState = (PathBasedWorldState) worldState;
     final PathBasedWorldStateUpdateAccumulator blockAccumulator =
         (PathBasedWorldStateUpdateAccumulator) pathBasedWorldState.updater();
-    final ParallelizedTransactionContext parallelizedTransactionContext =
-        parallelizedTransactionContextByLocation.remove(transactionLocation);
+    final ParallelizedTransactionContext parallelizedTransactionContext;
+    synchronized (speculationLock) {
+      // once the block processing reached a transaction, late executions of it are ignored
+      committedLocations.add(transactionLocation);
+      parallelizedTransactionContext =
+          parallelizedTransactionContextByLocation.remove(transactionLocation);
+    }
     /*
      * If `parallelizedTransactionContext` is not null, it means that the transaction had time to complete in the background.
      */
@@ -249,8 +360,11 @@ public class ParallelizedConcurrentTransactionProcessor {
       final TransactionProcessingResult transactionProcessingResult =
           parallelizedTransactionContext.transactionProcessingResult();
       final boolean hasCollision =
-          transactionCollisionDetector.hasCollision(
-              transaction, miningBeneficiary, parallelizedTransactionContext, blockAccumulator);
+          parallelizedTransactionContext.incarnation() == 0
+              ? transactionCollisionDetector.hasCollision(
+                  transaction, miningBeneficiary, parallelizedTransactionContext, blockAccumulator)
+              : !isSpeculativeResultValid(
+                  transactionLocation, miningBeneficiary, parallelizedTransactionContext);
       if (transactionProcessingResult.isSuccessful() && !hasCollision) {
         Wei reward = parallelizedTransactionContext.miningBeneficiaryReward();
         if (!reward.isZero() || !transactionProcessor.getClearEmptyAccounts()) {
@@ -258,6 +372,11 @@ public class ParallelizedConcurrentTransactionProcessor {
         }
 
         blockAccumulator.importStateChangesFromSource(transactionAccumulator);
+        if (!multiVersionMemory
+            .getIncarnation(transactionLocation)
+            .equals(Optional.of(parallelizedTransactionContext.incarnation()))) {
+          multiVersionMemory.markUnknownWriter(transactionLocation);
+        }
 
         if (confirmedParallelizedTransactionCounter.isPresent()) {
           confirmedParallelizedTransactionCounter.get().inc();
@@ -267,6 +386,8 @@ public class ParallelizedConcurrentTransactionProcessor {
         return Optional.of(transactionProcessingResult);
       } else {
         blockAccumulator.importPriorStateFromSource(transactionAccumulator);
+        // the transaction will be replayed sequentially, its writes are no longer tracked
+        multiVersionMemory.markUnknownWriter(transactionLocation);
         if (conflictingButCachedTransactionCounter.isPresent())
           conflictingButCachedTransactionCounter.get().inc();
         // If there is a conflict, we return an empty result to signal the block processor to
@@ -274,13 +395,205 @@ public class ParallelizedConcurrentTransactionProcessor {
         return Optional.empty();
       }
     } else {
-      // stop background processing for this transaction as useless
-      final CompletableFuture<Void> completableFuturesForBackgroundTransaction =
-          completableFuturesForBackgroundTransactions[transactionLocation];
-      if (completableFuturesForBackgroundTransaction != null) {
-        completableFuturesForBackgroundTransaction.cancel(true);
+      multiVersionMemory.markUnknownWriter(transactionLocation);
+      // stop background processing for this transaction as useless, no new incarnation can be
+      // scheduled once the location is committed
+      final BlockExecution execution = blockExecution;
+      if (execution != null) {
+        final CompletableFuture<Void> completableFuturesForBackgroundTransaction =
+            execution.backgroundTransactions().get(transactionLocation);
+        if (completableFuturesForBackgroundTransaction != null) {
+          completableFuturesForBackgroundTransaction.cancel(true);
+        }
       }
     }
     return Optional.empty();
   }
+
+  /**
+   * A speculative incarnation is valid if it did not depend on the mining beneficiary and if every
+   * key it read still resolves to the version it observed, meaning that all the lower transactions
+   * it was executed on top of were committed with the same results.
+   */
+  private boolean isSpeculativeResultValid(
+      final int transactionLocation,
+      final Address miningBeneficiary,
+      final ParallelizedTransactionContext parallelizedTransactionContext) {
+    return !parallelizedTransactionContext.isMiningBeneficiaryTouchedPreRewardByTransaction()
+        && !parallelizedTransactionContext
+            .transactionAccumulator()
+            .getAccountsToUpdate()
+            .containsKey(miningBeneficiary)
+        && multiVersionMemory
+            .getIncarnation(transactionLocation)
+            .equals(Optional.of(parallelizedTransactionContext.incarnation()))
+        && multiVersionMemory.validateReadSet(transactionLocation);
+  }
+
+  /**
+   * Records the read and write sets of a completed execution, publishes its result, and schedules
+   * the re-execution of the transactions that are invalidated by it.
+   */
+  private void onExecutionCompleted(
+      final int transactionLocation,
+      final ParallelizedTransactionContext parallelizedTransactionContext,
+      final Map<StateKey, Version> lowerWrites,
+      final Address miningBeneficiary) {
+    final PathBasedWorldStateUpdateAccumulator<?> accumulator =
+        parallelizedTransactionContext.transactionAccumulator();
+    final Map<StateKey, Optional<Version>> readSet = new HashMap<>();
+    getKeysTouchedByAccumulator(accumulator)
+        .forEach(key -> readSet.put(key, Optional.ofNullable(lowerWrites.get(key))));
+    final Set<StateKey> writeSet = getKeysWrittenByAccumulator(accumulator);
+    final Set<Integer> toReExecute = new TreeSet<>();
+    synchronized (speculationLock) {
+      if (committedLocations.contains(transactionLocation)) {
+        return;
+      }
+      final Set<StateKey> previousWriteSet = multiVersionMemory.getWriteSet(transactionLocation);
+      if (!multiVersionMemory.record(
+          transactionLocation, parallelizedTransactionContext.incarnation(), readSet, writeSet)) {
+        return;
+      }
+      latestContextByLocation.put(transactionLocation, parallelizedTransactionContext);
+      parallelizedTransactionContextByLocation.put(
+          transactionLocation, parallelizedTransactionContext);
+
+      if (!parallelizedTransactionContext.isMiningBeneficiaryTouchedPreRewardByTransaction()
+          && !multiVersionMemory.validateReadSet(transactionLocation)) {
+        toReExecute.add(transactionLocation);
+      }
+      final Set<StateKey> changedKeys = new HashSet<>(writeSet);
+      changedKeys.addAll(previousWriteSet);
+      multiVersionMemory.getReaders(changedKeys, transactionLocation).stream()
+          .filter(reader -> !multiVersionMemory.validateReadSet(reader))
+          .forEach(toReExecute::add);
+      toReExecute.addAll(multiVersionMemory.resumeDependencies(transactionLocation));
+      for (final int location : toReExecute) {
+        scheduleReExecution(location, miningBeneficiary);
+      }
+    }
+  }
+
+  /**
+   * Schedules a new incarnation of a transaction on top of the latest results of the lower
+   * transactions. If one of them has not completed yet, the transaction is registered as depending
+   * on it and will be scheduled when it completes. Must be called while holding the speculation
+   * lock.
+   *
+   * <p>Only the lower results that wrote a key read by the previous incarnation are imported, so
+   * that an incarnation does not cost as much as replaying the whole block prefix. The versions of
+   * the keys written by the other lower transactions are not part of the observed versions, so if
+   * the new incarnation reads one of them its read set fails validation and the next incarnation
+   * imports the missing result.
+   */
+  private void scheduleReExecution(final int transactionLocation, final Address miningBeneficiary) {
+    final BlockExecution execution = blockExecution;
+    if (execution == null
+        || committedLocations.contains(transactionLocation)
+        || multiVersionMemory.hasUnknownWriterBelow(transactionLocation)
+        || scheduledIncarnationByLocation.getOrDefault(transactionLocation, 0)
+            >= MAX_INCARNATIONS) {
+      // a speculative incarnation could not be validated, the transaction will be replayed
+      return;
+    }
+    final Set<StateKey> previousReads = multiVersionMemory.getReadKeys(transactionLocation);
+    final List<ParallelizedTransactionContext> lowerContexts = new ArrayList<>();
+    final Map<StateKey, Version> lowerWrites = new HashMap<>();
+    for (int location = 0; location < transactionLocation; location++) {
+      final ParallelizedTransactionContext lowerContext = latestContextByLocation.get(location);
+      if (lowerContext == null) {
+        multiVersionMemory.addDependency(transactionLocation, location);
+        return;
+      }
+      final Set<StateKey> lowerWriteSet = multiVersionMemory.getWriteSet(location);
+      if (lowerWriteSet.stream().anyMatch(previousReads::contains)) {
+        lowerContexts.add(lowerContext);
+        final Version version = new Version(location, lowerContext.incarnation());
+        lowerWriteSet.forEach(key -> lowerWrites.put(key, version));
+      }
+    }
+    final int incarnation =
+        scheduledIncarnationByLocation.merge(transactionLocation, 1, Integer::sum);
+    final Transaction transaction = execution.transactions().get(transactionLocation);
+    final CompletableFuture<Void> future =
+        CompletableFuture.runAsync(
+            () ->
+                runTransaction(
+                    execution.protocolContext(),
+                    execution.blockHeader(),
+                    transactionLocation,
+                    transaction,
+                    miningBeneficiary,
+                    execution.blockHashLookup(),
+                    execution.blobGasPrice(),
+                    incarnation,
+                    lowerContexts,
+                    lowerWrites),
+            execution.executor());
+    execution.backgroundTransactions().set(transactionLocation, future);
+  }
+
+  private Set<StateKey> getKeysTouchedByAccumulator(
+      final PathBasedWorldStateUpdateAccumulator<?> accumulator) {
+    final Set<StateKey> keys = new HashSet<>();
+    accumulator.getAccountsToUpdate().keySet().forEach(a -> keys.add(StateKey.account(a)));
+    accumulator.getCodeToUpdate().keySet().forEach(a -> keys.add(StateKey.account(a)));
+    accumulator.getDeletedAccountAddresses().forEach(a -> keys.add(StateKey.account(a)));
+    accumulator.getStorageToClear().forEach(a -> keys.add(StateKey.account(a)));
+    accumulator
+        .getStorageToUpdate()
+        .forEach(
+            (address, slots) -> {
+              // reading a slot depends on the account, which may have been cleared or destroyed
+              keys.add(StateKey.account(address));
+              slots.keySet().forEach(slotKey -> keys.add(StateKey.slot(address, slotKey)));
+            });
+    return keys;
+  }
+
+  private Set<StateKey> getKeysWrittenByAccumulator(
+      final PathBasedWorldStateUpdateAccumulator<?> accumulator) {
+    final Set<StateKey> keys = new HashSet<>();
+    accumulator
+        .getAccountsToUpdate()
+        .forEach(
+            (address, value) -> {
+              if (isAccountChanged(value)) {
+                keys.add(StateKey.account(address));
+              }
+            });
+    accumulator
+        .getCodeToUpdate()
+        .forEach(
+            (address, value) -> {
+              if (!Objects.equals(value.getPrior(), value.getUpdated())) {
+                keys.add(StateKey.account(address));
+              }
+            });
+    accumulator.getDeletedAccountAddresses().forEach(a -> keys.add(StateKey.account(a)));
+    accumulator.getStorageToClear().forEach(a -> keys.add(StateKey.account(a)));
+    accumulator
+        .getStorageToUpdate()
+        .forEach(
+            (address, slots) ->
+                slots.forEach(
+                    (slotKey, value) -> {
+                      if (!value.isUnchanged()) {
+                        keys.add(StateKey.slot(address, slotKey));
+                      }
+                    }));
+    return keys;
+  }
+
+  private boolean isAccountChanged(final PathBasedValue<? extends PathBasedAccount> value) {
+    final PathBasedAccount prior = value.getPrior();
+    final PathBasedAccount updated = value.getUpdated();
+    if (prior == null || updated == null) {
+      return prior != updated;
+    }
+    return prior.getNonce() != updated.getNonce()
+        || !prior.getBalance().equals(updated.getBalance())
+        || !prior.getCodeHash().equals(updated.getCodeHash());
+  }
 }
@@ -25,17 +25,33 @@ public final class ParallelizedTransactionContext {
   private final TransactionProcessingResult transactionProcessingResult;
   private final boolean isMiningBeneficiaryTouchedPreRewardByTransaction;
   private final Wei miningBeneficiaryReward;
+  private final int incarnation;
 
   public ParallelizedTransactionContext(
       final PathBasedWorldStateUpdateAccumulator<?> transactionAccumulator,
       final TransactionProcessingResult transactionProcessingResult,
       final boolean isMiningBeneficiaryTouchedPreRewardByTransaction,
       final Wei miningBeneficiaryReward) {
+    this(
+        transactionAccumulator,
+        transactionProcessingResult,
+        isMiningBeneficiaryTouchedPreRewardByTransaction,
+        miningBeneficiaryReward,
+        0);
+  }
+
+  public ParallelizedTransactionContext(
+      final PathBasedWorldStateUpdateAccumulator<?> transactionAccumulator,
+      final TransactionProcessingResult transactionProcessingResult,
+      final boolean isMiningBeneficiaryTouchedPreRewardByTransaction,
+      final Wei miningBeneficiaryReward,
+      final int incarnation) {
     this.transactionAccumulator = transactionAccumulator;
     this.transactionProcessingResult = transactionProcessingResult;
     this.isMiningBeneficiaryTouchedPreRewardByTransaction =
         isMiningBeneficiaryTouchedPreRewardByTransaction;
     this.miningBeneficiaryReward = miningBeneficiaryReward;
+    this.incarnation = incarnation;
   }
 
   public PathBasedWorldStateUpdateAccumulator<?> transactionAccumulator() {
@@ -54,6 +70,17 @@ public final class ParallelizedTransactionContext {
     return miningBeneficiaryReward;
   }
 
+  /**
+   * The incarnation of the execution that produced this context. The first optimistic execution,
+   * against the parent state, is the incarnation 0, speculative re-executions on top of the
+   * results of the lower transactions have a higher incarnation.
+   *
+   * @return the incarnation of the execution
+   */
+  public int incarnation() {
+    return incarnation;
+  }
+
   @Override
   public boolean equals(final Object obj) {
     if (obj == this) return true;
@@ -63,7 +90,8 @@ public final class ParallelizedTransactionContext {
         && Objects.equals(this.transactionProcessingResult, that.transactionProcessingResult)
         && this.isMiningBeneficiaryTouchedPreRewardByTransaction
             == that.isMiningBeneficiaryTouchedPreRewardByTransaction
-        && Objects.equals(this.miningBeneficiaryReward, that.miningBeneficiaryReward);
+        && Objects.equals(this.miningBeneficiaryReward, that.miningBeneficiaryReward)
+        && this.incarnation == that.incarnation;
   }
 
   @Override
@@ -72,7 +100,8 @@ public final class ParallelizedTransactionContext {
         transactionAccumulator,
         transactionProcessingResult,
         isMiningBeneficiaryTouchedPreRewardByTransaction,
-        miningBeneficiaryReward);
+        miningBeneficiaryReward,
+        incarnation);
   }
 
   @Override
@@ -89,6 +118,9 @@ public final class ParallelizedTransactionContext {
         + ", "
         + "miningBeneficiaryReward="
         + miningBeneficiaryReward
+        + ", "
+        + "incarnation="
+        + incarnation
         + ']';
   }
 
@@ -97,6 +129,7 @@ public final class ParallelizedTransactionContext {
     private TransactionProcessingResult transactionProcessingResult;
     private boolean isMiningBeneficiaryTouchedPreRewardByTransaction;
     private Wei miningBeneficiaryReward = Wei.ZERO;
+    private int incarnation;
 
     public Builder transactionAccumulator(
         final PathBasedWorldStateUpdateAccumulator<?> transactionAccumulator) {
@@ -122,12 +155,18 @@ public final class ParallelizedTransactionContext {
       return this;
     }
 
+    public Builder incarnation(final int incarnation) {
+      this.incarnation = incarnation;
+      return this;
+    }
+
     public ParallelizedTransactionContext build() {
       return new ParallelizedTransactionContext(
           transactionAccumulator,
           transactionProcessingResult,
           isMiningBeneficiaryTouchedPreRewardByTransaction,
-          miningBeneficiaryReward);
+          miningBeneficiaryReward,
+          incarnation);
     }
   }
 }
@@ -0,0 +1,205 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet.parallelization;
+
+import org.hyperledger.besu.datatypes.AccessListEntry;
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
+import org.hyperledger.besu.ethereum.ProtocolContext;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.ethereum.trie.common.PmtStateTrieAccountValue;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.BonsaiWorldStateProvider;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.cache.BonsaiCachedMerkleTrieLoader;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Warms the Bonsai caches with the state a block's transactions are expected to read before they
+ * are executed.
+ *
+ * <p>For every transaction, the read set that can be known without executing it (sender,
+ * recipient, the accounts and storage slots listed in its access list, and the mining beneficiary)
+ * is loaded on the given executor. Flat database entries are read so that they are served from the
+ * RocksDB block cache afterwards, and the trie nodes along the path of each account and slot are
+ * loaded into the {@link BonsaiCachedMerkleTrieLoader} caches, which are later used by the root
+ * hash calculation. Prefetching never modifies any state, so it is safe to run concurrently with
+ * the optimistic and the ordered passes; a missed or stale entry only costs a regular read.
+ */
+public class TransactionReadSetPrefetcher {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TransactionReadSetPrefetcher.class);
+
+  /**
+   * Schedules the prefetch of the read set of each transaction on the executor. This method does
+   * not block, tasks are submitted in transaction order so that the first transactions of the
+   * block are warmed first.
+   *
+   * @param protocolContext the current context of the protocol
+   * @param blockHeader Header of the block containing the transactions.
+   * @param transactions List of transactions to prefetch.
+   * @param miningBeneficiary Address of the beneficiary to receive mining rewards.
+   * @param executor The executor to use for asynchronous prefetching.
+   * @return the futures of the scheduled prefetch tasks, empty if the world state archive does not
+   *     support prefetching
+   */
+  public List<CompletableFuture<Void>> prefetch(
+      final ProtocolContext protocolContext,
+      final BlockHeader blockHeader,
+      final List<Transaction> transactions,
+      final Address miningBeneficiary,
+      final Executor executor) {
+    if (!(protocolContext.getWorldStateArchive()
+        instanceof BonsaiWorldStateProvider bonsaiWorldStateProvider)) {
+      return List.of();
+    }
+    final BonsaiWorldStateKeyValueStorage worldStateKeyValueStorage =
+        (BonsaiWorldStateKeyValueStorage) bonsaiWorldStateProvider.getWorldStateKeyValueStorage();
+    final BonsaiCachedMerkleTrieLoader cachedMerkleTrieLoader =
+        bonsaiWorldStateProvider.getCachedMerkleTrieLoader();
+    final Hash parentStateRoot =
+        protocolContext
+            .getBlockchain()
+            .getBlockHeader(blockHeader.getParentHash())
+            .map(BlockHeader::getStateRoot)
+            .orElse(null);
+    if (parentStateRoot == null) {
+      return List.of();
+    }
+
+    final List<CompletableFuture<Void>> prefetchTasks = new ArrayList<>(transactions.size() + 1);
+    prefetchTasks.add(
+        CompletableFuture.runAsync(
+            () ->
+                prefetchAccount(
+                    worldStateKeyValueStorage,
+                    cachedMerkleTrieLoader,
+                    parentStateRoot,
+                    miningBeneficiary,
+                    false),
+            executor));
+    for (final Transaction transaction : transactions) {
+      prefetchTasks.add(
+          CompletableFuture.runAsync(
+              () ->
+                  prefetchTransaction(
+                      worldStateKeyValueStorage,
+                      cachedMerkleTrieLoader,
+                      parentStateRoot,
+                      transaction),
+              executor));
+    }
+    return prefetchTasks;
+  }
+
+  @VisibleForTesting
+  void prefetchTransaction(
+      final BonsaiWorldStateKeyValueStorage worldStateKeyValueStorage,
+      final BonsaiCachedMerkleTrieLoader cachedMerkleTrieLoader,
+      final Hash parentStateRoot,
+      final Transaction transaction) {
+    try {
+      final ReadSet readSet = getReadSet(transaction);
+      for (final Address address : readSet.accounts()) {
+        prefetchAccount(
+            worldStateKeyValueStorage,
+            cachedMerkleTrieLoader,
+            parentStateRoot,
+            address,
+            readSet.accountsWithCode().contains(address));
+      }
+      for (final ReadSetSlot slot : readSet.slots()) {
+        worldStateKeyValueStorage.getStorageValueByStorageSlotKey(
+            slot.address().addressHash(), slot.slotKey());
+        cachedMerkleTrieLoader.cacheStorageNodes(
+            worldStateKeyValueStorage, slot.address(), slot.slotKey());
+      }
+    } catch (Exception e) {
+      // prefetching is best effort, the ordered pass will read the missing data
+      LOG.trace("Failed to prefetch read set of transaction {}", transaction.getHash(), e);
+    }
+  }
+
+  private void prefetchAccount(
+      final BonsaiWorldStateKeyValueStorage worldStateKeyValueStorage,
+      final BonsaiCachedMerkleTrieLoader cachedMerkleTrieLoader,
+      final Hash parentStateRoot,
+      final Address address,
+      final boolean withCode) {
+    final Hash accountHash = address.addressHash();
+    final Optional<PmtStateTrieAccountValue> account =
+        worldStateKeyValueStorage
+            .getAccount(accountHash)
+            .map(bytes -> PmtStateTrieAccountValue.readFrom(RLP.input(bytes)));
+    cachedMerkleTrieLoader.cacheAccountNodes(worldStateKeyValueStorage, parentStateRoot, address);
+    if (withCode) {
+      account.ifPresent(
+          value -> worldStateKeyValueStorage.getCode(value.getCodeHash(), accountHash));
+    }
+  }
+
+  /**
+   * Computes the part of the read set of a transaction that can be known without executing it.
+   *
+   * @param transaction the transaction to analyze
+   * @return the accounts and storage slots the transaction is expected to read
+   */
+  @VisibleForTesting
+  static ReadSet getReadSet(final Transaction transaction) {
+    final Set<Address> accounts = new LinkedHashSet<>();
+    final Set<Address> accountsWithCode = new LinkedHashSet<>();
+    final List<ReadSetSlot> slots = new ArrayList<>();
+    accounts.add(transaction.getSender());
+    transaction
+        .getTo()
+        .ifPresent(
+            to -> {
+              accounts.add(to);
+              accountsWithCode.add(to);
+            });
+    transaction
+        .getAccessList()
+        .ifPresent(
+            accessList -> {
+              for (final AccessListEntry entry : accessList) {
+                accounts.add(entry.address());
+                for (var storageKey : entry.storageKeys()) {
+                  slots.add(
+                      new ReadSetSlot(
+                          entry.address(), new StorageSlotKey(UInt256.fromBytes(storageKey))));
+                }
+              }
+            });
+    return new ReadSet(accounts, accountsWithCode, slots);
+  }
+
+  record ReadSet(Set<Address> accounts, Set<Address> accountsWithCode, List<ReadSetSlot> slots) {}
+
+  record ReadSetSlot(Address address, StorageSlotKey slotKey) {}
+}
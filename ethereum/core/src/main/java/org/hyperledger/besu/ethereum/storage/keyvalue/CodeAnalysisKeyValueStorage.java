@@ -0,0 +1,269 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.storage.keyvalue;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.evm.internal.CodeAnalysis;
+import org.hyperledger.besu.evm.internal.CodeAnalysisStore;
+import org.hyperledger.besu.plugin.services.exception.StorageException;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persists the analysis of the most used contracts in the {@link
+ * KeyValueSegmentIdentifier#CODE_ANALYSIS} segment.
+ *
+ * <p>Keys are the analysis version followed by the code hash. Values are a CRC32C checksum of the
+ * key and of the rest of the value, the number of uses, the number of longs of the jump
+ * destinations bitmap, the bitmap and the code. Entries whose checksum does not match are ignored,
+ * so that a corrupted bitmap is never used to execute transactions. Storage failures are logged and
+ * otherwise ignored, the store being a cache.
+ *
+ * <p>Writes are requested by the threads executing transactions, so they are handed off to a single
+ * background writer. When too many writes are pending, new ones are dropped: the analysis of a code
+ * is persisted again when its number of uses doubles.
+ *
+ * <p>The segment is pruned when the most used entries are selected at startup: only the {@link
+ * #MAX_PERSISTED_ANALYSES} most used entries are kept, entries of other versions and malformed
+ * entries are removed.
+ */
+public class CodeAnalysisKeyValueStorage implements CodeAnalysisStore, Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(CodeAnalysisKeyValueStorage.class);
+
+  private static final int CHECKSUM_SIZE = Integer.BYTES;
+  private static final int HEADER_SIZE = CHECKSUM_SIZE + Long.BYTES + Integer.BYTES;
+  private static final int MAX_PENDING_WRITES = 1024;
+  static final int MAX_PERSISTED_ANALYSES = 4096;
+
+  private final KeyValueStorage storage;
+  private final ExecutorService writer;
+  private final int maxPersistedAnalyses;
+
+  public CodeAnalysisKeyValueStorage(final KeyValueStorage storage) {
+    this(
+        storage,
+        new ThreadPoolExecutor(
+            1,
+            1,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(MAX_PENDING_WRITES),
+            new ThreadFactoryBuilder().setNameFormat("CodeAnalysisWriter").setDaemon(true).build(),
+            new ThreadPoolExecutor.DiscardPolicy()),
+        MAX_PERSISTED_ANALYSES);
+  }
+
+  @VisibleForTesting
+  CodeAnalysisKeyValueStorage(
+      final KeyValueStorage storage,
+      final ExecutorService writer,
+      final int maxPersistedAnalyses) {
+    this.storage = storage;
+    this.writer = writer;
+    this.maxPersistedAnalyses = maxPersistedAnalyses;
+  }
+
+  /**
+   * Gets the persisted analysis of a code.
+   *
+   * @param codeHash the hash of the code
+   * @return the analysis of the code, if persisted with the current version and not corrupted
+   */
+  public Optional<CodeAnalysis> get(final Hash codeHash) {
+    try {
+      return storage.get(key(codeHash)).flatMap(value -> decode(codeHash, value));
+    } catch (final StorageException e) {
+      LOG.debug("Unable to read the code analysis of {}", codeHash, e);
+      return Optional.empty();
+    }
+  }
+
+  @Override
+  public void put(final CodeAnalysis analysis) {
+    if (!writer.isShutdown()) {
+      writer.execute(() -> write(analysis));
+    }
+  }
+
+  private void write(final CodeAnalysis analysis) {
+    try {
+      final KeyValueStorageTransaction transaction = storage.startTransaction();
+      final byte[] key = key(analysis.getCodeHash());
+      transaction.put(key, encode(key, analysis));
+      transaction.commit();
+    } catch (final StorageException e) {
+      LOG.debug("Unable to persist the code analysis of {}", analysis.getCodeHash(), e);
+    }
+  }
+
+  /** Stops the background writer, after the pending writes are done. */
+  @Override
+  public void close() {
+    writer.shutdown();
+    try {
+      if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+        writer.shutdownNow();
+      }
+    } catch (final InterruptedException e) {
+      writer.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Gets the analysis of the most used codes, and prunes the segment. Only the keys and the number
+   * of uses of the entries are kept while scanning the segment, in a heap bounded by the maximum
+   * number of persisted entries, then the selected entries are read again and verified.
+   *
+   * @param maxWeightBytes the maximum total estimated size of the returned analysis
+   * @return the analysis of the most used codes
+   */
+  @Override
+  public List<CodeAnalysis> getMostUsed(final long maxWeightBytes) {
+    final PriorityQueue<Candidate> mostUsed =
+        new PriorityQueue<>(Comparator.comparingLong(Candidate::uses));
+    final List<byte[]> removed = new ArrayList<>();
+    try (final Stream<Pair<byte[], byte[]>> stream = storage.stream()) {
+      final Iterator<Pair<byte[], byte[]>> entries = stream.iterator();
+      while (entries.hasNext()) {
+        final Pair<byte[], byte[]> entry = entries.next();
+        final byte[] key = entry.getKey();
+        final byte[] value = entry.getValue();
+        if (key.length != 1 + Hash.SIZE
+            || key[0] != (byte) ANALYSIS_VERSION
+            || value.length < HEADER_SIZE) {
+          removed.add(key);
+          continue;
+        }
+        // the estimated size of the analysis, without decoding the bitmap nor the code
+        final long weight = value.length - HEADER_SIZE + Hash.SIZE;
+        mostUsed.add(
+            new Candidate(
+                Hash.wrap(Bytes32.wrap(key, 1)),
+                ByteBuffer.wrap(value).getLong(CHECKSUM_SIZE),
+                weight));
+        if (mostUsed.size() > maxPersistedAnalyses) {
+          removed.add(key(mostUsed.poll().codeHash()));
+        }
+      }
+    } catch (final StorageException e) {
+      LOG.debug("Unable to read the persisted code analysis", e);
+      return List.of();
+    }
+
+    final List<Candidate> candidates = new ArrayList<>(mostUsed);
+    candidates.sort(Comparator.comparingLong(Candidate::uses).reversed());
+    final List<CodeAnalysis> selected = new ArrayList<>();
+    long weight = 0;
+    for (final Candidate candidate : candidates) {
+      weight += candidate.weight();
+      if (weight > maxWeightBytes) {
+        break;
+      }
+      get(candidate.codeHash()).ifPresent(selected::add);
+    }
+    remove(removed);
+    return selected;
+  }
+
+  private void remove(final List<byte[]> keys) {
+    if (keys.isEmpty()) {
+      return;
+    }
+    try {
+      final KeyValueStorageTransaction transaction = storage.startTransaction();
+      keys.forEach(transaction::remove);
+      transaction.commit();
+      LOG.debug("Pruned {} persisted code analysis", keys.size());
+    } catch (final StorageException e) {
+      LOG.debug("Unable to prune the persisted code analysis", e);
+    }
+  }
+
+  private static byte[] key(final Hash codeHash) {
+    final byte[] key = new byte[1 + Hash.SIZE];
+    key[0] = (byte) ANALYSIS_VERSION;
+    System.arraycopy(codeHash.toArrayUnsafe(), 0, key, 1, Hash.SIZE);
+    return key;
+  }
+
+  private static byte[] encode(final byte[] key, final CodeAnalysis analysis) {
+    final long[] jumpDestinations = analysis.getJumpDestinations();
+    final Bytes code = analysis.getCode();
+    final ByteBuffer buffer =
+        ByteBuffer.allocate(HEADER_SIZE + jumpDestinations.length * Long.BYTES + code.size());
+    buffer.position(CHECKSUM_SIZE);
+    buffer.putLong(analysis.getUses());
+    buffer.putInt(jumpDestinations.length);
+    for (final long jumpDestination : jumpDestinations) {
+      buffer.putLong(jumpDestination);
+    }
+    buffer.put(code.toArrayUnsafe());
+    buffer.putInt(0, checksum(key, buffer.array()));
+    return buffer.array();
+  }
+
+  private static Optional<CodeAnalysis> decode(final Hash codeHash, final byte[] value) {
+    if (value.length < HEADER_SIZE
+        || ByteBuffer.wrap(value).getInt() != checksum(key(codeHash), value)) {
+      return Optional.empty();
+    }
+    final ByteBuffer buffer = ByteBuffer.wrap(value, CHECKSUM_SIZE, value.length - CHECKSUM_SIZE);
+    final long uses = buffer.getLong();
+    final int bitmapLength = buffer.getInt();
+    if (bitmapLength < 0 || bitmapLength > buffer.remaining() / Long.BYTES) {
+      return Optional.empty();
+    }
+    final long[] jumpDestinations = new long[bitmapLength];
+    for (int i = 0; i < bitmapLength; i++) {
+      jumpDestinations[i] = buffer.getLong();
+    }
+    final Bytes code = Bytes.wrap(value, buffer.position(), buffer.remaining());
+    return Optional.of(new CodeAnalysis(codeHash, code, jumpDestinations, uses));
+  }
+
+  // covers the key so that an entry cannot be used for another code
+  private static int checksum(final byte[] key, final byte[] value) {
+    final CRC32C crc = new CRC32C();
+    crc.update(key);
+    crc.update(value, CHECKSUM_SIZE, value.length - CHECKSUM_SIZE);
+    return (int) crc.getValue();
+  }
+
+  private record Candidate(Hash codeHash, long uses, long weight) {}
+}
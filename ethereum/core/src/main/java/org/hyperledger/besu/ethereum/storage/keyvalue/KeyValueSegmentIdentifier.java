@@ -49,7 +49,9 @@ public enum KeyValueSegmentIdentifier implements SegmentIdentifier {
   BACKWARD_SYNC_CHAIN(new byte[] {15}),
   SNAPSYNC_MISSING_ACCOUNT_RANGE(new byte[] {16}),
   SNAPSYNC_ACCOUNT_TO_FIX(new byte[] {17}),
-  CHAIN_PRUNER_STATE(new byte[] {18});
+  CHAIN_PRUNER_STATE(new byte[] {18}),
+  CODE_ANALYSIS(new byte[] {19}),
+  TRIE_LOG_RANGE_DIFF_STORAGE(new byte[] {20}, EnumSet.of(BONSAI));
 
   private final byte[] id;
   private final EnumSet<DataStorageFormat> formats;
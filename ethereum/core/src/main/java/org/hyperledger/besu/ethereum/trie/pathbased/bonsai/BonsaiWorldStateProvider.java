@@ -32,6 +32,8 @@ import org.hyperledger.besu.plugin.ServiceManager;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -45,6 +47,7 @@ public class BonsaiWorldStateProvider extends PathBasedWorldStateProvider {
   private static final Logger LOG = LoggerFactory.getLogger(BonsaiWorldStateProvider.class);
   private final BonsaiCachedMerkleTrieLoader bonsaiCachedMerkleTrieLoader;
   private final Supplier<WorldStateHealer> worldStateHealerSupplier;
+  private final Optional<ExecutorService> storageRootExecutor;
 
   public BonsaiWorldStateProvider(
       final BonsaiWorldStateKeyValueStorage worldStateKeyValueStorage,
@@ -54,9 +57,34 @@ public class BonsaiWorldStateProvider extends PathBasedWorldStateProvider {
       final ServiceManager pluginContext,
       final EvmConfiguration evmConfiguration,
       final Supplier<WorldStateHealer> worldStateHealerSupplier) {
+    this(
+        worldStateKeyValueStorage,
+        blockchain,
+        maxLayersToLoad,
+        bonsaiCachedMerkleTrieLoader,
+        pluginContext,
+        evmConfiguration,
+        worldStateHealerSupplier,
+        Optional.empty());
+  }
+
+  /**
+   * Creates a provider whose world states compute the storage roots of the accounts with many
+   * updated slots on the given executor. The provider shuts the executor down when it is closed.
+   */
+  public BonsaiWorldStateProvider(
+      final BonsaiWorldStateKeyValueStorage worldStateKeyValueStorage,
+      final Blockchain blockchain,
+      final Optional<Long> maxLayersToLoad,
+      final BonsaiCachedMerkleTrieLoader bonsaiCachedMerkleTrieLoader,
+      final ServiceManager pluginContext,
+      final EvmConfiguration evmConfiguration,
+      final Supplier<WorldStateHealer> worldStateHealerSupplier,
+      final Optional<ExecutorService> storageRootExecutor) {
     super(worldStateKeyValueStorage, blockchain, maxLayersToLoad, pluginContext);
     this.bonsaiCachedMerkleTrieLoader = bonsaiCachedMerkleTrieLoader;
     this.worldStateHealerSupplier = worldStateHealerSupplier;
+    this.storageRootExecutor = storageRootExecutor;
     provideCachedWorldStorageManager(
         new BonsaiCachedWorldStorageManager(this, worldStateKeyValueStorage, worldStateConfig));
     loadHeadWorldState(
@@ -75,6 +103,7 @@ public class BonsaiWorldStateProvider extends PathBasedWorldStateProvider {
     super(worldStateKeyValueStorage, blockchain, trieLogManager);
     this.bonsaiCachedMerkleTrieLoader = bonsaiCachedMerkleTrieLoader;
     this.worldStateHealerSupplier = worldStateHealerSupplier;
+    this.storageRootExecutor = Optional.empty();
     provideCachedWorldStorageManager(bonsaiCachedWorldStorageManager);
     loadHeadWorldState(
         new BonsaiWorldState(this, worldStateKeyValueStorage, evmConfiguration, worldStateConfig));
@@ -84,6 +113,10 @@ public class BonsaiWorldStateProvider extends PathBasedWorldStateProvider {
     return bonsaiCachedMerkleTrieLoader;
   }
 
+  public Optional<ExecutorService> getStorageRootExecutor() {
+    return storageRootExecutor;
+  }
+
   private BonsaiWorldStateKeyValueStorage getBonsaiWorldStateKeyValueStorage() {
     return (BonsaiWorldStateKeyValueStorage) worldStateKeyValueStorage;
   }
@@ -154,4 +187,21 @@ public class BonsaiWorldStateProvider extends PathBasedWorldStateProvider {
   public void heal(final Optional<Address> maybeAccountToRepair, final Bytes location) {
     worldStateHealerSupplier.get().heal(maybeAccountToRepair, location);
   }
+
+  @Override
+  public void close() {
+    storageRootExecutor.ifPresent(
+        executor -> {
+          executor.shutdown();
+          try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+              executor.shutdownNow();
+            }
+          } catch (final InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+          }
+        });
+    super.close();
+  }
 }
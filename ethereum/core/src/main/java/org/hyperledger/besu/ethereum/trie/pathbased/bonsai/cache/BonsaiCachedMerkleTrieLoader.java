@@ -24,30 +24,79 @@ import org.hyperledger.besu.ethereum.trie.MerkleTrieException;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.StorageSubscriber;
 import org.hyperledger.besu.ethereum.trie.patricia.StoredMerklePatriciaTrie;
+import org.hyperledger.besu.ethereum.worldstate.PathBasedExtraStorageConfiguration;
 import org.hyperledger.besu.metrics.ObservableMetricsSystem;
+import org.hyperledger.besu.plugin.services.metrics.LabelledSuppliedMetric;
 
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
 
 public class BonsaiCachedMerkleTrieLoader implements StorageSubscriber {
 
-  private static final int ACCOUNT_CACHE_SIZE = 100_000;
-  private static final int STORAGE_CACHE_SIZE = 200_000;
-  private final Cache<Bytes, Bytes> accountNodes =
-      CacheBuilder.newBuilder().recordStats().maximumSize(ACCOUNT_CACHE_SIZE).build();
-  private final Cache<Bytes, Bytes> storageNodes =
-      CacheBuilder.newBuilder().recordStats().maximumSize(STORAGE_CACHE_SIZE).build();
+  // nodes up to these depths are kept when their segment is evicted
+  private static final int ACCOUNT_PROTECTED_DEPTH = 4;
+  private static final int STORAGE_PROTECTED_DEPTH = 2;
+  private final OffHeapTrieNodeCache accountNodes;
+  private final OffHeapTrieNodeCache storageNodes;
 
   public BonsaiCachedMerkleTrieLoader(final ObservableMetricsSystem metricsSystem) {
-    metricsSystem.createGuavaCacheCollector(BLOCKCHAIN, "accountsNodes", accountNodes);
-    metricsSystem.createGuavaCacheCollector(BLOCKCHAIN, "storageNodes", storageNodes);
+    this(
+        metricsSystem,
+        PathBasedExtraStorageConfiguration.PathBasedUnstable.DEFAULT_TRIE_NODE_CACHE_SIZE);
+  }
+
+  /**
+   * Creates a loader whose node caches use at most the given number of bytes of direct memory, a
+   * third of it for the account trie and the rest for the storage tries.
+   *
+   * @param metricsSystem the metrics system
+   * @param cacheSizeBytes the total size of the node caches in bytes
+   */
+  public BonsaiCachedMerkleTrieLoader(
+      final ObservableMetricsSystem metricsSystem, final long cacheSizeBytes) {
+    this.accountNodes = new OffHeapTrieNodeCache(cacheSizeBytes / 3, ACCOUNT_PROTECTED_DEPTH);
+    this.storageNodes =
+        new OffHeapTrieNodeCache(cacheSizeBytes - cacheSizeBytes / 3, STORAGE_PROTECTED_DEPTH);
+    registerMetrics(metricsSystem);
+  }
+
+  private void registerMetrics(final ObservableMetricsSystem metricsSystem) {
+    final LabelledSuppliedMetric hits =
+        metricsSystem.createLabelledSuppliedCounter(
+            BLOCKCHAIN, "trie_node_cache_hit_count", "Trie node cache hits", "cache");
+    final LabelledSuppliedMetric misses =
+        metricsSystem.createLabelledSuppliedCounter(
+            BLOCKCHAIN, "trie_node_cache_miss_count", "Trie node cache misses", "cache");
+    final LabelledSuppliedMetric evictions =
+        metricsSystem.createLabelledSuppliedCounter(
+            BLOCKCHAIN,
+            "trie_node_cache_eviction_count",
+            "Trie nodes evicted from the cache",
+            "cache");
+    final LabelledSuppliedMetric entries =
+        metricsSystem.createLabelledSuppliedGauge(
+            BLOCKCHAIN, "trie_node_cache_entries", "Trie nodes in the cache", "cache");
+    final LabelledSuppliedMetric usedBytes =
+        metricsSystem.createLabelledSuppliedGauge(
+            BLOCKCHAIN,
+            "trie_node_cache_used_bytes",
+            "Direct memory used by the trie node cache",
+            "cache");
+    Map.of("accountsNodes", accountNodes, "storageNodes", storageNodes)
+        .forEach(
+            (name, nodes) -> {
+              hits.labels(nodes::getHitCount, name);
+              misses.labels(nodes::getMissCount, name);
+              evictions.labels(nodes::getEvictionCount, name);
+              entries.labels(nodes::getEntryCount, name);
+              usedBytes.labels(nodes::getUsedBytes, name);
+            });
   }
 
   public void preLoadAccount(
@@ -70,7 +119,7 @@ public class BonsaiCachedMerkleTrieLoader implements StorageSubscriber {
               (location, hash) -> {
                 Optional<Bytes> node =
                     getAccountStateTrieNode(worldStateKeyValueStorage, location, hash);
-                node.ifPresent(bytes -> accountNodes.put(Hash.hash(bytes), bytes));
+                node.ifPresent(bytes -> accountNodes.put(location, hash, bytes));
                 return node;
               },
               worldStateRootHash,
@@ -111,7 +160,7 @@ public class BonsaiCachedMerkleTrieLoader implements StorageSubscriber {
                             Optional<Bytes> node =
                                 getAccountStorageTrieNode(
                                     worldStateKeyValueStorage, accountHash, location, hash);
-                            node.ifPresent(bytes -> storageNodes.put(Hash.hash(bytes), bytes));
+                            node.ifPresent(bytes -> storageNodes.put(location, hash, bytes));
                             return node;
                           },
                           Hash.hash(storageRoot),
@@ -134,11 +183,20 @@ public class BonsaiCachedMerkleTrieLoader implements StorageSubscriber {
     if (nodeHash.equals(MerkleTrie.EMPTY_TRIE_NODE_HASH)) {
       return Optional.of(MerkleTrie.EMPTY_TRIE_NODE);
     } else {
-      return Optional.ofNullable(accountNodes.getIfPresent(nodeHash))
+      return accountNodes
+          .get(nodeHash)
           .or(() -> worldStateKeyValueStorage.getAccountStateTrieNode(location, nodeHash));
     }
   }
 
+  public Optional<Bytes> getCachedAccountStorageTrieNode(final Bytes32 nodeHash) {
+    if (nodeHash.equals(MerkleTrie.EMPTY_TRIE_NODE_HASH)) {
+      return Optional.of(MerkleTrie.EMPTY_TRIE_NODE);
+    } else {
+      return storageNodes.get(nodeHash);
+    }
+  }
+
   public Optional<Bytes> getAccountStorageTrieNode(
       final BonsaiWorldStateKeyValueStorage worldStateKeyValueStorage,
       final Hash accountHash,
@@ -147,7 +205,8 @@ public class BonsaiCachedMerkleTrieLoader implements StorageSubscriber {
     if (nodeHash.equals(MerkleTrie.EMPTY_TRIE_NODE_HASH)) {
       return Optional.of(MerkleTrie.EMPTY_TRIE_NODE);
     } else {
-      return Optional.ofNullable(storageNodes.getIfPresent(nodeHash))
+      return storageNodes
+          .get(nodeHash)
           .or(
               () ->
                   worldStateKeyValueStorage.getAccountStorageTrieNode(
@@ -0,0 +1,192 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.bonsai.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Open addressing hash table from a {@code long} key to a {@code long} value, used as the index of
+ * the {@link OffHeapTrieNodeCache} so that no boxed key, boxed value or map entry is allocated per
+ * cached node.
+ *
+ * <p>Keys and values are stored side by side in a single {@link AtomicLongArray} and collisions are
+ * resolved by linear probing, with backward shift deletion so that no tombstone accumulates. The
+ * table grows by doubling when it is three quarters full.
+ *
+ * <p>Writes and {@link #size()} must be serialized by the caller. Reads do not lock and may run
+ * concurrently with writes, in which case they can miss an entry that is being moved or return the
+ * value of another entry. This is acceptable for the cache, which checks the full node hash of
+ * every read.
+ */
+final class LongToLongIndex {
+
+  /** Returned by {@link #get(long)} when the key is not in the table. */
+  static final long ABSENT = -1L;
+
+  private static final long EMPTY_KEY = 0L;
+  // the empty key marks a free slot, so it is stored as another key and the two share an entry
+  private static final long EMPTY_KEY_SUBSTITUTE = 1L;
+  private static final int MIN_CAPACITY = 1024;
+
+  private volatile AtomicLongArray table;
+  private int size;
+
+  LongToLongIndex() {
+    this.table = new AtomicLongArray(MIN_CAPACITY * 2);
+  }
+
+  /**
+   * Returns the value of a key.
+   *
+   * @param key the key
+   * @return the value, or {@link #ABSENT} if the key is not in the table
+   */
+  long get(final long key) {
+    final long storedKey = storedKey(key);
+    final AtomicLongArray entries = table;
+    final int capacity = entries.length() / 2;
+    int slot = home(storedKey, capacity);
+    for (int probe = 0; probe < capacity; probe++) {
+      final long slotKey = entries.get(slot * 2);
+      if (slotKey == storedKey) {
+        return entries.get(slot * 2 + 1);
+      }
+      if (slotKey == EMPTY_KEY) {
+        return ABSENT;
+      }
+      slot = (slot + 1) & (capacity - 1);
+    }
+    return ABSENT;
+  }
+
+  boolean containsKey(final long key) {
+    return get(key) != ABSENT;
+  }
+
+  /**
+   * Sets the value of a key, the value must not be {@link #ABSENT}.
+   *
+   * @param key the key
+   * @param value the value
+   */
+  void put(final long key, final long value) {
+    final int capacity = table.length() / 2;
+    if ((size + 1) * 4L > capacity * 3L) {
+      resize(capacity * 2);
+    }
+    if (insert(table, storedKey(key), value)) {
+      size++;
+    }
+  }
+
+  /**
+   * Removes a key if it is mapped to the given value.
+   *
+   * @param key the key
+   * @param value the expected value
+   * @return true if the key was removed
+   */
+  boolean remove(final long key, final long value) {
+    final long storedKey = storedKey(key);
+    final AtomicLongArray entries = table;
+    final int mask = entries.length() / 2 - 1;
+    int slot = home(storedKey, mask + 1);
+    while (true) {
+      final long slotKey = entries.get(slot * 2);
+      if (slotKey == EMPTY_KEY) {
+        return false;
+      }
+      if (slotKey == storedKey) {
+        if (entries.get(slot * 2 + 1) != value) {
+          return false;
+        }
+        break;
+      }
+      slot = (slot + 1) & mask;
+    }
+    // shift back the following entries of the cluster that would no longer be reachable
+    int free = slot;
+    int next = slot;
+    while (true) {
+      next = (next + 1) & mask;
+      final long nextKey = entries.get(next * 2);
+      if (nextKey == EMPTY_KEY) {
+        break;
+      }
+      final int nextHome = home(nextKey, mask + 1);
+      if (((next - nextHome) & mask) >= ((next - free) & mask)) {
+        entries.set(free * 2 + 1, entries.get(next * 2 + 1));
+        entries.set(free * 2, nextKey);
+        free = next;
+      }
+    }
+    entries.set(free * 2, EMPTY_KEY);
+    size--;
+    return true;
+  }
+
+  /** Removes every entry and shrinks the table back to its initial capacity. */
+  void clear() {
+    table = new AtomicLongArray(MIN_CAPACITY * 2);
+    size = 0;
+  }
+
+  int size() {
+    return size;
+  }
+
+  private void resize(final int newCapacity) {
+    final AtomicLongArray entries = table;
+    final AtomicLongArray resized = new AtomicLongArray(newCapacity * 2);
+    for (int slot = 0; slot < entries.length() / 2; slot++) {
+      final long slotKey = entries.get(slot * 2);
+      if (slotKey != EMPTY_KEY) {
+        insert(resized, slotKey, entries.get(slot * 2 + 1));
+      }
+    }
+    // readers still using the previous table see a consistent, if stale, view of the index
+    table = resized;
+  }
+
+  private static boolean insert(
+      final AtomicLongArray entries, final long storedKey, final long value) {
+    final int mask = entries.length() / 2 - 1;
+    int slot = home(storedKey, mask + 1);
+    while (true) {
+      final long slotKey = entries.get(slot * 2);
+      if (slotKey == storedKey) {
+        entries.set(slot * 2 + 1, value);
+        return false;
+      }
+      if (slotKey == EMPTY_KEY) {
+        // the value is published before the key, so that a reader finding the key sees its value
+        entries.set(slot * 2 + 1, value);
+        entries.set(slot * 2, storedKey);
+        return true;
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  private static int home(final long storedKey, final int capacity) {
+    // Fibonacci hashing, capacity is a power of two
+    final int bits = Integer.numberOfTrailingZeros(capacity);
+    return (int) ((storedKey * 0x9E3779B97F4A7C15L) >>> (Long.SIZE - bits));
+  }
+
+  private static long storedKey(final long key) {
+    return key == EMPTY_KEY ? EMPTY_KEY_SUBSTITUTE : key;
+  }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.bonsai.cache;
+
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+
+/**
+ * Byte-budgeted cache of trie nodes stored outside of the Java heap.
+ *
+ * <p>Nodes are appended to a ring of fixed size direct buffer segments. Each entry is laid out as
+ * {@code [int length][byte depth][32 bytes hash][node]}, the only on-heap structure being a
+ * primitive {@link LongToLongIndex} from the first 8 bytes of the node hash to the position of the
+ * entry. A read resolves the position, copies the node and checks the full hash, so that a
+ * collision on the index key is a miss and never a wrong node.
+ *
+ * <p>When the ring is full, the oldest segment is evicted as a whole. Nodes whose depth (the
+ * length of their location in the trie) is at most {@code protectedDepth} are the nodes shared by
+ * most paths and are re-inserted instead of being dropped, as long as they fill at most half of a
+ * segment. Readers never block: every segment carries a generation which is bumped before the
+ * segment is overwritten and checked again after the copy, a read that raced with an eviction is
+ * reported as a miss. Writes are serialized.
+ */
+public class OffHeapTrieNodeCache {
+
+  static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+  private static final int MIN_SEGMENT_COUNT = 2;
+  private static final int HEADER_SIZE = Integer.BYTES + 1 + Bytes32.SIZE;
+  private static final int MAX_DEPTH = 0xFF;
+
+  private static final long GENERATION_MASK = 0xFFFFL;
+  private static final long SEGMENT_MASK = 0xFFFFL;
+  private static final long OFFSET_MASK = 0xFFFFFFFFL;
+
+  private final int segmentSize;
+  private final int segmentCount;
+  private final int protectedDepth;
+  private final ByteBuffer[] segments;
+  private final int[] segmentEnds;
+  private final AtomicLongArray generations;
+  private final LongToLongIndex index = new LongToLongIndex();
+
+  private int writeSegment = 0;
+  private int writeOffset = 0;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final AtomicLong usedBytes = new AtomicLong();
+
+  /**
+   * Creates a cache using at most the given number of bytes of direct memory.
+   *
+   * @param maxSizeBytes the size of the cache in bytes, zero disables the cache
+   * @param protectedDepth the maximum depth of the nodes that survive an eviction
+   */
+  public OffHeapTrieNodeCache(final long maxSizeBytes, final int protectedDepth) {
+    this(
+        segmentSize(maxSizeBytes),
+        (int) Math.min(SEGMENT_MASK + 1, maxSizeBytes / Math.max(1, segmentSize(maxSizeBytes))),
+        protectedDepth);
+  }
+
+  OffHeapTrieNodeCache(final int segmentSize, final int segmentCount, final int protectedDepth) {
+    final boolean enabled = segmentSize > HEADER_SIZE && segmentCount >= MIN_SEGMENT_COUNT;
+    this.segmentSize = enabled ? segmentSize : 0;
+    this.segmentCount = enabled ? segmentCount : 0;
+    this.protectedDepth = protectedDepth;
+    this.segments = new ByteBuffer[this.segmentCount];
+    this.segmentEnds = new int[this.segmentCount];
+    this.generations = new AtomicLongArray(this.segmentCount);
+  }
+
+  private static int segmentSize(final long maxSizeBytes) {
+    return (int) Math.max(0, Math.min(DEFAULT_SEGMENT_SIZE, maxSizeBytes / MIN_SEGMENT_COUNT));
+  }
+
+  /**
+   * Returns the node with the given hash if it is in the cache.
+   *
+   * @param nodeHash the hash of the node
+   * @return the node, or empty if it is not cached
+   */
+  public Optional<Bytes> get(final Bytes32 nodeHash) {
+    final long address = index.get(indexKey(nodeHash));
+    if (address == LongToLongIndex.ABSENT) {
+      misses.increment();
+      return Optional.empty();
+    }
+    final Optional<Bytes> node = read(address, nodeHash);
+    if (node.isPresent()) {
+      hits.increment();
+    } else {
+      misses.increment();
+    }
+    return node;
+  }
+
+  /**
+   * Adds a node to the cache. Nodes larger than a segment are ignored.
+   *
+   * @param location the location of the node in the trie, only its length is used
+   * @param nodeHash the hash of the node
+   * @param node the node
+   */
+  public void put(final Bytes location, final Bytes32 nodeHash, final Bytes node) {
+    final int entrySize = HEADER_SIZE + node.size();
+    if (segmentCount == 0 || entrySize > segmentSize) {
+      return;
+    }
+    final long key = indexKey(nodeHash);
+    if (index.containsKey(key)) {
+      return;
+    }
+    synchronized (this) {
+      if (index.containsKey(key)) {
+        return;
+      }
+      if (writeOffset + entrySize > segmentSize) {
+        rotate();
+      }
+      append(Math.min(location.size(), MAX_DEPTH), nodeHash, node.toArrayUnsafe(), key);
+    }
+  }
+
+  /** Removes every node from the cache. */
+  public synchronized void clear() {
+    for (int segment = 0; segment < segmentCount; segment++) {
+      generations.incrementAndGet(segment);
+      segmentEnds[segment] = 0;
+    }
+    index.clear();
+    writeSegment = 0;
+    writeOffset = 0;
+    usedBytes.set(0);
+  }
+
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  public synchronized long getEntryCount() {
+    return index.size();
+  }
+
+  public long getUsedBytes() {
+    return usedBytes.get();
+  }
+
+  public long getCapacityBytes() {
+    return (long) segmentSize * segmentCount;
+  }
+
+  private Optional<Bytes> read(final long address, final Bytes32 nodeHash) {
+    final int segment = (int) ((address >>> 32) & SEGMENT_MASK);
+    final int offset = (int) (address & OFFSET_MASK);
+    final long generation = address >>> 48;
+    final ByteBuffer buffer = segments[segment];
+    if (buffer == null || (generations.get(segment) & GENERATION_MASK) != generation) {
+      return Optional.empty();
+    }
+    final int length = buffer.getInt(offset);
+    if (length < 0 || offset + HEADER_SIZE + length > segmentSize) {
+      return Optional.empty();
+    }
+    final byte[] hash = new byte[Bytes32.SIZE];
+    buffer.get(offset + Integer.BYTES + 1, hash);
+    final byte[] node = new byte[length];
+    buffer.get(offset + HEADER_SIZE, node);
+    // the copy must complete before the generation is checked again
+    VarHandle.acquireFence();
+    if ((generations.get(segment) & GENERATION_MASK) != generation
+        || !nodeHash.equals(Bytes32.wrap(hash))) {
+      return Optional.empty();
+    }
+    return Optional.of(Bytes.wrap(node));
+  }
+
+  private void append(final int depth, final Bytes32 nodeHash, final byte[] node, final long key) {
+    ByteBuffer buffer = segments[writeSegment];
+    if (buffer == null) {
+      buffer = ByteBuffer.allocateDirect(segmentSize);
+      segments[writeSegment] = buffer;
+    }
+    final int offset = writeOffset;
+    buffer.putInt(offset, node.length);
+    buffer.put(offset + Integer.BYTES, (byte) depth);
+    buffer.put(offset + Integer.BYTES + 1, nodeHash.toArrayUnsafe());
+    buffer.put(offset + HEADER_SIZE, node);
+    writeOffset += HEADER_SIZE + node.length;
+    usedBytes.addAndGet(HEADER_SIZE + node.length);
+    final long generation = generations.get(writeSegment) & GENERATION_MASK;
+    index.put(key, (generation << 48) | ((long) writeSegment << 32) | offset);
+  }
+
+  private void rotate() {
+    segmentEnds[writeSegment] = writeOffset;
+    writeSegment = (writeSegment + 1) % segmentCount;
+    writeOffset = 0;
+    final ByteBuffer buffer = segments[writeSegment];
+    final int end = segmentEnds[writeSegment];
+    segmentEnds[writeSegment] = 0;
+    if (buffer == null) {
+      return;
+    }
+    final long oldGeneration = generations.get(writeSegment) & GENERATION_MASK;
+    final List<RetainedNode> retained = new ArrayList<>();
+    int retainedSize = 0;
+    int offset = 0;
+    long evictedBytes = 0;
+    while (offset < end) {
+      final int length = buffer.getInt(offset);
+      final int depth = Byte.toUnsignedInt(buffer.get(offset + Integer.BYTES));
+      final byte[] hash = new byte[Bytes32.SIZE];
+      buffer.get(offset + Integer.BYTES + 1, hash);
+      final long key = indexKey(Bytes32.wrap(hash));
+      final long address = (oldGeneration << 48) | ((long) writeSegment << 32) | offset;
+      if (index.remove(key, address)) {
+        if (depth <= protectedDepth && retainedSize + HEADER_SIZE + length <= segmentSize / 2) {
+          final byte[] node = new byte[length];
+          buffer.get(offset + HEADER_SIZE, node);
+          retained.add(new RetainedNode(depth, Bytes32.wrap(hash), node, key));
+          retainedSize += HEADER_SIZE + length;
+        } else {
+          evictions.increment();
+        }
+      }
+      evictedBytes += HEADER_SIZE + length;
+      offset += HEADER_SIZE + length;
+    }
+    usedBytes.addAndGet(-evictedBytes);
+    generations.incrementAndGet(writeSegment);
+    // readers must observe the new generation before any byte of the segment is overwritten
+    VarHandle.storeStoreFence();
+    for (final RetainedNode node : retained) {
+      append(node.depth(), node.hash(), node.node(), node.key());
+    }
+  }
+
+  private static long indexKey(final Bytes32 nodeHash) {
+    return nodeHash.getLong(0);
+  }
+
+  private record RetainedNode(int depth, Bytes32 hash, byte[] node, long key) {}
+}
@@ -23,12 +23,18 @@ import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.datatypes.StorageSlotKey;
 import org.hyperledger.besu.ethereum.storage.StorageProvider;
 import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier;
+import org.hyperledger.besu.ethereum.trie.CompactEncoding;
 import org.hyperledger.besu.ethereum.trie.MerkleTrie;
+import org.hyperledger.besu.ethereum.trie.Node;
+import org.hyperledger.besu.ethereum.trie.StoredNode;
 import org.hyperledger.besu.ethereum.trie.common.PmtStateTrieAccountValue;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.flat.BonsaiFlatDbStrategy;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.flat.BonsaiFlatDbStrategyProvider;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.storage.PathBasedWorldStateKeyValueStorage;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.storage.flat.FlatDbStrategy;
+import org.hyperledger.besu.ethereum.trie.patricia.BranchNode;
+import org.hyperledger.besu.ethereum.trie.patricia.ExtensionNode;
+import org.hyperledger.besu.ethereum.trie.patricia.TrieNodeDecoder;
 import org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration;
 import org.hyperledger.besu.ethereum.worldstate.FlatDbMode;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateKeyValueStorage;
@@ -40,9 +46,15 @@ import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
 import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import org.apache.tuweni.bytes.Bytes;
@@ -124,6 +136,112 @@ public class BonsaiWorldStateKeyValueStorage extends PathBasedWorldStateKeyValue
     }
   }
 
+  /**
+   * Reads the storage trie nodes of an account located along the paths of the given slots, walking
+   * down from the storage root one trie level at a time. The nodes of a level are first looked up
+   * in the given cache, and only the missing ones are read from the database, with a single batched
+   * read per level. A path is followed to the next level only if its node was found.
+   *
+   * @param accountHash the hash of the account
+   * @param storageRoot the hash of the root of the storage trie
+   * @param slotHashes the hashes of the slots
+   * @param cachedNodeLookup looks up an already cached node by hash
+   * @return the nodes read from the database, checked against their hash and indexed by it
+   */
+  public Map<Bytes32, Bytes> getAccountStorageTrieNodesAlongPaths(
+      final Hash accountHash,
+      final Bytes32 storageRoot,
+      final Collection<Hash> slotHashes,
+      final Function<Bytes32, Optional<Bytes>> cachedNodeLookup) {
+    final Map<Bytes32, Bytes> nodes = new HashMap<>();
+    List<PendingNode> pendingNodes =
+        List.of(
+            new PendingNode(
+                Bytes.EMPTY,
+                storageRoot,
+                slotHashes.stream().map(CompactEncoding::bytesToPath).toList()));
+    while (!pendingNodes.isEmpty()) {
+      final List<FoundNode> foundNodes = new ArrayList<>(pendingNodes.size());
+      final List<PendingNode> missingNodes = new ArrayList<>();
+      for (final PendingNode pendingNode : pendingNodes) {
+        final Optional<Bytes> cachedNode = cachedNodeLookup.apply(pendingNode.hash());
+        if (cachedNode.isPresent()) {
+          foundNodes.add(new FoundNode(pendingNode, cachedNode.get()));
+        } else {
+          missingNodes.add(pendingNode);
+        }
+      }
+      if (!missingNodes.isEmpty()) {
+        final List<Optional<byte[]>> values =
+            composedWorldStateStorage.multiGet(
+                TRIE_BRANCH_STORAGE,
+                missingNodes.stream()
+                    .map(
+                        pendingNode ->
+                            Bytes.concatenate(accountHash, pendingNode.location()).toArrayUnsafe())
+                    .toList());
+        for (int i = 0; i < missingNodes.size(); i++) {
+          final PendingNode missingNode = missingNodes.get(i);
+          values
+              .get(i)
+              .map(Bytes::wrap)
+              .filter(node -> Hash.hash(node).equals(missingNode.hash()))
+              .ifPresent(
+                  node -> {
+                    nodes.put(missingNode.hash(), node);
+                    foundNodes.add(new FoundNode(missingNode, node));
+                  });
+        }
+      }
+      pendingNodes = childrenAlongPaths(foundNodes);
+    }
+    return nodes;
+  }
+
+  private static List<PendingNode> childrenAlongPaths(final List<FoundNode> foundNodes) {
+    final Map<Bytes, PendingNode> children = new LinkedHashMap<>();
+    for (final FoundNode foundNode : foundNodes) {
+      final Bytes location = foundNode.pendingNode().location();
+      final Node<Bytes> node = TrieNodeDecoder.decode(location, foundNode.node());
+      for (final Bytes path : foundNode.pendingNode().paths()) {
+        // embedded nodes are walked through until a node referenced by hash is reached
+        Node<Bytes> current = node;
+        int depth = location.size();
+        while (current != null) {
+          final Node<Bytes> child;
+          if (current instanceof BranchNode<Bytes> branch && depth < path.size() - 1) {
+            child = branch.child(path.get(depth));
+            depth++;
+          } else if (current instanceof ExtensionNode<Bytes> extension
+              && depth + extension.getPath().size() <= path.size()
+              && path.slice(depth, extension.getPath().size()).equals(extension.getPath())) {
+            child = extension.getChild();
+            depth += extension.getPath().size();
+          } else {
+            break;
+          }
+          if (child instanceof StoredNode<Bytes> storedNode) {
+            final Bytes childLocation = path.slice(0, depth);
+            children
+                .computeIfAbsent(
+                    childLocation,
+                    __ -> new PendingNode(childLocation, storedNode.getHash(), new ArrayList<>()))
+                .paths()
+                .add(path);
+            current = null;
+          } else {
+            current = child;
+          }
+        }
+      }
+    }
+    return new ArrayList<>(children.values());
+  }
+
+  private record PendingNode(Bytes location, Bytes32 hash, List<Bytes> paths) {}
+
+  private record FoundNode(PendingNode pendingNode, Bytes node) {}
+
   public Optional<Bytes> getTrieNodeUnsafe(final Bytes key) {
     return composedWorldStateStorage.get(TRIE_BRANCH_STORAGE, key.toArrayUnsafe()).map(Bytes::wrap);
   }
@@ -190,6 +308,25 @@ public class BonsaiWorldStateKeyValueStorage extends PathBasedWorldStateKeyValue
         getFlatDbStrategy());
   }
 
+  /**
+   * Creates an updater that writes the world state through a bulk ingestion of the storage, meant
+   * for large amounts of new data like the ranges downloaded by snap sync. The committed data may
+   * not be readable until {@link #flushBulkIngestions()} is called.
+   *
+   * @return the updater
+   */
+  public Updater bulkIngestionUpdater() {
+    return new Updater(
+        composedWorldStateStorage.startBulkIngestion(),
+        trieLogStorage.startTransaction(),
+        getFlatDbStrategy());
+  }
+
+  /** Makes the world state committed by the bulk ingestion updaters readable. */
+  public void flushBulkIngestions() {
+    composedWorldStateStorage.flushBulkIngestions();
+  }
+
   public static class Updater implements PathBasedWorldStateKeyValueStorage.Updater {
 
     private final SegmentedKeyValueStorageTransaction composedWorldStateTransaction;
@@ -45,10 +45,16 @@ import org.hyperledger.besu.evm.internal.EvmConfiguration;
 import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
 import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
@@ -62,7 +68,12 @@ import org.apache.tuweni.units.bigints.UInt256;
 
 public class BonsaiWorldState extends PathBasedWorldState {
 
+  private static final int BATCHED_NODE_LOADING_THRESHOLD = 8;
+  // below this number of updated slots, a storage root is cheaper to compute than to hand off
+  private static final int PARALLEL_STORAGE_ROOT_THRESHOLD = 16;
+
   protected BonsaiCachedMerkleTrieLoader bonsaiCachedMerkleTrieLoader;
+  private final Optional<Executor> storageRootExecutor;
 
   public BonsaiWorldState(
       final BonsaiWorldStateProvider archive,
@@ -75,7 +86,8 @@ public class BonsaiWorldState extends PathBasedWorldState {
         archive.getCachedWorldStorageManager(),
         archive.getTrieLogManager(),
         evmConfiguration,
-        worldStateConfig);
+        worldStateConfig,
+        archive.getStorageRootExecutor());
   }
 
   public BonsaiWorldState(
@@ -85,8 +97,27 @@ public class BonsaiWorldState extends PathBasedWorldState {
       final TrieLogManager trieLogManager,
       final EvmConfiguration evmConfiguration,
       final WorldStateConfig worldStateConfig) {
+    this(
+        worldStateKeyValueStorage,
+        bonsaiCachedMerkleTrieLoader,
+        cachedWorldStorageManager,
+        trieLogManager,
+        evmConfiguration,
+        worldStateConfig,
+        Optional.empty());
+  }
+
+  public BonsaiWorldState(
+      final BonsaiWorldStateKeyValueStorage worldStateKeyValueStorage,
+      final BonsaiCachedMerkleTrieLoader bonsaiCachedMerkleTrieLoader,
+      final PathBasedCachedWorldStorageManager cachedWorldStorageManager,
+      final TrieLogManager trieLogManager,
+      final EvmConfiguration evmConfiguration,
+      final WorldStateConfig worldStateConfig,
+      final Optional<? extends Executor> storageRootExecutor) {
     super(worldStateKeyValueStorage, cachedWorldStorageManager, trieLogManager, worldStateConfig);
     this.bonsaiCachedMerkleTrieLoader = bonsaiCachedMerkleTrieLoader;
+    this.storageRootExecutor = storageRootExecutor.map(Executor.class::cast);
     this.worldStateKeyValueStorage = worldStateKeyValueStorage;
     this.setAccumulator(
         new BonsaiWorldStateUpdateAccumulator(
@@ -126,17 +157,48 @@ public class BonsaiWorldState extends PathBasedWorldState {
     clearStorage(maybeStateUpdater, worldStateUpdater);
 
     // This must be done before updating the accounts so
-    // that we can get the storage state hash
+    // that we can get the storage state hash. The storage tries of the accounts are independent,
+    // so the roots of the accounts with many updated slots are computed in parallel, with their
+    // writes deferred, while the other accounts are updated on this thread, or in a parallel
+    // stream when there are no writes.
+    final List<CompletableFuture<Optional<DeferredStorageWriter>>> storageRootTasks =
+        new ArrayList<>();
+    final List<Map.Entry<Address, StorageConsumingMap<StorageSlotKey, PathBasedValue<UInt256>>>>
+        inlineStorageUpdates = new ArrayList<>();
+    for (final var addressMapEntry : worldStateUpdater.getStorageToUpdate().entrySet()) {
+      if (storageRootExecutor.isPresent()
+          && addressMapEntry.getValue().size() >= PARALLEL_STORAGE_ROOT_THRESHOLD) {
+        final Optional<DeferredStorageWriter> maybeDeferredWriter =
+            maybeStateUpdater.map(__ -> new DeferredStorageWriter());
+        storageRootTasks.add(
+            CompletableFuture.supplyAsync(
+                () -> {
+                  updateAccountStorageState(
+                      maybeDeferredWriter, worldStateUpdater, addressMapEntry);
+                  return maybeDeferredWriter;
+                },
+                storageRootExecutor.get()));
+      } else {
+        inlineStorageUpdates.add(addressMapEntry);
+      }
+    }
+    final Optional<StorageWriter> maybeDirectWriter =
+        maybeStateUpdater.map(DirectStorageWriter::new);
     Stream<Map.Entry<Address, StorageConsumingMap<StorageSlotKey, PathBasedValue<UInt256>>>>
-        storageStream = worldStateUpdater.getStorageToUpdate().entrySet().stream();
+        inlineStorageStream = inlineStorageUpdates.stream();
     if (maybeStateUpdater.isEmpty()) {
-      storageStream =
-          storageStream
-              .parallel(); // if we are not updating the state updater we can use parallel stream
+      // if we are not updating the state updater we can use parallel stream
+      inlineStorageStream = inlineStorageStream.parallel();
     }
-    storageStream.forEach(
+    inlineStorageStream.forEach(
         addressMapEntry ->
-            updateAccountStorageState(maybeStateUpdater, worldStateUpdater, addressMapEntry));
+            updateAccountStorageState(maybeDirectWriter, worldStateUpdater, addressMapEntry));
+    for (final var storageRootTask : storageRootTasks) {
+      final Optional<DeferredStorageWriter> maybeDeferredWriter =
+          joinStorageRootTask(storageRootTask);
+      maybeStateUpdater.ifPresent(
+          bonsaiUpdater -> maybeDeferredWriter.ifPresent(writer -> writer.applyTo(bonsaiUpdater)));
+    }
 
     // Third update the code.  This has the side effect of ensuring a code hash is calculated.
     updateCode(maybeStateUpdater, worldStateUpdater);
@@ -231,8 +293,29 @@ public class BonsaiWorldState extends PathBasedWorldState {
     return value == null || value.isEmpty();
   }
 
+  private static <T> T joinStorageRootTask(final CompletableFuture<T> storageRootTask) {
+    try {
+      return storageRootTask.join();
+    } catch (CompletionException e) {
+      // rethrow the original exception, a MerkleTrieException is needed to trigger the heal
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Updates the storage trie of an account and sets its new storage root. The database writes go
+   * to the given writer, which defers them when storage tries of different accounts are computed
+   * concurrently.
+   *
+   * @param maybeStorageWriter the destination of the database writes, if they are needed
+   * @param worldStateUpdater the accumulator containing the storage changes
+   * @param storageAccountUpdate the storage changes of the account
+   */
   private void updateAccountStorageState(
-      final Optional<BonsaiWorldStateKeyValueStorage.Updater> maybeStateUpdater,
+      final Optional<? extends StorageWriter> maybeStorageWriter,
       final BonsaiWorldStateUpdateAccumulator worldStateUpdater,
       final Map.Entry<Address, StorageConsumingMap<StorageSlotKey, PathBasedValue<UInt256>>>
           storageAccountUpdate) {
@@ -247,11 +330,31 @@ public class BonsaiWorldState extends PathBasedWorldState {
                   || worldStateUpdater.getStorageToClear().contains(updatedAddress))
               ? Hash.EMPTY_TRIE_HASH
               : accountOriginal.getStorageRoot();
+      // with many slots to update, the nodes along their paths that are not cached are read in
+      // batches beforehand, when there is a trie to read them for
+      final Map<Bytes32, Bytes> batchedNodes =
+          worldStateConfig.isTrieDisabled()
+                  || storageRoot.equals(Hash.EMPTY_TRIE_HASH)
+                  || storageAccountUpdate.getValue().size() < BATCHED_NODE_LOADING_THRESHOLD
+              ? Map.of()
+              : getWorldStateStorage()
+                  .getAccountStorageTrieNodesAlongPaths(
+                      updatedAddressHash,
+                      storageRoot,
+                      storageAccountUpdate.getValue().keySet().stream()
+                          .map(StorageSlotKey::getSlotHash)
+                          .toList(),
+                      bonsaiCachedMerkleTrieLoader::getCachedAccountStorageTrieNode);
       final MerkleTrie<Bytes, Bytes> storageTrie =
           createTrie(
               (location, key) ->
-                  bonsaiCachedMerkleTrieLoader.getAccountStorageTrieNode(
-                      getWorldStateStorage(), updatedAddressHash, location, key),
+                  bonsaiCachedMerkleTrieLoader
+                      .getCachedAccountStorageTrieNode(key)
+                      .or(() -> Optional.ofNullable(batchedNodes.get(key)))
+                      .or(
+                          () ->
+                              getWorldStateStorage()
+                                  .getAccountStorageTrieNode(updatedAddressHash, location, key)),
               storageRoot);
 
       // for manicured tries and composting, collect branches here (not implemented)
@@ -261,15 +364,12 @@ public class BonsaiWorldState extends PathBasedWorldState {
         final UInt256 updatedStorage = storageUpdate.getValue().getUpdated();
         try {
           if (updatedStorage == null || updatedStorage.equals(UInt256.ZERO)) {
-            maybeStateUpdater.ifPresent(
-                bonsaiUpdater ->
-                    bonsaiUpdater.removeStorageValueBySlotHash(updatedAddressHash, slotHash));
+            maybeStorageWriter.ifPresent(
+                writer -> writer.removeStorageValue(updatedAddressHash, slotHash));
             storageTrie.remove(slotHash);
           } else {
-            maybeStateUpdater.ifPresent(
-                bonsaiUpdater ->
-                    bonsaiUpdater.putStorageValueBySlotHash(
-                        updatedAddressHash, slotHash, updatedStorage));
+            maybeStorageWriter.ifPresent(
+                writer -> writer.putStorageValue(updatedAddressHash, slotHash, updatedStorage));
             storageTrie.put(slotHash, encodeTrieValue(updatedStorage));
           }
         } catch (MerkleTrieException e) {
@@ -284,12 +384,11 @@ public class BonsaiWorldState extends PathBasedWorldState {
 
       final BonsaiAccount accountUpdated = accountValue.getUpdated();
       if (accountUpdated != null) {
-        maybeStateUpdater.ifPresent(
-            bonsaiUpdater ->
+        maybeStorageWriter.ifPresent(
+            writer ->
                 storageTrie.commit(
                     (location, key, value) ->
-                        writeStorageTrieNode(
-                            bonsaiUpdater, updatedAddressHash, location, key, value)));
+                        writer.putStorageTrieNode(updatedAddressHash, location, key, value)));
         // only use storage root of the trie when trie is enabled
         if (!worldStateConfig.isTrieDisabled()) {
           final Hash newStorageRoot = Hash.wrap(storageTrie.getRootHash());
@@ -300,6 +399,63 @@ public class BonsaiWorldState extends PathBasedWorldState {
     // for manicured tries and composting, trim and compost here
   }
 
+  /** Destination of the database writes made while updating the storage trie of an account. */
+  private interface StorageWriter {
+    void removeStorageValue(Hash accountHash, Hash slotHash);
+
+    void putStorageValue(Hash accountHash, Hash slotHash, UInt256 value);
+
+    void putStorageTrieNode(Hash accountHash, Bytes location, Bytes32 nodeHash, Bytes node);
+  }
+
+  /** Writes directly to the state updater, used on the thread that owns it. */
+  private record DirectStorageWriter(BonsaiWorldStateKeyValueStorage.Updater updater)
+      implements StorageWriter {
+
+    @Override
+    public void removeStorageValue(final Hash accountHash, final Hash slotHash) {
+      updater.removeStorageValueBySlotHash(accountHash, slotHash);
+    }
+
+    @Override
+    public void putStorageValue(final Hash accountHash, final Hash slotHash, final UInt256 value) {
+      updater.putStorageValueBySlotHash(accountHash, slotHash, value);
+    }
+
+    @Override
+    public void putStorageTrieNode(
+        final Hash accountHash, final Bytes location, final Bytes32 nodeHash, final Bytes node) {
+      updater.putAccountStorageTrieNode(accountHash, location, nodeHash, node);
+    }
+  }
+
+  /** Records the writes of a storage trie updated on another thread, to apply them in order. */
+  private static final class DeferredStorageWriter implements StorageWriter {
+    private final List<Consumer<BonsaiWorldStateKeyValueStorage.Updater>> writes =
+        new ArrayList<>();
+
+    @Override
+    public void removeStorageValue(final Hash accountHash, final Hash slotHash) {
+      writes.add(updater -> updater.removeStorageValueBySlotHash(accountHash, slotHash));
+    }
+
+    @Override
+    public void putStorageValue(final Hash accountHash, final Hash slotHash, final UInt256 value) {
+      writes.add(updater -> updater.putStorageValueBySlotHash(accountHash, slotHash, value));
+    }
+
+    @Override
+    public void putStorageTrieNode(
+        final Hash accountHash, final Bytes location, final Bytes32 nodeHash, final Bytes node) {
+      writes.add(
+          updater -> updater.putAccountStorageTrieNode(accountHash, location, nodeHash, node));
+    }
+
+    void applyTo(final BonsaiWorldStateKeyValueStorage.Updater updater) {
+      writes.forEach(write -> write.accept(updater));
+    }
+  }
+
   private void clearStorage(
       final Optional<BonsaiWorldStateKeyValueStorage.Updater> maybeStateUpdater,
       final BonsaiWorldStateUpdateAccumulator worldStateUpdater) {
@@ -398,15 +554,6 @@ public class BonsaiWorldState extends PathBasedWorldState {
     return getWorldStateStorage().getAccountStorageTrieNode(accountHash, location, nodeHash);
   }
 
-  private void writeStorageTrieNode(
-      final BonsaiWorldStateKeyValueStorage.Updater stateUpdater,
-      final Hash accountHash,
-      final Bytes location,
-      final Bytes32 nodeHash,
-      final Bytes value) {
-    stateUpdater.putAccountStorageTrieNode(accountHash, location, nodeHash, value);
-  }
-
   @Override
   public UInt256 getStorageValue(final Address address, final UInt256 storageKey) {
     return getStorageValueByStorageSlotKey(address, new StorageSlotKey(storageKey))
@@ -26,6 +26,7 @@ import org.hyperledger.besu.ethereum.proof.WorldStateProofProvider;
 import org.hyperledger.besu.ethereum.trie.MerkleTrieException;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.cache.PathBasedCachedWorldStorageManager;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.storage.PathBasedWorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.trielog.TrieLogCompactor;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.trielog.TrieLogManager;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.PathBasedWorldState;
 import org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.WorldStateConfig;
@@ -251,18 +252,35 @@ public abstract class PathBasedWorldStateProvider implements WorldStateArchive {
           BlockHeader persistedHeader = maybePersistedHeader.get();
           // roll back from persisted to even with target
           Hash persistedBlockHash = persistedHeader.getBlockHash();
+          // a range diff replaces the trie logs of all the blocks it covers
           while (persistedHeader.getNumber() > targetHeader.getNumber()) {
-            LOG.debug("Rollback {}", persistedBlockHash);
-            rollBacks.add(trieLogManager.getTrieLogLayer(persistedBlockHash).get());
-            persistedHeader = blockchain.getBlockHeader(persistedHeader.getParentHash()).get();
+            final Optional<TrieLogCompactor.RangeDiff> rangeDiff =
+                trieLogManager.getTrieLogRangeDiff(persistedHeader, targetHeader.getNumber());
+            if (rangeDiff.isPresent()) {
+              LOG.debug("Rollback range diff up to {}", persistedBlockHash);
+              rollBacks.add(rangeDiff.get().trieLog());
+              persistedHeader = blockchain.getBlockHeader(rangeDiff.get().startBlockHash()).get();
+            } else {
+              LOG.debug("Rollback {}", persistedBlockHash);
+              rollBacks.add(trieLogManager.getTrieLogLayer(persistedBlockHash).get());
+              persistedHeader = blockchain.getBlockHeader(persistedHeader.getParentHash()).get();
+            }
             persistedBlockHash = persistedHeader.getBlockHash();
           }
           // roll forward to target
           Hash targetBlockHash = targetHeader.getBlockHash();
           while (persistedHeader.getNumber() < targetHeader.getNumber()) {
-            LOG.debug("Rollforward {}", targetBlockHash);
-            rollForwards.add(trieLogManager.getTrieLogLayer(targetBlockHash).get());
-            targetHeader = blockchain.getBlockHeader(targetHeader.getParentHash()).get();
+            final Optional<TrieLogCompactor.RangeDiff> rangeDiff =
+                trieLogManager.getTrieLogRangeDiff(targetHeader, persistedHeader.getNumber());
+            if (rangeDiff.isPresent()) {
+              LOG.debug("Rollforward range diff up to {}", targetBlockHash);
+              rollForwards.add(rangeDiff.get().trieLog());
+              targetHeader = blockchain.getBlockHeader(rangeDiff.get().startBlockHash()).get();
+            } else {
+              LOG.debug("Rollforward {}", targetBlockHash);
+              rollForwards.add(trieLogManager.getTrieLogLayer(targetBlockHash).get());
+              targetHeader = blockchain.getBlockHeader(targetHeader.getParentHash()).get();
+            }
             targetBlockHash = targetHeader.getBlockHash();
           }
 
@@ -0,0 +1,290 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.common.trielog;
+
+import org.hyperledger.besu.datatypes.AccountValue;
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
+import org.hyperledger.besu.ethereum.chain.BlockAddedEvent;
+import org.hyperledger.besu.ethereum.chain.BlockAddedObserver;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.PathBasedValue;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
+import org.hyperledger.besu.plugin.services.trielogs.TrieLog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Merges the trie logs of consecutive blocks into range diffs, so that a world state can be rolled
+ * across many blocks by applying a few diffs instead of one trie log per block.
+ *
+ * <p>Range diffs are checkpointed at block numbers that are multiples of their interval. The
+ * smallest interval merges trie logs, and every larger one merges {@link #INTERVAL_FACTOR} diffs
+ * of the interval below it. A diff keeps, for every changed key, the value before its first block
+ * and the value after its last block, which is all that rolling a world state needs.
+ *
+ * <p>Diffs are built in the background when the chain head reaches a checkpoint and are removed
+ * once they end before the historical block limit, since the world state cannot be rolled that
+ * far anyway.
+ */
+public class TrieLogCompactor implements BlockAddedObserver {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TrieLogCompactor.class);
+
+  static final int INTERVAL_FACTOR = 4;
+  // from the largest to the smallest interval
+  static final int[] INTERVALS = {256, 64, 16};
+
+  private static final int KEY_NUMBER_LENGTH = Long.BYTES;
+
+  private final KeyValueStorage rangeDiffStorage;
+  private final TrieLogManager trieLogManager;
+  private final Blockchain blockchain;
+  private final Consumer<Runnable> executeAsync;
+  private final long numBlocksToRetain;
+
+  /**
+   * The merged changes of the blocks after {@code startBlockHash} up to the block of the trie log.
+   *
+   * @param startBlockHash the hash of the block whose world state the diff applies to
+   * @param trieLog the merged changes, identified by the last block of the range
+   */
+  public record RangeDiff(Hash startBlockHash, TrieLog trieLog) {}
+
+  public TrieLogCompactor(
+      final KeyValueStorage rangeDiffStorage,
+      final TrieLogManager trieLogManager,
+      final Blockchain blockchain,
+      final Consumer<Runnable> executeAsync,
+      final long numBlocksToRetain) {
+    this.rangeDiffStorage = rangeDiffStorage;
+    this.trieLogManager = trieLogManager;
+    this.blockchain = blockchain;
+    this.executeAsync = executeAsync;
+    this.numBlocksToRetain = numBlocksToRetain;
+  }
+
+  @Override
+  public void onBlockAdded(final BlockAddedEvent event) {
+    final BlockHeader header = event.getBlock().getHeader();
+    if (event.isNewCanonicalHead()
+        && header.getNumber() > 0
+        && header.getNumber() % INTERVALS[INTERVALS.length - 1] == 0) {
+      executeAsync.accept(() -> compact(header));
+    }
+  }
+
+  /**
+   * Gets the largest range diff ending at the given block that does not go below the given block
+   * number.
+   *
+   * @param endHeader the header of the last block of the range
+   * @param minStartBlockNumber the lowest block number the diff is allowed to start from
+   * @return the range diff, if one is stored
+   */
+  public Optional<RangeDiff> getRangeDiff(
+      final BlockHeader endHeader, final long minStartBlockNumber) {
+    return getRangeDiff(endHeader, minStartBlockNumber, Integer.MAX_VALUE);
+  }
+
+  private Optional<RangeDiff> getRangeDiff(
+      final BlockHeader endHeader, final long minStartBlockNumber, final int maxInterval) {
+    for (final int interval : INTERVALS) {
+      if (interval <= maxInterval
+          && endHeader.getNumber() % interval == 0
+          && endHeader.getNumber() - interval >= minStartBlockNumber) {
+        final Optional<RangeDiff> rangeDiff =
+            rangeDiffStorage.get(rangeDiffKey(endHeader, interval)).map(this::decodeRangeDiff);
+        if (rangeDiff.isPresent()) {
+          return rangeDiff;
+        }
+      }
+    }
+    return Optional.empty();
+  }
+
+  @VisibleForTesting
+  synchronized void compact(final BlockHeader endHeader) {
+    try {
+      for (int i = INTERVALS.length - 1; i >= 0; i--) {
+        final int interval = INTERVALS[i];
+        if (endHeader.getNumber() % interval != 0 || endHeader.getNumber() < interval) {
+          break;
+        }
+        final byte[] key = rangeDiffKey(endHeader, interval);
+        if (!rangeDiffStorage.containsKey(key)) {
+          createRangeDiff(endHeader, interval, key);
+        }
+      }
+      pruneRangeDiffs(endHeader.getNumber() - numBlocksToRetain);
+    } catch (final RuntimeException e) {
+      LOG.atWarn()
+          .setMessage("Unable to compact the trie logs up to block {}")
+          .addArgument(endHeader::toLogString)
+          .setCause(e)
+          .log();
+    }
+  }
+
+  private void createRangeDiff(final BlockHeader endHeader, final int interval, final byte[] key) {
+    final long startBlockNumber = endHeader.getNumber() - interval;
+    // collected from the newest to the oldest block
+    final List<TrieLog> trieLogs = new ArrayList<>();
+    BlockHeader header = endHeader;
+    while (header.getNumber() > startBlockNumber) {
+      final Optional<RangeDiff> rangeDiff =
+          getRangeDiff(header, startBlockNumber, interval / INTERVAL_FACTOR);
+      final Hash previousBlockHash;
+      if (rangeDiff.isPresent()) {
+        trieLogs.add(rangeDiff.get().trieLog());
+        previousBlockHash = rangeDiff.get().startBlockHash();
+      } else {
+        final Optional<TrieLog> trieLog = trieLogManager.getTrieLogLayer(header.getHash());
+        if (trieLog.isEmpty()) {
+          LOG.atDebug()
+              .setMessage("Missing trie log for block {}, skipping range diff of {} blocks")
+              .addArgument(header::toLogString)
+              .addArgument(interval)
+              .log();
+          return;
+        }
+        trieLogs.add(trieLog.get());
+        previousBlockHash = header.getParentHash();
+      }
+      final Optional<BlockHeader> previousHeader = blockchain.getBlockHeader(previousBlockHash);
+      if (previousHeader.isEmpty()) {
+        return;
+      }
+      header = previousHeader.get();
+    }
+
+    final TrieLogLayer merged = merge(trieLogs.reversed(), endHeader);
+    final KeyValueStorageTransaction tx = rangeDiffStorage.startTransaction();
+    tx.put(
+        key,
+        Bytes.concatenate(
+                header.getHash(), Bytes.wrap(trieLogManager.getTrieLogFactory().serialize(merged)))
+            .toArrayUnsafe());
+    tx.commit();
+    LOG.atDebug()
+        .setMessage("Created range diff of {} blocks up to block {}")
+        .addArgument(interval)
+        .addArgument(endHeader::toLogString)
+        .log();
+  }
+
+  private void pruneRangeDiffs(final long minEndBlockNumber) {
+    // keys are ordered by block number, so only the diffs to prune are read
+    final List<byte[]> keysToPrune;
+    try (final Stream<byte[]> keys = rangeDiffStorage.streamKeys()) {
+      keysToPrune =
+          keys.takeWhile(
+                  key -> Bytes.wrap(key, 0, KEY_NUMBER_LENGTH).toLong() < minEndBlockNumber)
+              .toList();
+    }
+    if (!keysToPrune.isEmpty()) {
+      final KeyValueStorageTransaction tx = rangeDiffStorage.startTransaction();
+      keysToPrune.forEach(tx::remove);
+      tx.commit();
+    }
+  }
+
+  private RangeDiff decodeRangeDiff(final byte[] value) {
+    return new RangeDiff(
+        Hash.wrap(Bytes.wrap(value, 0, Hash.SIZE)),
+        trieLogManager
+            .getTrieLogFactory()
+            .deserialize(Arrays.copyOfRange(value, Hash.SIZE, value.length)));
+  }
+
+  private static byte[] rangeDiffKey(final BlockHeader endHeader, final int interval) {
+    // ordered by block number, so diffs can be pruned from the oldest
+    return Bytes.concatenate(
+            Bytes.ofUnsignedLong(endHeader.getNumber()),
+            Bytes.ofUnsignedInt(interval),
+            endHeader.getHash())
+        .toArrayUnsafe();
+  }
+
+  /**
+   * Merges the trie logs of consecutive blocks, keeping for every key the prior value of its first
+   * change and the updated value of its last change.
+   *
+   * @param trieLogs the trie logs, from the oldest to the newest block
+   * @param endHeader the header of the newest block
+   * @return the merged trie log
+   */
+  @VisibleForTesting
+  static TrieLogLayer merge(final List<TrieLog> trieLogs, final BlockHeader endHeader) {
+    final TrieLogLayer merged = new TrieLogLayer();
+    merged.setBlockHash(endHeader.getHash()).setBlockNumber(endHeader.getNumber());
+    for (final TrieLog trieLog : trieLogs) {
+      final Map<Address, TrieLog.LogTuple<AccountValue>> accountChanges =
+          trieLog.getAccountChanges();
+      accountChanges.forEach(
+          (address, change) -> mergeChange(merged.getAccounts(), address, change));
+      final Map<Address, TrieLog.LogTuple<Bytes>> codeChanges = trieLog.getCodeChanges();
+      codeChanges.forEach((address, change) -> mergeChange(merged.getCode(), address, change));
+      final Map<Address, Map<StorageSlotKey, TrieLog.LogTuple<UInt256>>> storageChanges =
+          trieLog.getStorageChanges();
+      storageChanges.forEach(
+          (address, slots) -> {
+            final Map<StorageSlotKey, PathBasedValue<UInt256>> mergedSlots =
+                merged.getStorage().computeIfAbsent(address, a -> new TreeMap<>());
+            slots.forEach((slot, change) -> mergeChange(mergedSlots, slot, change));
+          });
+    }
+    merged.freeze();
+    return merged;
+  }
+
+  private static <K, T> void mergeChange(
+      final Map<K, PathBasedValue<T>> merged, final K key, final TrieLog.LogTuple<T> change) {
+    final PathBasedValue<T> existing = merged.get(key);
+    if (existing == null) {
+      merged.put(
+          key,
+          new PathBasedValue<>(
+              change.getPrior(),
+              change.getUpdated(),
+              change.isLastStepCleared(),
+              change.isClearedAtLeastOnce()));
+    } else {
+      merged.put(
+          key,
+          new PathBasedValue<>(
+              existing.getPrior(),
+              change.getUpdated(),
+              change.isLastStepCleared(),
+              existing.isClearedAtLeastOnce() || change.isClearedAtLeastOnce()));
+    }
+  }
+}
@@ -49,6 +49,8 @@ public class TrieLogManager {
 
   protected final TrieLogFactory trieLogFactory;
 
+  private Optional<TrieLogCompactor> trieLogCompactor = Optional.empty();
+
   public TrieLogManager(
       final Blockchain blockchain,
       final PathBasedWorldStateKeyValueStorage worldStateKeyValueStorage,
@@ -125,6 +127,28 @@ public class TrieLogManager {
     return rootWorldStateStorage.getTrieLog(blockHash).map(trieLogFactory::deserialize);
   }
 
+  /**
+   * Gets the largest range diff of merged trie logs ending at the given block that does not go
+   * below the given block number.
+   *
+   * @param endHeader the header of the last block of the range
+   * @param minStartBlockNumber the lowest block number the diff is allowed to start from
+   * @return the range diff, if trie log compaction is enabled and one is stored
+   */
+  public Optional<TrieLogCompactor.RangeDiff> getTrieLogRangeDiff(
+      final BlockHeader endHeader, final long minStartBlockNumber) {
+    return trieLogCompactor.flatMap(
+        compactor -> compactor.getRangeDiff(endHeader, minStartBlockNumber));
+  }
+
+  public void setTrieLogCompactor(final TrieLogCompactor trieLogCompactor) {
+    this.trieLogCompactor = Optional.of(trieLogCompactor);
+  }
+
+  TrieLogFactory getTrieLogFactory() {
+    return trieLogFactory;
+  }
+
   public synchronized long subscribe(final TrieLogEvent.TrieLogObserver sub) {
     return trieLogObservers.subscribe(sub);
   }
@@ -48,6 +48,9 @@ public class TrieLogPruner implements TrieLogEvent.TrieLogObserver {
 
   private static final Logger LOG = LoggerFactory.getLogger(TrieLogPruner.class);
   private static final int PRELOAD_TIMEOUT_IN_SECONDS = 30;
+  // bounds the pruning done for each added trie log, so that a long backlog is worked through a
+  // little at a time instead of competing with block import
+  static final int MAX_BLOCKS_PRUNED_PER_TRIE_LOG_ADDED = 16;
 
   private final int pruningLimit;
   private final int loadingLimit;
@@ -59,8 +62,9 @@ public class TrieLogPruner implements TrieLogEvent.TrieLogObserver {
   private final Counter addedToPruneQueueCounter;
   private final Counter prunedFromQueueCounter;
   private final Counter prunedOrphanCounter;
+  private volatile long pruneLag = 0;
 
-  private final Multimap<Long, Hash> trieLogBlocksAndForksByDescendingBlockNumber =
+  private final TreeMultimap<Long, Hash> trieLogBlocksAndForksByDescendingBlockNumber =
       TreeMultimap.create(Comparator.reverseOrder(), Comparator.naturalOrder());
 
   public TrieLogPruner(
@@ -89,6 +93,11 @@ public class TrieLogPruner implements TrieLogEvent.TrieLogObserver {
     this.prunedOrphanCounter =
         metricsSystem.createCounter(
             BesuMetricCategory.PRUNER, "trie_log_pruned_orphan", "trie log pruned orphan");
+    metricsSystem.createLongGauge(
+        BesuMetricCategory.PRUNER,
+        "trie_log_prune_lag",
+        "number of blocks between the oldest trie log waiting to be pruned and the pruning limit",
+        () -> pruneLag);
   }
 
   public void initialize() {
@@ -183,7 +192,12 @@ public class TrieLogPruner implements TrieLogEvent.TrieLogObserver {
     addedToPruneQueueCounter.inc();
   }
 
-  public synchronized int pruneFromQueue() {
+  public int pruneFromQueue() {
+    return pruneFromQueue(pruningLimit);
+  }
+
+  @VisibleForTesting
+  synchronized int pruneFromQueue(final int maxBlocksToPrune) {
     final long retainAboveThisBlock = blockchain.getChainHeadBlockNumber() - numBlocksToRetain;
     final Optional<Hash> finalized = blockchain.getFinalized();
     if (requireFinalizedBlock && finalized.isEmpty()) {
@@ -216,7 +230,7 @@ public class TrieLogPruner implements TrieLogEvent.TrieLogObserver {
     final var pruneWindowEntries =
         trieLogBlocksAndForksByDescendingBlockNumber.asMap().entrySet().stream()
             .dropWhile((e) -> e.getKey() > retainAboveThisBlockOrFinalized)
-            .limit(pruningLimit);
+            .limit(maxBlocksToPrune);
 
     final Multimap<Long, Hash> wasPruned = ArrayListMultimap.create();
 
@@ -231,6 +245,7 @@ public class TrieLogPruner implements TrieLogEvent.TrieLogObserver {
 
     wasPruned.keySet().forEach(trieLogBlocksAndForksByDescendingBlockNumber::removeAll);
     prunedFromQueueCounter.inc(wasPruned.size());
+    updatePruneLag(retainAboveThisBlockOrFinalized);
 
     LOG.atTrace()
         .setMessage("pruned {} trie logs for blocks {}")
@@ -246,6 +261,20 @@ public class TrieLogPruner implements TrieLogEvent.TrieLogObserver {
     return wasPruned.size();
   }
 
+  private void updatePruneLag(final long retainAboveThisBlock) {
+    // the queue is ordered by descending block number, so the oldest trie log is the last one
+    final long oldestBlockNumber =
+        trieLogBlocksAndForksByDescendingBlockNumber.isEmpty()
+            ? retainAboveThisBlock
+            : trieLogBlocksAndForksByDescendingBlockNumber.keySet().last();
+    pruneLag = Math.max(0, retainAboveThisBlock - oldestBlockNumber);
+  }
+
+  @VisibleForTesting
+  long getPruneLag() {
+    return pruneLag;
+  }
+
   @Override
   public void onTrieLogAdded(final TrieLogEvent event) {
     if (TrieLogEvent.Type.ADDED.equals(event.getType())) {
@@ -256,7 +285,7 @@ public class TrieLogPruner implements TrieLogEvent.TrieLogObserver {
               executeAsync.accept(
                   () -> {
                     addToPruneQueue(blockNum, blockHash);
-                    pruneFromQueue();
+                    pruneFromQueue(MAX_BLOCKS_PRUNED_PER_TRIE_LOG_ADDED);
                   }));
     }
   }
@@ -77,6 +77,12 @@ public interface PathBasedExtraStorageConfiguration {
 
     boolean DEFAULT_PARALLEL_TRX_ENABLED = false;
 
+    long DEFAULT_TRIE_NODE_CACHE_SIZE = 256L * 1024 * 1024;
+
+    boolean DEFAULT_TRIE_LOG_COMPACTION_ENABLED = false;
+
+    int DEFAULT_STORAGE_ROOT_THREADS = Runtime.getRuntime().availableProcessors();
+
     @Value.Default
     default boolean getFullFlatDbEnabled() {
       return DEFAULT_FULL_FLAT_DB_ENABLED;
@@ -91,5 +97,20 @@ public interface PathBasedExtraStorageConfiguration {
     default boolean isParallelTxProcessingEnabled() {
       return DEFAULT_PARALLEL_TRX_ENABLED;
     }
+
+    @Value.Default
+    default long getTrieNodeCacheSize() {
+      return DEFAULT_TRIE_NODE_CACHE_SIZE;
+    }
+
+    @Value.Default
+    default boolean getTrieLogCompactionEnabled() {
+      return DEFAULT_TRIE_LOG_COMPACTION_ENABLED;
+    }
+
+    @Value.Default
+    default int getStorageRootThreads() {
+      return DEFAULT_STORAGE_ROOT_THREADS;
+    }
   }
 }
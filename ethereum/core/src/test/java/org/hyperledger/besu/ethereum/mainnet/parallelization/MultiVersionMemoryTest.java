@@ -0,0 +1,103 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet.parallelization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.ethereum.mainnet.parallelization.MultiVersionMemory.ReadResult;
+import org.hyperledger.besu.ethereum.mainnet.parallelization.MultiVersionMemory.Version;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class MultiVersionMemoryTest {
+
+  private final MultiVersionMemory<String> memory = new MultiVersionMemory<>();
+
+  @Test
+  void readReturnsLastWriteOfLowerTransaction() {
+    memory.record(0, 0, Map.of(), Set.of("a"));
+    memory.record(2, 0, Map.of(), Set.of("a"));
+
+    assertThat(memory.read("a", 0)).isEqualTo(new ReadResult.NotFound());
+    assertThat(memory.read("a", 1)).isEqualTo(new ReadResult.Found(new Version(0, 0)));
+    assertThat(memory.read("a", 2)).isEqualTo(new ReadResult.Found(new Version(0, 0)));
+    assertThat(memory.read("a", 3)).isEqualTo(new ReadResult.Found(new Version(2, 0)));
+    assertThat(memory.read("b", 3)).isEqualTo(new ReadResult.NotFound());
+  }
+
+  @Test
+  void readSetIsInvalidatedByLowerWrite() {
+    memory.record(1, 0, Map.of("a", Optional.empty()), Set.of("b"));
+    assertThat(memory.validateReadSet(1)).isTrue();
+
+    memory.record(0, 0, Map.of(), Set.of("a"));
+
+    assertThat(memory.validateReadSet(1)).isFalse();
+    assertThat(memory.getReaders(Set.of("a"), 0)).containsExactly(1);
+  }
+
+  @Test
+  void newIncarnationRevalidatesAgainstObservedVersion() {
+    memory.record(0, 0, Map.of(), Set.of("a"));
+    memory.record(1, 0, Map.of("a", Optional.empty()), Set.of());
+    assertThat(memory.validateReadSet(1)).isFalse();
+
+    memory.record(1, 1, Map.of("a", Optional.of(new Version(0, 0))), Set.of());
+    assertThat(memory.validateReadSet(1)).isTrue();
+    assertThat(memory.getIncarnation(1)).contains(1);
+
+    memory.record(0, 1, Map.of(), Set.of("a"));
+    assertThat(memory.validateReadSet(1)).isFalse();
+  }
+
+  @Test
+  void olderIncarnationIsIgnored() {
+    memory.record(0, 1, Map.of(), Set.of("a"));
+
+    assertThat(memory.record(0, 0, Map.of(), Set.of("b"))).isFalse();
+    assertThat(memory.getWriteSet(0)).containsExactly("a");
+  }
+
+  @Test
+  void keysNoLongerWrittenAreRemoved() {
+    memory.record(0, 0, Map.of(), Set.of("a", "b"));
+    memory.record(0, 1, Map.of(), Set.of("b"));
+
+    assertThat(memory.read("a", 1)).isEqualTo(new ReadResult.NotFound());
+    assertThat(memory.read("b", 1)).isEqualTo(new ReadResult.Found(new Version(0, 1)));
+    assertThat(memory.getWriteSet(0)).containsExactly("b");
+  }
+
+  @Test
+  void dependenciesAreResumedOnce() {
+    memory.addDependency(1, 0);
+    assertThat(memory.resumeDependencies(0)).containsExactly(1);
+    assertThat(memory.resumeDependencies(0)).isEmpty();
+  }
+
+  @Test
+  void unknownWriterInvalidatesHigherTransactions() {
+    memory.record(2, 0, Map.of("a", Optional.empty()), Set.of());
+    memory.markUnknownWriter(1);
+
+    assertThat(memory.hasUnknownWriterBelow(2)).isTrue();
+    assertThat(memory.hasUnknownWriterBelow(1)).isFalse();
+    assertThat(memory.validateReadSet(2)).isFalse();
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet.parallelization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.ProtocolContext;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.mainnet.MainnetTransactionProcessor;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.BonsaiWorldStateProvider;
+import org.hyperledger.besu.evm.blockhash.BlockHashLookup;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.Test;
+
+class ParallelTransactionPreprocessingTest {
+
+  private final Executor executor = task -> {};
+  private final Executor prefetchExecutor = task -> {};
+  private final TransactionReadSetPrefetcher prefetcher = mock(TransactionReadSetPrefetcher.class);
+  private final ProtocolContext protocolContext = mock(ProtocolContext.class);
+  private final BlockHeader blockHeader = mock(BlockHeader.class);
+
+  @Test
+  void prefetchRunsOnItsOwnExecutorAndIsCancelledWhenTheBlockIsProcessed() {
+    final CompletableFuture<Void> pendingPrefetch = new CompletableFuture<>();
+    final CompletableFuture<Void> completedPrefetch = CompletableFuture.completedFuture(null);
+    when(protocolContext.getWorldStateArchive()).thenReturn(mock(BonsaiWorldStateProvider.class));
+    when(prefetcher.prefetch(
+            eq(protocolContext), eq(blockHeader), any(), any(), eq(prefetchExecutor)))
+        .thenReturn(List.of(pendingPrefetch, completedPrefetch));
+    final ParallelTransactionPreprocessing preprocessing =
+        new ParallelTransactionPreprocessing(
+            mock(MainnetTransactionProcessor.class), executor, prefetchExecutor, prefetcher);
+
+    assertThat(
+            preprocessing.run(
+                protocolContext,
+                blockHeader,
+                List.of(),
+                Address.ZERO,
+                mock(BlockHashLookup.class),
+                Wei.ZERO))
+        .isPresent();
+    preprocessing.cancelPrefetch();
+
+    assertThat(pendingPrefetch).isCancelled();
+    assertThat(completedPrefetch).isCompleted().isNotCancelled();
+  }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet.parallelization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.WorldStateConfig.createStatefulConfigWithTrie;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.ProtocolContext;
+import org.hyperledger.besu.ethereum.chain.MutableBlockchain;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.mainnet.MainnetTransactionProcessor;
+import org.hyperledger.besu.ethereum.mainnet.ValidationResult;
+import org.hyperledger.besu.ethereum.processing.TransactionProcessingResult;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.cache.NoOpBonsaiCachedWorldStorageManager;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.cache.NoopBonsaiCachedMerkleTrieLoader;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.BonsaiWorldState;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.trielog.NoOpTrieLogManager;
+import org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration;
+import org.hyperledger.besu.ethereum.worldstate.WorldStateArchive;
+import org.hyperledger.besu.evm.internal.EvmConfiguration;
+import org.hyperledger.besu.evm.worldstate.WorldUpdater;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs a small block through the optimistic execution and the ordered apply of {@link
+ * ParallelizedConcurrentTransactionProcessor} with transactions that depend on each other, and
+ * checks that the applied state is the one of a sequential execution.
+ */
+class ParallelizedConcurrentTransactionProcessorReExecutionTest {
+
+  private static final Address MINING_BENEFICIARY = Address.fromHexString("0xbe");
+  private static final Address UNRELATED = Address.fromHexString("0xa0");
+  private static final Address SOURCE = Address.fromHexString("0xa1");
+  private static final Address TARGET = Address.fromHexString("0xa2");
+
+  private final MainnetTransactionProcessor transactionProcessor =
+      mock(MainnetTransactionProcessor.class);
+  private final ProtocolContext protocolContext = mock(ProtocolContext.class);
+  private final BlockHeader blockHeader = mock(BlockHeader.class);
+  private BonsaiWorldStateKeyValueStorage worldStateStorage;
+
+  // writes an account that no other transaction reads
+  private final Transaction unrelatedWrite =
+      transaction("0x10", updater -> updater.getOrCreate(UNRELATED).setBalance(Wei.of(3)));
+  // writes the account read by the next transaction
+  private final Transaction sourceWrite =
+      transaction("0x11", updater -> updater.getAccount(SOURCE).setBalance(Wei.of(10)));
+  // copies the balance of the source account, plus one, to the target account
+  private final Transaction sourceRead =
+      transaction(
+          "0x12",
+          updater ->
+              updater
+                  .getOrCreate(TARGET)
+                  .setBalance(updater.getAccount(SOURCE).getBalance().add(Wei.ONE)));
+
+  @BeforeEach
+  void setUp() {
+    worldStateStorage =
+        new BonsaiWorldStateKeyValueStorage(
+            new InMemoryKeyValueStorageProvider(),
+            new NoOpMetricsSystem(),
+            DataStorageConfiguration.DEFAULT_BONSAI_CONFIG);
+    final BonsaiWorldState genesisState = createWorldState();
+    genesisState.updater().createAccount(SOURCE, 0, Wei.of(5));
+    genesisState.getAccumulator().commit();
+    genesisState.persist(null);
+
+    final BlockHeader chainHeadHeader = mock(BlockHeader.class);
+    when(chainHeadHeader.getHash()).thenReturn(Hash.ZERO);
+    when(blockHeader.getParentHash()).thenReturn(Hash.ZERO);
+    final MutableBlockchain blockchain = mock(MutableBlockchain.class);
+    when(protocolContext.getBlockchain()).thenReturn(blockchain);
+    when(blockchain.getChainHeadHeader()).thenReturn(chainHeadHeader);
+    final WorldStateArchive worldStateArchive = mock(WorldStateArchive.class);
+    when(protocolContext.getWorldStateArchive()).thenReturn(worldStateArchive);
+    when(worldStateArchive.getWorldState(any())).thenAnswer(__ -> Optional.of(createWorldState()));
+  }
+
+  @Test
+  void dependentTransactionIsReExecutedOnTopOfTheLowerResult() {
+    final ParallelizedConcurrentTransactionProcessor processor =
+        new ParallelizedConcurrentTransactionProcessor(transactionProcessor);
+    final List<Transaction> transactions = List.of(unrelatedWrite, sourceWrite, sourceRead);
+
+    processor.runAsyncBlock(
+        protocolContext,
+        blockHeader,
+        transactions,
+        MINING_BENEFICIARY,
+        (__, ___) -> Hash.EMPTY,
+        Wei.ZERO,
+        Runnable::run);
+
+    // the first execution of the reader saw the parent state, the second one the lower write
+    verify(transactionProcessor, times(2))
+        .processTransaction(any(), any(), eq(sourceRead), any(), any(), any(), any(), any());
+
+    final BonsaiWorldState blockState = createWorldState();
+    for (int location = 0; location < transactions.size(); location++) {
+      assertThat(
+              processor.applyParallelizedTransactionResult(
+                  blockState,
+                  MINING_BENEFICIARY,
+                  transactions.get(location),
+                  location,
+                  Optional.empty(),
+                  Optional.empty()))
+          .isPresent();
+    }
+
+    final WorldUpdater blockUpdater = blockState.updater();
+    assertThat(blockUpdater.get(UNRELATED).getBalance()).isEqualTo(Wei.of(3));
+    assertThat(blockUpdater.get(SOURCE).getBalance()).isEqualTo(Wei.of(10));
+    assertThat(blockUpdater.get(TARGET).getBalance()).isEqualTo(Wei.of(11));
+  }
+
+  @Test
+  void dependentTransactionIsReplayedWhenTheLowerResultIsNotApplied() {
+    final ParallelizedConcurrentTransactionProcessor processor =
+        new ParallelizedConcurrentTransactionProcessor(transactionProcessor);
+    final List<Transaction> transactions = List.of(sourceWrite, sourceRead);
+
+    processor.runAsyncBlock(
+        protocolContext,
+        blockHeader,
+        transactions,
+        MINING_BENEFICIARY,
+        (__, ___) -> Hash.EMPTY,
+        Wei.ZERO,
+        Runnable::run);
+
+    final BonsaiWorldState blockState = createWorldState();
+    // a change made by the block before the transactions, such as a system call, conflicts with
+    // the optimistic execution of the writer, which has to be replayed
+    blockState.updater().getAccount(SOURCE).setBalance(Wei.of(7));
+
+    assertThat(
+            processor.applyParallelizedTransactionResult(
+                blockState, MINING_BENEFICIARY, sourceWrite, 0, Optional.empty(), Optional.empty()))
+        .isEmpty();
+    // the speculative result of the reader was computed on top of the discarded result
+    assertThat(
+            processor.applyParallelizedTransactionResult(
+                blockState, MINING_BENEFICIARY, sourceRead, 1, Optional.empty(), Optional.empty()))
+        .isEmpty();
+  }
+
+  private Transaction transaction(final String sender, final Consumer<WorldUpdater> execution) {
+    final Transaction transaction = mock(Transaction.class);
+    when(transaction.detachedCopy()).thenReturn(transaction);
+    when(transaction.getSender()).thenReturn(Address.fromHexString(sender));
+    when(transactionProcessor.processTransaction(
+            any(), any(), eq(transaction), any(), any(), any(), any(), any()))
+        .thenAnswer(
+            invocation -> {
+              execution.accept(invocation.getArgument(0));
+              return TransactionProcessingResult.successful(
+                  Collections.emptyList(), 0, 0, Bytes.EMPTY, ValidationResult.valid());
+            });
+    return transaction;
+  }
+
+  private BonsaiWorldState createWorldState() {
+    return new BonsaiWorldState(
+        worldStateStorage,
+        new NoopBonsaiCachedMerkleTrieLoader(),
+        new NoOpBonsaiCachedWorldStorageManager(worldStateStorage),
+        new NoOpTrieLogManager(),
+        EvmConfiguration.DEFAULT,
+        createStatefulConfigWithTrie());
+  }
+}
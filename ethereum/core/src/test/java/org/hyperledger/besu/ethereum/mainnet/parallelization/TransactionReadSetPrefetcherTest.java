@@ -0,0 +1,112 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.mainnet.parallelization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.datatypes.AccessListEntry;
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
+import org.hyperledger.besu.datatypes.TransactionType;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.cache.BonsaiCachedMerkleTrieLoader;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionReadSetPrefetcherTest {
+
+  private static final Address SENDER = Address.fromHexString("0x1");
+  private static final Address RECIPIENT = Address.fromHexString("0x2");
+  private static final Address ACCESSED = Address.fromHexString("0x3");
+
+  @Mock BonsaiWorldStateKeyValueStorage worldStateKeyValueStorage;
+  @Mock BonsaiCachedMerkleTrieLoader cachedMerkleTrieLoader;
+
+  private final TransactionReadSetPrefetcher prefetcher = new TransactionReadSetPrefetcher();
+
+  private Transaction createTransaction(final List<AccessListEntry> accessList) {
+    return new Transaction.Builder()
+        .type(TransactionType.EIP1559)
+        .nonce(1)
+        .maxFeePerGas(Wei.of(10))
+        .maxPriorityFeePerGas(Wei.of(1))
+        .gasLimit(100_000)
+        .to(RECIPIENT)
+        .value(Wei.ZERO)
+        .payload(Bytes.EMPTY)
+        .accessList(accessList)
+        .chainId(BigInteger.ONE)
+        .sender(SENDER)
+        .build();
+  }
+
+  @Test
+  void readSetContainsSenderRecipientAndAccessList() {
+    final Transaction transaction =
+        createTransaction(
+            List.of(new AccessListEntry(ACCESSED, List.of(Bytes32.fromHexString("0x01")))));
+
+    final TransactionReadSetPrefetcher.ReadSet readSet =
+        TransactionReadSetPrefetcher.getReadSet(transaction);
+
+    assertThat(readSet.accounts()).containsExactly(SENDER, RECIPIENT, ACCESSED);
+    assertThat(readSet.accountsWithCode()).containsExactly(RECIPIENT);
+    assertThat(readSet.slots())
+        .containsExactly(
+            new TransactionReadSetPrefetcher.ReadSetSlot(
+                ACCESSED, new StorageSlotKey(UInt256.ONE)));
+  }
+
+  @Test
+  void prefetchLoadsAccountsAndSlotsIntoCaches() {
+    final Transaction transaction =
+        createTransaction(
+            List.of(new AccessListEntry(ACCESSED, List.of(Bytes32.fromHexString("0x01")))));
+    when(worldStateKeyValueStorage.getAccount(any())).thenReturn(Optional.empty());
+
+    prefetcher.prefetchTransaction(
+        worldStateKeyValueStorage, cachedMerkleTrieLoader, Hash.EMPTY_TRIE_HASH, transaction);
+
+    verify(cachedMerkleTrieLoader)
+        .cacheAccountNodes(worldStateKeyValueStorage, Hash.EMPTY_TRIE_HASH, SENDER);
+    verify(cachedMerkleTrieLoader)
+        .cacheAccountNodes(worldStateKeyValueStorage, Hash.EMPTY_TRIE_HASH, RECIPIENT);
+    verify(cachedMerkleTrieLoader)
+        .cacheAccountNodes(worldStateKeyValueStorage, Hash.EMPTY_TRIE_HASH, ACCESSED);
+    verify(worldStateKeyValueStorage)
+        .getStorageValueByStorageSlotKey(
+            ACCESSED.addressHash(), new StorageSlotKey(UInt256.ONE));
+    verify(cachedMerkleTrieLoader)
+        .cacheStorageNodes(
+            worldStateKeyValueStorage, ACCESSED, new StorageSlotKey(UInt256.ONE));
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.storage.keyvalue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.evm.internal.CodeAnalysis;
+import org.hyperledger.besu.evm.internal.CodeAnalysisStore;
+import org.hyperledger.besu.plugin.services.storage.KeyValueStorageTransaction;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.api.Test;
+
+class CodeAnalysisKeyValueStorageTest {
+
+  private final InMemoryKeyValueStorage keyValueStorage = new InMemoryKeyValueStorage();
+  private final CodeAnalysisKeyValueStorage storage =
+      new CodeAnalysisKeyValueStorage(
+          keyValueStorage,
+          MoreExecutors.newDirectExecutorService(),
+          CodeAnalysisKeyValueStorage.MAX_PERSISTED_ANALYSES);
+
+  @Test
+  void roundTripsAnalysis() {
+    final Bytes code = Bytes.fromHexString("0x60005b");
+    final Hash codeHash = Hash.hash(code);
+    storage.put(new CodeAnalysis(codeHash, code, new long[] {4L}, 128));
+
+    final CodeAnalysis analysis = storage.get(codeHash).orElseThrow();
+    assertThat(analysis.getCodeHash()).isEqualTo(codeHash);
+    assertThat(analysis.getCode()).isEqualTo(code);
+    assertThat(analysis.getJumpDestinations()).containsExactly(4L);
+    assertThat(analysis.getUses()).isEqualTo(128);
+  }
+
+  @Test
+  void writesInTheBackgroundAndFlushesPendingWritesOnClose() throws InterruptedException {
+    final ExecutorService writer = Executors.newSingleThreadExecutor();
+    final CodeAnalysisKeyValueStorage backgroundStorage =
+        new CodeAnalysisKeyValueStorage(
+            keyValueStorage, writer, CodeAnalysisKeyValueStorage.MAX_PERSISTED_ANALYSES);
+    final Bytes code = Bytes.fromHexString("0x5b");
+    final Hash codeHash = Hash.hash(code);
+
+    backgroundStorage.put(new CodeAnalysis(codeHash, code, new long[] {1L}, 64));
+    backgroundStorage.close();
+
+    assertThat(writer.awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+    assertThat(backgroundStorage.get(codeHash)).isPresent();
+    // writes requested once closed are dropped
+    backgroundStorage.put(new CodeAnalysis(Hash.EMPTY, Bytes.EMPTY, new long[] {0L}, 64));
+    assertThat(backgroundStorage.get(Hash.EMPTY)).isEmpty();
+  }
+
+  @Test
+  void missingAnalysisIsEmpty() {
+    assertThat(storage.get(Hash.EMPTY)).isEmpty();
+  }
+
+  @Test
+  void ignoresCorruptedAnalysis() {
+    final Bytes code = Bytes.fromHexString("0x60005b");
+    final Hash codeHash = Hash.hash(code);
+    storage.put(new CodeAnalysis(codeHash, code, new long[] {4L}, 128));
+    final byte[] key =
+        Bytes.concatenate(Bytes.of(CodeAnalysisStore.ANALYSIS_VERSION), codeHash).toArrayUnsafe();
+    final byte[] value = keyValueStorage.get(key).orElseThrow();
+    // turn the jump destination into another one
+    value[value.length - code.size() - 1] = 8;
+    final KeyValueStorageTransaction transaction = keyValueStorage.startTransaction();
+    transaction.put(key, value);
+    transaction.commit();
+
+    assertThat(storage.get(codeHash)).isEmpty();
+    assertThat(storage.getMostUsed(Long.MAX_VALUE)).isEmpty();
+  }
+
+  @Test
+  void ignoresEntriesOfOtherVersions() {
+    final Bytes code = Bytes.fromHexString("0x5b");
+    final Hash codeHash = Hash.hash(code);
+    storage.put(new CodeAnalysis(codeHash, code, new long[] {1L}, 64));
+    final KeyValueStorageTransaction transaction = keyValueStorage.startTransaction();
+    transaction.put(
+        Bytes.concatenate(Bytes.of(CodeAnalysisStore.ANALYSIS_VERSION + 1), Hash.EMPTY)
+            .toArrayUnsafe(),
+        new byte[Long.BYTES + Integer.BYTES]);
+    transaction.commit();
+
+    assertThat(storage.getMostUsed(Long.MAX_VALUE))
+        .extracting(CodeAnalysis::getCodeHash)
+        .containsExactly(codeHash);
+    // and removes them
+    assertThat(keyValueStorage.streamKeys()).hasSize(1);
+  }
+
+  @Test
+  void mostUsedAreSortedAndLimitedByWeight() {
+    final Bytes rarelyUsed = Bytes.fromHexString("0x01");
+    final Bytes mostUsed = Bytes.fromHexString("0x02");
+    final Bytes oftenUsed = Bytes.fromHexString("0x03");
+    storage.put(new CodeAnalysis(Hash.hash(rarelyUsed), rarelyUsed, new long[1], 64));
+    storage.put(new CodeAnalysis(Hash.hash(mostUsed), mostUsed, new long[1], 1024));
+    storage.put(new CodeAnalysis(Hash.hash(oftenUsed), oftenUsed, new long[1], 256));
+
+    assertThat(storage.getMostUsed(Long.MAX_VALUE))
+        .extracting(CodeAnalysis::getCode)
+        .containsExactly(mostUsed, oftenUsed, rarelyUsed);
+
+    final long entryWeight =
+        new CodeAnalysis(Hash.hash(mostUsed), mostUsed, new long[1], 0).estimatedSize();
+    final List<CodeAnalysis> limited = storage.getMostUsed(2 * entryWeight);
+    assertThat(limited).extracting(CodeAnalysis::getCode).containsExactly(mostUsed, oftenUsed);
+  }
+
+  @Test
+  void keepsOnlyTheMostUsedEntries() {
+    final CodeAnalysisKeyValueStorage cappedStorage =
+        new CodeAnalysisKeyValueStorage(
+            keyValueStorage, MoreExecutors.newDirectExecutorService(), 2);
+    final Bytes rarelyUsed = Bytes.fromHexString("0x01");
+    final Bytes mostUsed = Bytes.fromHexString("0x02");
+    final Bytes oftenUsed = Bytes.fromHexString("0x03");
+    cappedStorage.put(new CodeAnalysis(Hash.hash(rarelyUsed), rarelyUsed, new long[1], 64));
+    cappedStorage.put(new CodeAnalysis(Hash.hash(mostUsed), mostUsed, new long[1], 1024));
+    cappedStorage.put(new CodeAnalysis(Hash.hash(oftenUsed), oftenUsed, new long[1], 256));
+
+    assertThat(cappedStorage.getMostUsed(Long.MAX_VALUE))
+        .extracting(CodeAnalysis::getCode)
+        .containsExactly(mostUsed, oftenUsed);
+    assertThat(cappedStorage.get(Hash.hash(rarelyUsed))).isEmpty();
+    assertThat(cappedStorage.get(Hash.hash(oftenUsed))).isPresent();
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.bonsai.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class LongToLongIndexTest {
+
+  @Test
+  void putGetAndRemove() {
+    final LongToLongIndex index = new LongToLongIndex();
+
+    assertThat(index.get(42)).isEqualTo(LongToLongIndex.ABSENT);
+    index.put(42, 1);
+    index.put(42, 2);
+
+    assertThat(index.get(42)).isEqualTo(2);
+    assertThat(index.size()).isEqualTo(1);
+    assertThat(index.remove(42, 1)).isFalse();
+    assertThat(index.remove(42, 2)).isTrue();
+    assertThat(index.containsKey(42)).isFalse();
+    assertThat(index.size()).isZero();
+  }
+
+  @Test
+  void zeroKeyIsSupported() {
+    final LongToLongIndex index = new LongToLongIndex();
+    index.put(0, 7);
+
+    assertThat(index.get(0)).isEqualTo(7);
+    assertThat(index.remove(0, 7)).isTrue();
+    assertThat(index.get(0)).isEqualTo(LongToLongIndex.ABSENT);
+  }
+
+  @Test
+  void matchesAHashMapUnderRandomOperations() {
+    final Random random = new Random(1);
+    final LongToLongIndex index = new LongToLongIndex();
+    final Map<Long, Long> expected = new HashMap<>();
+    for (int i = 0; i < 200_000; i++) {
+      // few distinct keys, so that the table grows, and entries are removed from long clusters
+      final long key = 1 + random.nextInt(5_000) * 0x1_0000_0000L;
+      final long value = random.nextInt(Integer.MAX_VALUE);
+      if (random.nextBoolean()) {
+        index.put(key, value);
+        expected.put(key, value);
+      } else {
+        final Long current = expected.get(key);
+        if (current != null) {
+          assertThat(index.remove(key, current)).isTrue();
+          expected.remove(key);
+        } else {
+          assertThat(index.remove(key, value)).isFalse();
+        }
+      }
+    }
+
+    assertThat(index.size()).isEqualTo(expected.size());
+    expected.forEach((key, value) -> assertThat(index.get(key)).isEqualTo(value));
+  }
+}
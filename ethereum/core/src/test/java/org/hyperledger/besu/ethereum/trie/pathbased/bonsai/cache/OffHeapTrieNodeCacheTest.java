@@ -0,0 +1,117 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.bonsai.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.datatypes.Hash;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.jupiter.api.Test;
+
+class OffHeapTrieNodeCacheTest {
+
+  private static final Bytes ROOT_LOCATION = Bytes.EMPTY;
+  private static final Bytes DEEP_LOCATION = Bytes.of(1, 2, 3, 4, 5, 6);
+
+  private static Bytes node(final int i) {
+    return Bytes.concatenate(Bytes.ofUnsignedInt(i), Bytes.repeat((byte) i, 96));
+  }
+
+  @Test
+  void returnsCachedNode() {
+    final OffHeapTrieNodeCache cache = new OffHeapTrieNodeCache(4096, 4, 1);
+    final Bytes node = node(1);
+    final Bytes32 hash = Hash.hash(node);
+
+    assertThat(cache.get(hash)).isEmpty();
+    cache.put(DEEP_LOCATION, hash, node);
+
+    assertThat(cache.get(hash)).contains(node);
+    assertThat(cache.getHitCount()).isEqualTo(1);
+    assertThat(cache.getMissCount()).isEqualTo(1);
+    assertThat(cache.getEntryCount()).isEqualTo(1);
+    assertThat(cache.getUsedBytes()).isPositive();
+  }
+
+  @Test
+  void indexCollisionIsAMiss() {
+    final OffHeapTrieNodeCache cache = new OffHeapTrieNodeCache(4096, 4, 1);
+    final Bytes node = node(1);
+    final Bytes32 hash = Hash.hash(node);
+    cache.put(DEEP_LOCATION, hash, node);
+
+    final Bytes32 sameIndexKey =
+        Bytes32.wrap(Bytes.concatenate(hash.slice(0, 8), Bytes.repeat((byte) 0, 24)));
+
+    assertThat(cache.get(sameIndexKey)).isEmpty();
+  }
+
+  @Test
+  void evictsOldestSegmentAndKeepsShallowNodes() {
+    final OffHeapTrieNodeCache cache = new OffHeapTrieNodeCache(1024, 2, 1);
+    final Bytes root = node(0);
+    final Bytes32 rootHash = Hash.hash(root);
+    cache.put(ROOT_LOCATION, rootHash, root);
+    final Bytes first = node(1);
+    final Bytes32 firstHash = Hash.hash(first);
+    cache.put(DEEP_LOCATION, firstHash, first);
+
+    for (int i = 2; i < 40; i++) {
+      final Bytes node = node(i);
+      cache.put(DEEP_LOCATION, Hash.hash(node), node);
+    }
+
+    assertThat(cache.get(rootHash)).contains(root);
+    assertThat(cache.get(firstHash)).isEmpty();
+    assertThat(cache.getEvictionCount()).isPositive();
+    assertThat(cache.getUsedBytes()).isLessThanOrEqualTo(cache.getCapacityBytes());
+  }
+
+  @Test
+  void ignoresNodesLargerThanASegment() {
+    final OffHeapTrieNodeCache cache = new OffHeapTrieNodeCache(128, 2, 1);
+    final Bytes node = Bytes.repeat((byte) 1, 256);
+
+    cache.put(DEEP_LOCATION, Hash.hash(node), node);
+
+    assertThat(cache.getEntryCount()).isZero();
+  }
+
+  @Test
+  void zeroSizeDisablesTheCache() {
+    final OffHeapTrieNodeCache cache = new OffHeapTrieNodeCache(0, 4);
+    final Bytes node = node(1);
+
+    cache.put(DEEP_LOCATION, Hash.hash(node), node);
+
+    assertThat(cache.get(Hash.hash(node))).isEmpty();
+    assertThat(cache.getCapacityBytes()).isZero();
+  }
+
+  @Test
+  void clearRemovesEveryNode() {
+    final OffHeapTrieNodeCache cache = new OffHeapTrieNodeCache(4096, 4, 1);
+    final Bytes node = node(1);
+    cache.put(DEEP_LOCATION, Hash.hash(node), node);
+
+    cache.clear();
+
+    assertThat(cache.get(Hash.hash(node))).isEmpty();
+    assertThat(cache.getEntryCount()).isZero();
+    assertThat(cache.getUsedBytes()).isZero();
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier;
+import org.hyperledger.besu.ethereum.trie.MerkleTrie;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.flat.BonsaiFlatDbStrategyProvider;
+import org.hyperledger.besu.ethereum.trie.patricia.StoredMerklePatriciaTrie;
+import org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+import org.hyperledger.besu.services.kvstore.SegmentedInMemoryKeyValueStorage;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BonsaiWorldStateKeyValueStorageBatchedNodesTest {
+  private static final Hash ACCOUNT_HASH = Hash.hash(Bytes.of(1));
+
+  private final AtomicInteger multiGetCount = new AtomicInteger();
+  private final AtomicInteger multiGetKeyCount = new AtomicInteger();
+  private final Map<Bytes32, Bytes> storedNodes = new HashMap<>();
+  private List<Hash> slotHashes;
+  private Bytes32 storageRoot;
+  private BonsaiWorldStateKeyValueStorage storage;
+
+  @BeforeEach
+  void setUp() {
+    final SegmentedInMemoryKeyValueStorage segmentedStorage =
+        new SegmentedInMemoryKeyValueStorage(
+            List.of(
+                KeyValueSegmentIdentifier.ACCOUNT_INFO_STATE,
+                KeyValueSegmentIdentifier.CODE_STORAGE,
+                KeyValueSegmentIdentifier.ACCOUNT_STORAGE_STORAGE,
+                KeyValueSegmentIdentifier.TRIE_BRANCH_STORAGE)) {
+          @Override
+          public List<Optional<byte[]>> multiGet(
+              final SegmentIdentifier segmentIdentifier, final List<byte[]> keys) {
+            multiGetCount.incrementAndGet();
+            multiGetKeyCount.addAndGet(keys.size());
+            return super.multiGet(segmentIdentifier, keys);
+          }
+        };
+    final BonsaiFlatDbStrategyProvider flatDbStrategyProvider =
+        new BonsaiFlatDbStrategyProvider(
+            new NoOpMetricsSystem(), DataStorageConfiguration.DEFAULT_BONSAI_CONFIG);
+    flatDbStrategyProvider.loadFlatDbStrategy(segmentedStorage);
+    storage =
+        new BonsaiWorldStateKeyValueStorage(
+            flatDbStrategyProvider, segmentedStorage, new InMemoryKeyValueStorage());
+
+    slotHashes = IntStream.range(0, 256).mapToObj(i -> Hash.hash(Bytes.ofUnsignedInt(i))).toList();
+    final StoredMerklePatriciaTrie<Bytes, Bytes> trie =
+        new StoredMerklePatriciaTrie<>(
+            (location, hash) -> storage.getAccountStorageTrieNode(ACCOUNT_HASH, location, hash),
+            MerkleTrie.EMPTY_TRIE_NODE_HASH,
+            Function.identity(),
+            Function.identity());
+    slotHashes.forEach(slotHash -> trie.put(slotHash, Bytes.of(1, 2, 3)));
+    final BonsaiWorldStateKeyValueStorage.Updater updater = storage.updater();
+    trie.commit(
+        (location, hash, node) -> {
+          storedNodes.put(hash, node);
+          updater.putAccountStorageTrieNode(ACCOUNT_HASH, location, hash, node);
+        });
+    updater.commit();
+    storageRoot = trie.getRootHash();
+  }
+
+  @Test
+  void readsAllNodesAlongThePathsWhenNothingIsCached() {
+    final Map<Bytes32, Bytes> nodes =
+        storage.getAccountStorageTrieNodesAlongPaths(
+            ACCOUNT_HASH, storageRoot, slotHashes, hash -> Optional.empty());
+
+    assertThat(nodes).isEqualTo(storedNodes);
+    assertThat(multiGetKeyCount).hasValue(storedNodes.size());
+  }
+
+  @Test
+  void doesNotReadTheDatabaseWhenAllNodesAreCached() {
+    final Map<Bytes32, Bytes> nodes =
+        storage.getAccountStorageTrieNodesAlongPaths(
+            ACCOUNT_HASH,
+            storageRoot,
+            slotHashes,
+            hash -> Optional.ofNullable(storedNodes.get(hash)));
+
+    assertThat(nodes).isEmpty();
+    assertThat(multiGetCount).hasValue(0);
+  }
+
+  @Test
+  void readsOnlyTheNodesMissingFromTheCache() {
+    final Map<Bytes32, Bytes> cachedNodes = new HashMap<>();
+    cachedNodes.put(storageRoot, storedNodes.get(storageRoot));
+    storedNodes.entrySet().stream()
+        .limit(16)
+        .forEach(entry -> cachedNodes.put(entry.getKey(), entry.getValue()));
+
+    final Map<Bytes32, Bytes> nodes =
+        storage.getAccountStorageTrieNodesAlongPaths(
+            ACCOUNT_HASH,
+            storageRoot,
+            slotHashes,
+            hash -> Optional.ofNullable(cachedNodes.get(hash)));
+
+    assertThat(nodes).doesNotContainKeys(cachedNodes.keySet().toArray(Bytes32[]::new));
+    assertThat(nodes).hasSize(storedNodes.size() - cachedNodes.size());
+    assertThat(multiGetKeyCount).hasValue(storedNodes.size() - cachedNodes.size());
+  }
+}
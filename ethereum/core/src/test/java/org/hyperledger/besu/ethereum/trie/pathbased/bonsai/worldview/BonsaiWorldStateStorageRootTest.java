@@ -0,0 +1,105 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.ethereum.trie.pathbased.common.worldview.WorldStateConfig.createStatefulConfigWithTrie;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.cache.NoOpBonsaiCachedWorldStorageManager;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.cache.NoopBonsaiCachedMerkleTrieLoader;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.trielog.NoOpTrieLogManager;
+import org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration;
+import org.hyperledger.besu.evm.account.MutableAccount;
+import org.hyperledger.besu.evm.internal.EvmConfiguration;
+import org.hyperledger.besu.evm.worldstate.WorldUpdater;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class BonsaiWorldStateStorageRootTest {
+  private static final Address MANY_SLOTS_ACCOUNT = Address.fromHexString("0x10");
+  private static final Address FEW_SLOTS_ACCOUNT = Address.fromHexString("0x20");
+
+  private final ExecutorService executorService = Executors.newFixedThreadPool(2);
+  private final AtomicInteger submittedTasks = new AtomicInteger();
+  private final Executor countingExecutor =
+      task -> {
+        submittedTasks.incrementAndGet();
+        executorService.execute(task);
+      };
+
+  @AfterEach
+  void shutdown() {
+    executorService.shutdownNow();
+  }
+
+  @Test
+  void parallelStorageRootsMatchSequentialOnesAndOnlyLargeAccountsAreHandedOff() {
+    final BonsaiWorldState sequential = createWorldState(Optional.empty());
+    final BonsaiWorldState parallel = createWorldState(Optional.of(countingExecutor));
+
+    updateStorage(sequential);
+    updateStorage(parallel);
+
+    assertThat(parallel.rootHash()).isEqualTo(sequential.rootHash());
+    assertThat(parallel.get(MANY_SLOTS_ACCOUNT).getStorageValue(UInt256.valueOf(31)))
+        .isEqualTo(UInt256.valueOf(32));
+    assertThat(parallel.get(FEW_SLOTS_ACCOUNT).getStorageValue(UInt256.ONE))
+        .isEqualTo(UInt256.valueOf(2));
+    // only the account with many updated slots is computed on the executor
+    assertThat(submittedTasks).hasValue(1);
+  }
+
+  private static void updateStorage(final BonsaiWorldState worldState) {
+    final WorldUpdater updater = worldState.updater();
+    final MutableAccount manySlots = updater.createAccount(MANY_SLOTS_ACCOUNT, 0, Wei.ONE);
+    for (int i = 0; i < 32; i++) {
+      manySlots.setStorageValue(UInt256.valueOf(i), UInt256.valueOf(i + 1));
+    }
+    final MutableAccount fewSlots = updater.createAccount(FEW_SLOTS_ACCOUNT, 0, Wei.ONE);
+    fewSlots.setStorageValue(UInt256.ZERO, UInt256.ONE);
+    fewSlots.setStorageValue(UInt256.ONE, UInt256.valueOf(2));
+    updater.commit();
+    worldState.persist(null);
+  }
+
+  private static BonsaiWorldState createWorldState(final Optional<Executor> storageRootExecutor) {
+    final BonsaiWorldStateKeyValueStorage storage =
+        new BonsaiWorldStateKeyValueStorage(
+            new InMemoryKeyValueStorageProvider(),
+            new NoOpMetricsSystem(),
+            DataStorageConfiguration.DEFAULT_BONSAI_CONFIG);
+    return new BonsaiWorldState(
+        storage,
+        new NoopBonsaiCachedMerkleTrieLoader(),
+        new NoOpBonsaiCachedWorldStorageManager(storage),
+        new NoOpTrieLogManager(),
+        EvmConfiguration.DEFAULT,
+        createStatefulConfigWithTrie(),
+        storageRootExecutor);
+  }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.common.trielog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.BlockHeaderTestFixture;
+import org.hyperledger.besu.ethereum.core.InMemoryKeyValueStorageProvider;
+import org.hyperledger.besu.ethereum.core.MutableWorldState;
+import org.hyperledger.besu.ethereum.storage.keyvalue.KeyValueSegmentIdentifier;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.BonsaiWorldStateProvider;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.BonsaiWorldState;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.provider.WorldStateQueryParams;
+import org.hyperledger.besu.evm.account.MutableAccount;
+import org.hyperledger.besu.evm.worldstate.WorldUpdater;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Rolls the same Bonsai world state with and without range diffs, and checks that both end up
+ * with the state of the target block.
+ */
+public class RangeDiffRollingTest {
+  private static final int CHAIN_LENGTH = 256;
+  private static final Address UPDATED_EVERY_BLOCK = Address.fromHexString("0x10");
+  private static final Address RECREATED = Address.fromHexString("0x11");
+  private static final Address CREATED_AT_10_DELETED_AT_40 = Address.fromHexString("0x12");
+
+  private final Blockchain blockchain = mock(Blockchain.class);
+  private final List<BlockHeader> headers = new ArrayList<>();
+  private BonsaiWorldStateProvider perBlockArchive;
+  private BonsaiWorldStateProvider rangeDiffArchive;
+  private TrieLogCompactor compactor;
+
+  @BeforeEach
+  public void setUp() {
+    final Map<Hash, BlockHeader> headersByHash = new HashMap<>();
+    when(blockchain.getBlockHeader(any(Hash.class)))
+        .thenAnswer(
+            invocation -> Optional.ofNullable(headersByHash.get(invocation.getArgument(0))));
+
+    perBlockArchive =
+        InMemoryKeyValueStorageProvider.createBonsaiInMemoryWorldStateArchive(blockchain);
+    rangeDiffArchive =
+        InMemoryKeyValueStorageProvider.createBonsaiInMemoryWorldStateArchive(blockchain);
+    compactor =
+        new TrieLogCompactor(
+            new InMemoryKeyValueStorage(),
+            rangeDiffArchive.getTrieLogManager(),
+            blockchain,
+            Runnable::run,
+            CHAIN_LENGTH);
+    rangeDiffArchive.getTrieLogManager().setTrieLogCompactor(compactor);
+
+    final BonsaiWorldState perBlockState = (BonsaiWorldState) perBlockArchive.getWorldState();
+    final BonsaiWorldState rangeDiffState = (BonsaiWorldState) rangeDiffArchive.getWorldState();
+    BlockHeader parent = null;
+    for (int number = 0; number <= CHAIN_LENGTH; number++) {
+      updateState(perBlockState.updater(), number);
+      updateState(rangeDiffState.updater(), number);
+      final BlockHeaderTestFixture header =
+          new BlockHeaderTestFixture().number(number).stateRoot(perBlockState.frontierRootHash());
+      if (parent != null) {
+        header.parentHash(parent.getHash());
+      }
+      parent = header.buildHeader();
+      headers.add(parent);
+      headersByHash.put(parent.getHash(), parent);
+      perBlockState.persist(parent);
+      rangeDiffState.persist(parent);
+      if (number > 0 && number % 16 == 0) {
+        compactor.compact(parent);
+      }
+    }
+
+    assertThat(compactor.getRangeDiff(headers.get(CHAIN_LENGTH), 0)).isPresent();
+  }
+
+  @Test
+  public void rollingWithRangeDiffsMatchesRollingBlockByBlock() {
+    // across the diffs of 256, 64 and 16 blocks, and single trie logs at both ends
+    for (final int target : List.of(0, 256, 192, 100, 37, 250, 64, 0, 31, 256)) {
+      final Hash expectedRoot = headers.get(target).getStateRoot();
+      assertThat(rollTo(perBlockArchive, target).rootHash()).isEqualTo(expectedRoot);
+      assertThat(rollTo(rangeDiffArchive, target).rootHash()).isEqualTo(expectedRoot);
+      for (final KeyValueSegmentIdentifier segment :
+          List.of(
+              KeyValueSegmentIdentifier.ACCOUNT_INFO_STATE,
+              KeyValueSegmentIdentifier.ACCOUNT_STORAGE_STORAGE,
+              KeyValueSegmentIdentifier.CODE_STORAGE)) {
+        assertThat(flatEntries(rangeDiffArchive, segment))
+            .as("%s at block %d", segment, target)
+            .isEqualTo(flatEntries(perBlockArchive, segment));
+      }
+    }
+  }
+
+  private MutableWorldState rollTo(final BonsaiWorldStateProvider archive, final int target) {
+    return archive
+        .getWorldState(WorldStateQueryParams.withBlockHeaderAndUpdateNodeHead(headers.get(target)))
+        .orElseThrow();
+  }
+
+  private static List<Pair<Bytes, Bytes>> flatEntries(
+      final BonsaiWorldStateProvider archive, final KeyValueSegmentIdentifier segment) {
+    return archive
+        .getWorldStateKeyValueStorage()
+        .getComposedWorldStateStorage()
+        .stream(segment)
+        .map(entry -> Pair.of(Bytes.wrap(entry.getKey()), Bytes.wrap(entry.getValue())))
+        .toList();
+  }
+
+  private static void updateState(final WorldUpdater updater, final int number) {
+    if (number == 0) {
+      updater.createAccount(UPDATED_EVERY_BLOCK, 0, Wei.ONE);
+      createWithStorage(updater, RECREATED, number);
+    } else {
+      final MutableAccount account = updater.getAccount(UPDATED_EVERY_BLOCK);
+      account.setNonce(number);
+      account.setStorageValue(UInt256.valueOf(number % 8), UInt256.valueOf(number));
+    }
+    // created and deleted within every range of 16 blocks
+    if (number % 16 == 3) {
+      createWithStorage(updater, createdAndDeleted(number), number);
+    } else if (number % 16 == 8) {
+      updater.deleteAccount(createdAndDeleted(number - 5));
+    }
+    // created and deleted across several ranges of 16 blocks
+    if (number == 10) {
+      createWithStorage(updater, CREATED_AT_10_DELETED_AT_40, number);
+    } else if (number == 40) {
+      updater.deleteAccount(CREATED_AT_10_DELETED_AT_40);
+    }
+    // storage cleared by deleting the account, which is created again with other slots
+    if (number % 64 == 20) {
+      updater.deleteAccount(RECREATED);
+    } else if (number % 64 == 21) {
+      createWithStorage(updater, RECREATED, number);
+    }
+    updater.commit();
+  }
+
+  private static void createWithStorage(
+      final WorldUpdater updater, final Address address, final int number) {
+    final MutableAccount account = updater.createAccount(address, 0, Wei.of(number + 1));
+    account.setCode(Bytes.of(number % 256));
+    account.setStorageValue(UInt256.ONE, UInt256.valueOf(number + 1));
+    account.setStorageValue(UInt256.valueOf(number + 2), UInt256.ONE);
+  }
+
+  private static Address createdAndDeleted(final int number) {
+    return Address.fromHexString(String.format("0x%04x", 0x1000 + number));
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.trie.pathbased.common.trielog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.StorageSlotKey;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.chain.Blockchain;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.BlockHeaderTestFixture;
+import org.hyperledger.besu.ethereum.trie.common.PmtStateTrieAccountValue;
+import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.trielog.TrieLogFactoryImpl;
+import org.hyperledger.besu.plugin.services.trielogs.TrieLog;
+import org.hyperledger.besu.services.kvstore.InMemoryKeyValueStorage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TrieLogCompactorTest {
+  private static final Address ADDRESS = Address.fromHexString("0x01");
+  private static final StorageSlotKey SLOT = new StorageSlotKey(UInt256.ONE);
+  private static final int CHAIN_LENGTH = 64;
+
+  private final InMemoryKeyValueStorage rangeDiffStorage = new InMemoryKeyValueStorage();
+  private final TrieLogManager trieLogManager = mock(TrieLogManager.class);
+  private final Blockchain blockchain = mock(Blockchain.class);
+  private final List<BlockHeader> headers = new ArrayList<>();
+  private final Map<Hash, TrieLog> trieLogs = new HashMap<>();
+  private TrieLogCompactor compactor;
+
+  @BeforeEach
+  public void setUp() {
+    BlockHeader parent = new BlockHeaderTestFixture().number(0).buildHeader();
+    headers.add(parent);
+    for (int i = 1; i <= CHAIN_LENGTH; i++) {
+      final BlockHeader header =
+          new BlockHeaderTestFixture().number(i).parentHash(parent.getHash()).buildHeader();
+      headers.add(header);
+      trieLogs.put(
+          header.getHash(),
+          new TrieLogLayer()
+              .setBlockHash(header.getHash())
+              .addAccountChange(ADDRESS, account(i - 1), account(i))
+              .addStorageChange(ADDRESS, SLOT, UInt256.valueOf(i), UInt256.valueOf(i + 1)));
+      parent = header;
+    }
+    final Map<Hash, BlockHeader> headersByHash = new HashMap<>();
+    headers.forEach(header -> headersByHash.put(header.getHash(), header));
+    when(blockchain.getBlockHeader(any(Hash.class)))
+        .thenAnswer(
+            invocation -> Optional.ofNullable(headersByHash.get(invocation.getArgument(0))));
+    when(trieLogManager.getTrieLogLayer(any()))
+        .thenAnswer(invocation -> Optional.ofNullable(trieLogs.get(invocation.getArgument(0))));
+    when(trieLogManager.getTrieLogFactory()).thenReturn(new TrieLogFactoryImpl());
+
+    compactor =
+        new TrieLogCompactor(rangeDiffStorage, trieLogManager, blockchain, Runnable::run, 512);
+  }
+
+  @Test
+  public void mergeKeepsFirstPriorAndLastUpdatedValues() {
+    final Address otherAddress = Address.fromHexString("0x02");
+    final TrieLogLayer first =
+        new TrieLogLayer()
+            .addAccountChange(ADDRESS, account(0), account(1))
+            .addCodeChange(otherAddress, null, Bytes.of(1), Hash.EMPTY);
+    final TrieLogLayer second =
+        new TrieLogLayer()
+            .addAccountChange(ADDRESS, account(1), account(2))
+            .addStorageChange(ADDRESS, SLOT, UInt256.ZERO, UInt256.ONE);
+
+    final TrieLogLayer merged = TrieLogCompactor.merge(List.of(first, second), headers.get(2));
+
+    assertThat(merged.getBlockHash()).isEqualTo(headers.get(2).getHash());
+    assertThat(merged.getPriorAccount(ADDRESS)).contains(account(0));
+    assertThat(merged.getAccount(ADDRESS)).contains(account(2));
+    assertThat(merged.getPriorCode(otherAddress)).isEmpty();
+    assertThat(merged.getCode(otherAddress)).contains(Bytes.of(1));
+    assertThat(merged.getPriorStorageByStorageSlotKey(ADDRESS, SLOT)).contains(UInt256.ZERO);
+    assertThat(merged.getStorageByStorageSlotKey(ADDRESS, SLOT)).contains(UInt256.ONE);
+  }
+
+  @Test
+  public void compactsCheckpointsIntoHierarchicalRangeDiffs() {
+    for (int i = 16; i <= CHAIN_LENGTH; i += 16) {
+      compactor.compact(headers.get(i));
+    }
+
+    // the largest diff that does not go below the requested block is returned
+    final TrieLogCompactor.RangeDiff fullRange =
+        compactor.getRangeDiff(headers.get(64), 0).orElseThrow();
+    assertThat(fullRange.startBlockHash()).isEqualTo(headers.get(0).getHash());
+    assertThat(fullRange.trieLog().getPriorAccount(ADDRESS)).contains(account(0));
+    assertThat(fullRange.trieLog().getAccount(ADDRESS)).contains(account(64));
+    assertThat(fullRange.trieLog().getPriorStorageByStorageSlotKey(ADDRESS, SLOT))
+        .contains(UInt256.ONE);
+    assertThat(fullRange.trieLog().getStorageByStorageSlotKey(ADDRESS, SLOT))
+        .contains(UInt256.valueOf(65));
+
+    final TrieLogCompactor.RangeDiff lastRange =
+        compactor.getRangeDiff(headers.get(64), 1).orElseThrow();
+    assertThat(lastRange.startBlockHash()).isEqualTo(headers.get(48).getHash());
+    assertThat(lastRange.trieLog().getPriorAccount(ADDRESS)).contains(account(48));
+
+    assertThat(compactor.getRangeDiff(headers.get(64), 49)).isEmpty();
+    assertThat(compactor.getRangeDiff(headers.get(63), 0)).isEmpty();
+  }
+
+  @Test
+  public void skipsRangeDiffWhenATrieLogIsMissing() {
+    trieLogs.remove(headers.get(5).getHash());
+
+    compactor.compact(headers.get(16));
+
+    assertThat(compactor.getRangeDiff(headers.get(16), 0)).isEmpty();
+  }
+
+  @Test
+  public void prunesRangeDiffsBeyondTheRetainedBlocks() {
+    compactor =
+        new TrieLogCompactor(rangeDiffStorage, trieLogManager, blockchain, Runnable::run, 32);
+    compactor.compact(headers.get(16));
+    compactor.compact(headers.get(64));
+
+    assertThat(compactor.getRangeDiff(headers.get(16), 0)).isEmpty();
+    assertThat(compactor.getRangeDiff(headers.get(64), 48)).isPresent();
+  }
+
+  private static PmtStateTrieAccountValue account(final long nonce) {
+    return new PmtStateTrieAccountValue(nonce, Wei.ZERO, Hash.EMPTY_TRIE_HASH, Hash.EMPTY);
+  }
+}
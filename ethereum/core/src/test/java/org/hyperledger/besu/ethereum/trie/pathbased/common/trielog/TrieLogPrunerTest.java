@@ -336,6 +336,37 @@ public class TrieLogPrunerTest {
     verify(worldState, never()).pruneTrieLog(key(1));
   }
 
+  @Test
+  public void onTrieLogAdded_prunes_a_bounded_number_of_blocks_and_tracks_lag() {
+    // Given
+    final int backlog = 3 * TrieLogPruner.MAX_BLOCKS_PRUNED_PER_TRIE_LOG_ADDED;
+    final TrieLogPruner trieLogPruner =
+        new TrieLogPruner(
+            worldState, blockchain, executeAsync, 1, 5_000, false, new NoOpMetricsSystem());
+    for (int i = 1; i <= backlog; i++) {
+      trieLogPruner.addToPruneQueue(i, key(i));
+    }
+    when(blockchain.getChainHeadBlockNumber()).thenReturn((long) backlog + 2);
+
+    // When
+    final TrieLogLayer layer = new TrieLogLayer();
+    layer.setBlockNumber(backlog + 2L);
+    layer.setBlockHash(key(backlog + 2));
+    trieLogPruner.onTrieLogAdded(new TrieLogAddedEvent(layer));
+
+    // Then
+    verify(worldState, times(TrieLogPruner.MAX_BLOCKS_PRUNED_PER_TRIE_LOG_ADDED))
+        .pruneTrieLog(any(Hash.class));
+    verify(worldState, never()).pruneTrieLog(key(1));
+    assertThat(trieLogPruner.getPruneLag()).isEqualTo(backlog);
+
+    // a full run catches up with the backlog
+    assertThat(trieLogPruner.pruneFromQueue())
+        .isEqualTo(backlog - TrieLogPruner.MAX_BLOCKS_PRUNED_PER_TRIE_LOG_ADDED);
+    verify(worldState, times(1)).pruneTrieLog(key(1));
+    assertThat(trieLogPruner.getPruneLag()).isZero();
+  }
+
   private TrieLogPruner setupPrunerAndFinalizedBlock(
       final long configuredRetainHeight, final long finalizedBlockHeight) {
     final long chainHeight = 5;
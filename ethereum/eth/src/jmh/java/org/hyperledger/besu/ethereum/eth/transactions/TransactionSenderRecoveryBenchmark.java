@@ -0,0 +1,102 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.transactions;
+
+import org.hyperledger.besu.crypto.KeyPair;
+import org.hyperledger.besu.crypto.SignatureAlgorithmFactory;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.TransactionTestFixture;
+import org.hyperledger.besu.ethereum.eth.manager.EthScheduler;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the recovery of the senders of a batch of transactions one at a time, as it happens
+ * when they are lazily recovered by the transaction pool, with the batched recovery done by {@link
+ * TransactionSenderRecovery}, for different batch sizes.
+ *
+ * <p>Every invocation works on transactions that are freshly signed and decoded, so that their
+ * senders are neither set nor present in the sender cache.
+ */
+@State(Scope.Thread)
+@Fork(value = 1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionSenderRecoveryBenchmark {
+
+  @Param({"1", "8", "64", "256"})
+  public int batchSize;
+
+  private final KeyPair keyPair = SignatureAlgorithmFactory.getInstance().generateKeyPair();
+  private long nonce = 0;
+  private List<Transaction> transactions;
+  private EthScheduler ethScheduler;
+  private TransactionSenderRecovery senderRecovery;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    ethScheduler =
+        new EthScheduler(
+            1, 1, Runtime.getRuntime().availableProcessors(), new NoOpMetricsSystem());
+    senderRecovery = new TransactionSenderRecovery(ethScheduler);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws InterruptedException {
+    ethScheduler.stop();
+    ethScheduler.awaitStop();
+  }
+
+  @Setup(Level.Invocation)
+  public void prepare() {
+    transactions = new ArrayList<>(batchSize);
+    for (int i = 0; i < batchSize; i++) {
+      final Transaction signed =
+          new TransactionTestFixture().nonce(nonce++).createTransaction(keyPair);
+      // decoding drops the sender that is set when signing
+      transactions.add(Transaction.readFrom(RLP.input(RLP.encode(signed::writeTo))));
+    }
+  }
+
+  @Benchmark
+  public void sequential() {
+    transactions.forEach(Transaction::getSender);
+  }
+
+  @Benchmark
+  public void batched() {
+    senderRecovery.recoverSenders(transactions);
+  }
+}
@@ -21,7 +21,7 @@ import org.hyperledger.besu.datatypes.TransactionType;
 import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.eth.EthProtocolVersion;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.Capability;
-import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
+import org.hyperledger.besu.ethereum.rlp.RLP;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -61,9 +61,7 @@ public class TransactionAnnouncementEncoder {
    * @return the encoded value. The message data will contain only the transaction hashes
    */
   private static Bytes encodeForEth66(final List<Transaction> transactions) {
-    final BytesValueRLPOutput out = new BytesValueRLPOutput();
-    out.writeList(toHashList(transactions), (h, w) -> w.writeBytes(h));
-    return out.encoded();
+    return RLP.encode(out -> out.writeList(toHashList(transactions), (h, w) -> w.writeBytes(h)));
   }
 
   /**
@@ -104,17 +102,18 @@ public class TransactionAnnouncementEncoder {
   @VisibleForTesting
   public static Bytes encodeForEth68(
       final byte[] types, final List<Integer> sizes, final List<Hash> hashes) {
-    final BytesValueRLPOutput out = new BytesValueRLPOutput();
     // Check if lists have the same size
     if (!(types.length == hashes.size() && hashes.size() == sizes.size())) {
       throw new IllegalArgumentException(
           "Hashes, sizes and types must have the same number of elements");
     }
-    out.startList();
-    out.writeBytes(Bytes.wrap((types)));
-    out.writeList(sizes, (h, w) -> w.writeUnsignedInt(h));
-    out.writeList(hashes, (h, w) -> w.writeBytes(h));
-    out.endList();
-    return out.encoded();
+    return RLP.encode(
+        out -> {
+          out.startList();
+          out.writeBytes(Bytes.wrap((types)));
+          out.writeList(sizes, (h, w) -> w.writeUnsignedInt(h));
+          out.writeList(hashes, (h, w) -> w.writeBytes(h));
+          out.endList();
+        });
   }
 }
@@ -47,6 +47,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalDouble;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -99,6 +100,7 @@ public class EthPeer implements Comparable<EthPeer> {
 
   private final AtomicReference<Consumer<EthPeer>> onStatusesExchanged = new AtomicReference<>();
   private final PeerReputation reputation = new PeerReputation();
+  private final PeerRequestStatistics requestStatistics = new PeerRequestStatistics();
   private final Map<PeerValidator, Boolean> validationStatus = new ConcurrentHashMap<>();
   private final Bytes id;
   private boolean isServingSnap = false;
@@ -208,9 +210,44 @@ public class EthPeer implements Comparable<EthPeer> {
         .addArgument(this::getLoggableId)
         .log();
     LOG.trace("Timed out while waiting for response from peer {}", this);
+    requestStatistics.recordTimeout(protocolName, requestCode);
     reputation.recordRequestTimeout(protocolName, requestCode, this).ifPresent(this::disconnect);
   }
 
+  void recordResponse(
+      final String protocolName,
+      final int requestCode,
+      final long responseTimeMillis,
+      final int responseSizeBytes) {
+    requestStatistics.recordResponse(
+        protocolName, requestCode, responseTimeMillis, responseSizeBytes);
+  }
+
+  /**
+   * Gets the average time this peer took to answer the requests of the given type
+   *
+   * @param protocolName the protocol of the request
+   * @param requestCode the code of the request message
+   * @return the average response time, or empty if the peer never answered such requests
+   */
+  public OptionalDouble getAverageResponseTimeMillis(
+      final String protocolName, final int requestCode) {
+    return requestStatistics.getAverageResponseTimeMillis(protocolName, requestCode);
+  }
+
+  /**
+   * Gets the average throughput of the responses of this peer to the requests of the given type
+   *
+   * @param protocolName the protocol of the request
+   * @param requestCode the code of the request message
+   * @return the average throughput in bytes per second, or empty if the peer never answered such
+   *     requests
+   */
+  public OptionalDouble getAverageThroughputBytesPerSecond(
+      final String protocolName, final int requestCode) {
+    return requestStatistics.getAverageThroughputBytesPerSecond(protocolName, requestCode);
+  }
+
   public void recordUselessResponse(final String requestType) {
     LOG.atTrace()
         .setMessage("Received useless response for request type {} from peer {}")
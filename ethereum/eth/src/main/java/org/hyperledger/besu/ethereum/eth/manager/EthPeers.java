@@ -497,6 +497,30 @@ public class EthPeers implements PeerSelector {
         .min(LEAST_TO_MOST_BUSY);
   }
 
+  // Part of the PeerSelector interface, to be split apart later
+  @Override
+  public Optional<EthPeer> getPeer(
+      final Predicate<EthPeer> filter, final String protocolName, final int requestCode) {
+    return streamAvailablePeers()
+        .filter(filter)
+        .filter(EthPeer::hasAvailableRequestCapacity)
+        .filter(EthPeer::isFullyValidated)
+        .min(fastestToSlowest(protocolName, requestCode));
+  }
+
+  /**
+   * Orders the peers by the time they are expected to take to answer a request of the given type,
+   * that is their average response time scaled by the requests they are already serving. Peers
+   * that never answered such a request are tried first, so that their speed gets known.
+   */
+  static Comparator<EthPeer> fastestToSlowest(final String protocolName, final int requestCode) {
+    return Comparator.comparingDouble(
+            (final EthPeer p) ->
+                p.getAverageResponseTimeMillis(protocolName, requestCode).orElse(0)
+                    * (1 + p.outstandingRequests()))
+        .thenComparing(LEAST_TO_MOST_BUSY);
+  }
+
   // Part of the PeerSelector interface, to be split apart later
   @Override
   public CompletableFuture<EthPeer> waitForPeer(final Predicate<EthPeer> filter) {
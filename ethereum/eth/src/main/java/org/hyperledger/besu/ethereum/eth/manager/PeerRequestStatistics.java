@@ -0,0 +1,101 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.manager;
+
+import java.util.OptionalDouble;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+
+/**
+ * Tracks how fast a peer answers each type of request, as exponentially weighted moving averages
+ * of the response time and of the throughput, so that recent responses weigh more than old ones.
+ * A timeout counts as a response that took {@link #TIMEOUT_RESPONSE_TIME_MILLIS}, so peers that
+ * hold requests open until they time out are quickly recognized as slow.
+ */
+public class PeerRequestStatistics {
+  static final double SMOOTHING_FACTOR = 0.2;
+  static final long TIMEOUT_RESPONSE_TIME_MILLIS = 5_000;
+
+  private final ConcurrentMap<ImmutablePair<String, Integer>, MovingAverages> statsByRequestType =
+      new ConcurrentHashMap<>();
+
+  public void recordResponse(
+      final String protocolName,
+      final int requestCode,
+      final long responseTimeMillis,
+      final int responseSizeBytes) {
+    getOrCreate(protocolName, requestCode).add(responseTimeMillis, responseSizeBytes);
+  }
+
+  public void recordTimeout(final String protocolName, final int requestCode) {
+    getOrCreate(protocolName, requestCode).add(TIMEOUT_RESPONSE_TIME_MILLIS, 0);
+  }
+
+  public OptionalDouble getAverageResponseTimeMillis(
+      final String protocolName, final int requestCode) {
+    final MovingAverages stats = get(protocolName, requestCode);
+    return stats == null
+        ? OptionalDouble.empty()
+        : OptionalDouble.of(stats.getResponseTimeMillis());
+  }
+
+  public OptionalDouble getAverageThroughputBytesPerSecond(
+      final String protocolName, final int requestCode) {
+    final MovingAverages stats = get(protocolName, requestCode);
+    return stats == null
+        ? OptionalDouble.empty()
+        : OptionalDouble.of(stats.getThroughputBytesPerSecond());
+  }
+
+  private MovingAverages get(final String protocolName, final int requestCode) {
+    return statsByRequestType.get(ImmutablePair.of(protocolName, requestCode));
+  }
+
+  private MovingAverages getOrCreate(final String protocolName, final int requestCode) {
+    return statsByRequestType.computeIfAbsent(
+        ImmutablePair.of(protocolName, requestCode), key -> new MovingAverages());
+  }
+
+  private static class MovingAverages {
+    private boolean initialized = false;
+    private double responseTimeMillis;
+    private double throughputBytesPerSecond;
+
+    synchronized void add(final long responseTimeMillis, final int responseSizeBytes) {
+      // a response faster than the clock resolution is counted as taking 1ms
+      final double throughput = responseSizeBytes * 1000.0 / Math.max(1, responseTimeMillis);
+      if (initialized) {
+        this.responseTimeMillis +=
+            SMOOTHING_FACTOR * (responseTimeMillis - this.responseTimeMillis);
+        this.throughputBytesPerSecond +=
+            SMOOTHING_FACTOR * (throughput - this.throughputBytesPerSecond);
+      } else {
+        this.responseTimeMillis = responseTimeMillis;
+        this.throughputBytesPerSecond = throughput;
+        initialized = true;
+      }
+    }
+
+    synchronized double getResponseTimeMillis() {
+      return responseTimeMillis;
+    }
+
+    synchronized double getThroughputBytesPerSecond() {
+      return throughputBytesPerSecond;
+    }
+  }
+}
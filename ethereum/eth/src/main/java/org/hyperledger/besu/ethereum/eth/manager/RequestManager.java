@@ -27,6 +27,7 @@ import java.util.Optional;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -39,6 +40,7 @@ public class RequestManager {
   private final AtomicLong requestIdCounter =
       new AtomicLong(1); // some clients have issues encoding zero
   private final Map<BigInteger, ResponseStream> responseStreams = new ConcurrentHashMap<>();
+  private final Map<BigInteger, PendingRequest> pendingRequests = new ConcurrentHashMap<>();
   private final EthPeer peer;
   private final String protocolName;
 
@@ -62,6 +64,7 @@ public class RequestManager {
     outstandingRequests.incrementAndGet();
     final BigInteger requestId = BigInteger.valueOf(requestIdCounter.getAndIncrement());
     final ResponseStream stream = createStream(requestId);
+    pendingRequests.put(requestId, new PendingRequest(messageData.getCode(), System.nanoTime()));
     sender.send(messageData.wrapMessageData(requestId));
     return stream;
   }
@@ -72,6 +75,7 @@ public class RequestManager {
     try {
       final Map.Entry<BigInteger, MessageData> requestIdAndEthMessage =
           ethMessage.getData().unwrapMessageData();
+      recordResponseTime(requestIdAndEthMessage.getKey(), ethMessage.getData().getSize());
       Optional.ofNullable(responseStreams.get(requestIdAndEthMessage.getKey()))
           .ifPresentOrElse(
               responseStream -> responseStream.processMessage(requestIdAndEthMessage.getValue()),
@@ -112,8 +116,22 @@ public class RequestManager {
 
   private void deregisterStream(final BigInteger id) {
     responseStreams.remove(id);
+    pendingRequests.remove(id);
   }
 
+  private void recordResponseTime(final BigInteger requestId, final int responseSizeBytes) {
+    final PendingRequest request = pendingRequests.remove(requestId);
+    if (request != null) {
+      peer.recordResponse(
+          protocolName,
+          request.requestCode(),
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - request.sentAtNanos()),
+          responseSizeBytes);
+    }
+  }
+
+  private record PendingRequest(int requestCode, long sentAtNanos) {}
+
   @FunctionalInterface
   public interface RequestSender {
     void send(final MessageData messageData) throws PeerNotConnected;
@@ -32,6 +32,20 @@ public interface PeerSelector {
    */
   Optional<EthPeer> getPeer(final Predicate<EthPeer> filter);
 
+  /**
+   * Gets a peer matching the supplied filter, preferring the peers that are expected to answer
+   * sooner to the given type of request
+   *
+   * @param filter a Predicate\<EthPeer\> matching desirable peers
+   * @param protocolName the protocol of the request that will be sent to the peer
+   * @param requestCode the code of the request message that will be sent to the peer
+   * @return a peer matching the supplied conditions
+   */
+  default Optional<EthPeer> getPeer(
+      final Predicate<EthPeer> filter, final String protocolName, final int requestCode) {
+    return getPeer(filter);
+  }
+
   /**
    * Waits for a peer matching the supplied filter
    *
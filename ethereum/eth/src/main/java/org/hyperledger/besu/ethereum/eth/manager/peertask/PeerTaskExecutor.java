@@ -29,26 +29,49 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** Manages the execution of PeerTasks, respecting their PeerTaskRetryBehavior */
+/**
+ * Manages the execution of PeerTasks, respecting their PeerTaskRetryBehavior.
+ *
+ * <p>Peers are chosen by their expected response time for the type of request of the task. When a
+ * task may be retried with other peers, and the chosen peer is slower than usual to answer, the
+ * same request is also sent to a second peer and the first response received is used.
+ */
 public class PeerTaskExecutor {
   private static final Logger LOG = LoggerFactory.getLogger(PeerTaskExecutor.class);
 
+  static final long MIN_HEDGE_DELAY_MILLIS = 250;
+  static final long MAX_HEDGE_DELAY_MILLIS = 2_000;
+  static final double HEDGE_RESPONSE_TIME_MULTIPLIER = 3.0;
+  static final long TARGET_RESPONSE_TIME_MILLIS = 1_000;
+
   private final PeerSelector peerSelector;
   private final PeerTaskRequestSender requestSender;
+  private final ExecutorService hedgeExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
   private final LabelledMetric<OperationTimer> requestTimer;
   private final LabelledMetric<Counter> timeoutCounter;
   private final LabelledMetric<Counter> invalidResponseCounter;
   private final LabelledMetric<Counter> internalExceptionCounter;
+  private final LabelledMetric<Counter> hedgedRequestCounter;
   private final LabelledSuppliedMetric inflightRequestGauge;
   private final Map<String, AtomicInteger> inflightRequestCountByClassName;
+  private final Map<String, RequestSizeLimit> requestSizeLimitByClassName =
+      new ConcurrentHashMap<>();
 
   public PeerTaskExecutor(
       final PeerSelector peerSelector,
@@ -86,6 +109,12 @@ public class PeerTaskExecutor {
             "inflight_request_gauge",
             "Gauge of the number of inflight requests",
             "taskName");
+    hedgedRequestCounter =
+        metricsSystem.createLabelledCounter(
+            BesuMetricCategory.PEERS,
+            "hedged_request_total",
+            "Counter of the number of requests also sent to a second peer",
+            "taskName");
     inflightRequestCountByClassName = new ConcurrentHashMap<>();
   }
 
@@ -93,12 +122,11 @@ public class PeerTaskExecutor {
     PeerTaskExecutorResult<T> executorResult;
     int retriesRemaining = peerTask.getRetriesWithOtherPeer();
     final Collection<EthPeer> usedEthPeers = new HashSet<>();
+    final MessageData requestMessageData = peerTask.getRequestMessage();
+    final String protocolName = peerTask.getSubProtocol().getName();
+    final int requestCode = requestMessageData.getCode();
     do {
-      Optional<EthPeer> peer =
-          peerSelector.getPeer(
-              (candidatePeer) ->
-                  peerTask.getPeerRequirementFilter().test(candidatePeer)
-                      && !usedEthPeers.contains(candidatePeer));
+      Optional<EthPeer> peer = selectPeer(peerTask, protocolName, requestCode, usedEthPeers);
       if (peer.isEmpty()) {
         executorResult =
             new PeerTaskExecutorResult<>(
@@ -106,7 +134,19 @@ public class PeerTaskExecutor {
         break;
       }
       usedEthPeers.add(peer.get());
-      executorResult = executeAgainstPeer(peerTask, peer.get());
+      // hedging sends the request to another peer, so it is only done if the task allows that
+      final Optional<Supplier<Optional<EthPeer>>> hedgePeerSupplier =
+          retriesRemaining > 0
+              ? Optional.of(
+                  () -> {
+                    final Optional<EthPeer> hedgePeer =
+                        selectPeer(peerTask, protocolName, requestCode, usedEthPeers);
+                    hedgePeer.ifPresent(usedEthPeers::add);
+                    return hedgePeer;
+                  })
+              : Optional.empty();
+      executorResult =
+          executeAgainstPeer(peerTask, peer.get(), requestMessageData, hedgePeerSupplier);
     } while (retriesRemaining-- > 0
         && executorResult.responseCode() != PeerTaskExecutorResponseCode.SUCCESS);
 
@@ -115,6 +155,38 @@ public class PeerTaskExecutor {
 
   public <T> PeerTaskExecutorResult<T> executeAgainstPeer(
       final PeerTask<T> peerTask, final EthPeer peer) {
+    return executeAgainstPeer(peerTask, peer, peerTask.getRequestMessage(), Optional.empty());
+  }
+
+  /** Stops sending hedged requests, interrupting the ones still waiting for a response. */
+  public void stop() {
+    hedgeExecutor.shutdownNow();
+  }
+
+  /**
+   * Gets the maximum number of items to request with a task of the given type. The limit adapts to
+   * how the peers are answering: it is halved after every timeout, and grows again while the
+   * responses arrive within {@link #TARGET_RESPONSE_TIME_MILLIS}, up to the largest size requested.
+   *
+   * @param taskClass the type of the task that will be executed
+   * @param requestSize the number of items that the caller would like to request
+   * @return the number of items to request, between 1 and requestSize, or 0 if requestSize is 0
+   */
+  public int getRequestSizeLimit(final Class<?> taskClass, final int requestSize) {
+    if (requestSize <= 0) {
+      // nothing to request, and an empty request must not change the limit
+      return 0;
+    }
+    return requestSizeLimitByClassName
+        .computeIfAbsent(taskClass.getSimpleName(), k -> new RequestSizeLimit())
+        .limit(requestSize);
+  }
+
+  private <T> PeerTaskExecutorResult<T> executeAgainstPeer(
+      final PeerTask<T> peerTask,
+      final EthPeer peer,
+      final MessageData requestMessageData,
+      final Optional<Supplier<Optional<EthPeer>>> hedgePeerSupplier) {
     String taskClassName = peerTask.getClass().getSimpleName();
     AtomicInteger inflightRequestCountForThisTaskClass =
         inflightRequestCountByClassName.computeIfAbsent(
@@ -124,47 +196,53 @@ public class PeerTaskExecutor {
               inflightRequestGauge.labels(inflightRequests::get, taskClassName);
               return inflightRequests;
             });
-    MessageData requestMessageData = peerTask.getRequestMessage();
     SubProtocol peerTaskSubProtocol = peerTask.getSubProtocol();
     PeerTaskExecutorResult<T> executorResult;
     int retriesRemaining = peerTask.getRetriesWithSamePeer();
     do {
+      // the peer that sent the response, that is not the same peer if a hedged request won
+      EthPeer respondingPeer = peer;
+      final long startNanos = System.nanoTime();
       try {
         T result;
         try (final OperationTimer.TimingContext ignored =
             requestTimer.labels(taskClassName).startTimer()) {
           inflightRequestCountForThisTaskClass.incrementAndGet();
 
-          MessageData responseMessageData =
-              requestSender.sendRequest(peerTaskSubProtocol, requestMessageData, peer);
+          final PeerResponse response =
+              sendRequest(
+                  taskClassName, peerTaskSubProtocol, requestMessageData, peer, hedgePeerSupplier);
+          respondingPeer = response.peer();
 
-          if (responseMessageData == null) {
+          if (response.message() == null) {
             throw new InvalidPeerTaskResponseException();
           }
 
-          result = peerTask.processResponse(responseMessageData);
+          result = peerTask.processResponse(response.message());
         } finally {
           inflightRequestCountForThisTaskClass.decrementAndGet();
         }
 
         PeerTaskValidationResponse validationResponse = peerTask.validateResult(result);
         if (validationResponse == PeerTaskValidationResponse.RESULTS_VALID_AND_GOOD) {
-          peer.recordUsefulResponse();
+          respondingPeer.recordUsefulResponse();
           executorResult =
               new PeerTaskExecutorResult<>(
                   Optional.ofNullable(result),
                   PeerTaskExecutorResponseCode.SUCCESS,
-                  Optional.of(peer));
+                  Optional.of(respondingPeer));
           peerTask.postProcessResult(executorResult);
         } else {
           LOG.debug(
-              "Invalid response found for {} from peer {}", taskClassName, peer.getLoggableId());
-          validationResponse.getDisconnectReason().ifPresent(peer::disconnect);
+              "Invalid response found for {} from peer {}",
+              taskClassName,
+              respondingPeer.getLoggableId());
+          validationResponse.getDisconnectReason().ifPresent(respondingPeer::disconnect);
           executorResult =
               new PeerTaskExecutorResult<>(
                   Optional.ofNullable(result),
                   PeerTaskExecutorResponseCode.INVALID_RESPONSE,
-                  Optional.of(peer));
+                  Optional.of(respondingPeer));
         }
 
       } catch (PeerNotConnected e) {
@@ -182,13 +260,18 @@ public class PeerTaskExecutor {
                 Optional.empty(), PeerTaskExecutorResponseCode.TIMEOUT, Optional.of(peer));
 
       } catch (InvalidPeerTaskResponseException e) {
-        peer.recordUselessResponse(e.getMessage());
+        respondingPeer.recordUselessResponse(e.getMessage());
         invalidResponseCounter.labels(taskClassName).inc();
         LOG.debug(
-            "Invalid response found for {} from peer {}", taskClassName, peer.getLoggableId(), e);
+            "Invalid response found for {} from peer {}",
+            taskClassName,
+            respondingPeer.getLoggableId(),
+            e);
         executorResult =
             new PeerTaskExecutorResult<>(
-                Optional.empty(), PeerTaskExecutorResponseCode.INVALID_RESPONSE, Optional.of(peer));
+                Optional.empty(),
+                PeerTaskExecutorResponseCode.INVALID_RESPONSE,
+                Optional.of(respondingPeer));
 
       } catch (Exception e) {
         internalExceptionCounter.labels(taskClassName).inc();
@@ -199,6 +282,10 @@ public class PeerTaskExecutor {
                 PeerTaskExecutorResponseCode.INTERNAL_SERVER_ERROR,
                 Optional.of(peer));
       }
+      updateRequestSizeLimit(
+          taskClassName,
+          executorResult.responseCode(),
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
     } while (retriesRemaining-- > 0
         && executorResult.responseCode() != PeerTaskExecutorResponseCode.SUCCESS
         && executorResult.responseCode() != PeerTaskExecutorResponseCode.PEER_DISCONNECTED
@@ -207,6 +294,188 @@ public class PeerTaskExecutor {
     return executorResult;
   }
 
+  private Optional<EthPeer> selectPeer(
+      final PeerTask<?> peerTask,
+      final String protocolName,
+      final int requestCode,
+      final Collection<EthPeer> usedEthPeers) {
+    return peerSelector
+        .getPeer(
+            (candidatePeer) ->
+                peerTask.getPeerRequirementFilter().test(candidatePeer)
+                    && !usedEthPeers.contains(candidatePeer),
+            protocolName,
+            requestCode)
+        .filter(selectedPeer -> !usedEthPeers.contains(selectedPeer));
+  }
+
+  private PeerResponse sendRequest(
+      final String taskClassName,
+      final SubProtocol subProtocol,
+      final MessageData requestMessageData,
+      final EthPeer peer,
+      final Optional<Supplier<Optional<EthPeer>>> hedgePeerSupplier)
+      throws PeerNotConnected, ExecutionException, InterruptedException, TimeoutException {
+    if (hedgePeerSupplier.isEmpty()) {
+      return new PeerResponse(
+          requestSender.sendRequest(subProtocol, requestMessageData, peer), peer);
+    }
+
+    final String protocolName = subProtocol.getName();
+    final int requestCode = requestMessageData.getCode();
+    final CompletableFuture<PeerResponse> primary =
+        sendRequestAsync(subProtocol, requestMessageData, peer);
+    try {
+      return primary.get(
+          hedgeDelayMillis(peer, protocolName, requestCode), TimeUnit.MILLISECONDS);
+    } catch (final TimeoutException e) {
+      // the peer is slower than usual, so the request is hedged with another peer
+    } catch (final ExecutionException e) {
+      throw rethrowCause(e);
+    }
+
+    final Optional<EthPeer> maybeHedgePeer = hedgePeerSupplier.get().get();
+    if (maybeHedgePeer.isEmpty()) {
+      return awaitResponse(primary);
+    }
+    final EthPeer hedgePeer = maybeHedgePeer.get();
+    LOG.atTrace()
+        .setMessage("Hedging {} request sent to slow peer {} with peer {}")
+        .addArgument(taskClassName)
+        .addArgument(peer::getLoggableId)
+        .addArgument(hedgePeer::getLoggableId)
+        .log();
+    hedgedRequestCounter.labels(taskClassName).inc();
+    final CompletableFuture<PeerResponse> hedge =
+        sendRequestAsync(subProtocol, requestMessageData, hedgePeer);
+
+    final CompletableFuture<PeerResponse> first = firstResponse(primary, hedge);
+    // a timeout of the primary request is recorded by the caller, unless the hedge response is used
+    first.whenComplete(
+        (response, error) -> {
+          if (error == null && response.peer() == hedgePeer) {
+            recordTimeout(primary, peer, taskClassName, protocolName, requestCode);
+          } else {
+            recordTimeout(hedge, hedgePeer, taskClassName, protocolName, requestCode);
+          }
+        });
+    return awaitResponse(first);
+  }
+
+  private CompletableFuture<PeerResponse> sendRequestAsync(
+      final SubProtocol subProtocol, final MessageData requestMessageData, final EthPeer peer) {
+    return CompletableFuture.supplyAsync(
+        () -> {
+          try {
+            return new PeerResponse(
+                requestSender.sendRequest(subProtocol, requestMessageData, peer), peer);
+          } catch (final Exception e) {
+            throw new CompletionException(e);
+          }
+        },
+        hedgeExecutor);
+  }
+
+  private static CompletableFuture<PeerResponse> firstResponse(
+      final CompletableFuture<PeerResponse> primary, final CompletableFuture<PeerResponse> hedge) {
+    final CompletableFuture<PeerResponse> first = new CompletableFuture<>();
+    hedge.whenComplete(
+        (response, error) -> {
+          if (isUsable(response, error)) {
+            first.complete(response);
+          }
+        });
+    primary.whenComplete(
+        (response, error) -> {
+          if (isUsable(response, error)) {
+            first.complete(response);
+          } else {
+            // if the hedge request fails too, the outcome of the primary request is used
+            hedge.whenComplete(
+                (hedgeResponse, hedgeError) -> {
+                  if (error != null) {
+                    first.completeExceptionally(error);
+                  } else {
+                    first.complete(response);
+                  }
+                });
+          }
+        });
+    return first;
+  }
+
+  private static boolean isUsable(final PeerResponse response, final Throwable error) {
+    return error == null && response.message() != null;
+  }
+
+  private void recordTimeout(
+      final CompletableFuture<PeerResponse> request,
+      final EthPeer peer,
+      final String taskClassName,
+      final String protocolName,
+      final int requestCode) {
+    request.whenComplete(
+        (response, error) -> {
+          if (error != null && error.getCause() instanceof TimeoutException) {
+            peer.recordRequestTimeout(protocolName, requestCode);
+            timeoutCounter.labels(taskClassName).inc();
+          }
+        });
+  }
+
+  private static PeerResponse awaitResponse(final CompletableFuture<PeerResponse> response)
+      throws PeerNotConnected, ExecutionException, InterruptedException, TimeoutException {
+    try {
+      return response.get();
+    } catch (final ExecutionException e) {
+      throw rethrowCause(e);
+    }
+  }
+
+  private static ExecutionException rethrowCause(final ExecutionException e)
+      throws PeerNotConnected, InterruptedException, TimeoutException {
+    switch (e.getCause()) {
+      case PeerNotConnected cause -> throw cause;
+      case InterruptedException cause -> throw cause;
+      case TimeoutException cause -> throw cause;
+      case ExecutionException cause -> {
+        return cause;
+      }
+      case null, default -> {
+        return e;
+      }
+    }
+  }
+
+  private static long hedgeDelayMillis(
+      final EthPeer peer, final String protocolName, final int requestCode) {
+    final OptionalDouble averageResponseTime =
+        peer.getAverageResponseTimeMillis(protocolName, requestCode);
+    if (averageResponseTime.isEmpty()) {
+      return MAX_HEDGE_DELAY_MILLIS;
+    }
+    return Math.clamp(
+        (long) (HEDGE_RESPONSE_TIME_MULTIPLIER * averageResponseTime.getAsDouble()),
+        MIN_HEDGE_DELAY_MILLIS,
+        MAX_HEDGE_DELAY_MILLIS);
+  }
+
+  private void updateRequestSizeLimit(
+      final String taskClassName,
+      final PeerTaskExecutorResponseCode responseCode,
+      final long responseTimeMillis) {
+    final RequestSizeLimit requestSizeLimit = requestSizeLimitByClassName.get(taskClassName);
+    if (requestSizeLimit == null) {
+      return;
+    }
+    if (responseCode == PeerTaskExecutorResponseCode.TIMEOUT) {
+      requestSizeLimit.decrease();
+    } else if (responseCode == PeerTaskExecutorResponseCode.SUCCESS
+        && responseTimeMillis <= TARGET_RESPONSE_TIME_MILLIS) {
+      requestSizeLimit.increase();
+    }
+  }
+
   private boolean sleepBetweenRetries() {
     try {
       // sleep for 1 second to match implemented wait between retries in AbstractRetryingPeerTask
@@ -216,4 +485,25 @@ public class PeerTaskExecutor {
       return false;
     }
   }
+
+  private record PeerResponse(MessageData message, EthPeer peer) {}
+
+  private static class RequestSizeLimit {
+    private int maxRequestSize = 1;
+    private int limit = Integer.MAX_VALUE;
+
+    synchronized int limit(final int requestSize) {
+      maxRequestSize = Math.max(maxRequestSize, requestSize);
+      limit = Math.min(limit, maxRequestSize);
+      return Math.max(1, Math.min(limit, requestSize));
+    }
+
+    synchronized void decrease() {
+      limit = Math.max(1, limit / 2);
+    }
+
+    synchronized void increase() {
+      limit = Math.min(maxRequestSize, limit + Math.max(1, limit / 8));
+    }
+  }
 }
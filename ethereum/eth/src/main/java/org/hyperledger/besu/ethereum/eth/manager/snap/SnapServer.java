@@ -30,7 +30,6 @@ import org.hyperledger.besu.ethereum.eth.messages.snap.TrieNodesMessage;
 import org.hyperledger.besu.ethereum.eth.sync.snapsync.SnapSyncConfiguration;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
 import org.hyperledger.besu.ethereum.proof.WorldStateProofProvider;
-import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
 import org.hyperledger.besu.ethereum.rlp.RLP;
 import org.hyperledger.besu.ethereum.trie.CompactEncoding;
 import org.hyperledger.besu.ethereum.trie.MerkleTrie;
@@ -49,11 +48,13 @@ import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.annotations.VisibleForTesting;
 import kotlin.Pair;
 import kotlin.collections.ArrayDeque;
@@ -72,6 +73,7 @@ class SnapServer implements BesuEvents.InitialSyncCompletionListener {
   private static final int MAX_RESPONSE_SIZE = 2 * 1024 * 1024;
   private static final int MAX_CODE_LOOKUPS_PER_REQUEST = 1024;
   private static final int MAX_TRIE_LOOKUPS_PER_REQUEST = 1024;
+  private static final long MAX_PROOF_CACHE_BYTES = 32 * 1024 * 1024;
   private static final AccountRangeMessage EMPTY_ACCOUNT_RANGE =
       AccountRangeMessage.create(new HashMap<>(), new ArrayDeque<>());
   private static final StorageRangeMessage EMPTY_STORAGE_RANGE =
@@ -92,6 +94,15 @@ class SnapServer implements BesuEvents.InitialSyncCompletionListener {
   // whether snap server is enabled
   private final boolean snapServerEnabled;
 
+  // Boundary proofs by trie root and key. Peers syncing from the same recent roots request the
+  // same ranges, and only the last PRIME_STATE_ROOT_CACHE_LIMIT roots are served, so older proofs
+  // are not requested anymore and get evicted.
+  private final Cache<ProofKey, List<Bytes>> proofCache =
+      Caffeine.newBuilder()
+          .maximumWeight(MAX_PROOF_CACHE_BYTES)
+          .weigher((final ProofKey key, final List<Bytes> proof) -> sumListBytes(proof))
+          .build();
+
   // provide worldstate storage by root hash
   private Function<Hash, Optional<BonsaiWorldStateKeyValueStorage>> worldStateStorageProvider =
       __ -> Optional.empty();
@@ -239,11 +250,7 @@ class SnapServer implements BesuEvents.InitialSyncCompletionListener {
                         "account",
                         stopWatch,
                         maxResponseBytes,
-                        (pair) -> {
-                          Bytes bytes =
-                              AccountRangeMessage.toSlimAccount(RLP.input(pair.getSecond()));
-                          return Hash.SIZE + bytes.size();
-                        });
+                        pair -> Hash.SIZE + AccountRangeMessage.slimAccountSize(pair.getSecond()));
 
                 final Bytes32 endKeyBytes = range.endKeyHash();
                 var shouldContinuePredicate =
@@ -253,7 +260,7 @@ class SnapServer implements BesuEvents.InitialSyncCompletionListener {
                 NavigableMap<Bytes32, Bytes> accounts =
                     storage.streamFlatAccounts(range.startKeyHash(), shouldContinuePredicate);
 
-                if (accounts.isEmpty() && shouldContinuePredicate.shouldContinue.get()) {
+                if (accounts.isEmpty() && shouldContinuePredicate.shouldGetMore()) {
                   var fromNextHash =
                       range.endKeyHash().compareTo(range.startKeyHash()) >= 0
                           ? range.endKeyHash()
@@ -268,13 +275,14 @@ class SnapServer implements BesuEvents.InitialSyncCompletionListener {
                 final var worldStateProof =
                     new WorldStateProofProvider(new WorldStateStorageCoordinator(storage));
                 final List<Bytes> proof =
-                    worldStateProof.getAccountProofRelatedNodes(
-                        range.worldStateRootHash(), Hash.wrap(range.startKeyHash()));
+                    new ArrayList<>(
+                        getAccountProof(
+                            worldStateProof, range.worldStateRootHash(), range.startKeyHash()));
 
                 if (!accounts.isEmpty()) {
                   proof.addAll(
-                      worldStateProof.getAccountProofRelatedNodes(
-                          range.worldStateRootHash(), Hash.wrap(accounts.lastKey())));
+                      getAccountProof(
+                          worldStateProof, range.worldStateRootHash(), accounts.lastKey()));
                 }
                 var resp = AccountRangeMessage.create(accounts, proof);
                 if (accounts.isEmpty()) {
@@ -341,14 +349,10 @@ class SnapServer implements BesuEvents.InitialSyncCompletionListener {
                         "storage",
                         stopWatch,
                         maxResponseBytes,
-                        (pair) -> {
-                          var slotRlpOutput = new BytesValueRLPOutput();
-                          slotRlpOutput.startList();
-                          slotRlpOutput.writeBytes(pair.getFirst());
-                          slotRlpOutput.writeBytes(pair.getSecond());
-                          slotRlpOutput.endList();
-                          return slotRlpOutput.encodedSize();
-                        });
+                        pair ->
+                            RLP.encodedListSize(
+                                RLP.encodedSize(pair.getFirst())
+                                    + RLP.encodedSize(pair.getSecond())));
 
                 // only honor start and end hash if request is for a single account's storage:
                 Bytes32 startKeyBytes, endKeyBytes;
@@ -395,19 +399,19 @@ class SnapServer implements BesuEvents.InitialSyncCompletionListener {
                   // if a partial storage range was requested, or we interrupted storage due to
                   // request limits, send proofs:
                   if (isPartialRange || !predicate.shouldGetMore()) {
+                    final Hash storageRoot = getAccountStorageRoot(forAccountHash, storage);
                     // send a proof for the left side range origin
                     proofNodes.addAll(
-                        worldStateProof.getStorageProofRelatedNodes(
-                            getAccountStorageRoot(forAccountHash, storage),
-                            forAccountHash,
-                            Hash.wrap(startKeyBytes)));
+                        getStorageProof(
+                            worldStateProof, storageRoot, forAccountHash, startKeyBytes));
                     if (!accountStorages.isEmpty()) {
                       // send a proof for the last key on the right
                       proofNodes.addAll(
-                          worldStateProof.getStorageProofRelatedNodes(
-                              getAccountStorageRoot(forAccountHash, storage),
+                          getStorageProof(
+                              worldStateProof,
+                              storageRoot,
                               forAccountHash,
-                              Hash.wrap(accountStorages.lastKey())));
+                              accountStorages.lastKey()));
                     }
                   }
 
@@ -593,7 +597,8 @@ class SnapServer implements BesuEvents.InitialSyncCompletionListener {
    */
   static class ExceedingPredicate implements Predicate<Pair<Bytes32, Bytes>> {
     private final Predicate<Pair<Bytes32, Bytes>> delegate;
-    final AtomicBoolean shouldContinue = new AtomicBoolean(true);
+    // the flat database is streamed by the thread serving the request
+    private boolean shouldContinue = true;
 
     public ExceedingPredicate(final Predicate<Pair<Bytes32, Bytes>> delegate) {
       this.delegate = delegate;
@@ -601,12 +606,13 @@ class SnapServer implements BesuEvents.InitialSyncCompletionListener {
 
     @Override
     public boolean test(final Pair<Bytes32, Bytes> pair) {
-      final boolean result = delegate.test(pair);
-      return shouldContinue.getAndSet(result);
+      final boolean result = shouldContinue;
+      shouldContinue = delegate.test(pair);
+      return result;
     }
 
     public boolean shouldGetMore() {
-      return shouldContinue.get();
+      return shouldContinue;
     }
   }
 
@@ -623,10 +629,10 @@ class SnapServer implements BesuEvents.InitialSyncCompletionListener {
     // default to a max of 4 seconds per request
     static final long MAX_MILLIS_PER_REQUEST = 4000;
 
-    final AtomicInteger byteLimit = new AtomicInteger(0);
-    final AtomicInteger recordLimit = new AtomicInteger(0);
-    final AtomicBoolean shouldContinue = new AtomicBoolean(true);
-    final Function<Pair<Bytes32, Bytes>, Integer> encodingSizeAccumulator;
+    // only used by the thread serving the request
+    int byteLimit = 0;
+    int recordLimit = 0;
+    final ToIntFunction<Pair<Bytes32, Bytes>> encodingSizeAccumulator;
     final StopWatch stopWatch;
     final int maxResponseBytes;
     final String forWhat;
@@ -635,7 +641,7 @@ class SnapServer implements BesuEvents.InitialSyncCompletionListener {
         final String forWhat,
         final StopWatch stopWatch,
         final int maxResponseBytes,
-        final Function<Pair<Bytes32, Bytes>, Integer> encodingSizeAccumulator) {
+        final ToIntFunction<Pair<Bytes32, Bytes>> encodingSizeAccumulator) {
       this.stopWatch = stopWatch;
       this.maxResponseBytes = maxResponseBytes;
       this.forWhat = forWhat;
@@ -644,44 +650,61 @@ class SnapServer implements BesuEvents.InitialSyncCompletionListener {
 
     @Override
     public boolean test(final Pair<Bytes32, Bytes> pair) {
-      LOGGER
-          .atTrace()
-          .setMessage("{} pre-accumulate limits, bytes: {} , stream count: {}")
-          .addArgument(() -> forWhat)
-          .addArgument(byteLimit::get)
-          .addArgument(recordLimit::get)
-          .log();
+      if (LOGGER.isTraceEnabled()) {
+        LOGGER.trace(
+            "{} pre-accumulate limits, bytes: {} , stream count: {}",
+            forWhat,
+            byteLimit,
+            recordLimit);
+      }
       if (stopWatch.getTime() > MAX_MILLIS_PER_REQUEST) {
-        shouldContinue.set(false);
         LOGGER.warn(
             "{} took too long, stopped at {} ms with {} records and {} bytes",
             forWhat,
             stopWatch.formatTime(),
-            recordLimit.get(),
-            byteLimit.get());
+            recordLimit,
+            byteLimit);
         return false;
       }
 
-      var underRecordLimit = recordLimit.addAndGet(1) <= MAX_ENTRIES_PER_REQUEST;
-      var underByteLimit =
-          byteLimit.accumulateAndGet(0, (cur, __) -> cur + encodingSizeAccumulator.apply(pair))
-              < maxResponseBytes;
-      if (underRecordLimit && underByteLimit) {
+      recordLimit++;
+      byteLimit += encodingSizeAccumulator.applyAsInt(pair);
+      if (recordLimit <= MAX_ENTRIES_PER_REQUEST && byteLimit < maxResponseBytes) {
         return true;
       } else {
-        shouldContinue.set(false);
-        LOGGER
-            .atDebug()
-            .setMessage("{} post-accumulate limits, bytes: {} , stream count: {}")
-            .addArgument(() -> forWhat)
-            .addArgument(byteLimit::get)
-            .addArgument(recordLimit::get)
-            .log();
+        LOGGER.debug(
+            "{} post-accumulate limits, bytes: {} , stream count: {}",
+            forWhat,
+            byteLimit,
+            recordLimit);
         return false;
       }
     }
   }
 
+  private List<Bytes> getAccountProof(
+      final WorldStateProofProvider worldStateProof, final Hash rootHash, final Bytes32 key) {
+    return proofCache.get(
+        new ProofKey(rootHash, key),
+        __ -> List.copyOf(worldStateProof.getAccountProofRelatedNodes(rootHash, key)));
+  }
+
+  private List<Bytes> getStorageProof(
+      final WorldStateProofProvider worldStateProof,
+      final Hash storageRoot,
+      final Bytes32 accountHash,
+      final Bytes32 key) {
+    // a storage trie is identified by its root, whatever the account it belongs to
+    return proofCache.get(
+        new ProofKey(storageRoot, key),
+        __ ->
+            List.copyOf(
+                worldStateProof.getStorageProofRelatedNodes(storageRoot, accountHash, key)));
+  }
+
+  /** A proof of a key in the trie with the given root. */
+  private record ProofKey(Bytes32 rootHash, Bytes32 key) {}
+
   Hash getAccountStorageRoot(
       final Bytes32 accountHash, final BonsaiWorldStateKeyValueStorage storage) {
     return storage
@@ -25,6 +25,7 @@ import org.hyperledger.besu.ethereum.eth.manager.peertask.PeerTaskExecutorResult
 import org.hyperledger.besu.ethereum.eth.transactions.PeerTransactionTracker;
 import org.hyperledger.besu.ethereum.eth.transactions.TransactionPool;
 import org.hyperledger.besu.ethereum.eth.transactions.TransactionPoolMetrics;
+import org.hyperledger.besu.ethereum.eth.transactions.TransactionSenderRecovery;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -53,6 +54,7 @@ public class BufferedGetPooledTransactionsFromPeerFetcher {
   private final EthPeer peer;
   private final Queue<Hash> txAnnounces;
   private final boolean isPeerTaskSystemEnabled;
+  private final TransactionSenderRecovery senderRecovery;
 
   public BufferedGetPooledTransactionsFromPeerFetcher(
       final EthContext ethContext,
@@ -73,6 +75,7 @@ public class BufferedGetPooledTransactionsFromPeerFetcher {
     this.txAnnounces =
         Queues.synchronizedQueue(EvictingQueue.create(DEFAULT_MAX_PENDING_TRANSACTIONS));
     this.isPeerTaskSystemEnabled = isPeerTaskSystemEnabled;
+    this.senderRecovery = new TransactionSenderRecovery(ethContext.getScheduler());
   }
 
   public ScheduledFuture<?> getScheduledFuture() {
@@ -127,6 +130,7 @@ public class BufferedGetPooledTransactionsFromPeerFetcher {
                 .addArgument(peer::getLoggableId)
                 .log();
 
+            senderRecovery.recoverSenders(retrievedTransactions);
             transactionPool.addRemoteTransactions(retrievedTransactions);
           });
     }
@@ -19,6 +19,7 @@ import org.hyperledger.besu.ethereum.p2p.rlpx.wire.AbstractSnapMessageData;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
 import org.hyperledger.besu.ethereum.rlp.BytesValueRLPInput;
 import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
+import org.hyperledger.besu.ethereum.rlp.RLP;
 import org.hyperledger.besu.ethereum.rlp.RLPInput;
 import org.hyperledger.besu.ethereum.trie.common.PmtStateTrieAccountValue;
 
@@ -63,20 +64,23 @@ public final class AccountRangeMessage extends AbstractSnapMessageData {
       final Optional<BigInteger> requestId,
       final Map<Bytes32, Bytes> accounts,
       final List<Bytes> proof) {
-    final BytesValueRLPOutput tmp = new BytesValueRLPOutput();
-    tmp.startList();
-    requestId.ifPresent(tmp::writeBigIntegerScalar);
-    tmp.writeList(
-        accounts.entrySet(),
-        (entry, rlpOutput) -> {
-          rlpOutput.startList();
-          rlpOutput.writeBytes(entry.getKey());
-          rlpOutput.writeRLPBytes(entry.getValue());
-          rlpOutput.endList();
-        });
-    tmp.writeList(proof, (bytes, rlpOutput) -> rlpOutput.writeBytes(bytes));
-    tmp.endList();
-    return new AccountRangeMessage(tmp.encoded());
+    // encoded straight into a single buffer, responses can be several megabytes
+    return new AccountRangeMessage(
+        RLP.encode(
+            tmp -> {
+              tmp.startList();
+              requestId.ifPresent(tmp::writeBigIntegerScalar);
+              tmp.writeList(
+                  accounts.entrySet(),
+                  (entry, rlpOutput) -> {
+                    rlpOutput.startList();
+                    rlpOutput.writeBytes(entry.getKey());
+                    rlpOutput.writeRLPBytes(entry.getValue());
+                    rlpOutput.endList();
+                  });
+              tmp.writeList(proof, (bytes, rlpOutput) -> rlpOutput.writeBytes(bytes));
+              tmp.endList();
+            }));
   }
 
   @Override
@@ -154,6 +158,28 @@ public final class AccountRangeMessage extends AbstractSnapMessageData {
     return rlpOutput.encoded();
   }
 
+  /**
+   * Computes the size of the slim encoding of an account from its full encoding, without decoding
+   * it, as {@link #toSlimAccount} would return.
+   *
+   * @param fullAccount the RLP encoded account, with its storage root and code hash
+   * @return the size of the slim encoding of the account
+   */
+  public static int slimAccountSize(final Bytes fullAccount) {
+    // the storage root and the code hash are the last items, 32 bytes values with a 1 byte prefix
+    final int size = fullAccount.size();
+    final int listPrefixSize =
+        (fullAccount.get(0) & 0xFF) <= 0xF7 ? 1 : 1 + (fullAccount.get(0) & 0xFF) - 0xF7;
+    int payloadSize = size - listPrefixSize;
+    if (fullAccount.slice(size - Bytes32.SIZE, Bytes32.SIZE).equals(Hash.EMPTY)) {
+      payloadSize -= Bytes32.SIZE;
+    }
+    if (fullAccount.slice(size - 2 * Bytes32.SIZE - 1, Bytes32.SIZE).equals(Hash.EMPTY_TRIE_HASH)) {
+      payloadSize -= Bytes32.SIZE;
+    }
+    return RLP.encodedListSize(payloadSize);
+  }
+
   @Value.Immutable
   public interface AccountRangeData {
 
@@ -17,7 +17,7 @@ package org.hyperledger.besu.ethereum.eth.messages.snap;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.AbstractSnapMessageData;
 import org.hyperledger.besu.ethereum.p2p.rlpx.wire.MessageData;
 import org.hyperledger.besu.ethereum.rlp.BytesValueRLPInput;
-import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
+import org.hyperledger.besu.ethereum.rlp.RLP;
 import org.hyperledger.besu.ethereum.rlp.RLPInput;
 
 import java.math.BigInteger;
@@ -58,23 +58,26 @@ public final class StorageRangeMessage extends AbstractSnapMessageData {
       final Optional<BigInteger> requestId,
       final ArrayDeque<NavigableMap<Bytes32, Bytes>> slots,
       final List<Bytes> proof) {
-    final BytesValueRLPOutput tmp = new BytesValueRLPOutput();
-    tmp.startList();
-    requestId.ifPresent(tmp::writeBigIntegerScalar);
-    tmp.writeList(
-        slots,
-        (accountList, accountRlpOutput) ->
-            accountRlpOutput.writeList(
-                accountList.entrySet(),
-                (entry, slotRlpOutput) -> {
-                  slotRlpOutput.startList();
-                  slotRlpOutput.writeBytes(entry.getKey());
-                  slotRlpOutput.writeBytes(entry.getValue());
-                  slotRlpOutput.endList();
-                }));
-    tmp.writeList(proof, (bytes, rlpOutput) -> rlpOutput.writeBytes(bytes));
-    tmp.endList();
-    return new StorageRangeMessage(tmp.encoded());
+    // encoded straight into a single buffer, responses can be several megabytes
+    return new StorageRangeMessage(
+        RLP.encode(
+            tmp -> {
+              tmp.startList();
+              requestId.ifPresent(tmp::writeBigIntegerScalar);
+              tmp.writeList(
+                  slots,
+                  (accountList, accountRlpOutput) ->
+                      accountRlpOutput.writeList(
+                          accountList.entrySet(),
+                          (entry, slotRlpOutput) -> {
+                            slotRlpOutput.startList();
+                            slotRlpOutput.writeBytes(entry.getKey());
+                            slotRlpOutput.writeBytes(entry.getValue());
+                            slotRlpOutput.endList();
+                          }));
+              tmp.writeList(proof, (bytes, rlpOutput) -> rlpOutput.writeBytes(bytes));
+              tmp.endList();
+            }));
   }
 
   @Override
@@ -18,8 +18,10 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.hyperledger.besu.ethereum.eth.sync.snapsync.SnapSyncConfiguration;
+import org.hyperledger.besu.services.pipeline.WaitStrategy;
 import org.hyperledger.besu.services.tasks.CachingTaskCollection;
 
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 import com.google.common.collect.Range;
@@ -87,6 +89,7 @@ public class SynchronizerConfiguration {
   private final long propagationManagerGetBlockTimeoutMillis;
   private final boolean isPeerTaskSystemEnabled;
   private final boolean snapSyncSavePreMergeHeadersOnlyEnabled;
+  private final Optional<WaitStrategy> pipelineWaitStrategy;
 
   private SynchronizerConfiguration(
       final int syncPivotDistance,
@@ -112,7 +115,8 @@ public class SynchronizerConfiguration {
       final long propagationManagerGetBlockTimeoutMillis,
       final boolean checkpointPostMergeEnabled,
       final boolean isPeerTaskSystemEnabled,
-      final boolean snapSyncSavePreMergeHeadersOnlyEnabled) {
+      final boolean snapSyncSavePreMergeHeadersOnlyEnabled,
+      final Optional<WaitStrategy> pipelineWaitStrategy) {
     this.syncPivotDistance = syncPivotDistance;
     this.fastSyncFullValidationRate = fastSyncFullValidationRate;
     this.syncMinimumPeerCount = syncMinimumPeerCount;
@@ -137,6 +141,7 @@ public class SynchronizerConfiguration {
     this.checkpointPostMergeEnabled = checkpointPostMergeEnabled;
     this.isPeerTaskSystemEnabled = isPeerTaskSystemEnabled;
     this.snapSyncSavePreMergeHeadersOnlyEnabled = snapSyncSavePreMergeHeadersOnlyEnabled;
+    this.pipelineWaitStrategy = pipelineWaitStrategy;
   }
 
   public static Builder builder() {
@@ -270,6 +275,16 @@ public class SynchronizerConfiguration {
     return snapSyncSavePreMergeHeadersOnlyEnabled;
   }
 
+  /**
+   * How the stages of the chain download pipeline wait for each other, if they are connected with
+   * lock-free ring buffer pipes instead of blocking queues
+   *
+   * @return the wait strategy, or empty to use blocking queues
+   */
+  public Optional<WaitStrategy> getPipelineWaitStrategy() {
+    return pipelineWaitStrategy;
+  }
+
   public static class Builder {
     private SyncMode syncMode = SyncMode.FULL;
     private int syncMinimumPeerCount = DEFAULT_SYNC_MINIMUM_PEERS;
@@ -296,6 +311,7 @@ public class SynchronizerConfiguration {
     private int worldStateTaskCacheSize = DEFAULT_WORLD_STATE_TASK_CACHE_SIZE;
     private boolean isPeerTaskSystemEnabled = false;
     private boolean snapSyncSavePreMergeHeadersOnlyEnabled = false;
+    private Optional<WaitStrategy> pipelineWaitStrategy = Optional.empty();
 
     private long propagationManagerGetBlockTimeoutMillis =
         DEFAULT_PROPAGATION_MANAGER_GET_BLOCK_TIMEOUT_MILLIS;
@@ -433,6 +449,11 @@ public class SynchronizerConfiguration {
       return this;
     }
 
+    public Builder pipelineWaitStrategy(final Optional<WaitStrategy> pipelineWaitStrategy) {
+      this.pipelineWaitStrategy = pipelineWaitStrategy;
+      return this;
+    }
+
     public SynchronizerConfiguration build() {
       return new SynchronizerConfiguration(
           syncPivotDistance,
@@ -458,7 +479,8 @@ public class SynchronizerConfiguration {
           propagationManagerGetBlockTimeoutMillis,
           checkpointPostMergeEnabled,
           isPeerTaskSystemEnabled,
-          snapSyncSavePreMergeHeadersOnlyEnabled);
+          snapSyncSavePreMergeHeadersOnlyEnabled,
+          pipelineWaitStrategy);
     }
   }
 }
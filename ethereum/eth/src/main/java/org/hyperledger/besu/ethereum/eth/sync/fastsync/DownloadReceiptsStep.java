@@ -22,6 +22,7 @@ import org.hyperledger.besu.ethereum.core.BlockHeader;
 import org.hyperledger.besu.ethereum.core.BlockWithReceipts;
 import org.hyperledger.besu.ethereum.core.TransactionReceipt;
 import org.hyperledger.besu.ethereum.eth.manager.EthContext;
+import org.hyperledger.besu.ethereum.eth.manager.peertask.PeerTaskExecutor;
 import org.hyperledger.besu.ethereum.eth.manager.peertask.PeerTaskExecutorResponseCode;
 import org.hyperledger.besu.ethereum.eth.manager.peertask.PeerTaskExecutorResult;
 import org.hyperledger.besu.ethereum.eth.manager.peertask.task.GetReceiptsFromPeerTask;
@@ -30,6 +31,7 @@ import org.hyperledger.besu.ethereum.eth.sync.tasks.GetReceiptsForHeadersTask;
 import org.hyperledger.besu.ethereum.mainnet.ProtocolSchedule;
 import org.hyperledger.besu.plugin.services.MetricsSystem;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -74,10 +76,17 @@ public class DownloadReceiptsStep
   private CompletableFuture<Map<BlockHeader, List<TransactionReceipt>>>
       getReceiptsWithPeerTaskSystem(final List<BlockHeader> headers) {
     Map<BlockHeader, List<TransactionReceipt>> getReceipts = new HashMap<>();
-    do {
-      GetReceiptsFromPeerTask task = new GetReceiptsFromPeerTask(headers, protocolSchedule);
+    // repeat until all headers have receipts
+    while (!headers.isEmpty()) {
+      final PeerTaskExecutor peerTaskExecutor = ethContext.getPeerTaskExecutor();
+      // request fewer receipts when the peers are struggling to answer in time
+      final int requestSize =
+          peerTaskExecutor.getRequestSizeLimit(GetReceiptsFromPeerTask.class, headers.size());
+      GetReceiptsFromPeerTask task =
+          new GetReceiptsFromPeerTask(
+              new ArrayList<>(headers.subList(0, requestSize)), protocolSchedule);
       PeerTaskExecutorResult<Map<BlockHeader, List<TransactionReceipt>>> getReceiptsResult =
-          ethContext.getPeerTaskExecutor().execute(task);
+          peerTaskExecutor.execute(task);
       if (getReceiptsResult.responseCode() == PeerTaskExecutorResponseCode.SUCCESS
           && getReceiptsResult.result().isPresent()) {
         Map<BlockHeader, List<TransactionReceipt>> taskResult = getReceiptsResult.result().get();
@@ -95,8 +104,7 @@ public class DownloadReceiptsStep
         // remove all the headers we found receipts for
         headers.removeAll(getReceipts.keySet());
       }
-      // repeat until all headers have receipts
-    } while (!headers.isEmpty());
+    }
     return CompletableFuture.completedFuture(getReceipts);
   }
 
@@ -124,7 +124,8 @@ public class FullSyncDownloadPipelineFactory implements DownloadPipelineFactory
                 "step",
                 "action"),
             true,
-            "fullSync")
+            "fullSync",
+            syncConfig.getPipelineWaitStrategy())
         .thenProcessAsyncOrdered("downloadHeaders", downloadHeadersStep, downloaderParallelism)
         .thenFlatMap("validateHeadersJoin", validateHeadersJoinUpStep, singleHeaderBufferSize)
         .inBatches(headerRequestSize)
@@ -18,8 +18,12 @@ import static org.hyperledger.besu.ethereum.eth.sync.StorageExceptionManager.can
 import static org.hyperledger.besu.ethereum.eth.sync.StorageExceptionManager.errorCountAtThreshold;
 import static org.hyperledger.besu.ethereum.eth.sync.StorageExceptionManager.getRetryableErrorCounter;
 
+import org.hyperledger.besu.ethereum.eth.sync.snapsync.request.AccountRangeDataRequest;
 import org.hyperledger.besu.ethereum.eth.sync.snapsync.request.SnapDataRequest;
+import org.hyperledger.besu.ethereum.eth.sync.snapsync.request.StorageRangeDataRequest;
 import org.hyperledger.besu.ethereum.eth.sync.snapsync.request.heal.TrieNodeHealingRequest;
+import org.hyperledger.besu.ethereum.proof.WorldStateProofProvider;
+import org.hyperledger.besu.ethereum.trie.forest.storage.ForestWorldStateKeyValueStorage;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateKeyValueStorage;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateStorageCoordinator;
@@ -38,6 +42,7 @@ public class PersistDataStep {
   private final SnapSyncProcessState snapSyncState;
   private final WorldStateStorageCoordinator worldStateStorageCoordinator;
   private final SnapWorldDownloadState downloadState;
+  private final WorldStateProofProvider worldStateProofProvider;
 
   private final SnapSyncConfiguration snapSyncConfiguration;
 
@@ -49,13 +54,16 @@ public class PersistDataStep {
     this.snapSyncState = snapSyncState;
     this.worldStateStorageCoordinator = worldStateStorageCoordinator;
     this.downloadState = downloadState;
+    this.worldStateProofProvider = new WorldStateProofProvider(worldStateStorageCoordinator);
     this.snapSyncConfiguration = snapSyncConfiguration;
   }
 
   public List<Task<SnapDataRequest>> persist(final List<Task<SnapDataRequest>> tasks) {
     try {
-      final WorldStateKeyValueStorage.Updater updater = worldStateStorageCoordinator.updater();
+      final WorldStateKeyValueStorage.Updater updater = createUpdater(tasks);
       for (Task<SnapDataRequest> task : tasks) {
+        // verify the proofs and build the trie here rather than on the network threads
+        task.getData().verifyResponse(downloadState, worldStateProofProvider);
         if (task.getData().isResponseReceived()) {
           // enqueue child requests
           final Stream<SnapDataRequest> childRequests =
@@ -145,6 +153,24 @@ public class PersistDataStep {
     return healFlatDatabase(List.of(task)).get(0);
   }
 
+  /**
+   * Downloaded ranges are new sorted data, that can be ingested in bulk when enabled, while healing
+   * requests keep using regular writes as they update scattered existing data.
+   */
+  private WorldStateKeyValueStorage.Updater createUpdater(final List<Task<SnapDataRequest>> tasks) {
+    if (snapSyncConfiguration.isSnapSyncSstIngestionEnabled()
+        && tasks.stream()
+            .allMatch(
+                task ->
+                    task.getData() instanceof AccountRangeDataRequest
+                        || task.getData() instanceof StorageRangeDataRequest)) {
+      return worldStateStorageCoordinator.applyForStrategy(
+          BonsaiWorldStateKeyValueStorage::bulkIngestionUpdater,
+          ForestWorldStateKeyValueStorage::updater);
+    }
+    return worldStateStorageCoordinator.updater();
+  }
+
   private void enqueueChildren(final Stream<SnapDataRequest> childRequests) {
     downloadState.enqueueRequests(childRequests);
   }
@@ -102,8 +102,7 @@ public class RequestDataStep {
               downloadState.removeOutstandingTask(getAccountTask);
               if (response != null) {
                 accountDataRequest.setRootHash(blockHeader.getStateRoot());
-                accountDataRequest.addResponse(
-                    worldStateProofProvider, response.accounts(), response.proofs());
+                accountDataRequest.setResponse(response.accounts(), response.proofs());
               }
               if (error != null) {
                 LOG.atDebug()
@@ -165,9 +164,7 @@ public class RequestDataStep {
                     final StorageRangeDataRequest request =
                         (StorageRangeDataRequest) requestTasks.get(i).getData();
                     request.setRootHash(blockHeader.getStateRoot());
-                    request.addResponse(
-                        downloadState,
-                        worldStateProofProvider,
+                    request.setResponse(
                         slots.get(i),
                         i < slots.size() - 1 ? new ArrayDeque<>() : response.proofs());
                   }
@@ -41,6 +41,7 @@ public class SnapSyncConfiguration {
   public static final Boolean DEFAULT_SNAP_SYNC_BFT_ENABLED = Boolean.FALSE;
   public static final Boolean DEFAULT_SNAP_SYNC_TRANSACTION_INDEXING_ENABLED = Boolean.FALSE;
   public static final Boolean DEFAULT_SNAP_SYNC_SAVE_PRE_MERGE_HEADERS_ONLY_ENABLED = Boolean.FALSE;
+  public static final Boolean DEFAULT_SNAP_SYNC_SST_INGESTION_ENABLED = Boolean.FALSE;
 
   public static SnapSyncConfiguration getDefault() {
     return ImmutableSnapSyncConfiguration.builder().build();
@@ -90,4 +91,13 @@ public class SnapSyncConfiguration {
   public Boolean isSnapSyncTransactionIndexingEnabled() {
     return DEFAULT_SNAP_SYNC_TRANSACTION_INDEXING_ENABLED;
   }
+
+  /**
+   * Whether the downloaded account and storage ranges are written by ingesting sorted files into
+   * the database, instead of regular writes. Only used with Bonsai.
+   */
+  @Value.Default
+  public Boolean isSnapSyncSstIngestionEnabled() {
+    return DEFAULT_SNAP_SYNC_SST_INGESTION_ENABLED;
+  }
 }
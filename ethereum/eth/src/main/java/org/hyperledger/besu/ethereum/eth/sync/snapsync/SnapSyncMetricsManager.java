@@ -136,7 +136,8 @@ public class SnapSyncMetricsManager {
     this.lastNotifyTimestamp = startSyncTime;
   }
 
-  public void notifyRangeProgress(
+  // ranges are persisted in parallel
+  public synchronized void notifyRangeProgress(
       final Step step, final Bytes32 startKeyHash, final Bytes32 endKeyHash) {
     checkNonEmpty(lastRangeIndex, "snapsync range collection");
     if (lastRangeIndex.containsKey(endKeyHash)) {
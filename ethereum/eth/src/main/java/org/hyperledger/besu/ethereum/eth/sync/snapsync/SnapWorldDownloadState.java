@@ -240,6 +240,9 @@ public class SnapWorldDownloadState extends WorldDownloadState<SnapDataRequest>
 
       syncDurationMetrics.startTimer(SyncDurationMetrics.Labels.SNAP_WORLD_STATE_HEALING_DURATION);
     }
+    // the healing reads the trie, including the ranges that were ingested in bulk, and they must be
+    // ingested before the account range tasks are cleared
+    flushBulkIngestions();
     snapContext.clearAccountRangeTasks();
     snapSyncState.setHealTrieStatus(true);
     // Try to find a new pivot block before starting the healing process
@@ -378,7 +381,21 @@ public class SnapWorldDownloadState extends WorldDownloadState<SnapDataRequest>
     return dequeueRequestBlocking(
         List.of(pendingStorageRequests, pendingLargeStorageRequests, pendingCodeRequests),
         pendingAccountRequests,
-        unused -> snapContext.updatePersistedTasks(pendingAccountRequests.asList()));
+        unused -> {
+          // the persisted tasks no longer cover the ranges downloaded so far, which must be
+          // ingested first so that they are not lost on a crash
+          flushBulkIngestions();
+          snapContext.updatePersistedTasks(pendingAccountRequests.asList());
+        });
+  }
+
+  private void flushBulkIngestions() {
+    worldStateStorageCoordinator.applyOnMatchingStrategy(
+        DataStorageFormat.BONSAI,
+        worldStateKeyValueStorage ->
+            worldStateStorageCoordinator
+                .getStrategy(BonsaiWorldStateKeyValueStorage.class)
+                .flushBulkIngestions());
   }
 
   public synchronized Task<SnapDataRequest> dequeueLargeStorageRequestBlocking() {
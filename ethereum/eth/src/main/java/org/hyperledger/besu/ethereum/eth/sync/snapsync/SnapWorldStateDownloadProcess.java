@@ -221,6 +221,8 @@ public class SnapWorldStateDownloadProcess implements WorldStateDownloadProcess
       checkNotNull(snapSyncState);
       checkNotNull(metricsSystem);
 
+      // Verifying the range proofs and building the tries is CPU bound, so use all the cores.
+      final int persistParallelism = Runtime.getRuntime().availableProcessors();
       // Room for the requests we expect to do in parallel plus some buffer but not unlimited.
       final int bufferCapacity = snapSyncConfiguration.getTrienodeCountPerRequest() * 2;
       final LabelledMetric<Counter> outputCounter =
@@ -275,7 +277,10 @@ public class SnapWorldStateDownloadProcess implements WorldStateDownloadProcess
                   "batchDownloadAccountData",
                   requestTask -> requestDataStep.requestAccount(requestTask),
                   maxOutstandingRequests)
-              .thenProcess("batchPersistAccountData", task -> persistDataStep.persist(task))
+              .thenProcessInParallel(
+                  "batchPersistAccountData",
+                  task -> persistDataStep.persist(task),
+                  persistParallelism)
               .andFinishWith("batchAccountDataDownloaded", requestsToComplete::put);
 
       final Pipeline<Task<SnapDataRequest>> fetchStorageDataPipeline =
@@ -298,7 +303,10 @@ public class SnapWorldStateDownloadProcess implements WorldStateDownloadProcess
                   "batchDownloadStorageData",
                   requestTask -> requestDataStep.requestStorage(requestTask),
                   maxOutstandingRequests)
-              .thenProcess("batchPersistStorageData", task -> persistDataStep.persist(task))
+              .thenProcessInParallel(
+                  "batchPersistStorageData",
+                  task -> persistDataStep.persist(task),
+                  persistParallelism)
               .andFinishWith(
                   "batchStorageDataDownloaded",
                   tasks -> {
@@ -324,12 +332,13 @@ public class SnapWorldStateDownloadProcess implements WorldStateDownloadProcess
                   "batchDownloadLargeStorageData",
                   requestTask -> requestDataStep.requestStorage(List.of(requestTask)),
                   maxOutstandingRequests)
-              .thenProcess(
+              .thenProcessInParallel(
                   "batchPersistLargeStorageData",
                   task -> {
                     persistDataStep.persist(task);
                     return task;
-                  })
+                  },
+                  persistParallelism)
               .andFinishWith(
                   "batchLargeStorageDataDownloaded",
                   tasks -> tasks.forEach(requestsToComplete::put));
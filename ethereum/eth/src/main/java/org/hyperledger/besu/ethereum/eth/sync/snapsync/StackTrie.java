@@ -72,7 +72,7 @@ public class StackTrie {
     this.elementsCount = new AtomicLong();
   }
 
-  public void addElement(
+  public synchronized void addElement(
       final Bytes32 taskIdentifier,
       final List<Bytes> proofs,
       final NavigableMap<Bytes32, Bytes> keys) {
@@ -81,13 +81,13 @@ public class StackTrie {
         taskIdentifier, ImmutableTaskElement.builder().proofs(proofs).keys(keys).build());
   }
 
-  public void removeElement(final Bytes32 taskIdentifier) {
+  public synchronized void removeElement(final Bytes32 taskIdentifier) {
     if (this.elements.containsKey(taskIdentifier)) {
       this.elementsCount.addAndGet(-this.elements.remove(taskIdentifier).keys().size());
     }
   }
 
-  public TaskElement getElement(final Bytes32 taskIdentifier) {
+  public synchronized TaskElement getElement(final Bytes32 taskIdentifier) {
     return this.elements.get(taskIdentifier);
   }
 
@@ -99,20 +99,29 @@ public class StackTrie {
     commit((key, value) -> {}, nodeUpdater);
   }
 
-  public void commit(final FlatDatabaseUpdater flatDatabaseUpdater, final NodeUpdater nodeUpdater) {
+  public synchronized void commit(
+      final FlatDatabaseUpdater flatDatabaseUpdater, final NodeUpdater nodeUpdater) {
 
     if (nbSegments.decrementAndGet() <= 0 && !elements.isEmpty()) {
 
-      final List<Bytes> proofs = new ArrayList<>();
-      final TreeMap<Bytes32, Bytes> keys = new TreeMap<>();
-
-      elements
-          .values()
-          .forEach(
-              taskElement -> {
-                proofs.addAll(taskElement.proofs());
-                keys.putAll(taskElement.keys());
-              });
+      final List<Bytes> proofs;
+      final NavigableMap<Bytes32, Bytes> keys;
+      if (elements.size() == 1) {
+        // most ranges are a single segment, no need to copy their keys and proofs
+        final TaskElement taskElement = elements.values().iterator().next();
+        proofs = taskElement.proofs();
+        keys = taskElement.keys();
+      } else {
+        proofs = new ArrayList<>();
+        keys = new TreeMap<>();
+        elements
+            .values()
+            .forEach(
+                taskElement -> {
+                  proofs.addAll(taskElement.proofs());
+                  keys.putAll(taskElement.keys());
+                });
+      }
 
       if (keys.isEmpty()) {
         return; // empty range we can ignore it
@@ -161,7 +170,7 @@ public class StackTrie {
     }
   }
 
-  public void clear() {
+  public synchronized void clear() {
     this.elements = new LinkedHashMap<>();
     this.elementsCount = new AtomicLong();
   }
@@ -65,6 +65,7 @@ public class AccountRangeDataRequest extends SnapDataRequest {
 
   protected final StackTrie stackTrie;
   private Optional<Boolean> isProofValid;
+  private Optional<RangeResponse> pendingResponse = Optional.empty();
 
   protected AccountRangeDataRequest(
       final Hash rootHash,
@@ -153,6 +154,26 @@ public class AccountRangeDataRequest extends SnapDataRequest {
     return nbNodesSaved.get();
   }
 
+  /**
+   * Keeps the accounts received from a peer, they are verified later by {@link #verifyResponse}.
+   *
+   * @param accounts the accounts of the range
+   * @param proofs the proofs of the range
+   */
+  public void setResponse(
+      final NavigableMap<Bytes32, Bytes> accounts, final ArrayDeque<Bytes> proofs) {
+    this.pendingResponse = Optional.of(new RangeResponse(accounts, proofs));
+  }
+
+  @Override
+  public void verifyResponse(
+      final SnapWorldDownloadState downloadState,
+      final WorldStateProofProvider worldStateProofProvider) {
+    pendingResponse.ifPresent(
+        response -> addResponse(worldStateProofProvider, response.keys(), response.proofs()));
+    pendingResponse = Optional.empty();
+  }
+
   public void addResponse(
       final WorldStateProofProvider worldStateProofProvider,
       final NavigableMap<Bytes32, Bytes> accounts,
@@ -27,15 +27,18 @@ import org.hyperledger.besu.ethereum.eth.sync.snapsync.request.heal.StorageFlatD
 import org.hyperledger.besu.ethereum.eth.sync.snapsync.request.heal.StorageTrieNodeHealingRequest;
 import org.hyperledger.besu.ethereum.eth.sync.snapsync.request.heal.TrieNodeHealingRequest;
 import org.hyperledger.besu.ethereum.eth.sync.worldstate.WorldStateDownloaderException;
+import org.hyperledger.besu.ethereum.proof.WorldStateProofProvider;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateKeyValueStorage;
 import org.hyperledger.besu.ethereum.worldstate.WorldStateStorageCoordinator;
 import org.hyperledger.besu.services.tasks.TasksPriorityProvider;
 
+import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
+import kotlin.collections.ArrayDeque;
 import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
 
@@ -132,6 +135,18 @@ public abstract class SnapDataRequest implements TasksPriorityProvider {
       final SnapSyncProcessState snapSyncState,
       final SnapSyncConfiguration snapSyncConfiguration);
 
+  /**
+   * Verifies the response received from a peer and kept by the request, if any. Verifying range
+   * proofs and building the trie is CPU intensive, so it is done by the parallel pipeline stage
+   * that persists the data instead of by the thread that received the response.
+   *
+   * @param downloadState the download state
+   * @param worldStateProofProvider the provider used to verify the proofs
+   */
+  public void verifyResponse(
+      final SnapWorldDownloadState downloadState,
+      final WorldStateProofProvider worldStateProofProvider) {}
+
   public abstract boolean isResponseReceived();
 
   public boolean isExpired(final SnapSyncProcessState snapSyncState) {
@@ -196,4 +211,12 @@ public abstract class SnapDataRequest implements TasksPriorityProvider {
   public int getDepth() {
     return 0;
   }
+
+  /**
+   * A range received from a peer, not yet verified.
+   *
+   * @param keys the keys and values of the range
+   * @param proofs the proofs of the range
+   */
+  protected record RangeResponse(NavigableMap<Bytes32, Bytes> keys, ArrayDeque<Bytes> proofs) {}
 }
@@ -63,6 +63,7 @@ public class StorageRangeDataRequest extends SnapDataRequest {
 
   private final StackTrie stackTrie;
   private Optional<Boolean> isProofValid;
+  private Optional<RangeResponse> pendingResponse = Optional.empty();
 
   protected StorageRangeDataRequest(
       final Hash rootHash,
@@ -125,6 +126,28 @@ public class StorageRangeDataRequest extends SnapDataRequest {
     return nbNodesSaved.get();
   }
 
+  /**
+   * Keeps the slots received from a peer, they are verified later by {@link #verifyResponse}.
+   *
+   * @param slots the slots of the range
+   * @param proofs the proofs of the range
+   */
+  public void setResponse(
+      final NavigableMap<Bytes32, Bytes> slots, final ArrayDeque<Bytes> proofs) {
+    this.pendingResponse = Optional.of(new RangeResponse(slots, proofs));
+  }
+
+  @Override
+  public void verifyResponse(
+      final SnapWorldDownloadState downloadState,
+      final WorldStateProofProvider worldStateProofProvider) {
+    pendingResponse.ifPresent(
+        response ->
+            addResponse(
+                downloadState, worldStateProofProvider, response.keys(), response.proofs()));
+    pendingResponse = Optional.empty();
+  }
+
   public void addResponse(
       final SnapWorldDownloadState downloadState,
       final WorldStateProofProvider worldStateProofProvider,
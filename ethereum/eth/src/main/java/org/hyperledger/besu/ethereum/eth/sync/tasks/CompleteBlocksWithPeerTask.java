@@ -98,11 +98,16 @@ public class CompleteBlocksWithPeerTask {
    */
   public List<Block> retrieveBlocksFromPeers() {
     while (remainingBlocks > 0) {
+      // request fewer bodies when the peers are struggling to answer in time
+      final int requestSize =
+          peerTaskExecutor.getRequestSizeLimit(GetBodiesFromPeerTask.class, headersToGet.size());
       LOG.atDebug()
           .setMessage("Requesting {} bodies from peer")
-          .addArgument(headersToGet.size())
+          .addArgument(requestSize)
           .log();
-      final GetBodiesFromPeerTask task = new GetBodiesFromPeerTask(headersToGet, protocolSchedule);
+      final GetBodiesFromPeerTask task =
+          new GetBodiesFromPeerTask(
+              new ArrayList<>(headersToGet.subList(0, requestSize)), protocolSchedule);
       final PeerTaskExecutorResult<List<Block>> executionResult = peerTaskExecutor.execute(task);
       if (executionResult.responseCode() == PeerTaskExecutorResponseCode.SUCCESS
           && executionResult.result().isPresent()) {
@@ -110,7 +115,7 @@ public class CompleteBlocksWithPeerTask {
         LOG.atDebug()
             .setMessage("Received {} bodies out of {} from peer")
             .addArgument(blockList.size())
-            .addArgument(headersToGet.size())
+            .addArgument(requestSize)
             .log();
         blockList.forEach(
             block -> {
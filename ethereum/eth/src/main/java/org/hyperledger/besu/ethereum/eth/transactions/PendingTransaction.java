@@ -18,17 +18,20 @@ import static org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction.
 import static org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction.MemorySize.ACCESS_LIST_STORAGE_KEY_SIZE;
 import static org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction.MemorySize.BLOBS_WITH_COMMITMENTS_SIZE;
 import static org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction.MemorySize.BLOB_SIZE;
+import static org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction.MemorySize.BYTE_ARRAY_HEADER_SIZE;
 import static org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction.MemorySize.CODE_DELEGATION_ENTRY_SIZE;
 import static org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction.MemorySize.EIP1559_AND_EIP4844_SHALLOW_SIZE;
 import static org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction.MemorySize.FRONTIER_AND_ACCESS_LIST_SHALLOW_SIZE;
 import static org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction.MemorySize.KZG_COMMITMENT_OR_PROOF_SIZE;
 import static org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction.MemorySize.LIST_SHALLOW_SIZE;
+import static org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction.MemorySize.OBJECT_ALIGNMENT;
 import static org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction.MemorySize.OPTIONAL_ACCESS_LIST_SHALLOW_SIZE;
 import static org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction.MemorySize.OPTIONAL_CHAIN_ID_SIZE;
 import static org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction.MemorySize.OPTIONAL_CODE_DELEGATION_LIST_SHALLOW_SIZE;
 import static org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction.MemorySize.OPTIONAL_SHALLOW_SIZE;
 import static org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction.MemorySize.OPTIONAL_TO_SIZE;
 import static org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction.MemorySize.PAYLOAD_SHALLOW_SIZE;
+import static org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction.MemorySize.PAYLOAD_WRAPPER_SIZE;
 import static org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction.MemorySize.PENDING_TRANSACTION_SHALLOW_SIZE;
 import static org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction.MemorySize.VERSIONED_HASH_SIZE;
 
@@ -207,9 +210,20 @@ public abstract class PendingTransaction
   }
 
   private int computePayloadMemorySize() {
-    return !transaction.getPayload().isEmpty()
-        ? PAYLOAD_SHALLOW_SIZE + transaction.getPayload().size()
-        : 0;
+    final int payloadSize = transaction.getPayload().size();
+    return PAYLOAD_WRAPPER_SIZE
+        + (payloadSize > 0 ? PAYLOAD_SHALLOW_SIZE + byteArrayMemorySize(payloadSize) : 0);
+  }
+
+  /**
+   * The memory used by a byte array of the specified length, that includes the array header and
+   * the padding to the object alignment
+   *
+   * @param length the length of the array
+   * @return the memory size of the array
+   */
+  static int byteArrayMemorySize(final int length) {
+    return (BYTE_ARRAY_HEADER_SIZE + length + OBJECT_ALIGNMENT - 1) & -OBJECT_ALIGNMENT;
   }
 
   private int computeToMemorySize() {
@@ -433,7 +447,10 @@ public abstract class PendingTransaction
     int EIP1559_AND_EIP4844_SHALLOW_SIZE = 1024;
     int OPTIONAL_TO_SIZE = 112;
     int OPTIONAL_CHAIN_ID_SIZE = 80;
+    int PAYLOAD_WRAPPER_SIZE = 24;
     int PAYLOAD_SHALLOW_SIZE = 32;
+    int BYTE_ARRAY_HEADER_SIZE = 16;
+    int OBJECT_ALIGNMENT = 8;
     int ACCESS_LIST_STORAGE_KEY_SIZE = 32;
     int ACCESS_LIST_ENTRY_SHALLOW_SIZE = 248;
     int OPTIONAL_ACCESS_LIST_SHALLOW_SIZE = 40;
@@ -0,0 +1,184 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.transactions;
+
+import static org.hyperledger.besu.evm.worldstate.CodeDelegationHelper.hasCodeDelegation;
+
+import org.hyperledger.besu.datatypes.AccountValue;
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.evm.account.Account;
+import org.hyperledger.besu.evm.fluent.SimpleAccount;
+import org.hyperledger.besu.plugin.services.trielogs.TrieLog;
+
+import java.util.Map;
+import java.util.Optional;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Cache of the sender accounts, as they are in the world state of the chain head, used to validate
+ * incoming transactions without reading the world state for senders that are seen again and again.
+ *
+ * <p>Only the fields needed by the validation against the sender are kept: nonce, balance and code,
+ * the latter only when empty or a code delegation, since contracts cannot send transactions. When
+ * the chain head advances by one block, the cached accounts are updated with the account and code
+ * changes of the trie log of the new head, in any other case, like reorgs or when the trie log is
+ * not available, the cache is cleared.
+ */
+public class SenderAccountCache {
+  private static final Optional<Account> NONEXISTENT = Optional.empty();
+
+  private final Cache<Address, Optional<Account>> accounts;
+  private volatile Hash chainHeadHash = Hash.ZERO;
+
+  public SenderAccountCache(final int maxSize) {
+    this.accounts = Caffeine.newBuilder().maximumSize(maxSize).build();
+  }
+
+  /**
+   * Get the cached sender account, if the cache is for the specified chain head
+   *
+   * @param chainHeadHash the hash of the current chain head
+   * @param address the address of the sender
+   * @return empty if the account is not cached, otherwise an optional with the account, that is
+   *     empty if the account does not exist
+   */
+  public Optional<Optional<Account>> get(final Hash chainHeadHash, final Address address) {
+    if (!chainHeadHash.equals(this.chainHeadHash)) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(accounts.getIfPresent(address));
+  }
+
+  /**
+   * Cache the sender account read from the world state of the specified chain head, that is ignored
+   * if the cache has already moved to another chain head
+   *
+   * @param chainHeadHash the hash of the chain head the account was read from
+   * @param address the address of the sender
+   * @param account the account, null if it does not exist
+   */
+  public synchronized void put(
+      final Hash chainHeadHash, final Address address, final Account account) {
+    if (!chainHeadHash.equals(this.chainHeadHash)) {
+      return;
+    }
+    if (account == null) {
+      accounts.put(address, NONEXISTENT);
+    } else if (account.getCodeHash().equals(Hash.EMPTY) || isCacheableCode(account.getCode())) {
+      accounts.put(
+          address,
+          Optional.of(
+              snapshot(address, account.getNonce(), account.getBalance(), account.getCode())));
+    }
+  }
+
+  /**
+   * Clear the cache and set the chain head it refers to
+   *
+   * @param chainHeadHash the hash of the current chain head
+   */
+  public synchronized void reset(final Hash chainHeadHash) {
+    accounts.invalidateAll();
+    this.chainHeadHash = chainHeadHash;
+  }
+
+  /**
+   * Move the cache to the new chain head, updating the cached accounts with the changes of the
+   * trie log of the new head when it is a child of the current one, otherwise clearing it.
+   *
+   * @param newHeadHash the hash of the new chain head
+   * @param parentHash the hash of the parent of the new chain head
+   * @param maybeTrieLog the trie log of the new chain head, if available
+   */
+  public synchronized void onChainHeadAdvanced(
+      final Hash newHeadHash, final Hash parentHash, final Optional<TrieLog> maybeTrieLog) {
+    if (parentHash.equals(chainHeadHash) && maybeTrieLog.isPresent()) {
+      applyChanges(maybeTrieLog.get());
+    } else {
+      accounts.invalidateAll();
+    }
+    chainHeadHash = newHeadHash;
+  }
+
+  /**
+   * The number of cached accounts
+   *
+   * @return the number of cached accounts
+   */
+  public long size() {
+    return accounts.estimatedSize();
+  }
+
+  private void applyChanges(final TrieLog trieLog) {
+    final Map<Address, TrieLog.LogTuple<AccountValue>> accountChanges =
+        trieLog.getAccountChanges();
+    final Map<Address, TrieLog.LogTuple<Bytes>> codeChanges = trieLog.getCodeChanges();
+
+    accountChanges.forEach(
+        (address, change) -> {
+          final Optional<Account> cached = accounts.getIfPresent(address);
+          if (cached == null || change.isUnchanged()) {
+            return;
+          }
+          final AccountValue updated = change.getUpdated();
+          if (updated == null) {
+            accounts.put(address, NONEXISTENT);
+            return;
+          }
+          final Bytes code;
+          final TrieLog.LogTuple<Bytes> codeChange = codeChanges.get(address);
+          if (codeChange != null && !codeChange.isUnchanged()) {
+            code = codeChange.getUpdated() == null ? Bytes.EMPTY : codeChange.getUpdated();
+          } else if (updated.getCodeHash().equals(Hash.EMPTY)) {
+            code = Bytes.EMPTY;
+          } else if (cached.isPresent()
+              && cached.get().getCodeHash().equals(updated.getCodeHash())) {
+            code = cached.get().getCode();
+          } else {
+            // the code is not known, let the next validation read the account
+            accounts.invalidate(address);
+            return;
+          }
+          if (isCacheableCode(code)) {
+            accounts.put(
+                address,
+                Optional.of(snapshot(address, updated.getNonce(), updated.getBalance(), code)));
+          } else {
+            accounts.invalidate(address);
+          }
+        });
+
+    // code changes without account changes, should not happen, but do not trust the cache then
+    codeChanges.keySet().stream()
+        .filter(address -> !accountChanges.containsKey(address))
+        .forEach(accounts::invalidate);
+  }
+
+  private static boolean isCacheableCode(final Bytes code) {
+    return code.isEmpty() || hasCodeDelegation(code);
+  }
+
+  private static Account snapshot(
+      final Address address, final long nonce, final Wei balance, final Bytes code) {
+    final SimpleAccount snapshot = new SimpleAccount(null, address, nonce, balance, code);
+    snapshot.becomeImmutable();
+    return snapshot;
+  }
+}
@@ -48,8 +48,10 @@ import org.hyperledger.besu.ethereum.rlp.RLP;
 import org.hyperledger.besu.ethereum.transaction.TransactionInvalidReason;
 import org.hyperledger.besu.ethereum.trie.MerkleTrieException;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.worldview.BonsaiWorldState;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.provider.PathBasedWorldStateProvider;
 import org.hyperledger.besu.evm.account.Account;
 import org.hyperledger.besu.evm.fluent.SimpleAccount;
+import org.hyperledger.besu.plugin.services.trielogs.TrieLog;
 import org.hyperledger.besu.util.Subscribers;
 
 import java.io.BufferedReader;
@@ -65,6 +67,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -79,7 +82,6 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -101,6 +103,7 @@ import org.slf4j.LoggerFactory;
 public class TransactionPool implements BlockAddedObserver {
   private static final Logger LOG = LoggerFactory.getLogger(TransactionPool.class);
   private static final Logger LOG_FOR_REPLAY = LoggerFactory.getLogger("LOG_FOR_REPLAY");
+  private static final int RESTORE_BATCH_SIZE = 1_000;
   private final Supplier<PendingTransactions> pendingTransactionsSupplier;
   private final BlobCache cacheForBlobsOfTransactionsAddedToABlock;
   private volatile PendingTransactions pendingTransactions = new DisabledPendingTransactions();
@@ -120,6 +123,7 @@ public class TransactionPool implements BlockAddedObserver {
   private final ListMultimap<VersionedHash, BlobProofBundle> mapOfBlobsInTransactionPool =
       Multimaps.synchronizedListMultimap(
           Multimaps.newListMultimap(new HashMap<>(), () -> new ArrayList<>(1)));
+  private final Optional<SenderAccountCache> senderAccountCache;
 
   public TransactionPool(
       final Supplier<PendingTransactions> pendingTransactionsSupplier,
@@ -140,6 +144,11 @@ public class TransactionPool implements BlockAddedObserver {
     this.blockAddedEventOrderedProcessor =
         ethContext.getScheduler().createOrderedProcessor(this::processBlockAddedEvent);
     this.cacheForBlobsOfTransactionsAddedToABlock = blobCache;
+    final int senderAccountCacheSize = configuration.getUnstable().getSenderAccountCacheSize();
+    this.senderAccountCache =
+        senderAccountCacheSize > 0
+            ? Optional.of(new SenderAccountCache(senderAccountCacheSize))
+            : Optional.empty();
     initializeBlobMetrics();
     initLogForReplay();
     subscribePendingTransactions(this::mapBlobsOnTransactionAdded);
@@ -249,24 +258,55 @@ public class TransactionPool implements BlockAddedObserver {
 
     final boolean hasPriority = isPriorityTransaction(baseTransaction, isLocal);
 
-    if (pendingTransactions.containsTransaction(baseTransaction)) {
+    if (isAlreadyKnown(baseTransaction, isLocal, hasPriority)) {
+      return ValidationResult.invalid(TRANSACTION_ALREADY_KNOWN);
+    }
+
+    return addValidatedTransaction(
+        prepareAndValidateTransaction(baseTransaction, isLocal, hasPriority, score));
+  }
+
+  private boolean isAlreadyKnown(
+      final Transaction transaction, final boolean isLocal, final boolean hasPriority) {
+    if (pendingTransactions.containsTransaction(transaction)) {
       LOG.atTrace()
           .setMessage("Discard already present transaction {}")
-          .addArgument(baseTransaction::toTraceLog)
+          .addArgument(transaction::toTraceLog)
           .log();
       // We already have this transaction, don't even validate it.
       metrics.incrementRejected(isLocal, hasPriority, TRANSACTION_ALREADY_KNOWN, "txpool");
-      return ValidationResult.invalid(TRANSACTION_ALREADY_KNOWN);
+      return true;
     }
+    return false;
+  }
 
+  private ValidatedTransaction prepareAndValidateTransaction(
+      final Transaction baseTransaction,
+      final boolean isLocal,
+      final boolean hasPriority,
+      final byte score) {
     // Apply any necessary fork related pre-processing before submitting the transaction to the pool
-    Transaction transaction =
+    final Transaction transaction =
         getTransactionPoolPreProcessor()
             .map(preProcessor -> preProcessor.prepareTransaction(baseTransaction, isLocal))
             .orElse(baseTransaction);
 
-    final ValidationResultAndAccount validationResult =
-        validateTransaction(transaction, isLocal, hasPriority);
+    return new ValidatedTransaction(
+        baseTransaction,
+        transaction,
+        isLocal,
+        hasPriority,
+        score,
+        validateTransaction(transaction, isLocal, hasPriority));
+  }
+
+  private ValidationResult<TransactionInvalidReason> addValidatedTransaction(
+      final ValidatedTransaction validatedTransaction) {
+    final Transaction transaction = validatedTransaction.transaction();
+    final boolean isLocal = validatedTransaction.isLocal();
+    final boolean hasPriority = validatedTransaction.hasPriority();
+    final byte score = validatedTransaction.score();
+    final ValidationResultAndAccount validationResult = validatedTransaction.validationResult();
 
     if (validationResult.result.isValid()) {
       final TransactionAddedResult status =
@@ -363,6 +403,7 @@ public class TransactionPool implements BlockAddedObserver {
 
   private void processBlockAddedEvent(final BlockAddedEvent e) {
     final long started = System.currentTimeMillis();
+    senderAccountCache.ifPresent(cache -> updateSenderAccountCache(cache, e));
     pendingTransactions.manageBlockAdded(
         e.getBlock().getHeader(),
         e.getAddedTransactions(),
@@ -376,6 +417,15 @@ public class TransactionPool implements BlockAddedObserver {
         .log();
   }
 
+  private void updateSenderAccountCache(final SenderAccountCache cache, final BlockAddedEvent e) {
+    final BlockHeader blockHeader = e.getBlock().getHeader();
+    final Optional<TrieLog> maybeTrieLog =
+        protocolContext.getWorldStateArchive() instanceof PathBasedWorldStateProvider provider
+            ? provider.getTrieLogManager().getTrieLogLayer(blockHeader.getHash())
+            : Optional.empty();
+    cache.onChainHeadAdvanced(blockHeader.getHash(), blockHeader.getParentHash(), maybeTrieLog);
+  }
+
   private void reAddTransactions(final List<Transaction> reAddTransactions) {
     if (!reAddTransactions.isEmpty()) {
       // if adding a blob tx, and it is missing its blob, is a re-org and we should restore the blob
@@ -490,6 +540,18 @@ public class TransactionPool implements BlockAddedObserver {
           TransactionInvalidReason.PLUGIN_TX_POOL_VALIDATOR, maybePluginInvalid.get());
     }
 
+    final Hash chainHeadHash = chainHeadBlockHeader.getHash();
+    final Optional<Optional<Account>> maybeCachedSenderAccount =
+        senderAccountCache.flatMap(cache -> cache.get(chainHeadHash, transaction.getSender()));
+    if (maybeCachedSenderAccount.isPresent()) {
+      final Account senderAccount = maybeCachedSenderAccount.get().orElse(null);
+      return new ValidationResultAndAccount(
+          senderAccount,
+          getTransactionValidator()
+              .validateForSender(
+                  transaction, senderAccount, TransactionValidationParams.transactionPool()));
+    }
+
     try (final var worldState =
         protocolContext
             .getWorldStateArchive()
@@ -499,6 +561,8 @@ public class TransactionPool implements BlockAddedObserver {
         bonsaiWorldState.disableCacheMerkleTrieLoader();
       }
       final Account senderAccount = worldState.get(transaction.getSender());
+      senderAccountCache.ifPresent(
+          cache -> cache.put(chainHeadHash, transaction.getSender(), senderAccount));
       return new ValidationResultAndAccount(
           senderAccount,
           getTransactionValidator()
@@ -615,6 +679,16 @@ public class TransactionPool implements BlockAddedObserver {
     void onTransactionsAdded(Collection<Transaction> transactions);
   }
 
+  private record SavedTransaction(Transaction transaction, boolean isLocal, byte score) {}
+
+  private record ValidatedTransaction(
+      Transaction baseTransaction,
+      Transaction transaction,
+      boolean isLocal,
+      boolean hasPriority,
+      byte score,
+      ValidationResultAndAccount validationResult) {}
+
   private static class ValidationResultAndAccount {
     final ValidationResult<TransactionInvalidReason> result;
     final Optional<Account> maybeAccount;
@@ -646,6 +720,8 @@ public class TransactionPool implements BlockAddedObserver {
   public CompletableFuture<Void> setEnabled() {
     if (!isEnabled()) {
       pendingTransactions = pendingTransactionsSupplier.get();
+      senderAccountCache.ifPresent(
+          cache -> cache.reset(protocolContext.getBlockchain().getChainHeadHash()));
       pendingTransactionsListenersProxy.subscribe();
       isPoolEnabled.set(true);
       subscribeConnectId =
@@ -881,27 +957,19 @@ public class TransactionPool implements BlockAddedObserver {
           LOG.info("Loading transaction pool content from file {}", saveFile);
           try (final BufferedReader br =
               new BufferedReader(new FileReader(saveFile, StandardCharsets.US_ASCII))) {
-            final Map<String, Long> stats =
-                br.lines()
-                    .takeWhile(unused -> !isCancelled.get())
-                    .map(
-                        line -> {
-                          final var scoreStr = parseScore(line);
-                          final byte score =
-                              scoreStr.isEmpty() ? MAX_SCORE : Byte.parseByte(scoreStr);
-                          final boolean isLocal = line.charAt(scoreStr.length()) == 'l';
-                          final Transaction tx =
-                              Transaction.readFrom(
-                                  RLP.input(
-                                      Bytes.fromBase64String(
-                                          line.substring(scoreStr.length() + 1))),
-                                  EncodingContext.POOLED_TRANSACTION);
-
-                          final ValidationResult<TransactionInvalidReason> result =
-                              addTransaction(tx, isLocal, score);
-                          return result.isValid() ? "OK" : result.getInvalidReason().name();
-                        })
-                    .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+            final Map<String, Long> stats = new HashMap<>();
+            final TransactionSenderRecovery senderRecovery =
+                new TransactionSenderRecovery(ethContext.getScheduler());
+            final Iterator<String> lines = br.lines().iterator();
+            final List<String> batch = new ArrayList<>(RESTORE_BATCH_SIZE);
+            while (!isCancelled.get() && lines.hasNext()) {
+              batch.clear();
+              while (batch.size() < RESTORE_BATCH_SIZE && lines.hasNext()) {
+                batch.add(lines.next());
+              }
+              restoreBatch(batch, senderRecovery)
+                  .forEach(result -> stats.merge(result, 1L, Long::sum));
+            }
 
             br.close();
 
@@ -932,6 +1000,58 @@ public class TransactionPool implements BlockAddedObserver {
       }
     }
 
+    /**
+     * Decode the transactions of the batch and recover their senders on the computation workers,
+     * since the recovery is the most expensive part of the validation, then validate them and add
+     * them to the pool one by one, in the order they were saved, so that the lines processed before
+     * a cancellation are the first ones of the file. Transactions validated on a chain head that is
+     * not the current one anymore are validated again while adding them.
+     */
+    private List<String> restoreBatch(
+        final List<String> lines, final TransactionSenderRecovery senderRecovery) {
+      final Hash chainHeadHash = protocolContext.getBlockchain().getChainHeadHash();
+      final List<SavedTransaction> savedTransactions = lines.stream().map(this::parseLine).toList();
+      senderRecovery.recoverSenders(
+          savedTransactions.stream().map(SavedTransaction::transaction).toList());
+      final List<ValidatedTransaction> validatedTransactions =
+          savedTransactions.stream()
+              .map(
+                  saved ->
+                      prepareAndValidateTransaction(
+                          saved.transaction(),
+                          saved.isLocal(),
+                          isPriorityTransaction(saved.transaction(), saved.isLocal()),
+                          saved.score()))
+              .toList();
+
+      return validatedTransactions.stream()
+          .map(
+              vt -> {
+                final ValidationResult<TransactionInvalidReason> result;
+                if (isAlreadyKnown(vt.baseTransaction(), vt.isLocal(), vt.hasPriority())) {
+                  result = ValidationResult.invalid(TRANSACTION_ALREADY_KNOWN);
+                } else if (chainHeadHash.equals(
+                    protocolContext.getBlockchain().getChainHeadHash())) {
+                  result = addValidatedTransaction(vt);
+                } else {
+                  result = addTransaction(vt.baseTransaction(), vt.isLocal(), vt.score());
+                }
+                return result.isValid() ? "OK" : result.getInvalidReason().name();
+              })
+          .toList();
+    }
+
+    private SavedTransaction parseLine(final String line) {
+      final var scoreStr = parseScore(line);
+      final byte score = scoreStr.isEmpty() ? MAX_SCORE : Byte.parseByte(scoreStr);
+      final boolean isLocal = line.charAt(scoreStr.length()) == 'l';
+      final Transaction tx =
+          Transaction.readFrom(
+              RLP.input(Bytes.fromBase64String(line.substring(scoreStr.length() + 1))),
+              EncodingContext.POOLED_TRANSACTION);
+      return new SavedTransaction(tx, isLocal, score);
+    }
+
     private String parseScore(final String line) {
       int i = 0;
       final var sbScore = new StringBuilder();
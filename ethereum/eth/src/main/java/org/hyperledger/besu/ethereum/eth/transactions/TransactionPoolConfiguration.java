@@ -42,6 +42,7 @@ public interface TransactionPoolConfiguration {
     int DEFAULT_TX_MSG_KEEP_ALIVE = 60;
     int DEFAULT_MAX_TRACKED_SEEN_TXS_PER_PEER = 200_000;
     boolean DEFAULT_PEER_TRACKER_FORGET_EVICTED_TXS = false;
+    int DEFAULT_SENDER_ACCOUNT_CACHE_SIZE = 10_000;
 
     TransactionPoolConfiguration.Unstable DEFAULT =
         ImmutableTransactionPoolConfiguration.Unstable.builder().build();
@@ -65,6 +66,11 @@ public interface TransactionPoolConfiguration {
     default boolean getPeerTrackerForgetEvictedTxs() {
       return DEFAULT_PEER_TRACKER_FORGET_EVICTED_TXS;
     }
+
+    @Value.Default
+    default int getSenderAccountCacheSize() {
+      return DEFAULT_SENDER_ACCOUNT_CACHE_SIZE;
+    }
   }
 
   enum Implementation {
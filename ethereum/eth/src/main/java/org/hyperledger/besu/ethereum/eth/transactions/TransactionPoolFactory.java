@@ -126,7 +126,11 @@ public class TransactionPoolFactory {
     final TransactionsMessageHandler transactionsMessageHandler =
         new TransactionsMessageHandler(
             ethContext.getScheduler(),
-            new TransactionsMessageProcessor(transactionTracker, transactionPool, metrics),
+            new TransactionsMessageProcessor(
+                transactionTracker,
+                transactionPool,
+                metrics,
+                new TransactionSenderRecovery(ethContext.getScheduler())),
             transactionPoolConfiguration.getUnstable().getTxMessageKeepAliveSeconds());
 
     final NewPooledTransactionHashesMessageHandler pooledTransactionsMessageHandler =
@@ -0,0 +1,112 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.transactions;
+
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.eth.manager.EthScheduler;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import com.google.common.collect.Lists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Recovers the senders of a batch of transactions received from the network before they are
+ * validated by the transaction pool, spreading the signature recoveries of a large batch across the
+ * computation workers of the {@link EthScheduler}, instead of recovering them one at a time on the
+ * thread that first asks for the sender.
+ *
+ * <p>The recovered sender is stored in the transaction itself, so the following calls to {@link
+ * Transaction#getSender()} do not pay the recovery cost anymore. Transactions whose sender cannot
+ * be recovered are left as they are, and will be rejected during their validation.
+ */
+public class TransactionSenderRecovery {
+  private static final Logger LOG = LoggerFactory.getLogger(TransactionSenderRecovery.class);
+
+  /** Batches smaller than this are recovered sequentially on the calling thread */
+  public static final int MIN_PARALLEL_BATCH_SIZE = 8;
+
+  private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+  private final EthScheduler ethScheduler;
+
+  public TransactionSenderRecovery(final EthScheduler ethScheduler) {
+    this.ethScheduler = ethScheduler;
+  }
+
+  /**
+   * Recover the senders of the transactions, in parallel if the batch is large enough. The batch is
+   * split in chunks of at least {@link #MIN_PARALLEL_BATCH_SIZE} transactions, the first one is
+   * recovered on the calling thread and the others on the computation workers, and this method
+   * returns when all of them are done.
+   *
+   * @param transactions the transactions
+   */
+  public void recoverSenders(final Collection<Transaction> transactions) {
+    if (transactions.size() < MIN_PARALLEL_BATCH_SIZE) {
+      transactions.forEach(TransactionSenderRecovery::recoverSender);
+      return;
+    }
+
+    final int chunkCount = Math.min(PARALLELISM, transactions.size() / MIN_PARALLEL_BATCH_SIZE);
+    final int chunkSize = (transactions.size() + chunkCount - 1) / chunkCount;
+    final List<List<Transaction>> chunks =
+        Lists.partition(List.copyOf(transactions), chunkSize);
+
+    final List<CompletableFuture<Void>> recoveries =
+        chunks.subList(1, chunks.size()).stream().map(this::scheduleRecovery).toList();
+    chunks.get(0).forEach(TransactionSenderRecovery::recoverSender);
+    recoveries.forEach(TransactionSenderRecovery::awaitRecovery);
+  }
+
+  private CompletableFuture<Void> scheduleRecovery(final List<Transaction> chunk) {
+    try {
+      return ethScheduler.scheduleComputationTask(
+          () -> {
+            chunk.forEach(TransactionSenderRecovery::recoverSender);
+            return null;
+          });
+    } catch (final RejectedExecutionException e) {
+      // the node is stopping, the senders will be recovered when needed
+      return CompletableFuture.completedFuture(null);
+    }
+  }
+
+  private static void awaitRecovery(final CompletableFuture<Void> recovery) {
+    try {
+      recovery.join();
+    } catch (final CompletionException | CancellationException e) {
+      LOG.debug("Parallel recovery of transaction senders failed, they will be recovered later", e);
+    }
+  }
+
+  private static void recoverSender(final Transaction transaction) {
+    try {
+      transaction.getSender();
+    } catch (final IllegalStateException e) {
+      LOG.atTrace()
+          .setMessage("Cannot recover the sender of transaction {}")
+          .addArgument(transaction::getHash)
+          .setCause(e)
+          .log();
+    }
+  }
+}
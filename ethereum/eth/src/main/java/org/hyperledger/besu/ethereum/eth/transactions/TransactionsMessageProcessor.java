@@ -39,14 +39,17 @@ class TransactionsMessageProcessor {
   private final TransactionPool transactionPool;
 
   private final TransactionPoolMetrics metrics;
+  private final TransactionSenderRecovery senderRecovery;
 
   public TransactionsMessageProcessor(
       final PeerTransactionTracker transactionTracker,
       final TransactionPool transactionPool,
-      final TransactionPoolMetrics metrics) {
+      final TransactionPoolMetrics metrics,
+      final TransactionSenderRecovery senderRecovery) {
     this.transactionTracker = transactionTracker;
     this.transactionPool = transactionPool;
     this.metrics = metrics;
+    this.senderRecovery = senderRecovery;
     metrics.initExpiredMessagesCounter(METRIC_LABEL);
   }
 
@@ -84,6 +87,7 @@ class TransactionsMessageProcessor {
           .addArgument(() -> toHashList(freshTransactions))
           .log();
 
+      senderRecovery.recoverSenders(freshTransactions);
       transactionPool.addRemoteTransactions(freshTransactions);
 
     } catch (final RLPException ex) {
@@ -46,6 +46,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
 
@@ -55,6 +59,16 @@ import org.slf4j.LoggerFactory;
 import org.slf4j.Marker;
 import org.slf4j.MarkerFactory;
 
+/**
+ * Pending transactions organized in layers.
+ *
+ * <p>Changes to the layers are done holding the write lock, while the queries that return more than
+ * one transaction hold the read lock, so they can run concurrently with each other, and always see
+ * a consistent view of the layers. Lookups of a single transaction by hash and the count of
+ * transactions do not take any lock, since each layer indexes its transactions in a concurrent
+ * map, this means that while a transaction is moving between layers it could be transiently
+ * reported as missing.
+ */
 public class LayeredPendingTransactions implements PendingTransactions {
   private static final Logger LOG = LoggerFactory.getLogger(LayeredPendingTransactions.class);
   private static final Logger LOG_FOR_REPLAY = LoggerFactory.getLogger("LOG_FOR_REPLAY");
@@ -62,6 +76,7 @@ public class LayeredPendingTransactions implements PendingTransactions {
   private final TransactionPoolConfiguration poolConfig;
   private final AbstractPrioritizedTransactions prioritizedTransactions;
   private final EthScheduler ethScheduler;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
 
   public LayeredPendingTransactions(
       final TransactionPoolConfiguration poolConfig,
@@ -73,16 +88,22 @@ public class LayeredPendingTransactions implements PendingTransactions {
   }
 
   @Override
-  public synchronized void reset() {
-    prioritizedTransactions.reset();
+  public void reset() {
+    runWithWriteLock(prioritizedTransactions::reset);
   }
 
   @Override
-  public synchronized TransactionAddedResult addTransaction(
+  public TransactionAddedResult addTransaction(
       final PendingTransaction pendingTransaction, final Optional<Account> maybeSenderAccount) {
 
     final long stateSenderNonce = maybeSenderAccount.map(AccountState::getNonce).orElse(0L);
 
+    return withWriteLock(() -> addTransaction(pendingTransaction, stateSenderNonce));
+  }
+
+  private TransactionAddedResult addTransaction(
+      final PendingTransaction pendingTransaction, final long stateSenderNonce) {
+
     logTransactionForReplayAdd(pendingTransaction, stateSenderNonce);
 
     if (hasAccountNonceDisparity(pendingTransaction, stateSenderNonce)) {
@@ -302,24 +323,22 @@ public class LayeredPendingTransactions implements PendingTransactions {
   public void evictOldTransactions() {}
 
   @Override
-  public synchronized List<Transaction> getLocalTransactions() {
-    return prioritizedTransactions.getAllLocal();
+  public List<Transaction> getLocalTransactions() {
+    return withReadLock(prioritizedTransactions::getAllLocal);
   }
 
   @Override
-  public synchronized List<Transaction> getPriorityTransactions() {
-    return prioritizedTransactions.getAllPriority();
+  public List<Transaction> getPriorityTransactions() {
+    return withReadLock(prioritizedTransactions::getAllPriority);
   }
 
   @Override
   public void selectTransactions(final PendingTransactions.TransactionSelector selector) {
-    final Map<Byte, List<SenderPendingTransactions>> candidateTxsByScore;
-    synchronized (this) {
-      // since selecting transactions for block creation is a potential long operation
-      // we want to avoid to keep the lock for all the process, but we just lock to get
-      // the candidate transactions
-      candidateTxsByScore = prioritizedTransactions.getByScore();
-    }
+    // since selecting transactions for block creation is a potential long operation
+    // we want to avoid to keep the lock for all the process, but we just lock to get
+    // the candidate transactions
+    final Map<Byte, List<SenderPendingTransactions>> candidateTxsByScore =
+        withReadLock(prioritizedTransactions::getByScore);
 
     selection:
     for (final var entry : candidateTxsByScore.entrySet()) {
@@ -339,19 +358,13 @@ public class LayeredPendingTransactions implements PendingTransactions {
 
           if (selectionResult.discard()) {
             ethScheduler.scheduleTxWorkerTask(
-                () -> {
-                  synchronized (this) {
-                    prioritizedTransactions.remove(candidatePendingTx, INVALIDATED);
-                  }
-                });
+                () ->
+                    runWithWriteLock(
+                        () -> prioritizedTransactions.remove(candidatePendingTx, INVALIDATED)));
             logDiscardedTransaction(candidatePendingTx, selectionResult);
           } else if (selectionResult.penalize()) {
             ethScheduler.scheduleTxWorkerTask(
-                () -> {
-                  synchronized (this) {
-                    prioritizedTransactions.penalize(candidatePendingTx);
-                  }
-                });
+                () -> runWithWriteLock(() -> prioritizedTransactions.penalize(candidatePendingTx)));
             LOG.atTrace()
                 .setMessage("Transaction {} penalized")
                 .addArgument(candidatePendingTx::toTraceLog)
@@ -373,23 +386,23 @@ public class LayeredPendingTransactions implements PendingTransactions {
   }
 
   @Override
-  public synchronized int size() {
+  public int size() {
     return prioritizedTransactions.count();
   }
 
   @Override
-  public synchronized boolean containsTransaction(final Transaction transaction) {
+  public boolean containsTransaction(final Transaction transaction) {
     return prioritizedTransactions.contains(transaction);
   }
 
   @Override
-  public synchronized Optional<Transaction> getTransactionByHash(final Hash transactionHash) {
+  public Optional<Transaction> getTransactionByHash(final Hash transactionHash) {
     return prioritizedTransactions.getByHash(transactionHash);
   }
 
   @Override
-  public synchronized List<PendingTransaction> getPendingTransactions() {
-    return prioritizedTransactions.getAll();
+  public List<PendingTransaction> getPendingTransactions() {
+    return withReadLock(prioritizedTransactions::getAll);
   }
 
   @Override
@@ -414,7 +427,7 @@ public class LayeredPendingTransactions implements PendingTransactions {
 
   @Override
   public OptionalLong getNextNonceForSender(final Address sender) {
-    return prioritizedTransactions.getNextNonceFor(sender);
+    return withReadLock(() -> prioritizedTransactions.getNextNonceFor(sender));
   }
 
   @Override
@@ -432,7 +445,9 @@ public class LayeredPendingTransactions implements PendingTransactions {
 
     final var reorgNonceRangeBySender = nonceRangeBySender(reorgTransactions);
 
-    synchronized (this) {
+    final Lock writeLock = lock.writeLock();
+    writeLock.lock();
+    try {
       try {
         prioritizedTransactions.blockAdded(feeMarket, blockHeader, maxConfirmedNonceBySender);
       } catch (final Throwable throwable) {
@@ -446,6 +461,8 @@ public class LayeredPendingTransactions implements PendingTransactions {
       }
 
       logBlockHeaderForReplay(blockHeader, maxConfirmedNonceBySender, reorgNonceRangeBySender);
+    } finally {
+      writeLock.unlock();
     }
   }
 
@@ -547,13 +564,41 @@ public class LayeredPendingTransactions implements PendingTransactions {
   }
 
   @Override
-  public synchronized String toTraceLog() {
+  public String toTraceLog() {
     return "";
   }
 
   @Override
-  public synchronized String logStats() {
-    return prioritizedTransactions.logStats();
+  public String logStats() {
+    return withReadLock(prioritizedTransactions::logStats);
+  }
+
+  private <T> T withReadLock(final Supplier<T> query) {
+    final Lock readLock = lock.readLock();
+    readLock.lock();
+    try {
+      return query.get();
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  private <T> T withWriteLock(final Supplier<T> update) {
+    final Lock writeLock = lock.writeLock();
+    writeLock.lock();
+    try {
+      return update.get();
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  private void runWithWriteLock(final Runnable update) {
+    withWriteLock(
+        () -> {
+          update.run();
+          return null;
+        });
   }
 
   @Override
@@ -0,0 +1,68 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.manager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.Test;
+
+public class PeerRequestStatisticsTest {
+  private static final String PROTOCOL = "eth";
+  private static final int REQUEST_CODE = 5;
+
+  private final PeerRequestStatistics statistics = new PeerRequestStatistics();
+
+  @Test
+  public void shouldBeEmptyWithoutResponses() {
+    assertThat(statistics.getAverageResponseTimeMillis(PROTOCOL, REQUEST_CODE)).isEmpty();
+    assertThat(statistics.getAverageThroughputBytesPerSecond(PROTOCOL, REQUEST_CODE)).isEmpty();
+  }
+
+  @Test
+  public void shouldUseFirstResponseAsInitialAverage() {
+    statistics.recordResponse(PROTOCOL, REQUEST_CODE, 200, 1_000);
+
+    assertThat(statistics.getAverageResponseTimeMillis(PROTOCOL, REQUEST_CODE)).hasValue(200);
+    assertThat(statistics.getAverageThroughputBytesPerSecond(PROTOCOL, REQUEST_CODE))
+        .hasValue(5_000);
+  }
+
+  @Test
+  public void shouldWeighRecentResponsesMore() {
+    statistics.recordResponse(PROTOCOL, REQUEST_CODE, 100, 1_000);
+    statistics.recordResponse(PROTOCOL, REQUEST_CODE, 600, 1_000);
+
+    assertThat(statistics.getAverageResponseTimeMillis(PROTOCOL, REQUEST_CODE).getAsDouble())
+        .isCloseTo(200, within(0.001));
+  }
+
+  @Test
+  public void shouldCountTimeoutsAsSlowResponses() {
+    statistics.recordResponse(PROTOCOL, REQUEST_CODE, 100, 1_000);
+    statistics.recordTimeout(PROTOCOL, REQUEST_CODE);
+
+    assertThat(statistics.getAverageResponseTimeMillis(PROTOCOL, REQUEST_CODE).getAsDouble())
+        .isCloseTo(1_080, within(0.001));
+  }
+
+  @Test
+  public void shouldTrackEachRequestTypeSeparately() {
+    statistics.recordResponse(PROTOCOL, REQUEST_CODE, 100, 1_000);
+
+    assertThat(statistics.getAverageResponseTimeMillis(PROTOCOL, REQUEST_CODE + 1)).isEmpty();
+    assertThat(statistics.getAverageResponseTimeMillis("snap", REQUEST_CODE)).isEmpty();
+  }
+}
@@ -22,6 +22,8 @@ import org.hyperledger.besu.ethereum.p2p.rlpx.wire.messages.DisconnectMessage;
 import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
 
 import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Predicate;
@@ -300,7 +302,9 @@ public class PeerTaskExecutorTest {
     String protocolName = "snap";
     EthPeer peer2 = Mockito.mock(EthPeer.class);
 
-    Mockito.when(peerSelector.getPeer(Mockito.any(Predicate.class)))
+    Mockito.when(
+            peerSelector.getPeer(
+                Mockito.any(Predicate.class), Mockito.eq(protocolName), Mockito.anyInt()))
         .thenReturn(Optional.of(ethPeer))
         .thenReturn(Optional.of(peer2));
 
@@ -328,4 +332,94 @@ public class PeerTaskExecutorTest {
     Assertions.assertSame(responseObject, result.result().get());
     Assertions.assertEquals(PeerTaskExecutorResponseCode.SUCCESS, result.responseCode());
   }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testExecuteHedgesRequestToOtherPeerWhenPeerIsSlow()
+      throws PeerConnection.PeerNotConnected,
+          ExecutionException,
+          InterruptedException,
+          TimeoutException,
+          InvalidPeerTaskResponseException {
+    Object responseObject = new Object();
+    int requestMessageDataCode = 123;
+    String protocolName = "eth";
+    EthPeer peer2 = Mockito.mock(EthPeer.class);
+    CountDownLatch slowPeerResponse = new CountDownLatch(1);
+
+    Mockito.when(
+            peerSelector.getPeer(
+                Mockito.any(Predicate.class), Mockito.eq(protocolName), Mockito.anyInt()))
+        .thenReturn(Optional.of(ethPeer))
+        .thenReturn(Optional.of(peer2));
+    Mockito.when(ethPeer.getAverageResponseTimeMillis(protocolName, requestMessageDataCode))
+        .thenReturn(OptionalDouble.of(10));
+
+    Mockito.when(peerTask.getRequestMessage()).thenReturn(requestMessageData);
+    Mockito.when(peerTask.getRetriesWithOtherPeer()).thenReturn(1);
+    Mockito.when(peerTask.getRetriesWithSamePeer()).thenReturn(0);
+    Mockito.when(peerTask.getSubProtocol()).thenReturn(subprotocol);
+    Mockito.when(subprotocol.getName()).thenReturn(protocolName);
+    Mockito.when(requestMessageData.getCode()).thenReturn(requestMessageDataCode);
+    Mockito.when(requestSender.sendRequest(subprotocol, requestMessageData, ethPeer))
+        .thenAnswer(
+            invocation -> {
+              slowPeerResponse.await();
+              throw new TimeoutException();
+            });
+    Mockito.when(requestSender.sendRequest(subprotocol, requestMessageData, peer2))
+        .thenReturn(responseMessageData);
+    Mockito.when(peerTask.processResponse(responseMessageData)).thenReturn(responseObject);
+    Mockito.when(peerTask.validateResult(responseObject))
+        .thenReturn(PeerTaskValidationResponse.RESULTS_VALID_AND_GOOD);
+
+    PeerTaskExecutorResult<Object> result = peerTaskExecutor.execute(peerTask);
+
+    Mockito.verify(peer2).recordUsefulResponse();
+    Assertions.assertEquals(PeerTaskExecutorResponseCode.SUCCESS, result.responseCode());
+    Assertions.assertSame(responseObject, result.result().get());
+    Assertions.assertSame(peer2, result.ethPeer().get());
+
+    // the timeout of the slow peer is still recorded once its request fails
+    slowPeerResponse.countDown();
+    Mockito.verify(ethPeer, Mockito.timeout(5_000))
+        .recordRequestTimeout(protocolName, requestMessageDataCode);
+  }
+
+  @Test
+  public void testRequestSizeLimitShrinksOnTimeoutAndGrowsOnFastResponse()
+      throws PeerConnection.PeerNotConnected,
+          ExecutionException,
+          InterruptedException,
+          TimeoutException,
+          InvalidPeerTaskResponseException {
+    Object responseObject = new Object();
+
+    Mockito.when(peerTask.getRequestMessage()).thenReturn(requestMessageData);
+    Mockito.when(peerTask.getRetriesWithOtherPeer()).thenReturn(0);
+    Mockito.when(peerTask.getRetriesWithSamePeer()).thenReturn(0);
+    Mockito.when(peerTask.getSubProtocol()).thenReturn(subprotocol);
+    Mockito.when(subprotocol.getName()).thenReturn("subprotocol");
+    Mockito.when(requestSender.sendRequest(subprotocol, requestMessageData, ethPeer))
+        .thenThrow(new TimeoutException())
+        .thenReturn(responseMessageData);
+    Mockito.when(peerTask.processResponse(responseMessageData)).thenReturn(responseObject);
+    Mockito.when(peerTask.validateResult(responseObject))
+        .thenReturn(PeerTaskValidationResponse.RESULTS_VALID_AND_GOOD);
+
+    Assertions.assertEquals(100, peerTaskExecutor.getRequestSizeLimit(peerTask.getClass(), 100));
+
+    peerTaskExecutor.executeAgainstPeer(peerTask, ethPeer);
+    Assertions.assertEquals(50, peerTaskExecutor.getRequestSizeLimit(peerTask.getClass(), 100));
+    Assertions.assertEquals(10, peerTaskExecutor.getRequestSizeLimit(peerTask.getClass(), 10));
+
+    peerTaskExecutor.executeAgainstPeer(peerTask, ethPeer);
+    Assertions.assertEquals(56, peerTaskExecutor.getRequestSizeLimit(peerTask.getClass(), 100));
+  }
+
+  @Test
+  public void testRequestSizeLimitIsZeroWhenThereIsNothingToRequest() {
+    Assertions.assertEquals(0, peerTaskExecutor.getRequestSizeLimit(peerTask.getClass(), 0));
+    Assertions.assertEquals(10, peerTaskExecutor.getRequestSizeLimit(peerTask.getClass(), 10));
+  }
 }
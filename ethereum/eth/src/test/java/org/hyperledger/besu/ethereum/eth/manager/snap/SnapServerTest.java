@@ -275,6 +275,22 @@ public class SnapServerTest {
     assertThat(assertIsValidAccountRangeProof(acct1.addressHash, rangeData)).isTrue();
   }
 
+  @Test
+  public void assertCachedBoundaryProofsAreServedForTheirRootOnly() {
+    insertTestAccounts(acct1, acct2, acct3);
+    var rangeData =
+        getAndVerifyAccountRangeData(requestAccountRange(acct1.addressHash, acct4.addressHash), 3);
+    var cachedRangeData =
+        getAndVerifyAccountRangeData(requestAccountRange(acct1.addressHash, acct4.addressHash), 3);
+    assertThat(cachedRangeData.proofs()).isEqualTo(rangeData.proofs());
+
+    // a new account changes the root, so the proofs of the previous root must not be reused
+    insertTestAccounts(acct4);
+    var newRootRangeData =
+        getAndVerifyAccountRangeData(requestAccountRange(acct1.addressHash, acct4.addressHash), 4);
+    assertThat(assertIsValidAccountRangeProof(acct1.addressHash, newRootRangeData)).isTrue();
+  }
+
   @Test
   public void assertCompleteStorageForSingleAccount() {
     insertTestAccounts(acct1, acct2, acct3, acct4);
@@ -97,6 +97,21 @@ public final class AccountRangeMessageTest {
     in.leaveList();
   }
 
+  @Test
+  public void slimAccountSizeTest() {
+    for (final Hash storageRoot : List.of(Hash.EMPTY_TRIE_HASH, Hash.hash(Bytes.of(1)))) {
+      for (final Hash codeHash : List.of(Hash.EMPTY, Hash.hash(Bytes.of(2)))) {
+        for (final Wei balance : List.of(Wei.ZERO, Wei.of(2L), Wei.fromEth(1_000_000_000L))) {
+          final Bytes fullAccount =
+              RLP.encode(new PmtStateTrieAccountValue(1L, balance, storageRoot, codeHash)::writeTo);
+
+          assertThat(AccountRangeMessage.slimAccountSize(fullAccount))
+              .isEqualTo(AccountRangeMessage.toSlimAccount(RLP.input(fullAccount)).size());
+        }
+      }
+    }
+  }
+
   @Test
   public void toFullAccountTest() {
     // Initialize nonce and balance
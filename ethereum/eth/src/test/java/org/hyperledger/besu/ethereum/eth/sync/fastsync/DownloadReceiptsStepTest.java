@@ -78,6 +78,8 @@ public class DownloadReceiptsStepTest {
   @BeforeEach
   public void setUp() {
     peerTaskExecutor = mock(PeerTaskExecutor.class);
+    Mockito.when(peerTaskExecutor.getRequestSizeLimit(Mockito.any(), Mockito.anyInt()))
+        .thenAnswer(invocation -> invocation.getArgument(1));
     TransactionPool transactionPool = mock(TransactionPool.class);
     ethProtocolManager =
         EthProtocolManagerTestBuilder.builder()
@@ -147,6 +149,22 @@ public class DownloadReceiptsStepTest {
     assertThat(result.get().get(3).getReceipts().size()).isEqualTo(1);
   }
 
+  @Test
+  public void shouldNotRequestReceiptsForEmptyBatchUsingPeerTaskSystem()
+      throws ExecutionException, InterruptedException {
+    DownloadReceiptsStep downloadReceiptsStep =
+        new DownloadReceiptsStep(
+            protocolSchedule,
+            ethProtocolManager.ethContext(),
+            SynchronizerConfiguration.builder().isPeerTaskSystemEnabled(true).build(),
+            new NoOpMetricsSystem());
+
+    final CompletableFuture<List<BlockWithReceipts>> result = downloadReceiptsStep.apply(List.of());
+
+    assertThat(result.get()).isEmpty();
+    Mockito.verify(peerTaskExecutor, Mockito.never()).execute(Mockito.any());
+  }
+
   private Block block(final long number) {
     final BlockHeader header = blockchain.getBlockHeader(number).get();
     return new Block(header, blockchain.getBlockBody(header.getHash()).get());
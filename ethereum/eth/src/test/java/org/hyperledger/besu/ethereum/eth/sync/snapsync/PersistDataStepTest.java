@@ -29,6 +29,7 @@ import org.hyperledger.besu.ethereum.eth.sync.snapsync.request.BytecodeRequest;
 import org.hyperledger.besu.ethereum.eth.sync.snapsync.request.SnapDataRequest;
 import org.hyperledger.besu.ethereum.eth.sync.snapsync.request.StorageRangeDataRequest;
 import org.hyperledger.besu.ethereum.eth.sync.snapsync.request.heal.AccountTrieNodeHealingRequest;
+import org.hyperledger.besu.ethereum.trie.RangeManager;
 import org.hyperledger.besu.ethereum.trie.pathbased.bonsai.storage.BonsaiWorldStateKeyValueStorage;
 import org.hyperledger.besu.ethereum.trie.patricia.StoredMerklePatriciaTrie;
 import org.hyperledger.besu.ethereum.worldstate.DataStorageConfiguration;
@@ -38,7 +39,9 @@ import org.hyperledger.besu.services.tasks.Task;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.TreeMap;
 
+import kotlin.collections.ArrayDeque;
 import org.apache.tuweni.bytes.Bytes;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -76,6 +79,36 @@ public class PersistDataStepTest {
     assertDataPersisted(tasks);
   }
 
+  @Test
+  public void shouldPersistRangesThroughBulkIngestionWhenEnabled() {
+    when(snapSyncConfiguration.isSnapSyncSstIngestionEnabled()).thenReturn(true);
+    final List<Task<SnapDataRequest>> tasks = TaskGenerator.createAccountRequest(true, false);
+    final List<Task<SnapDataRequest>> result = persistDataStep.persist(tasks);
+
+    assertThat(result).isSameAs(tasks);
+    verify((BonsaiWorldStateKeyValueStorage) worldStateKeyValueStorage).bulkIngestionUpdater();
+    assertDataPersisted(tasks);
+  }
+
+  @Test
+  public void shouldVerifyReceivedRangeBeforePersistingIt() {
+    final AccountRangeDataRequest generatedRequest =
+        (AccountRangeDataRequest)
+            TaskGenerator.createAccountRequest(true, false).get(0).getData();
+    final AccountRangeDataRequest request =
+        SnapDataRequest.createAccountRangeDataRequest(
+            generatedRequest.getRootHash(), RangeManager.MIN_RANGE, RangeManager.MAX_RANGE);
+    request.setResponse(new TreeMap<>(generatedRequest.getAccounts()), new ArrayDeque<>());
+    assertThat(request.isResponseReceived()).isFalse();
+
+    final List<Task<SnapDataRequest>> result =
+        persistDataStep.persist(List.of(new StubTask(request)));
+
+    assertThat(request.isResponseReceived()).isTrue();
+    assertThat(request.getAccounts()).isEqualTo(generatedRequest.getAccounts());
+    assertDataPersisted(result);
+  }
+
   @Test
   public void shouldPersistTrieNodeHealDataOnlyOnce() {
 
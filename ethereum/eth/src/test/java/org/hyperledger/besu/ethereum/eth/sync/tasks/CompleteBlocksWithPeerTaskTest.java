@@ -18,6 +18,7 @@ import static java.util.Arrays.asList;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -59,7 +60,7 @@ public class CompleteBlocksWithPeerTaskTest {
   public void shouldReturnEmptyBlock() {
     final ProtocolSchedule protocolSchedule = getProtocolScheduleMock();
     final BlockHeader blockHeader = getEmptyBlockHeaderMock();
-    final PeerTaskExecutor peerTaskExecutor = mock(PeerTaskExecutor.class);
+    final PeerTaskExecutor peerTaskExecutor = getPeerTaskExecutorMock();
 
     CompleteBlocksWithPeerTask completeBlocksWithPeerTask =
         new CompleteBlocksWithPeerTask(protocolSchedule, List.of(blockHeader), peerTaskExecutor);
@@ -91,7 +92,7 @@ public class CompleteBlocksWithPeerTaskTest {
 
     final List<Block> expectedBlocks = getExpectedBlocks(header1, header2);
 
-    final PeerTaskExecutor peerTaskExecutor = mock(PeerTaskExecutor.class);
+    final PeerTaskExecutor peerTaskExecutor = getPeerTaskExecutorMock();
     when(peerTaskExecutor.execute(any()))
         .thenReturn(
             new PeerTaskExecutorResult<>(
@@ -111,7 +112,7 @@ public class CompleteBlocksWithPeerTaskTest {
   public void shouldReturnNonEmptyBlock() {
     final Block block = mock(Block.class);
     final ProtocolSchedule protocolSchedule = getProtocolScheduleMock();
-    final PeerTaskExecutor peerTaskExecutor = mock(PeerTaskExecutor.class);
+    final PeerTaskExecutor peerTaskExecutor = getPeerTaskExecutorMock();
     final BlockHeader nonEmptyBlockHeaderMock = getNonEmptyBlockHeaderMock("0x01", "0x02");
     when(peerTaskExecutor.execute(any()))
         .thenReturn(
@@ -139,7 +140,7 @@ public class CompleteBlocksWithPeerTaskTest {
     final BlockHeader nonEmptyBlockHeaderMock3 = getNonEmptyBlockHeaderMock("0x03", "0x04");
 
     final ProtocolSchedule protocolSchedule = getProtocolScheduleMock();
-    final PeerTaskExecutor peerTaskExecutor = mock(PeerTaskExecutor.class);
+    final PeerTaskExecutor peerTaskExecutor = getPeerTaskExecutorMock();
     when(peerTaskExecutor.execute(any()))
         .thenReturn(
             new PeerTaskExecutorResult<>(
@@ -175,7 +176,7 @@ public class CompleteBlocksWithPeerTaskTest {
     final BlockHeader nonEmptyBlockHeaderMock3 = getNonEmptyBlockHeaderMock("0x03", "0x04");
 
     final ProtocolSchedule protocolSchedule = getProtocolScheduleMock();
-    final PeerTaskExecutor peerTaskExecutor = mock(PeerTaskExecutor.class);
+    final PeerTaskExecutor peerTaskExecutor = getPeerTaskExecutorMock();
     when(peerTaskExecutor.execute(any()))
         .thenReturn(
             new PeerTaskExecutorResult<>(
@@ -207,6 +208,13 @@ public class CompleteBlocksWithPeerTaskTest {
     assertThat(BlockHeader.hasEmptyBlock(blocks.get(3).getHeader())).isTrue();
   }
 
+  private static PeerTaskExecutor getPeerTaskExecutorMock() {
+    final PeerTaskExecutor peerTaskExecutor = mock(PeerTaskExecutor.class);
+    when(peerTaskExecutor.getRequestSizeLimit(any(), anyInt()))
+        .thenAnswer(invocation -> invocation.getArgument(1));
+    return peerTaskExecutor;
+  }
+
   private static ProtocolSchedule getProtocolScheduleMock() {
     final ProtocolSchedule protocolSchedule = mock(ProtocolSchedule.class);
     final ProtocolSpec protocolSpec = mock(ProtocolSpec.class);
@@ -29,6 +29,7 @@ import static org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction.
 import static org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction.MemorySize.OPTIONAL_CODE_DELEGATION_LIST_SHALLOW_SIZE;
 import static org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction.MemorySize.OPTIONAL_TO_SIZE;
 import static org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction.MemorySize.PAYLOAD_SHALLOW_SIZE;
+import static org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction.MemorySize.PAYLOAD_WRAPPER_SIZE;
 import static org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction.MemorySize.PENDING_TRANSACTION_SHALLOW_SIZE;
 import static org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction.MemorySize.VERSIONED_HASH_SIZE;
 
@@ -39,6 +40,7 @@ import org.hyperledger.besu.datatypes.BlobType;
 import org.hyperledger.besu.datatypes.CodeDelegation;
 import org.hyperledger.besu.datatypes.TransactionType;
 import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.core.Payload;
 import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.core.TransactionTestFixture;
 import org.hyperledger.besu.ethereum.core.encoding.EncodingContext;
@@ -71,6 +73,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.EnabledOnOs;
 import org.junit.jupiter.api.condition.OS;
 import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
 import org.openjdk.jol.info.GraphPathRecord;
 import org.openjdk.jol.info.GraphVisitor;
 import org.openjdk.jol.info.GraphWalker;
@@ -225,6 +228,46 @@ public class PendingTransactionEstimatedMemorySizeTest extends BaseTransactionPo
     assertThat(size.sum()).isEqualTo(PAYLOAD_SHALLOW_SIZE);
   }
 
+  @Test
+  public void payloadWrapperSize() {
+    final ClassLayout cl = ClassLayout.parseInstance(new Payload(Bytes.EMPTY));
+    System.out.println(cl.toPrintable());
+
+    assertThat(cl.instanceSize()).isEqualTo(PAYLOAD_WRAPPER_SIZE);
+  }
+
+  @Test
+  public void detachedPayloadDoesNotRetainTheMessage() {
+    final int payloadSize = 1000;
+    final Transaction tx =
+        prepareTransaction(
+                TransactionType.EIP1559,
+                10,
+                Wei.of(500),
+                Wei.ZERO,
+                payloadSize,
+                0,
+                BlobType.KZG_PROOF,
+                null)
+            .createTransaction(KEYS1);
+
+    // the tx is received in a message together with other data
+    final BytesValueRLPOutput rlpOut = new BytesValueRLPOutput();
+    rlpOut.startList();
+    tx.writeTo(rlpOut);
+    rlpOut.writeBytes(Bytes.wrap(new byte[100_000]));
+    rlpOut.endList();
+
+    final BytesValueRLPInput rlpIn = new BytesValueRLPInput(rlpOut.encoded(), false);
+    rlpIn.enterList();
+    final Transaction decodedTx = Transaction.readFrom(rlpIn);
+
+    assertThat(GraphLayout.parseInstance(decodedTx.getPayload()).totalSize())
+        .isGreaterThan(100_000);
+    assertThat(GraphLayout.parseInstance(decodedTx.detachedCopy().getPayload()).totalSize())
+        .isEqualTo(PAYLOAD_SHALLOW_SIZE + PendingTransaction.byteArrayMemorySize(payloadSize));
+  }
+
   @Test
   public void chainIdSize() {
 
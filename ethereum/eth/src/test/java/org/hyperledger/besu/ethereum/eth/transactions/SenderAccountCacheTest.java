@@ -0,0 +1,138 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.transactions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.trie.common.PmtStateTrieAccountValue;
+import org.hyperledger.besu.ethereum.trie.pathbased.common.trielog.TrieLogLayer;
+import org.hyperledger.besu.evm.account.Account;
+import org.hyperledger.besu.evm.fluent.SimpleAccount;
+
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SenderAccountCacheTest {
+  private static final Address SENDER = Address.fromHexString("0x01");
+  private static final Address OTHER = Address.fromHexString("0x02");
+  private static final Hash HEAD = Hash.hash(Bytes.of(1));
+  private static final Hash NEXT_HEAD = Hash.hash(Bytes.of(2));
+
+  private SenderAccountCache cache;
+
+  @BeforeEach
+  public void setup() {
+    cache = new SenderAccountCache(100);
+    cache.reset(HEAD);
+  }
+
+  @Test
+  public void cachedAccountIsReturnedOnlyForTheSameChainHead() {
+    cache.put(HEAD, SENDER, new SimpleAccount(SENDER, 1, Wei.of(100)));
+
+    assertThat(cache.get(HEAD, SENDER)).isPresent();
+    assertThat(cache.get(HEAD, SENDER).get().get().getNonce()).isEqualTo(1);
+    assertThat(cache.get(NEXT_HEAD, SENDER)).isEmpty();
+    assertThat(cache.get(HEAD, OTHER)).isEmpty();
+  }
+
+  @Test
+  public void nonexistentAccountIsCached() {
+    cache.put(HEAD, SENDER, null);
+
+    assertThat(cache.get(HEAD, SENDER)).contains(Optional.empty());
+  }
+
+  @Test
+  public void accountReadFromAnotherChainHeadIsIgnored() {
+    cache.put(NEXT_HEAD, SENDER, new SimpleAccount(SENDER, 1, Wei.of(100)));
+
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  public void contractAccountIsNotCached() {
+    cache.put(
+        HEAD, SENDER, new SimpleAccount(null, SENDER, 1, Wei.of(100), Bytes.fromHexString("0x60")));
+
+    assertThat(cache.get(HEAD, SENDER)).isEmpty();
+  }
+
+  @Test
+  public void cachedAccountsAreUpdatedFromTheTrieLogOfTheNextChainHead() {
+    cache.put(HEAD, SENDER, new SimpleAccount(SENDER, 1, Wei.of(100)));
+    cache.put(HEAD, OTHER, null);
+
+    final TrieLogLayer trieLog = new TrieLogLayer();
+    trieLog.addAccountChange(SENDER, accountValue(1, 100), accountValue(2, 90));
+    trieLog.addAccountChange(OTHER, null, accountValue(0, 50));
+
+    cache.onChainHeadAdvanced(NEXT_HEAD, HEAD, Optional.of(trieLog));
+
+    final Account sender = cache.get(NEXT_HEAD, SENDER).get().get();
+    assertThat(sender.getNonce()).isEqualTo(2);
+    assertThat(sender.getBalance()).isEqualTo(Wei.of(90));
+    final Account other = cache.get(NEXT_HEAD, OTHER).get().get();
+    assertThat(other.getNonce()).isZero();
+    assertThat(other.getBalance()).isEqualTo(Wei.of(50));
+    assertThat(cache.get(HEAD, SENDER)).isEmpty();
+  }
+
+  @Test
+  public void accountThatBecomesAContractIsRemoved() {
+    cache.put(HEAD, SENDER, new SimpleAccount(SENDER, 1, Wei.of(100)));
+
+    final Bytes code = Bytes.fromHexString("0x60");
+    final TrieLogLayer trieLog = new TrieLogLayer();
+    trieLog.addAccountChange(
+        SENDER,
+        accountValue(1, 100),
+        new PmtStateTrieAccountValue(1, Wei.of(100), Hash.EMPTY_TRIE_HASH, Hash.hash(code)));
+    trieLog.addCodeChange(SENDER, Bytes.EMPTY, code, NEXT_HEAD);
+
+    cache.onChainHeadAdvanced(NEXT_HEAD, HEAD, Optional.of(trieLog));
+
+    assertThat(cache.get(NEXT_HEAD, SENDER)).isEmpty();
+  }
+
+  @Test
+  public void cacheIsClearedWhenTheNewChainHeadIsNotAChildOfTheCurrentOne() {
+    cache.put(HEAD, SENDER, new SimpleAccount(SENDER, 1, Wei.of(100)));
+
+    cache.onChainHeadAdvanced(NEXT_HEAD, Hash.ZERO, Optional.of(new TrieLogLayer()));
+
+    assertThat(cache.size()).isZero();
+    assertThat(cache.get(NEXT_HEAD, SENDER)).isEmpty();
+  }
+
+  @Test
+  public void cacheIsClearedWhenTheTrieLogIsNotAvailable() {
+    cache.put(HEAD, SENDER, new SimpleAccount(SENDER, 1, Wei.of(100)));
+
+    cache.onChainHeadAdvanced(NEXT_HEAD, HEAD, Optional.empty());
+
+    assertThat(cache.size()).isZero();
+  }
+
+  private static PmtStateTrieAccountValue accountValue(final long nonce, final long balance) {
+    return new PmtStateTrieAccountValue(nonce, Wei.of(balance), Hash.EMPTY_TRIE_HASH, Hash.EMPTY);
+  }
+}
@@ -16,6 +16,15 @@ package org.hyperledger.besu.ethereum.eth.transactions;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.awaitility.Awaitility.await;
+import static org.hyperledger.besu.ethereum.mainnet.ValidationResult.valid;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.crypto.KeyPair;
+import org.hyperledger.besu.crypto.SignatureAlgorithmFactory;
 
 import org.hyperledger.besu.datatypes.Wei;
 import org.hyperledger.besu.ethereum.core.Block;
@@ -33,17 +42,25 @@ import org.hyperledger.besu.ethereum.eth.transactions.layered.LayeredPendingTran
 import org.hyperledger.besu.ethereum.eth.transactions.layered.ReadyTransactions;
 import org.hyperledger.besu.ethereum.eth.transactions.layered.SparseTransactions;
 import org.hyperledger.besu.ethereum.eth.transactions.layered.TransactionsLayer;
+import org.hyperledger.besu.ethereum.mainnet.TransactionValidationParams;
+import org.hyperledger.besu.ethereum.mainnet.ValidationResult;
 import org.hyperledger.besu.ethereum.mainnet.feemarket.FeeMarket;
 import org.hyperledger.besu.ethereum.rlp.BytesValueRLPOutput;
+import org.hyperledger.besu.ethereum.transaction.TransactionInvalidReason;
+import org.hyperledger.besu.evm.account.Account;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiFunction;
 
 import org.junit.jupiter.api.AfterEach;
@@ -256,6 +273,80 @@ public class TransactionPoolSaveRestoreTest extends AbstractTransactionPoolTestB
         .isEqualTo(false);
   }
 
+  @Test
+  public void transactionsAreRestoredInTheSavedOrder()
+      throws ExecutionException, InterruptedException, TimeoutException, IOException {
+    final KeyPair otherKeyPair = SignatureAlgorithmFactory.getInstance().generateKeyPair();
+    // interleave the senders, so the saved order is not the sender and nonce order
+    final List<Transaction> savedTransactions =
+        List.of(
+            createTransaction(0, otherKeyPair),
+            createTransaction(0, KEY_PAIR1),
+            createTransaction(1, otherKeyPair),
+            createTransaction(1, KEY_PAIR1),
+            createTransaction(2, KEY_PAIR1),
+            createTransaction(2, otherKeyPair));
+
+    givenAllTransactionsAreValid();
+
+    this.transactionPool =
+        createTransactionPool(b -> b.enableSaveRestore(true).saveFile(saveFilePath.toFile()));
+    final List<Transaction> addedTransactions = Collections.synchronizedList(new ArrayList<>());
+    transactionPool.subscribePendingTransactions(addedTransactions::add);
+
+    transactionPool.setDisabled().get(10, TimeUnit.SECONDS);
+    Files.write(
+        saveFilePath,
+        savedTransactions.stream().map(tx -> "127r" + transaction2Base64(tx)).toList(),
+        StandardCharsets.US_ASCII);
+
+    // re-enabling the txpool restores from file
+    transactionPool.setEnabled().get(10, TimeUnit.SECONDS);
+
+    assertThat(addedTransactions).containsExactlyElementsOf(savedTransactions);
+    assertThat(saveFilePath).doesNotExist();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void transactionsAreValidatedAgainIfTheChainHeadMovedDuringTheRestore()
+      throws ExecutionException, InterruptedException, TimeoutException, IOException {
+    final Transaction transaction = createTransaction(0, KEY_PAIR1);
+
+    // the first validation is done on the chain head at the start of the restore, that moves
+    // right after, and the transaction is not valid anymore on the new chain head
+    final AtomicBoolean chainHeadMoved = new AtomicBoolean(false);
+    when(transactionValidatorFactory
+            .get()
+            .validate(any(), any(Optional.class), any(Optional.class), any()))
+        .thenAnswer(
+            invocation -> {
+              if (chainHeadMoved.compareAndSet(false, true)) {
+                appendBlock();
+                return valid();
+              }
+              return ValidationResult.invalid(TransactionInvalidReason.NONCE_TOO_LOW);
+            });
+    when(transactionValidatorFactory
+            .get()
+            .validateForSender(
+                any(), nullable(Account.class), any(TransactionValidationParams.class)))
+        .thenReturn(valid());
+
+    this.transactionPool =
+        createTransactionPool(b -> b.enableSaveRestore(true).saveFile(saveFilePath.toFile()));
+    transactionPool.setDisabled().get(10, TimeUnit.SECONDS);
+    Files.writeString(
+        saveFilePath, "127r" + transaction2Base64(transaction), StandardCharsets.US_ASCII);
+
+    transactionPool.setEnabled().get(10, TimeUnit.SECONDS);
+
+    verify(transactionValidatorFactory.get(), times(2))
+        .validate(any(), any(Optional.class), any(Optional.class), any());
+    assertThat(transactionPool.getPendingTransactions()).isEmpty();
+    assertThat(saveFilePath).doesNotExist();
+  }
+
   private String transaction2Base64(final Transaction transaction) {
     final BytesValueRLPOutput rlp = new BytesValueRLPOutput();
     TransactionEncoder.encodeRLP(transaction, rlp, EncodingContext.POOLED_TRANSACTION);
@@ -0,0 +1,170 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.transactions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.crypto.KeyPair;
+import org.hyperledger.besu.crypto.SignatureAlgorithmFactory;
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.core.TransactionTestFixture;
+import org.hyperledger.besu.ethereum.eth.manager.EthScheduler;
+import org.hyperledger.besu.ethereum.rlp.RLP;
+import org.hyperledger.besu.metrics.noop.NoOpMetricsSystem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TransactionSenderRecoveryTest {
+  private static final int LARGE_BATCH_SIZE = 64;
+
+  private EthScheduler ethScheduler;
+
+  @BeforeEach
+  public void setUp() {
+    ethScheduler = new EthScheduler(1, 1, 4, new NoOpMetricsSystem());
+  }
+
+  @AfterEach
+  public void tearDown() throws InterruptedException {
+    ethScheduler.stop();
+    ethScheduler.awaitStop();
+  }
+
+  @Test
+  public void smallBatchIsRecoveredOnTheCallingThread() {
+    final EthScheduler mockScheduler = mock(EthScheduler.class);
+    final List<KeyPair> keyPairs =
+        generateKeyPairs(TransactionSenderRecovery.MIN_PARALLEL_BATCH_SIZE - 1);
+    final List<Transaction> transactions = spyAll(signAndDecode(keyPairs));
+
+    new TransactionSenderRecovery(mockScheduler).recoverSenders(transactions);
+
+    verify(mockScheduler, never()).scheduleComputationTask(any());
+    transactions.forEach(transaction -> verify(transaction).getSender());
+    assertThat(transactions).map(Transaction::getSender).isEqualTo(addresses(keyPairs));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void largeBatchIsSplitAcrossTheComputationWorkers() {
+    final EthScheduler mockScheduler = mock(EthScheduler.class);
+    when(mockScheduler.scheduleComputationTask(any()))
+        .thenAnswer(
+            invocation ->
+                CompletableFuture.completedFuture(
+                    ((Supplier<Object>) invocation.getArgument(0)).get()));
+    final List<Transaction> transactions =
+        spyAll(signAndDecode(generateKeyPairs(LARGE_BATCH_SIZE)));
+
+    new TransactionSenderRecovery(mockScheduler).recoverSenders(transactions);
+
+    // the first chunk is recovered on the calling thread
+    final int expectedChunks =
+        Math.min(
+            Runtime.getRuntime().availableProcessors(),
+            LARGE_BATCH_SIZE / TransactionSenderRecovery.MIN_PARALLEL_BATCH_SIZE);
+    verify(mockScheduler, times(expectedChunks - 1)).scheduleComputationTask(any());
+    transactions.forEach(transaction -> verify(transaction).getSender());
+  }
+
+  @Test
+  public void parallelRecoveryMatchesSequentialRecoveryInTheSameOrder() {
+    final List<KeyPair> keyPairs = generateKeyPairs(LARGE_BATCH_SIZE);
+    final List<Transaction> signed = sign(keyPairs);
+    final List<Transaction> parallelBatch = spyAll(decode(signed));
+    final List<Transaction> sequentialBatch = decode(signed);
+    final List<Transaction> originalOrder = List.copyOf(parallelBatch);
+
+    new TransactionSenderRecovery(ethScheduler).recoverSenders(parallelBatch);
+
+    parallelBatch.forEach(transaction -> verify(transaction).getSender());
+    assertThat(parallelBatch).containsExactlyElementsOf(originalOrder);
+    final List<Address> sequentialSenders =
+        sequentialBatch.stream().map(Transaction::getSender).toList();
+    assertThat(parallelBatch).map(Transaction::getSender).isEqualTo(sequentialSenders);
+    assertThat(sequentialSenders).isEqualTo(addresses(keyPairs));
+  }
+
+  @Test
+  public void transactionsWithInvalidSignatureAreLeftForValidation() {
+    final List<KeyPair> keyPairs = generateKeyPairs(LARGE_BATCH_SIZE);
+    final List<Transaction> validTransactions = signAndDecode(keyPairs);
+    final List<Transaction> batch = new ArrayList<>(validTransactions);
+    final List<Transaction> invalidTransactions = new ArrayList<>();
+    for (int i = 0; i < batch.size(); i += 5) {
+      final Transaction invalid = mock(Transaction.class);
+      when(invalid.getSender()).thenThrow(new IllegalStateException("Cannot recover public key"));
+      when(invalid.getHash()).thenReturn(Hash.ZERO);
+      invalidTransactions.add(invalid);
+      batch.add(i, invalid);
+    }
+
+    new TransactionSenderRecovery(ethScheduler).recoverSenders(batch);
+
+    invalidTransactions.forEach(transaction -> verify(transaction).getSender());
+    assertThat(validTransactions).map(Transaction::getSender).isEqualTo(addresses(keyPairs));
+  }
+
+  private static List<KeyPair> generateKeyPairs(final int count) {
+    final List<KeyPair> keyPairs = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      keyPairs.add(SignatureAlgorithmFactory.getInstance().generateKeyPair());
+    }
+    return keyPairs;
+  }
+
+  private static List<Address> addresses(final List<KeyPair> keyPairs) {
+    return keyPairs.stream()
+        .map(keyPair -> Address.extract(Hash.hash(keyPair.getPublicKey().getEncodedBytes())))
+        .toList();
+  }
+
+  private static List<Transaction> sign(final List<KeyPair> keyPairs) {
+    return keyPairs.stream()
+        .map(keyPair -> new TransactionTestFixture().createTransaction(keyPair))
+        .toList();
+  }
+
+  private static List<Transaction> decode(final List<Transaction> transactions) {
+    // decoding drops the sender that is set when signing
+    return transactions.stream()
+        .map(signed -> Transaction.readFrom(RLP.input(RLP.encode(signed::writeTo))))
+        .toList();
+  }
+
+  private static List<Transaction> signAndDecode(final List<KeyPair> keyPairs) {
+    return decode(sign(keyPairs));
+  }
+
+  private static List<Transaction> spyAll(final List<Transaction> transactions) {
+    return transactions.stream().map(transaction -> spy(transaction)).toList();
+  }
+}
@@ -27,6 +27,7 @@ import org.hyperledger.besu.ethereum.core.Transaction;
 import org.hyperledger.besu.ethereum.eth.manager.EthPeer;
 import org.hyperledger.besu.ethereum.eth.messages.TransactionsMessage;
 import org.hyperledger.besu.metrics.StubMetricsSystem;
+import org.hyperledger.besu.testutil.DeterministicEthScheduler;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -55,7 +56,10 @@ public class TransactionsMessageProcessorTest {
 
     messageHandler =
         new TransactionsMessageProcessor(
-            transactionTracker, transactionPool, new TransactionPoolMetrics(metricsSystem));
+            transactionTracker,
+            transactionPool,
+            new TransactionPoolMetrics(metricsSystem),
+            new TransactionSenderRecovery(new DeterministicEthScheduler()));
   }
 
   @Test
@@ -0,0 +1,247 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.eth.transactions.layered;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.hyperledger.besu.crypto.KeyPair;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.ethereum.core.BlockHeader;
+import org.hyperledger.besu.ethereum.core.MiningConfiguration;
+import org.hyperledger.besu.ethereum.core.Transaction;
+import org.hyperledger.besu.ethereum.eth.transactions.BlobCache;
+import org.hyperledger.besu.ethereum.eth.transactions.ImmutableTransactionPoolConfiguration;
+import org.hyperledger.besu.ethereum.eth.transactions.PendingTransaction;
+import org.hyperledger.besu.ethereum.eth.transactions.TransactionPoolConfiguration;
+import org.hyperledger.besu.ethereum.eth.transactions.TransactionPoolMetrics;
+import org.hyperledger.besu.ethereum.eth.transactions.TransactionPoolReplacementHandler;
+import org.hyperledger.besu.ethereum.mainnet.feemarket.FeeMarket;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that the lock-free and read-locked queries of {@link LayeredPendingTransactions} stay
+ * consistent while transactions are concurrently added, promoted between layers and evicted.
+ */
+public class LayeredPendingTransactionsConcurrencyTest extends BaseTransactionPoolTest {
+  private static final int WRITERS = 4;
+  private static final int READERS = 4;
+  private static final int SENDERS_PER_WRITER = 4;
+  private static final int NONCES_PER_SENDER = 8;
+
+  private final TransactionPoolConfiguration poolConfig =
+      ImmutableTransactionPoolConfiguration.builder()
+          .maxPrioritizedTransactions(8)
+          .maxFutureBySender(NONCES_PER_SENDER)
+          .pendingTransactionsLayerMaxCapacityBytes(4_000)
+          .build();
+  private final ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+  private final ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+
+  private EvictCollectorLayer evictCollector;
+  private LayeredPendingTransactions pendingTransactions;
+
+  @BeforeEach
+  public void setup() {
+    final TransactionPoolMetrics txPoolMetrics = new TransactionPoolMetrics(metricsSystem);
+    final BiFunction<PendingTransaction, PendingTransaction, Boolean> replacementTester =
+        (t1, t2) ->
+            new TransactionPoolReplacementHandler(
+                    poolConfig.getPriceBump(), poolConfig.getBlobPriceBump())
+                .shouldReplace(t1, t2, mockBlockHeader());
+    evictCollector = new EvictCollectorLayer(txPoolMetrics);
+    final SparseTransactions sparseTransactions =
+        new SparseTransactions(
+            poolConfig,
+            ethScheduler,
+            evictCollector,
+            txPoolMetrics,
+            replacementTester,
+            new BlobCache());
+    final ReadyTransactions readyTransactions =
+        new ReadyTransactions(
+            poolConfig,
+            ethScheduler,
+            sparseTransactions,
+            txPoolMetrics,
+            replacementTester,
+            new BlobCache());
+    final BaseFeePrioritizedTransactions prioritizedTransactions =
+        new BaseFeePrioritizedTransactions(
+            poolConfig,
+            LayeredPendingTransactionsConcurrencyTest::mockBlockHeader,
+            ethScheduler,
+            readyTransactions,
+            txPoolMetrics,
+            replacementTester,
+            FeeMarket.london(0L),
+            new BlobCache(),
+            MiningConfiguration.newDefault().setMinTransactionGasPrice(DEFAULT_MIN_GAS_PRICE));
+    pendingTransactions =
+        new LayeredPendingTransactions(poolConfig, prioritizedTransactions, ethScheduler);
+  }
+
+  @AfterEach
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void readsStayConsistentWithConcurrentAddsPromotionsAndEvictions() throws Exception {
+    final List<List<Transaction>> transactionsByWriter = new ArrayList<>();
+    for (int w = 0; w < WRITERS; w++) {
+      final List<Transaction> transactions = new ArrayList<>();
+      for (int s = 0; s < SENDERS_PER_WRITER; s++) {
+        final KeyPair keys = SIGNATURE_ALGORITHM.get().generateKeyPair();
+        // odd nonces first, so they wait in the sparse layer and are promoted when the gaps fill
+        for (int nonce = 1; nonce < NONCES_PER_SENDER; nonce += 2) {
+          transactions.add(createTransaction(nonce, Wei.of(1000L * (s + 1)), keys));
+        }
+        for (int nonce = 0; nonce < NONCES_PER_SENDER; nonce += 2) {
+          transactions.add(createTransaction(nonce, Wei.of(1000L * (s + 1)), keys));
+        }
+      }
+      transactionsByWriter.add(transactions);
+    }
+    final List<Transaction> allTransactions =
+        transactionsByWriter.stream().flatMap(List::stream).toList();
+    final Set<Hash> accepted = ConcurrentHashMap.newKeySet();
+
+    final CountDownLatch start = new CountDownLatch(1);
+    final AtomicBoolean writing = new AtomicBoolean(true);
+    final List<Future<?>> writers = new ArrayList<>();
+    for (final List<Transaction> transactions : transactionsByWriter) {
+      writers.add(
+          executor.submit(
+              guarded(
+                  () -> {
+                    start.await();
+                    for (final Transaction transaction : transactions) {
+                      if (pendingTransactions
+                          .addTransaction(
+                              createRemotePendingTransaction(transaction), Optional.empty())
+                          .isSuccess()) {
+                        accepted.add(transaction.getHash());
+                      }
+                    }
+                  })));
+    }
+    final List<Future<?>> readers = new ArrayList<>();
+    for (int r = 0; r < READERS; r++) {
+      readers.add(
+          executor.submit(
+              guarded(
+                  () -> {
+                    start.await();
+                    while (writing.get()) {
+                      final List<PendingTransaction> pending =
+                          pendingTransactions.getPendingTransactions();
+                      final Set<Hash> pendingHashes =
+                          pending.stream()
+                              .map(PendingTransaction::getHash)
+                              .collect(Collectors.toSet());
+                      // a snapshot taken under the read lock never holds a transaction twice
+                      assertThat(pendingHashes).hasSize(pending.size());
+                      for (final Transaction transaction : allTransactions) {
+                        if (pendingTransactions.containsTransaction(transaction)) {
+                          pendingTransactions
+                              .getTransactionByHash(transaction.getHash())
+                              .ifPresent(found -> assertThat(found).isEqualTo(transaction));
+                        }
+                      }
+                      assertThat(pendingTransactions.size()).isNotNegative();
+                    }
+                  })));
+    }
+
+    start.countDown();
+    for (final Future<?> writer : writers) {
+      writer.get(1, TimeUnit.MINUTES);
+    }
+    writing.set(false);
+    for (final Future<?> reader : readers) {
+      reader.get(1, TimeUnit.MINUTES);
+    }
+    assertThat(failures).isEmpty();
+
+    // once quiescent, no accepted transaction is lost: it is either in the pool or was evicted
+    final Set<Hash> pooled =
+        allTransactions.stream()
+            .filter(pendingTransactions::containsTransaction)
+            .map(Transaction::getHash)
+            .collect(Collectors.toSet());
+    final Set<Hash> evicted =
+        evictCollector.getEvictedTransactions().stream()
+            .map(PendingTransaction::getHash)
+            .collect(Collectors.toSet());
+    assertThat(evicted).isNotEmpty().doesNotContainAnyElementsOf(pooled);
+    assertThat(accepted).containsAll(pooled);
+    final Set<Hash> pooledOrEvicted = new HashSet<>(pooled);
+    pooledOrEvicted.addAll(evicted);
+    assertThat(pooledOrEvicted).containsAll(accepted);
+    assertThat(
+            pendingTransactions.getPendingTransactions().stream()
+                .map(PendingTransaction::getHash)
+                .collect(Collectors.toSet()))
+        .isEqualTo(pooled);
+    assertThat(pendingTransactions.size()).isEqualTo(pooled.size());
+    pooled.forEach(
+        hash -> assertThat(pendingTransactions.getTransactionByHash(hash)).isPresent());
+  }
+
+  private Callable<Void> guarded(final ThrowingRunnable task) {
+    return () -> {
+      try {
+        task.run();
+      } catch (final Throwable t) {
+        failures.add(t);
+      }
+      return null;
+    };
+  }
+
+  @FunctionalInterface
+  private interface ThrowingRunnable {
+    void run() throws Exception;
+  }
+
+  private static BlockHeader mockBlockHeader() {
+    final BlockHeader blockHeader = mock(BlockHeader.class);
+    when(blockHeader.getBaseFee()).thenReturn(Optional.of(Wei.of(100)));
+    return blockHeader;
+  }
+}
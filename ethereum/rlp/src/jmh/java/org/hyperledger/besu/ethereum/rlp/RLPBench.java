@@ -16,6 +16,7 @@ package org.hyperledger.besu.ethereum.rlp;
 
 import org.hyperledger.besu.ethereum.rlp.util.RLPTestUtil;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -61,11 +62,14 @@ public class RLPBench {
 
   volatile Object toEncode;
   volatile Bytes toDecode;
+  volatile ByteBuffer toDecodeBuffer;
 
   @Setup(Level.Trial)
   public void prepare() {
     toEncode = generate(depth, width, size);
     toDecode = RLPTestUtil.encode(toEncode);
+    toDecodeBuffer = ByteBuffer.allocateDirect(toDecode.size());
+    toDecodeBuffer.put(toDecode.toArrayUnsafe()).flip();
   }
 
   @Benchmark
@@ -73,8 +77,21 @@ public class RLPBench {
     return RLPTestUtil.encode(toEncode);
   }
 
+  @Benchmark
+  public Bytes getBenchmarkStreamingEncoding() {
+    try (StreamingRLPOutput out = StreamingRLPOutput.acquire()) {
+      RLPTestUtil.encode(toEncode, out);
+      return out.encoded();
+    }
+  }
+
   @Benchmark
   public Object getBenchmarkDecoding() {
     return RLPTestUtil.decode(toDecode);
   }
+
+  @Benchmark
+  public Object getBenchmarkByteBufferDecoding() {
+    return RLPTestUtil.decode(RLP.input(toDecodeBuffer));
+  }
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.rlp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link BytesValueRLPOutput} with {@link StreamingRLPOutput} on payloads shaped like the
+ * ones the node encodes the most: a transaction signing preimage, a receipt with logs and the
+ * list of hashes of a {@code NewPooledTransactionHashes} message.
+ */
+@State(Scope.Thread)
+@Fork(value = 1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RLPOutputBench {
+
+  @Param({"transaction", "receipt", "hashes"})
+  public String payload;
+
+  private Consumer<RLPOutput> writer;
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    final Random random = new Random(42);
+    writer =
+        switch (payload) {
+          case "transaction" -> transaction(random);
+          case "receipt" -> receipt(random);
+          case "hashes" -> hashes(random, 4096);
+          default -> throw new IllegalArgumentException("Unknown payload " + payload);
+        };
+  }
+
+  @Benchmark
+  public Bytes bytesValueOutput() {
+    final BytesValueRLPOutput out = new BytesValueRLPOutput();
+    writer.accept(out);
+    return out.encoded();
+  }
+
+  @Benchmark
+  public Bytes pooledStreamingOutput() {
+    try (StreamingRLPOutput out = StreamingRLPOutput.acquire()) {
+      writer.accept(out);
+      return out.encoded();
+    }
+  }
+
+  private static Consumer<RLPOutput> transaction(final Random random) {
+    final Bytes to = randomBytes(random, 20);
+    final Bytes data = randomBytes(random, 68);
+    final Bytes32 r = Bytes32.random(random);
+    final Bytes32 s = Bytes32.random(random);
+    return out -> {
+      out.startList();
+      out.writeLongScalar(1);
+      out.writeLongScalar(12_345);
+      out.writeLongScalar(1_000_000_000L);
+      out.writeLongScalar(30_000_000_000L);
+      out.writeLongScalar(100_000);
+      out.writeBytes(to);
+      out.writeLongScalar(1_000_000_000_000_000L);
+      out.writeBytes(data);
+      out.writeEmptyList();
+      out.writeLongScalar(1);
+      out.writeBytes(r.trimLeadingZeros());
+      out.writeBytes(s.trimLeadingZeros());
+      out.endList();
+    };
+  }
+
+  private static Consumer<RLPOutput> receipt(final Random random) {
+    final Bytes bloom = randomBytes(random, 256);
+    final List<Bytes> topics = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      topics.add(Bytes32.random(random));
+    }
+    final Bytes logger = randomBytes(random, 20);
+    final Bytes logData = randomBytes(random, 96);
+    return out -> {
+      out.startList();
+      out.writeLongScalar(1);
+      out.writeLongScalar(8_000_000L);
+      out.writeBytes(bloom);
+      out.startList();
+      for (int i = 0; i < 4; i++) {
+        out.startList();
+        out.writeBytes(logger);
+        out.writeList(topics, (topic, w) -> w.writeBytes(topic));
+        out.writeBytes(logData);
+        out.endList();
+      }
+      out.endList();
+      out.endList();
+    };
+  }
+
+  private static Consumer<RLPOutput> hashes(final Random random, final int count) {
+    final List<Bytes32> hashes = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      hashes.add(Bytes32.random(random));
+    }
+    return out -> out.writeList(hashes, (hash, w) -> w.writeBytes(hash));
+  }
+
+  private static Bytes randomBytes(final Random random, final int size) {
+    final byte[] bytes = new byte[size];
+    random.nextBytes(bytes);
+    return Bytes.wrap(bytes);
+  }
+}
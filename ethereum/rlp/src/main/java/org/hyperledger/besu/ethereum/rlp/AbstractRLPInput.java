@@ -110,6 +110,45 @@ abstract class AbstractRLPInput implements RLPInput {
 
   protected abstract long getLong(long offset);
 
+  /**
+   * Reads a big-endian unsigned scalar of at most 8 bytes.
+   *
+   * @param offset the offset of the scalar in the input
+   * @param length the length of the scalar, at most 8
+   * @return the scalar value
+   */
+  protected long getUnsignedLong(final long offset, final int length) {
+    long res = 0;
+    for (int i = 0; i < length; i++) {
+      res = (res << 8) | (inputByte(offset + i) & 0xFF);
+    }
+    return res;
+  }
+
+  /**
+   * Reads a big-endian unsigned scalar of at most 32 bytes.
+   *
+   * @param offset the offset of the scalar in the input
+   * @param length the length of the scalar, at most 32
+   * @return the scalar value
+   */
+  protected UInt256 getUInt256(final long offset, final int length) {
+    final MutableBytes32 res = MutableBytes32.create();
+    inputSlice(offset, length).copyTo(res, res.size() - length);
+    return UInt256.fromBytes(res);
+  }
+
+  /**
+   * Creates an input reading the given range of this input.
+   *
+   * @param offset the offset of the range in the input
+   * @param length the length of the range
+   * @return an input over the range
+   */
+  protected RLPInput inputAsRlp(final long offset, final int length) {
+    return RLP.input(inputSlice(offset, length));
+  }
+
   /**
    * Sets the input to the item provided (an offset to the beginning of an item) and check this is
    * valid.
@@ -290,30 +329,15 @@ abstract class AbstractRLPInput implements RLPInput {
   @Override
   public long readLongScalar() {
     checkScalar("long scalar", 8);
-    long res = readGenericLongScalar();
+    long res = getUnsignedLong(currentPayloadOffset, currentPayloadSize);
     setTo(nextItem());
     return res;
   }
 
-  private long readGenericLongScalar() {
-    long res = 0;
-    int shift = 0;
-    for (int i = 0; i < currentPayloadSize; i++) {
-      res |= ((long) payloadByte(currentPayloadSize - i - 1) & 0xFF) << shift;
-      shift += 8;
-    }
-    return res;
-  }
-
   @Override
   public int readIntScalar() {
     checkScalar("int scalar", 4);
-    int res = 0;
-    int shift = 0;
-    for (int i = 0; i < currentPayloadSize; i++) {
-      res |= (payloadByte(currentPayloadSize - i - 1) & 0xFF) << shift;
-      shift += 8;
-    }
+    int res = (int) getUnsignedLong(currentPayloadOffset, currentPayloadSize);
     setTo(nextItem());
     return res;
   }
@@ -353,19 +377,14 @@ abstract class AbstractRLPInput implements RLPInput {
     return UInt64.fromBytes(readBytes8Scalar());
   }
 
-  private Bytes32 readBytes32Scalar() {
+  @Override
+  public UInt256 readUInt256Scalar() {
     checkScalar("32-bytes scalar", 32);
-    final MutableBytes32 res = MutableBytes32.create();
-    payloadSlice().copyTo(res, res.size() - currentPayloadSize);
+    final UInt256 res = getUInt256(currentPayloadOffset, currentPayloadSize);
     setTo(nextItem());
     return res;
   }
 
-  @Override
-  public UInt256 readUInt256Scalar() {
-    return UInt256.fromBytes(readBytes32Scalar());
-  }
-
   @Override
   public byte readByte() {
     checkElt("byte", 1);
@@ -459,7 +478,7 @@ abstract class AbstractRLPInput implements RLPInput {
       throw error("Cannot read current element as RLP, input is fully consumed");
     }
     final long next = nextItem();
-    final RLPInput res = RLP.input(inputSlice(currentItem, Math.toIntExact(next - currentItem)));
+    final RLPInput res = inputAsRlp(currentItem, Math.toIntExact(next - currentItem));
     setTo(next);
     return res;
   }
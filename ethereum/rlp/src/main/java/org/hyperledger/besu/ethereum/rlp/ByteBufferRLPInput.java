@@ -0,0 +1,123 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.rlp;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.bytes.Bytes48;
+import org.apache.tuweni.units.bigints.UInt256;
+
+/**
+ * An {@link RLPInput} that reads RLP encoded data directly from a {@link ByteBuffer}, which can be
+ * a heap, a direct or a memory-mapped buffer.
+ *
+ * <p>The values returned by {@link #readBytes()}, {@link #readBytes32()}, {@link #readBytes48()}
+ * and {@link #raw()} are views over the buffer and are not copied, so the content of the buffer
+ * must not be modified while they are in use. Scalars are decoded straight from the buffer without
+ * intermediate {@link Bytes}. The position and limit of the given buffer are not modified, the
+ * input reads the bytes between them.
+ */
+public class ByteBufferRLPInput extends AbstractRLPInput {
+
+  // The RLP encoded data, from index 0 to its capacity.
+  private final ByteBuffer buffer;
+
+  public ByteBufferRLPInput(final ByteBuffer buffer, final boolean lenient) {
+    this(buffer, lenient, true);
+  }
+
+  public ByteBufferRLPInput(
+      final ByteBuffer buffer, final boolean lenient, final boolean shouldFitExactly) {
+    super(lenient);
+    this.buffer = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+    init(this.buffer.capacity(), shouldFitExactly);
+  }
+
+  @Override
+  protected byte inputByte(final long offset) {
+    return buffer.get(Math.toIntExact(offset));
+  }
+
+  @Override
+  protected Bytes inputSlice(final long offset, final int length) {
+    return Bytes.wrapByteBuffer(buffer, Math.toIntExact(offset), length);
+  }
+
+  @Override
+  protected Bytes32 inputSlice32(final long offset) {
+    return Bytes32.wrap(inputSlice(offset, 32));
+  }
+
+  @Override
+  protected Bytes48 inputSlice48(final long offset) {
+    return Bytes48.wrap(inputSlice(offset, 48));
+  }
+
+  @Override
+  protected String inputHex(final long offset, final int length) {
+    return inputSlice(offset, length).toUnprefixedHexString();
+  }
+
+  @Override
+  protected BigInteger getUnsignedBigInteger(final long offset, final int length) {
+    final byte[] magnitude = new byte[length];
+    buffer.get(Math.toIntExact(offset), magnitude);
+    return new BigInteger(1, magnitude);
+  }
+
+  @Override
+  protected int getInt(final long offset) {
+    return buffer.getInt(Math.toIntExact(offset));
+  }
+
+  @Override
+  protected long getLong(final long offset) {
+    return buffer.getLong(Math.toIntExact(offset));
+  }
+
+  @Override
+  protected long getUnsignedLong(final long offset, final int length) {
+    final int index = Math.toIntExact(offset);
+    if (length == Long.BYTES) {
+      return buffer.getLong(index);
+    }
+    long res = 0;
+    for (int i = 0; i < length; i++) {
+      res = (res << 8) | (buffer.get(index + i) & 0xFF);
+    }
+    return res;
+  }
+
+  @Override
+  protected UInt256 getUInt256(final long offset, final int length) {
+    final byte[] value = new byte[Bytes32.SIZE];
+    buffer.get(Math.toIntExact(offset), value, Bytes32.SIZE - length, length);
+    return UInt256.fromBytes(Bytes32.wrap(value));
+  }
+
+  @Override
+  protected RLPInput inputAsRlp(final long offset, final int length) {
+    return new ByteBufferRLPInput(buffer.slice(Math.toIntExact(offset), length), false);
+  }
+
+  @Override
+  public Bytes raw() {
+    return Bytes.wrapByteBuffer(buffer);
+  }
+}
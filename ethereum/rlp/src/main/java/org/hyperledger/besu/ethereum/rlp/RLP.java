@@ -16,6 +16,7 @@ package org.hyperledger.besu.ethereum.rlp;
 
 import static java.lang.String.format;
 
+import java.nio.ByteBuffer;
 import java.util.function.Consumer;
 
 import org.apache.tuweni.bytes.Bytes;
@@ -63,6 +64,24 @@ public abstract class RLP {
     return new BytesValueRLPInput(encoded, lenient);
   }
 
+  /**
+   * Creates a new {@link RLPInput} reading the bytes between the position and the limit of the
+   * provided buffer, without copying them.
+   *
+   * <p>The values read from the input are views over the buffer, so its content must not be
+   * modified while they are in use.
+   *
+   * @param encoded The RLP encoded data, which can be a direct or memory-mapped buffer.
+   * @return A new {@link RLPInput} to decode {@code encoded}.
+   */
+  public static RLPInput input(final ByteBuffer encoded) {
+    return input(encoded, false);
+  }
+
+  public static RLPInput input(final ByteBuffer encoded, final boolean lenient) {
+    return new ByteBufferRLPInput(encoded, lenient);
+  }
+
   /**
    * Creates a {@link RLPOutput}, pass it to the provided consumer for writing, and then return the
    * RLP encoded result of that writing.
@@ -82,13 +101,17 @@ public abstract class RLP {
    * Bytes encoded = RLPs.encode(f::writeTo);
    * }</pre>
    *
+   * <p>The output provided to {@code writer} reuses a buffer of the current thread, so it must not
+   * be used once {@code writer} returns.
+   *
    * @param writer A method that given an {@link RLPOutput}, writes some data to it.
    * @return The RLP encoding of the data written by {@code writer}.
    */
   public static Bytes encode(final Consumer<RLPOutput> writer) {
-    final BytesValueRLPOutput out = new BytesValueRLPOutput();
-    writer.accept(out);
-    return out.encoded();
+    try (final StreamingRLPOutput out = StreamingRLPOutput.acquire()) {
+      writer.accept(out);
+      return out.encoded();
+    }
   }
 
   /**
@@ -210,4 +233,24 @@ public abstract class RLP {
     return RLPDecodingHelpers.rlpElementMetadata((index) -> value.get((int) index), value.size(), 0)
         .getEncodedSize();
   }
+
+  /**
+   * Computes the size of the RLP encoding of a single binary value, without encoding it.
+   *
+   * @param value the value to encode
+   * @return the size of the RLP encoding of {@code value}
+   */
+  public static int encodedSize(final Bytes value) {
+    return RLPEncodingHelpers.elementSize(value);
+  }
+
+  /**
+   * Computes the size of the RLP encoding of a list, without encoding it.
+   *
+   * @param payloadSize the sum of the encoded sizes of the items of the list
+   * @return the size of the RLP encoding of the list
+   */
+  public static int encodedListSize(final int payloadSize) {
+    return RLPEncodingHelpers.listSize(payloadSize);
+  }
 }
@@ -0,0 +1,241 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.rlp;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Arrays;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.MutableBytes;
+
+/**
+ * An {@link RLPOutput} that encodes values as they are written into a single growable buffer.
+ *
+ * <p>Unlike {@link BytesValueRLPOutput}, no intermediate tree of values is built. When a list is
+ * started, one byte is reserved for its prefix. When the list ends, the prefix is written in place
+ * and, if the payload is longer than 55 bytes, the payload is moved to make room for the length of
+ * the payload. Short lists, which are the vast majority of lists, are never moved.
+ *
+ * <p>Instances obtained with {@link #acquire()} reuse a buffer owned by the current thread and must
+ * be closed once the encoded data has been read, typically with a try-with-resources block. An
+ * output acquired while the thread buffer is already in use, for instance by a nested call to
+ * {@link RLP#encode}, gets its own buffer.
+ */
+public class StreamingRLPOutput implements RLPOutput, AutoCloseable {
+
+  private static final int INITIAL_CAPACITY = 256;
+  // Buffers that grew larger than this are not kept by the thread once released
+  static final int MAX_RETAINED_CAPACITY = 1024 * 1024;
+
+  private static final ThreadLocal<StreamingRLPOutput> THREAD_OUTPUT =
+      ThreadLocal.withInitial(() -> new StreamingRLPOutput(true));
+
+  private final boolean pooled;
+  private boolean inUse;
+
+  private byte[] buffer = new byte[INITIAL_CAPACITY];
+  private int size = 0;
+
+  // Offsets of the reserved prefix byte of every currently open list
+  private int[] listStarts = new int[8];
+  private int depth = 0;
+
+  public StreamingRLPOutput() {
+    this(false);
+  }
+
+  private StreamingRLPOutput(final boolean pooled) {
+    this.pooled = pooled;
+  }
+
+  /**
+   * Returns an empty output backed by the buffer of the current thread, or by a new buffer if the
+   * buffer of the current thread is already in use.
+   *
+   * @return an empty output, that must be closed after use
+   */
+  public static StreamingRLPOutput acquire() {
+    final StreamingRLPOutput output = THREAD_OUTPUT.get();
+    if (output.inUse) {
+      return new StreamingRLPOutput();
+    }
+    output.inUse = true;
+    return output;
+  }
+
+  @Override
+  public void startList() {
+    if (depth == listStarts.length) {
+      listStarts = Arrays.copyOf(listStarts, depth * 2);
+    }
+    ensureCapacity(1);
+    listStarts[depth++] = size++;
+  }
+
+  @Override
+  public void endList() {
+    checkState(depth > 0, "LeaveList() called with no prior matching startList()");
+    final int start = listStarts[--depth];
+    final int payloadSize = size - start - 1;
+    if (payloadSize <= 55) {
+      buffer[start] = (byte) (0xc0 + payloadSize);
+      return;
+    }
+    final int lengthSize = lengthSize(payloadSize);
+    ensureCapacity(lengthSize);
+    System.arraycopy(buffer, start + 1, buffer, start + 1 + lengthSize, payloadSize);
+    buffer[start] = (byte) (0xf7 + lengthSize);
+    writeLength(payloadSize, lengthSize, start + 1);
+    size += lengthSize;
+  }
+
+  @Override
+  public void writeBytes(final Bytes v) {
+    checkNotTerminated();
+    final int length = v.size();
+    if (length == 1 && (v.get(0) & 0xFF) < 0x80) {
+      ensureCapacity(1);
+      buffer[size++] = v.get(0);
+      return;
+    }
+    writeElementHeader(length);
+    copy(v);
+  }
+
+  @Override
+  public void writeRaw(final Bytes v) {
+    checkNotTerminated();
+    copy(v);
+  }
+
+  @Override
+  public void writeByte(final byte b) {
+    checkNotTerminated();
+    ensureCapacity(2);
+    if ((b & 0xFF) >= 0x80) {
+      buffer[size++] = (byte) 0x81;
+    }
+    buffer[size++] = b;
+  }
+
+  @Override
+  public void writeLongScalar(final long v) {
+    checkNotTerminated();
+    if (v == 0) {
+      ensureCapacity(1);
+      buffer[size++] = (byte) 0x80;
+      return;
+    }
+    if (v > 0 && v < 0x80) {
+      ensureCapacity(1);
+      buffer[size++] = (byte) v;
+      return;
+    }
+    final int length = Long.BYTES - Long.numberOfLeadingZeros(v) / Byte.SIZE;
+    ensureCapacity(1 + length);
+    buffer[size++] = (byte) (0x80 + length);
+    for (int i = length - 1; i >= 0; i--) {
+      buffer[size++] = (byte) (v >>> (i * Byte.SIZE));
+    }
+  }
+
+  /**
+   * Returns the size of the data written to this output.
+   *
+   * @return the size of the RLP encoded data
+   * @throws IllegalStateException if some opened list haven't been closed
+   */
+  public int encodedSize() {
+    checkState(depth == 0, "A list has been entered (startList()) but not left (endList())");
+    return size;
+  }
+
+  /**
+   * Returns a copy of the data written to this output.
+   *
+   * @return the RLP encoded data
+   * @throws IllegalStateException if some opened list haven't been closed
+   */
+  public Bytes encoded() {
+    final int encodedSize = encodedSize();
+    if (encodedSize == 0) {
+      return Bytes.EMPTY;
+    }
+    return Bytes.wrap(Arrays.copyOf(buffer, encodedSize));
+  }
+
+  /** Discards everything written to this output, keeping its buffer. */
+  public void reset() {
+    size = 0;
+    depth = 0;
+  }
+
+  /**
+   * Resets this output and, for an output obtained with {@link #acquire()}, makes its buffer
+   * available to the next {@link #acquire()} call of the thread.
+   */
+  @Override
+  public void close() {
+    reset();
+    if (buffer.length > MAX_RETAINED_CAPACITY) {
+      buffer = new byte[INITIAL_CAPACITY];
+    }
+    if (pooled) {
+      inUse = false;
+    }
+  }
+
+  private void checkNotTerminated() {
+    checkState(depth > 0 || size == 0, "Terminated RLP output, cannot add more elements");
+  }
+
+  private void writeElementHeader(final int length) {
+    if (length <= 55) {
+      ensureCapacity(1 + length);
+      buffer[size++] = (byte) (0x80 + length);
+      return;
+    }
+    final int lengthSize = lengthSize(length);
+    ensureCapacity(1 + lengthSize + length);
+    buffer[size++] = (byte) (0xb7 + lengthSize);
+    writeLength(length, lengthSize, size);
+    size += lengthSize;
+  }
+
+  private void copy(final Bytes v) {
+    final int length = v.size();
+    ensureCapacity(length);
+    v.copyTo(MutableBytes.wrap(buffer, size, length));
+    size += length;
+  }
+
+  private void writeLength(final int length, final int lengthSize, final int offset) {
+    for (int i = 0; i < lengthSize; i++) {
+      buffer[offset + i] = (byte) (length >>> ((lengthSize - 1 - i) * Byte.SIZE));
+    }
+  }
+
+  private static int lengthSize(final int length) {
+    return Integer.BYTES - Integer.numberOfLeadingZeros(length) / Byte.SIZE;
+  }
+
+  private void ensureCapacity(final int extra) {
+    final int required = size + extra;
+    if (required > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length * 2));
+    }
+  }
+}
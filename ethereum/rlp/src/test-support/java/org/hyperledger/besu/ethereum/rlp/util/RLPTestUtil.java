@@ -44,7 +44,13 @@ public class RLPTestUtil {
     return decode(RLP.input(value));
   }
 
-  private static Object decode(final RLPInput in) {
+  /**
+   * Recursively decodes an RLP encoded value read from the provided input.
+   *
+   * @param in The input to read the value from.
+   * @return The decoded value, as in {@link #decode(Bytes)}.
+   */
+  public static Object decode(final RLPInput in) {
     if (!in.nextIsList()) {
       return in.readBytes();
     }
@@ -72,7 +78,15 @@ public class RLPTestUtil {
     return out.encoded();
   }
 
-  private static void encode(final Object obj, final RLPOutput out) {
+  /**
+   * Recursively writes an object consisting of recursive lists of {@link Bytes} to the provided
+   * output, as in {@link #encode(Object)}.
+   *
+   * @param obj An object that must be either directly a {@link Bytes}, or a list whose elements are
+   *     either {@link Bytes}, or similarly composed sub-lists.
+   * @param out The output to write {@code obj} to.
+   */
+  public static void encode(final Object obj, final RLPOutput out) {
     if (obj instanceof Bytes) {
       out.writeBytes((Bytes) obj);
     } else if (obj instanceof List) {
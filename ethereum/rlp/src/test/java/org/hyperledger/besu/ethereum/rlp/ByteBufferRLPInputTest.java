@@ -0,0 +1,135 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.rlp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.jupiter.api.Test;
+
+public class ByteBufferRLPInputTest {
+
+  private static final Bytes32 HASH =
+      Bytes32.fromHexString("0x0102030405060708091011121314151617181920212223242526272829303132");
+
+  private static ByteBuffer direct(final Bytes bytes) {
+    final ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.size());
+    buffer.put(bytes.toArrayUnsafe()).flip();
+    return buffer;
+  }
+
+  private static Bytes encodeSample() {
+    final BytesValueRLPOutput out = new BytesValueRLPOutput();
+    out.startList();
+    out.writeLongScalar(0L);
+    out.writeLongScalar(0x1234L);
+    out.writeLongScalar(Long.MAX_VALUE);
+    out.writeIntScalar(0xABCDEF);
+    out.writeUInt256Scalar(UInt256.valueOf(7));
+    out.writeUInt256Scalar(UInt256.MAX_VALUE);
+    out.writeBigIntegerScalar(BigInteger.TWO.pow(100));
+    out.writeBytes(HASH);
+    out.startList();
+    out.writeBytes(Bytes.fromHexString("0xdeadbeef"));
+    out.endList();
+    out.endList();
+    return out.encoded();
+  }
+
+  @Test
+  public void decodesLikeBytesValueRLPInput() {
+    final Bytes encoded = encodeSample();
+    final RLPInput expected = RLP.input(encoded);
+    final RLPInput in = RLP.input(direct(encoded));
+
+    assertThat(in.enterList()).isEqualTo(expected.enterList());
+    assertThat(in.readLongScalar()).isEqualTo(expected.readLongScalar()).isZero();
+    assertThat(in.readLongScalar()).isEqualTo(expected.readLongScalar()).isEqualTo(0x1234L);
+    assertThat(in.readLongScalar()).isEqualTo(expected.readLongScalar()).isEqualTo(Long.MAX_VALUE);
+    assertThat(in.readIntScalar()).isEqualTo(expected.readIntScalar()).isEqualTo(0xABCDEF);
+    assertThat(in.readUInt256Scalar()).isEqualTo(expected.readUInt256Scalar());
+    assertThat(in.readUInt256Scalar())
+        .isEqualTo(expected.readUInt256Scalar())
+        .isEqualTo(UInt256.MAX_VALUE);
+    assertThat(in.readBigIntegerScalar()).isEqualTo(expected.readBigIntegerScalar());
+    assertThat(in.readBytes32()).isEqualTo(expected.readBytes32()).isEqualTo(HASH);
+    assertThat(in.readAsRlp().raw()).isEqualTo(expected.readAsRlp().raw());
+    in.leaveList();
+    expected.leaveList();
+    assertThat(in.isDone()).isTrue();
+  }
+
+  @Test
+  public void readValuesAreViewsOverTheBuffer() {
+    final ByteBuffer buffer = direct(RLP.encodeOne(HASH));
+    final RLPInput in = RLP.input(buffer);
+
+    final Bytes32 hash = in.readBytes32();
+    buffer.put(1, (byte) 0xFF);
+
+    assertThat(hash.get(0)).isEqualTo((byte) 0xFF);
+  }
+
+  @Test
+  public void readsFromBufferPositionToLimit() {
+    final Bytes encoded = RLP.encodeOne(Bytes.fromHexString("0x0102"));
+    final ByteBuffer buffer = ByteBuffer.allocate(encoded.size() + 4);
+    buffer.position(2);
+    buffer.put(encoded.toArrayUnsafe());
+    buffer.flip().position(2);
+
+    final RLPInput in = RLP.input(buffer);
+
+    assertThat(in.readBytes()).isEqualTo(Bytes.fromHexString("0x0102"));
+    assertThat(in.isDone()).isTrue();
+    assertThat(buffer.position()).isEqualTo(2);
+  }
+
+  @Test
+  public void nestedInputIsIndependent() {
+    final RLPInput in = RLP.input(direct(encodeSample()));
+    in.enterList();
+    for (int i = 0; i < 8; i++) {
+      in.skipNext();
+    }
+
+    final RLPInput nested = in.readAsRlp();
+
+    assertThat(nested.readList(RLPInput::readBytes))
+        .containsExactly(Bytes.fromHexString("0xdeadbeef"));
+    in.leaveList();
+    assertThat(in.isDone()).isTrue();
+  }
+
+  @Test
+  public void rejectsScalarWithLeadingZeros() {
+    final RLPInput in = RLP.input(direct(Bytes.fromHexString("0x820001")));
+
+    assertThatThrownBy(in::readLongScalar).isInstanceOf(MalformedRLPInputException.class);
+  }
+
+  @Test
+  public void rejectsTooLongUInt256() {
+    final RLPInput in = RLP.input(direct(RLP.encodeOne(Bytes.repeat((byte) 1, 33))));
+
+    assertThatThrownBy(in::readUInt256Scalar).isInstanceOf(RLPException.class);
+  }
+}
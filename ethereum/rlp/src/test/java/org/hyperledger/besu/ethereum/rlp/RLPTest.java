@@ -169,6 +169,28 @@ public class RLPTest {
         .hasMessageContaining("RLP item exceeds max supported size of 2147483647: 2147483648");
   }
 
+  @Test
+  public void encodedSizeMatchesEncoding() {
+    final Random random = new Random(1);
+    for (int size : new int[] {0, 1, 32, 55, 56, 255, 256, 70_000}) {
+      final byte[] bytes = new byte[size];
+      random.nextBytes(bytes);
+      final Bytes value = Bytes.wrap(bytes);
+      final Bytes encodedList =
+          RLP.encode(
+              out -> {
+                out.startList();
+                out.writeBytes(value);
+                out.endList();
+              });
+
+      assertThat(RLP.encodedSize(value)).isEqualTo(RLP.encodeOne(value).size());
+      assertThat(RLP.encodedListSize(RLP.encodedSize(value))).isEqualTo(encodedList.size());
+    }
+    assertThat(RLP.encodedSize(h("0x7f"))).isEqualTo(1);
+    assertThat(RLP.encodedSize(h("0x80"))).isEqualTo(2);
+  }
+
   @Test
   public void testValidateWithListEndingAtStartOfList() {
     // The structue of the RLP is as shown below
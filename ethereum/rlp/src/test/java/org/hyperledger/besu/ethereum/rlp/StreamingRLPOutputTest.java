@@ -0,0 +1,150 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.ethereum.rlp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.hyperledger.besu.ethereum.rlp.util.RLPTestUtil;
+
+import java.util.function.Consumer;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.units.bigints.UInt256;
+import org.junit.jupiter.api.Test;
+
+public class StreamingRLPOutputTest {
+
+  private static void assertSameEncoding(final Consumer<RLPOutput> writer) {
+    final BytesValueRLPOutput expected = new BytesValueRLPOutput();
+    writer.accept(expected);
+    final StreamingRLPOutput out = new StreamingRLPOutput();
+    writer.accept(out);
+
+    assertThat(out.encoded()).isEqualTo(expected.encoded());
+    assertThat(out.encodedSize()).isEqualTo(expected.encodedSize());
+  }
+
+  @Test
+  public void scalars() {
+    for (final long value :
+        new long[] {0, 1, 0x7f, 0x80, 0xff, 0x100, 0x1234567, Long.MAX_VALUE, -1, Long.MIN_VALUE}) {
+      assertSameEncoding(out -> out.writeLongScalar(value));
+    }
+    assertSameEncoding(out -> out.writeIntScalar(0xABCDEF));
+    assertSameEncoding(out -> out.writeUInt256Scalar(UInt256.MAX_VALUE));
+    assertSameEncoding(out -> out.writeByte((byte) 0x7f));
+    assertSameEncoding(out -> out.writeByte((byte) 0x80));
+  }
+
+  @Test
+  public void elements() {
+    assertSameEncoding(out -> out.writeBytes(Bytes.EMPTY));
+    assertSameEncoding(out -> out.writeBytes(Bytes.of(0x7f)));
+    assertSameEncoding(out -> out.writeBytes(Bytes.of(0x80)));
+    assertSameEncoding(out -> out.writeBytes(Bytes.repeat((byte) 1, 55)));
+    assertSameEncoding(out -> out.writeBytes(Bytes.repeat((byte) 1, 56)));
+    assertSameEncoding(out -> out.writeBytes(Bytes.repeat((byte) 1, 70_000)));
+  }
+
+  @Test
+  public void nestedLongLists() {
+    assertSameEncoding(
+        out -> {
+          out.startList();
+          out.writeBytes(Bytes.repeat((byte) 2, 40));
+          out.startList();
+          out.writeBytes(Bytes.repeat((byte) 3, 300));
+          out.writeEmptyList();
+          out.endList();
+          out.writeLongScalar(42);
+          out.startList();
+          for (int i = 0; i < 1000; i++) {
+            out.writeLongScalar(i);
+          }
+          out.endList();
+          out.endList();
+        });
+  }
+
+  @Test
+  public void typedTransactionLayout() {
+    assertSameEncoding(
+        out -> {
+          out.writeByte((byte) 2);
+          out.startList();
+          out.writeLongScalar(1);
+          out.endList();
+        });
+  }
+
+  @Test
+  public void randomValues() {
+    for (int seed = 0; seed < 20; seed++) {
+      final Bytes encoded = RLPTestUtil.randomRLPValue(seed).encoded();
+      final StreamingRLPOutput out = new StreamingRLPOutput();
+      RLPTestUtil.encode(RLPTestUtil.decode(encoded), out);
+
+      assertThat(out.encoded()).isEqualTo(encoded);
+    }
+  }
+
+  @Test
+  public void acquiredOutputIsReusedOnceClosed() {
+    final StreamingRLPOutput first = StreamingRLPOutput.acquire();
+    final StreamingRLPOutput nested = StreamingRLPOutput.acquire();
+    assertThat(nested).isNotSameAs(first);
+    nested.close();
+
+    first.writeLongScalar(1);
+    first.close();
+
+    try (final StreamingRLPOutput second = StreamingRLPOutput.acquire()) {
+      assertThat(second).isSameAs(first);
+      assertThat(second.encoded()).isEqualTo(Bytes.EMPTY);
+    }
+  }
+
+  @Test
+  public void rlpEncodeSupportsNestedCalls() {
+    final Bytes inner = RLP.encode(out -> out.writeLongScalar(5));
+    final Bytes encoded =
+        RLP.encode(
+            out -> {
+              out.startList();
+              out.writeBytes(RLP.encode(o -> o.writeLongScalar(5)));
+              out.endList();
+            });
+
+    assertThat(RLP.input(encoded).readList(RLPInput::readBytes)).containsExactly(inner);
+  }
+
+  @Test
+  public void rejectsUnbalancedLists() {
+    final StreamingRLPOutput out = new StreamingRLPOutput();
+    assertThatThrownBy(out::endList).isInstanceOf(IllegalStateException.class);
+
+    out.startList();
+    assertThatThrownBy(out::encoded).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void rejectsSecondTopLevelElement() {
+    final StreamingRLPOutput out = new StreamingRLPOutput();
+    out.writeLongScalar(1);
+
+    assertThatThrownBy(() -> out.writeLongScalar(2)).isInstanceOf(IllegalStateException.class);
+  }
+}
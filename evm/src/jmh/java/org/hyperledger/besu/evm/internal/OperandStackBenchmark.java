@@ -0,0 +1,111 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.internal;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the operations computed in place by {@link OperandStack}, one opcode at a time.
+ *
+ * <p>{@link #inPlace()} pushes the operands, executes the opcode and drops the result, which is
+ * what happens when the result is consumed by another opcode computed on the stack. {@link
+ * #leavingStack()} pops the result instead, as {@code SSTORE}, {@code MSTORE} or {@code RETURN}
+ * would, which creates its {@link Bytes}. Run with the GC profiler to get the allocation per
+ * opcode, for instance {@code -prof gc} and the {@code gc.alloc.rate.norm} metric.
+ */
+@State(Scope.Thread)
+@Fork(value = 1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OperandStackBenchmark {
+
+  @Param({
+    "ADD", "SUB", "MUL", "LT", "GT", "SLT", "SGT", "EQ", "ISZERO", "AND", "OR", "XOR", "NOT",
+    "DUP1", "SWAP1"
+  })
+  public String opcode;
+
+  private OperandStack stack;
+  private Bytes value0;
+  private Bytes value1;
+  private Runnable operation;
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    final Random random = new Random(42);
+    value0 = Bytes32.random(random);
+    value1 = Bytes32.random(random);
+    stack = new OperandStack(1024);
+    operation =
+        switch (opcode) {
+          case "ADD" -> stack::add;
+          case "SUB" -> stack::sub;
+          case "MUL" -> stack::mul;
+          case "LT" -> stack::lt;
+          case "GT" -> stack::gt;
+          case "SLT" -> stack::slt;
+          case "SGT" -> stack::sgt;
+          case "EQ" -> stack::eq;
+          case "ISZERO" -> stack::isZero;
+          case "AND" -> stack::and;
+          case "OR" -> stack::or;
+          case "XOR" -> stack::xor;
+          case "NOT" -> stack::not;
+          case "DUP1" -> () -> stack.dup(0);
+          case "SWAP1" -> () -> stack.swap(1);
+          default -> throw new IllegalArgumentException("Unknown opcode " + opcode);
+        };
+  }
+
+  @Benchmark
+  public int inPlace() {
+    stack.push(value1);
+    stack.push(value0);
+    operation.run();
+    final int size = stack.size();
+    stack.bulkPop(size);
+    return size;
+  }
+
+  @Benchmark
+  public Bytes leavingStack() {
+    stack.push(value1);
+    stack.push(value0);
+    operation.run();
+    final Bytes result = stack.pop();
+    if (!stack.isEmpty()) {
+      stack.bulkPop(stack.size());
+    }
+    return result;
+  }
+}
@@ -20,7 +20,9 @@ import static org.hyperledger.besu.evm.operation.SwapOperation.SWAP_BASE;
 
 import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.evm.code.CodeFactory;
+import org.hyperledger.besu.evm.code.CodeV0;
 import org.hyperledger.besu.evm.code.EOFLayout;
+import org.hyperledger.besu.evm.code.PreDecodedCode;
 import org.hyperledger.besu.evm.frame.ExceptionalHaltReason;
 import org.hyperledger.besu.evm.frame.MessageFrame;
 import org.hyperledger.besu.evm.frame.MessageFrame.State;
@@ -67,6 +69,7 @@ import org.hyperledger.besu.evm.operation.VirtualOperation;
 import org.hyperledger.besu.evm.operation.XorOperation;
 import org.hyperledger.besu.evm.tracing.OperationTracer;
 
+import java.util.Arrays;
 import java.util.Optional;
 
 import org.apache.tuweni.bytes.Bytes;
@@ -85,6 +88,8 @@ public class EVM {
   protected static final OperationResult UNDERFLOW_RESPONSE =
       new OperationResult(0L, ExceptionalHaltReason.INSUFFICIENT_STACK_ITEMS);
 
+  private static final OperationResult PRE_DECODED_PUSH_SUCCESS = new OperationResult(0L, null);
+
   private final OperationRegistry operations;
   private final GasCalculator gasCalculator;
   private final Operation endOfScriptStop;
@@ -96,6 +101,9 @@ public class EVM {
   // Optimized operation flags
   private final boolean enableShanghai;
 
+  // Cost of the opcodes executed from pre-decoded basic blocks, null if disabled
+  private final long[] preDecodedCosts;
+
   /**
    * Instantiates a new Evm.
    *
@@ -122,6 +130,36 @@ public class EVM {
             evmConfiguration.maxInitcodeSizeOverride().orElse(evmSpecVersion.maxInitcodeSize));
 
     enableShanghai = EvmSpecVersion.SHANGHAI.ordinal() <= evmSpecVersion.ordinal();
+    preDecodedCosts = evmConfiguration.preDecodedCodeEnabled() ? preDecodedCosts() : null;
+  }
+
+  // Only the opcodes of the optimized switch of runToHalt that have a fixed cost and do not read
+  // the remaining gas can be part of a pre-decoded basic block.
+  private long[] preDecodedCosts() {
+    final long[] costs = new long[256];
+    Arrays.fill(costs, -1L);
+    final long veryLow = gasCalculator.getVeryLowTierGasCost();
+    final long low = gasCalculator.getLowTierGasCost();
+    final long mid = gasCalculator.getMidTierGasCost();
+    for (final int opcode :
+        new int[] {0x01, 0x03, 0x10, 0x11, 0x12, 0x13, 0x15, 0x16, 0x17, 0x18, 0x19, 0x1a}) {
+      costs[opcode] = veryLow;
+    }
+    for (final int opcode : new int[] {0x02, 0x04, 0x05, 0x06, 0x07, 0x0b}) {
+      costs[opcode] = low;
+    }
+    costs[0x08] = mid;
+    costs[0x09] = mid;
+    costs[0x50] = gasCalculator.getBaseTierGasCost();
+    costs[JumpOperation.OPCODE] = mid;
+    costs[JumpiOperation.OPCODE] = gasCalculator.getHighTierGasCost();
+    costs[JumpDestOperation.OPCODE] = gasCalculator.getJumpDestOperationGasCost();
+    if (enableShanghai) {
+      costs[PUSH_BASE] = gasCalculator.getBaseTierGasCost();
+    }
+    // PUSH1-32, DUP1-16 and SWAP1-16
+    Arrays.fill(costs, PUSH_BASE + 1, SWAP_BASE + 17, veryLow);
+    return costs;
   }
 
   /**
@@ -209,7 +247,18 @@ public class EVM {
     var operationTracer = tracing == OperationTracer.NO_TRACING ? null : tracing;
     byte[] code = frame.getCode().getBytes().toArrayUnsafe();
     Operation[] operationArray = operations.getOperations();
+    final PreDecodedCode preDecodedCode =
+        operationTracer == null ? preDecodedCode(frame.getCode()) : null;
     while (frame.getState() == MessageFrame.State.CODE_EXECUTING) {
+      if (preDecodedCode != null) {
+        final int block = preDecodedCode.blockAt(frame.getPC());
+        // when the block cannot be paid upfront, it is executed one instruction at a time so that
+        // it halts on the same instruction and for the same reason
+        if (block >= 0 && frame.getRemainingGas() >= preDecodedCode.blockGas(block)) {
+          runPreDecodedBlock(frame, preDecodedCode, block, operationArray);
+          continue;
+        }
+      }
       Operation currentOperation;
       int opcode;
       int pc = frame.getPC();
@@ -357,6 +406,89 @@ public class EVM {
     }
   }
 
+  private PreDecodedCode preDecodedCode(final Code code) {
+    if (preDecodedCosts != null && code instanceof CodeV0 codeV0) {
+      final PreDecodedCode decoded = codeV0.getPreDecodedCodeIfPresent();
+      if (decoded != null && decoded.isDecodedWith(preDecodedCosts)) {
+        return decoded;
+      }
+    }
+    return null;
+  }
+
+  // Runs a basic block of fixed cost operations whose gas has not been charged yet. Operations of
+  // a block do not read the pc or the remaining gas, so both are only updated when leaving it.
+  private void runPreDecodedBlock(
+      final MessageFrame frame,
+      final PreDecodedCode code,
+      final int block,
+      final Operation[] operationArray) {
+    frame.decrementRemainingGas(code.blockGas(block));
+    final int end = code.blockEnd(block);
+    OperationResult result = PRE_DECODED_PUSH_SUCCESS;
+    for (int i = code.blockStart(block); i < end; i++) {
+      final int opcode = code.opcode(i);
+      try {
+        result =
+            switch (opcode) {
+              case 0x01 -> AddOperation.staticOperation(frame);
+              case 0x02 -> MulOperation.staticOperation(frame);
+              case 0x03 -> SubOperation.staticOperation(frame);
+              case 0x04 -> DivOperation.staticOperation(frame);
+              case 0x05 -> SDivOperation.staticOperation(frame);
+              case 0x06 -> ModOperation.staticOperation(frame);
+              case 0x07 -> SModOperation.staticOperation(frame);
+              case 0x08 -> AddModOperation.staticOperation(frame);
+              case 0x09 -> MulModOperation.staticOperation(frame);
+              case 0x0b -> SignExtendOperation.staticOperation(frame);
+              case 0x10 -> LtOperation.staticOperation(frame);
+              case 0x11 -> GtOperation.staticOperation(frame);
+              case 0x12 -> SLtOperation.staticOperation(frame);
+              case 0x13 -> SGtOperation.staticOperation(frame);
+              case 0x15 -> IsZeroOperation.staticOperation(frame);
+              case 0x16 -> AndOperation.staticOperation(frame);
+              case 0x17 -> OrOperation.staticOperation(frame);
+              case 0x18 -> XorOperation.staticOperation(frame);
+              case 0x19 -> NotOperation.staticOperation(frame);
+              case 0x1a -> ByteOperation.staticOperation(frame);
+              case 0x50 -> PopOperation.staticOperation(frame);
+              case 0x56 -> JumpOperation.staticOperation(frame);
+              case 0x57 -> JumpiOperation.staticOperation(frame);
+              case 0x5b -> JumpDestOperation.JUMPDEST_SUCCESS;
+              case 0x5f -> Push0Operation.staticOperation(frame);
+              default -> {
+                if (opcode <= PushOperation.PUSH_MAX) {
+                  frame.pushStackItem(code.immediate(i));
+                  yield PRE_DECODED_PUSH_SUCCESS;
+                } else if (opcode <= SWAP_BASE) {
+                  yield DupOperation.staticOperation(frame, opcode - DupOperation.DUP_BASE);
+                } else {
+                  yield SwapOperation.staticOperation(frame, opcode - SWAP_BASE);
+                }
+              }
+            };
+      } catch (final OverflowException oe) {
+        result = OVERFLOW_RESPONSE;
+      } catch (final UnderflowException ue) {
+        result = UNDERFLOW_RESPONSE;
+      }
+      final ExceptionalHaltReason haltReason = result.getHaltReason();
+      if (haltReason != null) {
+        LOG.trace("MessageFrame evaluation halted because of {}", haltReason);
+        frame.setPC(code.pc(i));
+        frame.setCurrentOperation(operationArray[opcode]);
+        frame.setExceptionalHaltReason(Optional.of(haltReason));
+        frame.setState(State.EXCEPTIONAL_HALT);
+        return;
+      }
+    }
+    frame.setCurrentOperation(operationArray[code.opcode(end - 1)]);
+    // a taken jump has already moved the pc
+    if (result.getPcIncrement() != 0) {
+      frame.setPC(code.blockNextPc(block));
+    }
+  }
+
   /**
    * Get Operations (unsafe)
    *
@@ -378,11 +510,30 @@ public class EVM {
     Code result = codeCache.getIfPresent(codeHash);
     if (result == null) {
       result = getCodeUncached(codeBytes);
-      codeCache.put(codeHash, result);
+      codeCache.put(codeHash, preDecode(result));
     }
+    codeCache.recordUse(codeHash, result);
     return result;
   }
 
+  /**
+   * Loads the most used contracts persisted by a previous run into the code cache, if the
+   * configuration provides a code analysis store.
+   *
+   * @return the number of contracts loaded
+   */
+  public int warmUpCodeCache() {
+    return codeCache.warmUp(codeBytes -> preDecode(getCodeUncached(codeBytes)));
+  }
+
+  // decode before caching, so that the decoded form is part of the cache weight
+  private Code preDecode(final Code code) {
+    if (preDecodedCosts != null && code instanceof CodeV0 codeV0) {
+      codeV0.getPreDecodedCode(preDecodedCosts);
+    }
+    return code;
+  }
+
   /**
    * Gets code skipping the code cache.
    *
@@ -24,6 +24,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
 import com.google.common.base.MoreObjects;
@@ -45,6 +46,12 @@ public class CodeV0 implements Code {
   /** Used to cache valid jump destinations. */
   private long[] validJumpDestinations;
 
+  /** Used to cache the decoded form of the code. */
+  private volatile PreDecodedCode preDecodedCode;
+
+  /** How many times the code was used, counted from every thread executing it. */
+  private final AtomicLong uses = new AtomicLong();
+
   /** Code section info for the legacy code */
   private final CodeSection codeSectionZero;
 
@@ -128,6 +135,77 @@ public class CodeV0 implements Code {
     return (targetLong & targetBit) == 0L;
   }
 
+  /**
+   * Returns the bitmap of the valid jump destinations, one bit per byte of code, calculating it if
+   * needed. The returned array must not be modified.
+   *
+   * @return the valid jump destinations
+   */
+  public long[] getValidJumpDestinations() {
+    if (validJumpDestinations == null || validJumpDestinations.length == 0) {
+      validJumpDestinations = calculateJumpDests();
+    }
+    return validJumpDestinations;
+  }
+
+  /**
+   * Sets the bitmap of the valid jump destinations from a previous analysis of the same code, so
+   * that it does not need to be calculated.
+   *
+   * @param jumpDestinations the valid jump destinations
+   * @return false if the bitmap does not have the size expected for this code, and was ignored
+   */
+  public boolean restoreValidJumpDestinations(final long[] jumpDestinations) {
+    if (jumpDestinations.length != (getSize() >> 6) + 1) {
+      return false;
+    }
+    validJumpDestinations = jumpDestinations;
+    return true;
+  }
+
+  /**
+   * Records a use of this code.
+   *
+   * @return the number of uses of this code
+   */
+  public long recordUse() {
+    return uses.incrementAndGet();
+  }
+
+  /**
+   * Sets the number of uses of this code, when restored from a previous analysis.
+   *
+   * @param uses the number of uses
+   */
+  public void restoreUses(final long uses) {
+    this.uses.set(uses);
+  }
+
+  /**
+   * Returns the decoded form of this code for the given cost table, decoding the code if it has
+   * not been decoded with that table yet.
+   *
+   * @param fixedCosts the cost of every opcode that can be part of a basic block
+   * @return the decoded code
+   */
+  public PreDecodedCode getPreDecodedCode(final long[] fixedCosts) {
+    PreDecodedCode decoded = preDecodedCode;
+    if (decoded == null || !decoded.isDecodedWith(fixedCosts)) {
+      decoded = PreDecodedCode.decode(bytes.toArrayUnsafe(), fixedCosts);
+      preDecodedCode = decoded;
+    }
+    return decoded;
+  }
+
+  /**
+   * Returns the decoded form of this code if it has been decoded.
+   *
+   * @return the decoded code, or null
+   */
+  public PreDecodedCode getPreDecodedCodeIfPresent() {
+    return preDecodedCode;
+  }
+
   @Override
   public boolean isValid() {
     return true;
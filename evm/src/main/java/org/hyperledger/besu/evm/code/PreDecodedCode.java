@@ -0,0 +1,279 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.code;
+
+import static org.hyperledger.besu.evm.operation.PushOperation.PUSH_BASE;
+import static org.hyperledger.besu.evm.operation.PushOperation.PUSH_MAX;
+
+import org.hyperledger.besu.evm.operation.JumpDestOperation;
+import org.hyperledger.besu.evm.operation.JumpOperation;
+import org.hyperledger.besu.evm.operation.JumpiOperation;
+
+import java.util.Arrays;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * Legacy code decoded once into basic blocks of fixed cost instructions.
+ *
+ * <p>A basic block is a run of instructions that have a fixed gas cost, do not observe the
+ * remaining gas and can only leave the block by its end. A block starts at a {@code JUMPDEST} or
+ * after any other instruction, and ends before a {@code JUMPDEST}, before an instruction that is
+ * not decoded, or after a {@code JUMP} or {@code JUMPI}. The gas of all the instructions of a block
+ * is computed here and charged once when the block is entered, and the immediate values of the
+ * {@code PUSH} instructions are extracted ahead of time.
+ *
+ * <p>Which opcodes are decoded, and their cost, is given by a table indexed by opcode, with a
+ * negative cost for the opcodes that must be executed one by one. The decoded code is only valid
+ * for the table it was built with.
+ */
+public final class PreDecodedCode {
+
+  private static final int NO_BLOCK = -1;
+
+  private final long[] fixedCosts;
+
+  private final int[] opcodes;
+  private final int[] pcs;
+  private final Bytes[] immediates;
+
+  // the block starting at each pc, or NO_BLOCK
+  private final int[] blockAtPc;
+  private final int[] blockStarts;
+  private final int[] blockEnds;
+  private final long[] blockGas;
+  private final int[] blockNextPcs;
+
+  private PreDecodedCode(
+      final long[] fixedCosts,
+      final int[] opcodes,
+      final int[] pcs,
+      final Bytes[] immediates,
+      final int[] blockAtPc,
+      final int[] blockStarts,
+      final int[] blockEnds,
+      final long[] blockGas,
+      final int[] blockNextPcs) {
+    this.fixedCosts = fixedCosts;
+    this.opcodes = opcodes;
+    this.pcs = pcs;
+    this.immediates = immediates;
+    this.blockAtPc = blockAtPc;
+    this.blockStarts = blockStarts;
+    this.blockEnds = blockEnds;
+    this.blockGas = blockGas;
+    this.blockNextPcs = blockNextPcs;
+  }
+
+  /**
+   * Decodes legacy code.
+   *
+   * @param code the code to decode
+   * @param fixedCosts the cost of every opcode that can be part of a block, negative otherwise
+   * @return the decoded code
+   */
+  public static PreDecodedCode decode(final byte[] code, final long[] fixedCosts) {
+    final int length = code.length;
+    final int[] opcodes = new int[length];
+    final int[] pcs = new int[length];
+    final Bytes[] immediates = new Bytes[length];
+    final int[] blockAtPc = new int[length];
+    Arrays.fill(blockAtPc, NO_BLOCK);
+    final int[] blockStarts = new int[length];
+    final int[] blockEnds = new int[length];
+    final long[] blockGas = new long[length];
+    final int[] blockNextPcs = new int[length];
+
+    int instructionCount = 0;
+    int blockCount = 0;
+    boolean inBlock = false;
+    int pc = 0;
+    while (pc < length) {
+      final int opcode = code[pc] & 0xff;
+      final int width = opcode > PUSH_BASE && opcode <= PUSH_MAX ? 1 + opcode - PUSH_BASE : 1;
+      final long cost = fixedCosts[opcode];
+      if (cost < 0) {
+        inBlock = false;
+        pc += width;
+        continue;
+      }
+      if (!inBlock || opcode == JumpDestOperation.OPCODE) {
+        blockAtPc[pc] = blockCount;
+        blockStarts[blockCount] = instructionCount;
+        blockCount++;
+        inBlock = true;
+      }
+      final int block = blockCount - 1;
+      opcodes[instructionCount] = opcode;
+      pcs[instructionCount] = pc;
+      if (width > 1) {
+        immediates[instructionCount] = pushValue(code, pc, width - 1);
+      }
+      instructionCount++;
+      blockEnds[block] = instructionCount;
+      blockGas[block] += cost;
+      blockNextPcs[block] = pc + width;
+      if (opcode == JumpOperation.OPCODE || opcode == JumpiOperation.OPCODE) {
+        inBlock = false;
+      }
+      pc += width;
+    }
+
+    return new PreDecodedCode(
+        fixedCosts,
+        Arrays.copyOf(opcodes, instructionCount),
+        Arrays.copyOf(pcs, instructionCount),
+        Arrays.copyOf(immediates, instructionCount),
+        blockAtPc,
+        Arrays.copyOf(blockStarts, blockCount),
+        Arrays.copyOf(blockEnds, blockCount),
+        Arrays.copyOf(blockGas, blockCount),
+        Arrays.copyOf(blockNextPcs, blockCount));
+  }
+
+  // Same value as pushed by PushOperation, right padded when the code ends before the immediate
+  private static Bytes pushValue(final byte[] code, final int pc, final int pushSize) {
+    final int copyStart = pc + 1;
+    if (code.length <= copyStart) {
+      return Bytes.EMPTY;
+    }
+    final int copyLength = Math.min(pushSize, code.length - copyStart);
+    if (copyLength == pushSize) {
+      return Bytes.wrap(code, copyStart, copyLength);
+    }
+    final byte[] padded = new byte[pushSize];
+    System.arraycopy(code, copyStart, padded, 0, copyLength);
+    return Bytes.wrap(padded);
+  }
+
+  /**
+   * Whether this code was decoded with the given cost table.
+   *
+   * @param fixedCosts the cost table
+   * @return true if this code can be executed with the given cost table
+   */
+  public boolean isDecodedWith(final long[] fixedCosts) {
+    return this.fixedCosts == fixedCosts;
+  }
+
+  /**
+   * Returns the block starting at the given pc.
+   *
+   * @param pc the program counter
+   * @return the index of the block, or a negative value if no block starts at {@code pc}
+   */
+  public int blockAt(final int pc) {
+    return pc >= 0 && pc < blockAtPc.length ? blockAtPc[pc] : NO_BLOCK;
+  }
+
+  /**
+   * Returns the index of the first instruction of a block.
+   *
+   * @param block the block
+   * @return the index of its first instruction
+   */
+  public int blockStart(final int block) {
+    return blockStarts[block];
+  }
+
+  /**
+   * Returns the index following the last instruction of a block.
+   *
+   * @param block the block
+   * @return the index following its last instruction
+   */
+  public int blockEnd(final int block) {
+    return blockEnds[block];
+  }
+
+  /**
+   * Returns the gas of all the instructions of a block.
+   *
+   * @param block the block
+   * @return the gas cost of the block
+   */
+  public long blockGas(final int block) {
+    return blockGas[block];
+  }
+
+  /**
+   * Returns the pc following a block, when its last instruction does not jump.
+   *
+   * @param block the block
+   * @return the pc following the block
+   */
+  public int blockNextPc(final int block) {
+    return blockNextPcs[block];
+  }
+
+  /**
+   * Returns the opcode of an instruction.
+   *
+   * @param instruction the index of the instruction
+   * @return the opcode
+   */
+  public int opcode(final int instruction) {
+    return opcodes[instruction];
+  }
+
+  /**
+   * Returns the pc of an instruction.
+   *
+   * @param instruction the index of the instruction
+   * @return the pc
+   */
+  public int pc(final int instruction) {
+    return pcs[instruction];
+  }
+
+  /**
+   * Returns the value pushed by a {@code PUSH} instruction.
+   *
+   * @param instruction the index of the instruction
+   * @return the value to push
+   */
+  public Bytes immediate(final int instruction) {
+    return immediates[instruction];
+  }
+
+  /**
+   * Returns the number of decoded instructions.
+   *
+   * @return the number of instructions
+   */
+  public int instructionCount() {
+    return opcodes.length;
+  }
+
+  /**
+   * Returns the number of blocks.
+   *
+   * @return the number of blocks
+   */
+  public int blockCount() {
+    return blockStarts.length;
+  }
+
+  /**
+   * Estimates the memory used by the decoded form, for the code cache weight.
+   *
+   * @return the estimated size in bytes
+   */
+  public int estimatedSize() {
+    return blockAtPc.length * Integer.BYTES
+        + opcodes.length * (2 * Integer.BYTES + 8)
+        + blockStarts.length * (3 * Integer.BYTES + Long.BYTES);
+  }
+}
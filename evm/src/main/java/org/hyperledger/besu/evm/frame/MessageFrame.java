@@ -496,6 +496,15 @@ public class MessageFrame {
     return stack.size();
   }
 
+  /**
+   * Returns the operand stack, for the operations that compute on the stack in place.
+   *
+   * @return the operand stack
+   */
+  public OperandStack getOperandStack() {
+    return stack;
+  }
+
   /**
    * Return the current return stack size.
    *
@@ -0,0 +1,93 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.internal;
+
+import org.hyperledger.besu.datatypes.Hash;
+
+import org.apache.tuweni.bytes.Bytes;
+
+/**
+ * The persisted analysis of a legacy code: the code itself, so that it can be loaded without
+ * reading the world state, its valid jump destinations and the number of times it was used.
+ */
+public final class CodeAnalysis {
+
+  private final Hash codeHash;
+  private final Bytes code;
+  private final long[] jumpDestinations;
+  private final long uses;
+
+  /**
+   * Instantiates a new code analysis. The jump destinations bitmap is not copied.
+   *
+   * @param codeHash the hash of the code
+   * @param code the code
+   * @param jumpDestinations the bitmap of the valid jump destinations of the code
+   * @param uses the number of times the code was used
+   */
+  public CodeAnalysis(
+      final Hash codeHash, final Bytes code, final long[] jumpDestinations, final long uses) {
+    this.codeHash = codeHash;
+    this.code = code;
+    this.jumpDestinations = jumpDestinations;
+    this.uses = uses;
+  }
+
+  /**
+   * Gets the hash of the code.
+   *
+   * @return the code hash
+   */
+  public Hash getCodeHash() {
+    return codeHash;
+  }
+
+  /**
+   * Gets the code.
+   *
+   * @return the code
+   */
+  public Bytes getCode() {
+    return code;
+  }
+
+  /**
+   * Gets the bitmap of the valid jump destinations, one bit per byte of code. It must not be
+   * modified.
+   *
+   * @return the valid jump destinations
+   */
+  public long[] getJumpDestinations() {
+    return jumpDestinations;
+  }
+
+  /**
+   * Gets the number of times the code was used when the analysis was persisted.
+   *
+   * @return the number of uses
+   */
+  public long getUses() {
+    return uses;
+  }
+
+  /**
+   * Estimates the memory used by the code once loaded in the code cache.
+   *
+   * @return the estimated size in bytes
+   */
+  public long estimatedSize() {
+    return (long) code.size() + (long) jumpDestinations.length * Long.BYTES + Hash.SIZE;
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.internal;
+
+import java.util.List;
+
+/**
+ * A store where the analysis of the most used contracts is persisted, so that it survives restarts
+ * of the node instead of being computed again on first use.
+ *
+ * <p>Entries are keyed by code hash and by {@link #ANALYSIS_VERSION}: entries written with another
+ * version are never returned. The store is a best effort cache, implementations should not throw
+ * when the underlying storage fails, and must support concurrent calls from the threads executing
+ * transactions.
+ */
+public interface CodeAnalysisStore {
+
+  /** The version of the analysis, to be increased whenever its format or meaning changes. */
+  int ANALYSIS_VERSION = 2;
+
+  /** A store that does not persist anything. */
+  CodeAnalysisStore NONE =
+      new CodeAnalysisStore() {
+        @Override
+        public void put(final CodeAnalysis analysis) {}
+
+        @Override
+        public List<CodeAnalysis> getMostUsed(final long maxWeightBytes) {
+          return List.of();
+        }
+      };
+
+  /**
+   * Persists the analysis of a code, replacing any previous analysis of the same code. This is
+   * called while executing transactions, so implementations should not block on the storage.
+   *
+   * @param analysis the analysis
+   */
+  void put(CodeAnalysis analysis);
+
+  /**
+   * Gets the analysis of the most used codes, in decreasing order of use. This is only called when
+   * the node starts, the analysis of a code is never read while executing transactions.
+   *
+   * @param maxWeightBytes the maximum total estimated size of the returned analysis
+   * @return the analysis of the most used codes
+   */
+  List<CodeAnalysis> getMostUsed(long maxWeightBytes);
+}
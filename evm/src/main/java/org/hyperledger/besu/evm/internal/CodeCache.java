@@ -16,15 +16,33 @@ package org.hyperledger.besu.evm.internal;
 
 import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.evm.Code;
+import org.hyperledger.besu.evm.code.CodeV0;
+
+import java.util.function.Function;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.tuweni.bytes.Bytes;
 
-/** The Code cache. */
+/**
+ * The Code cache.
+ *
+ * <p>When the configuration provides a {@link CodeAnalysisStore}, the analysis of legacy code is
+ * persisted once the code has been used {@link #PERSIST_THRESHOLD} times, then again every time its
+ * number of uses doubles so that the store knows which contracts are the most used. The store is
+ * only read by {@link #warmUp}, when the node starts, so that a cache miss never waits on the
+ * storage: the code is analysed again instead. The count is atomic, so exactly one use requests
+ * each write, and the store is expected to write asynchronously since this happens on the thread
+ * executing the transaction.
+ */
 public class CodeCache {
 
+  /** Number of uses after which the analysis of a code is persisted, must be a power of two. */
+  static final long PERSIST_THRESHOLD = 64;
+
   private final Cache<Hash, Code> cache;
   private final long weightLimit;
+  private final CodeAnalysisStore codeAnalysisStore;
 
   /**
    * Instantiates a new Code cache.
@@ -32,11 +50,13 @@ public class CodeCache {
    * @param config the config
    */
   public CodeCache(final EvmConfiguration config) {
-    this(config.getJumpDestCacheWeightBytes());
+    this(config.getJumpDestCacheWeightBytes(), config.codeAnalysisStore());
   }
 
-  private CodeCache(final long maxWeightBytes) {
+  private CodeCache(final long maxWeightBytes, final CodeAnalysisStore codeAnalysisStore) {
     this.weightLimit = maxWeightBytes;
+    this.codeAnalysisStore =
+        codeAnalysisStore == null ? CodeAnalysisStore.NONE : codeAnalysisStore;
     this.cache =
         Caffeine.newBuilder().maximumWeight(maxWeightBytes).weigher(new CodeScale()).build();
   }
@@ -75,6 +95,46 @@ public class CodeCache {
     cache.put(key, value);
   }
 
+  /**
+   * Records a use of a code, persisting its analysis when its number of uses reaches the threshold
+   * or doubles.
+   *
+   * @param codeHash the hash of the code
+   * @param code the code
+   */
+  public void recordUse(final Hash codeHash, final Code code) {
+    if (codeAnalysisStore == CodeAnalysisStore.NONE || !(code instanceof CodeV0 codeV0)) {
+      return;
+    }
+    final long uses = codeV0.recordUse();
+    if (uses >= PERSIST_THRESHOLD && Long.bitCount(uses) == 1) {
+      codeAnalysisStore.put(
+          new CodeAnalysis(codeHash, code.getBytes(), codeV0.getValidJumpDestinations(), uses));
+    }
+  }
+
+  /**
+   * Loads the analysis of the most used codes from the store into the cache, up to half of the
+   * cache weight so that the cache can still adapt to the current workload.
+   *
+   * @param codeFactory creates the code to cache from its bytes
+   * @return the number of codes loaded
+   */
+  public int warmUp(final Function<Bytes, Code> codeFactory) {
+    int loaded = 0;
+    for (final CodeAnalysis analysis : codeAnalysisStore.getMostUsed(weightLimit / 2)) {
+      final Code code = codeFactory.apply(analysis.getCode());
+      if (code instanceof CodeV0 codeV0
+          && analysis.getCodeHash().equals(code.getCodeHash())
+          && codeV0.restoreValidJumpDestinations(analysis.getJumpDestinations())) {
+        codeV0.restoreUses(analysis.getUses());
+        cache.put(analysis.getCodeHash(), code);
+        loaded++;
+      }
+    }
+    return loaded;
+  }
+
   /**
    * Size of cache.
    *
@@ -16,12 +16,21 @@ package org.hyperledger.besu.evm.internal;
 
 import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.evm.Code;
+import org.hyperledger.besu.evm.code.CodeV0;
+import org.hyperledger.besu.evm.code.PreDecodedCode;
 
 import com.github.benmanes.caffeine.cache.Weigher;
 
 class CodeScale implements Weigher<Hash, Code> {
   @Override
   public int weigh(final Hash key, final Code code) {
-    return ((code.getSize() * 9 + 7) / 8) + key.size();
+    final int weight = ((code.getSize() * 9 + 7) / 8) + key.size();
+    if (code instanceof CodeV0 codeV0) {
+      final PreDecodedCode preDecodedCode = codeV0.getPreDecodedCodeIfPresent();
+      if (preDecodedCode != null) {
+        return weight + preDecodedCode.estimatedSize();
+      }
+    }
+    return weight;
   }
 }
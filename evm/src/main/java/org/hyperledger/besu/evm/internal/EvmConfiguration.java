@@ -28,13 +28,21 @@ import java.util.OptionalInt;
  * @param maxCodeSizeOverride An optional override of the maximum code size set by the EVM fork
  * @param maxInitcodeSizeOverride An optional override of the maximum initcode size set by the EVM
  *     fork
+ * @param preDecodedCodeEnabled whether cached legacy code is executed from its pre-decoded basic
+ *     blocks
+ * @param persistentCodeAnalysisEnabled whether the analysis of the most used contracts is persisted
+ *     across restarts
+ * @param codeAnalysisStore the store the analysis of the most used contracts is persisted to
  */
 public record EvmConfiguration(
     long jumpDestCacheWeightKB,
     WorldUpdaterMode worldUpdaterMode,
     Integer evmStackSize,
     Optional<Integer> maxCodeSizeOverride,
-    Optional<Integer> maxInitcodeSizeOverride) {
+    Optional<Integer> maxInitcodeSizeOverride,
+    boolean preDecodedCodeEnabled,
+    boolean persistentCodeAnalysisEnabled,
+    CodeAnalysisStore codeAnalysisStore) {
 
   /** How should the world state update be handled within transactions? */
   public enum WorldUpdaterMode {
@@ -58,12 +66,48 @@ public record EvmConfiguration(
    */
   public EvmConfiguration(
       final Long jumpDestCacheWeightKilobytes, final WorldUpdaterMode worldstateUpdateMode) {
+    this(jumpDestCacheWeightKilobytes, worldstateUpdateMode, false);
+  }
+
+  /**
+   * Create an EVM Configuration without any overrides
+   *
+   * @param jumpDestCacheWeightKilobytes the jump dest cache weight (in kibibytes)
+   * @param worldstateUpdateMode the workd update mode
+   * @param preDecodedCodeEnabled whether cached legacy code is executed from its pre-decoded basic
+   *     blocks
+   */
+  public EvmConfiguration(
+      final Long jumpDestCacheWeightKilobytes,
+      final WorldUpdaterMode worldstateUpdateMode,
+      final boolean preDecodedCodeEnabled) {
+    this(jumpDestCacheWeightKilobytes, worldstateUpdateMode, preDecodedCodeEnabled, false);
+  }
+
+  /**
+   * Create an EVM Configuration without any overrides
+   *
+   * @param jumpDestCacheWeightKilobytes the jump dest cache weight (in kibibytes)
+   * @param worldstateUpdateMode the workd update mode
+   * @param preDecodedCodeEnabled whether cached legacy code is executed from its pre-decoded basic
+   *     blocks
+   * @param persistentCodeAnalysisEnabled whether the analysis of the most used contracts is
+   *     persisted across restarts, once a store is provided with {@link #withCodeAnalysisStore}
+   */
+  public EvmConfiguration(
+      final Long jumpDestCacheWeightKilobytes,
+      final WorldUpdaterMode worldstateUpdateMode,
+      final boolean preDecodedCodeEnabled,
+      final boolean persistentCodeAnalysisEnabled) {
     this(
         jumpDestCacheWeightKilobytes,
         worldstateUpdateMode,
         MessageFrame.DEFAULT_MAX_STACK_SIZE,
         Optional.empty(),
-        Optional.empty());
+        Optional.empty(),
+        preDecodedCodeEnabled,
+        persistentCodeAnalysisEnabled,
+        CodeAnalysisStore.NONE);
   }
 
   /**
@@ -95,6 +139,27 @@ public record EvmConfiguration(
         newMaxCodeSize.isPresent() ? Optional.of(newMaxCodeSize.getAsInt()) : Optional.empty(),
         newMaxInitcodeSize.isPresent()
             ? Optional.of(newMaxInitcodeSize.getAsInt())
-            : Optional.empty());
+            : Optional.empty(),
+        preDecodedCodeEnabled,
+        persistentCodeAnalysisEnabled,
+        codeAnalysisStore);
+  }
+
+  /**
+   * Update the configuration with the store the code analysis is persisted to.
+   *
+   * @param newCodeAnalysisStore the code analysis store
+   * @return the updated EVM configuration
+   */
+  public EvmConfiguration withCodeAnalysisStore(final CodeAnalysisStore newCodeAnalysisStore) {
+    return new EvmConfiguration(
+        jumpDestCacheWeightKB,
+        worldUpdaterMode,
+        evmStackSize,
+        maxCodeSizeOverride,
+        maxInitcodeSizeOverride,
+        preDecodedCodeEnabled,
+        persistentCodeAnalysisEnabled,
+        newCodeAnalysisStore);
   }
 }
@@ -14,10 +14,41 @@
  */
 package org.hyperledger.besu.evm.internal;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+
 import org.apache.tuweni.bytes.Bytes;
 
-/** The Operand stack. */
-public class OperandStack extends FlexStack<Bytes> {
+/**
+ * The Operand stack.
+ *
+ * <p>Every slot holds a 256-bit word either as the {@link Bytes} it was pushed with, or as four
+ * 64-bit limbs stored in a flat {@code long[]}, most significant limb first. The arithmetic,
+ * comparison and bitwise operations of this class read their operands as limbs and write their
+ * result as limbs, in place, without allocating. A {@link Bytes} value is only created when a word
+ * computed on the stack leaves it through {@link #get(int)} or {@link #pop()}, and is then kept in
+ * the slot so it is created at most once.
+ *
+ * <p>As with {@link FlexStack}, the storage grows 32 entries at a time up to the maximum size.
+ */
+public class OperandStack {
+
+  private static final int INCREMENT = 32;
+  private static final int LIMBS = 4;
+
+  private final int maxSize;
+  private int currentCapacity;
+
+  // The value of each slot as Bytes, null when the value only exists as limbs
+  private Bytes[] entries;
+  // The value of each slot as limbs, only meaningful when the slot is loaded
+  private long[] limbs;
+  private boolean[] loaded;
+
+  private final long[] product = new long[LIMBS];
+
+  private int top;
 
   /**
    * Instantiates a new Operand stack.
@@ -25,6 +56,572 @@ public class OperandStack extends FlexStack<Bytes> {
    * @param maxSize the max size
    */
   public OperandStack(final int maxSize) {
-    super(maxSize, Bytes.class);
+    checkArgument(maxSize > 0, "max size must be positive");
+
+    this.currentCapacity = Math.min(INCREMENT, maxSize);
+    this.entries = new Bytes[currentCapacity];
+    this.limbs = new long[currentCapacity * LIMBS];
+    this.loaded = new boolean[currentCapacity];
+    this.maxSize = maxSize;
+    this.top = -1;
+  }
+
+  /**
+   * Get operand.
+   *
+   * @param offset the offset
+   * @return the operand
+   */
+  public Bytes get(final int offset) {
+    if (offset < 0 || offset >= size()) {
+      throw new UnderflowException();
+    }
+
+    return materialize(top - offset);
+  }
+
+  /**
+   * Pop operand.
+   *
+   * @return the operand
+   */
+  public Bytes pop() {
+    if (top < 0) {
+      throw new UnderflowException();
+    }
+
+    final Bytes removed = materialize(top);
+    entries[top] = null;
+    loaded[top--] = false;
+    return removed;
+  }
+
+  /**
+   * Peek at the top operand.
+   *
+   * @return the top operand, or null if the stack is empty
+   */
+  public Bytes peek() {
+    if (top < 0) {
+      return null;
+    } else {
+      return materialize(top);
+    }
+  }
+
+  /**
+   * Pops the specified number of operands from the stack.
+   *
+   * @param items the number of operands to pop off the stack
+   * @throws IllegalArgumentException if the items to pop is negative.
+   * @throws UnderflowException when the items to pop is greater than {@link #size()}
+   */
+  public void bulkPop(final int items) {
+    checkArgument(items > 0, "number of items to pop must be greater than 0");
+    if (items > size()) {
+      throw new UnderflowException();
+    }
+
+    Arrays.fill(entries, top - items + 1, top + 1, null);
+    Arrays.fill(loaded, top - items + 1, top + 1, false);
+    top -= items;
+  }
+
+  /**
+   * Trims the "middle" section of items out of the stack. Items below the cutpoint remains, and of
+   * the items above only the itemsToKeep items remain. All items in the middle are removed.
+   *
+   * @param cutPoint Point at which to start removing items
+   * @param itemsToKeep itemsToKeep Number of items on top to place at the cutPoint
+   * @throws IllegalArgumentException if the cutPoint or items to keep is negative.
+   * @throws UnderflowException If there are less than itemsToKeep above the cutPoint
+   */
+  public void preserveTop(final int cutPoint, final int itemsToKeep) {
+    checkArgument(cutPoint >= 0, "cutPoint must be positive");
+    checkArgument(itemsToKeep >= 0, "itemsToKeep must be positive");
+    if (itemsToKeep == 0) {
+      if (cutPoint < size()) {
+        bulkPop(top - cutPoint);
+      }
+    } else {
+      int targetSize = cutPoint + itemsToKeep;
+      int currentSize = size();
+      if (targetSize > currentSize) {
+        throw new UnderflowException();
+      } else if (targetSize < currentSize) {
+        final int from = currentSize - itemsToKeep;
+        System.arraycopy(entries, from, entries, cutPoint, itemsToKeep);
+        System.arraycopy(loaded, from, loaded, cutPoint, itemsToKeep);
+        System.arraycopy(limbs, from * LIMBS, limbs, cutPoint * LIMBS, itemsToKeep * LIMBS);
+        Arrays.fill(entries, targetSize, currentSize, null);
+        Arrays.fill(loaded, targetSize, currentSize, false);
+        top = targetSize - 1;
+      }
+    }
+  }
+
+  /**
+   * Push operand.
+   *
+   * @param operand the operand
+   */
+  public void push(final Bytes operand) {
+    final int nextTop = reserve();
+    entries[nextTop] = operand;
+    loaded[nextTop] = false;
+    top = nextTop;
+  }
+
+  /**
+   * Set operand.
+   *
+   * @param offset the offset
+   * @param operand the operand
+   */
+  public void set(final int offset, final Bytes operand) {
+    if (offset < 0) {
+      throw new UnderflowException();
+    } else if (offset > top) {
+      throw new OverflowException();
+    }
+
+    final int slot = top - offset;
+    entries[slot] = operand;
+    loaded[slot] = false;
+  }
+
+  /**
+   * Size of entries.
+   *
+   * @return the size
+   */
+  public int size() {
+    return top + 1;
+  }
+
+  /**
+   * Is stack full.
+   *
+   * @return the boolean
+   */
+  public boolean isFull() {
+    return top + 1 >= maxSize;
+  }
+
+  /**
+   * Is stack empty.
+   *
+   * @return the boolean
+   */
+  public boolean isEmpty() {
+    return top < 0;
+  }
+
+  /**
+   * Replaces the two top operands by their sum, modulo 2^256.
+   *
+   * @throws UnderflowException if the stack has less than two operands
+   */
+  public void add() {
+    final int a = binaryOperands();
+    final int b = a - LIMBS;
+    long carry = 0;
+    for (int i = LIMBS - 1; i >= 0; i--) {
+      final long x = limbs[a + i];
+      final long y = limbs[b + i];
+      final long r = x + y + carry;
+      carry = ((x & y) | ((x | y) & ~r)) >>> 63;
+      limbs[b + i] = r;
+    }
+    computed();
+  }
+
+  /**
+   * Replaces the two top operands by the top operand minus the second one, modulo 2^256.
+   *
+   * @throws UnderflowException if the stack has less than two operands
+   */
+  public void sub() {
+    final int a = binaryOperands();
+    final int b = a - LIMBS;
+    long borrow = 0;
+    for (int i = LIMBS - 1; i >= 0; i--) {
+      final long x = limbs[a + i];
+      final long y = limbs[b + i];
+      final long r = x - y - borrow;
+      borrow = ((~x & y) | ((~x | y) & r)) >>> 63;
+      limbs[b + i] = r;
+    }
+    computed();
+  }
+
+  /**
+   * Replaces the two top operands by their product, modulo 2^256.
+   *
+   * @throws UnderflowException if the stack has less than two operands
+   */
+  public void mul() {
+    final int a = binaryOperands();
+    final int b = a - LIMBS;
+    Arrays.fill(product, 0L);
+    // schoolbook multiplication from the least significant limbs, dropping what overflows 256 bits
+    for (int i = LIMBS - 1; i >= 0; i--) {
+      final long x = limbs[a + i];
+      if (x == 0) {
+        continue;
+      }
+      long carry = 0;
+      for (int j = LIMBS - 1; j >= LIMBS - 1 - i; j--) {
+        final int k = i + j - (LIMBS - 1);
+        final long y = limbs[b + j];
+        final long low = x * y;
+        final long high = Math.unsignedMultiplyHigh(x, y);
+        final long sum = low + product[k];
+        final long sumCarry = Long.compareUnsigned(sum, low) < 0 ? 1 : 0;
+        final long r = sum + carry;
+        final long rCarry = Long.compareUnsigned(r, sum) < 0 ? 1 : 0;
+        product[k] = r;
+        carry = high + sumCarry + rCarry;
+      }
+    }
+    System.arraycopy(product, 0, limbs, b, LIMBS);
+    computed();
+  }
+
+  /**
+   * Replaces the two top operands by 1 if the top operand is lower than the second one, unsigned,
+   * or 0 otherwise.
+   *
+   * @throws UnderflowException if the stack has less than two operands
+   */
+  public void lt() {
+    final int a = binaryOperands();
+    setBoolean(a - LIMBS, compareUnsigned(a, a - LIMBS) < 0);
+    computed();
+  }
+
+  /**
+   * Replaces the two top operands by 1 if the top operand is greater than the second one, unsigned,
+   * or 0 otherwise.
+   *
+   * @throws UnderflowException if the stack has less than two operands
+   */
+  public void gt() {
+    final int a = binaryOperands();
+    setBoolean(a - LIMBS, compareUnsigned(a, a - LIMBS) > 0);
+    computed();
+  }
+
+  /**
+   * Replaces the two top operands by 1 if the top operand is lower than the second one, in two's
+   * complement, or 0 otherwise.
+   *
+   * @throws UnderflowException if the stack has less than two operands
+   */
+  public void slt() {
+    final int a = binaryOperands();
+    setBoolean(a - LIMBS, compareSigned(a, a - LIMBS) < 0);
+    computed();
+  }
+
+  /**
+   * Replaces the two top operands by 1 if the top operand is greater than the second one, in two's
+   * complement, or 0 otherwise.
+   *
+   * @throws UnderflowException if the stack has less than two operands
+   */
+  public void sgt() {
+    final int a = binaryOperands();
+    setBoolean(a - LIMBS, compareSigned(a, a - LIMBS) > 0);
+    computed();
+  }
+
+  /**
+   * Replaces the two top operands by 1 if they are equal, or 0 otherwise.
+   *
+   * @throws UnderflowException if the stack has less than two operands
+   */
+  public void eq() {
+    final int a = binaryOperands();
+    setBoolean(a - LIMBS, compareUnsigned(a, a - LIMBS) == 0);
+    computed();
+  }
+
+  /**
+   * Replaces the top operand by 1 if it is zero, or 0 otherwise.
+   *
+   * @throws UnderflowException if the stack is empty
+   */
+  public void isZero() {
+    final int a = unaryOperand();
+    setBoolean(a, (limbs[a] | limbs[a + 1] | limbs[a + 2] | limbs[a + 3]) == 0);
+    entries[top] = null;
+  }
+
+  /**
+   * Replaces the two top operands by their bitwise and.
+   *
+   * @throws UnderflowException if the stack has less than two operands
+   */
+  public void and() {
+    final int a = binaryOperands();
+    final int b = a - LIMBS;
+    for (int i = 0; i < LIMBS; i++) {
+      limbs[b + i] &= limbs[a + i];
+    }
+    computed();
+  }
+
+  /**
+   * Replaces the two top operands by their bitwise or.
+   *
+   * @throws UnderflowException if the stack has less than two operands
+   */
+  public void or() {
+    final int a = binaryOperands();
+    final int b = a - LIMBS;
+    for (int i = 0; i < LIMBS; i++) {
+      limbs[b + i] |= limbs[a + i];
+    }
+    computed();
+  }
+
+  /**
+   * Replaces the two top operands by their bitwise exclusive or.
+   *
+   * @throws UnderflowException if the stack has less than two operands
+   */
+  public void xor() {
+    final int a = binaryOperands();
+    final int b = a - LIMBS;
+    for (int i = 0; i < LIMBS; i++) {
+      limbs[b + i] ^= limbs[a + i];
+    }
+    computed();
+  }
+
+  /**
+   * Replaces the top operand by its bitwise complement.
+   *
+   * @throws UnderflowException if the stack is empty
+   */
+  public void not() {
+    final int a = unaryOperand();
+    for (int i = 0; i < LIMBS; i++) {
+      limbs[a + i] = ~limbs[a + i];
+    }
+    entries[top] = null;
+  }
+
+  /**
+   * Pushes a copy of an operand. The value is shared, not copied, when it is held as {@link Bytes}.
+   *
+   * @param offset the offset of the operand to copy, 0 being the top operand
+   * @throws UnderflowException if there is no operand at this offset
+   * @throws OverflowException if the stack is full
+   */
+  public void dup(final int offset) {
+    if (offset < 0 || offset >= size()) {
+      throw new UnderflowException();
+    }
+    final int source = top - offset;
+    final int nextTop = reserve();
+    entries[nextTop] = entries[source];
+    loaded[nextTop] = loaded[source];
+    if (loaded[source]) {
+      System.arraycopy(limbs, source * LIMBS, limbs, nextTop * LIMBS, LIMBS);
+    }
+    top = nextTop;
+  }
+
+  /**
+   * Exchanges the top operand with another one.
+   *
+   * @param offset the offset of the operand to exchange with the top operand
+   * @throws UnderflowException if there is no operand at this offset
+   */
+  public void swap(final int offset) {
+    if (offset < 0 || offset >= size()) {
+      throw new UnderflowException();
+    }
+    final int other = top - offset;
+    final Bytes entry = entries[top];
+    entries[top] = entries[other];
+    entries[other] = entry;
+    final boolean isLoaded = loaded[top];
+    loaded[top] = loaded[other];
+    loaded[other] = isLoaded;
+    final int topLimbs = top * LIMBS;
+    final int otherLimbs = other * LIMBS;
+    for (int i = 0; i < LIMBS; i++) {
+      final long limb = limbs[topLimbs + i];
+      limbs[topLimbs + i] = limbs[otherLimbs + i];
+      limbs[otherLimbs + i] = limb;
+    }
+  }
+
+  private int reserve() {
+    final int nextTop = top + 1;
+    if (nextTop >= maxSize) {
+      throw new OverflowException();
+    }
+    if (nextTop >= currentCapacity) {
+      expandEntries(Math.min(currentCapacity + INCREMENT, maxSize));
+    }
+    return nextTop;
+  }
+
+  private void expandEntries(final int nextSize) {
+    entries = Arrays.copyOf(entries, nextSize);
+    limbs = Arrays.copyOf(limbs, nextSize * LIMBS);
+    loaded = Arrays.copyOf(loaded, nextSize);
+    currentCapacity = nextSize;
+  }
+
+  // Loads the top operand as limbs and returns the index of its first limb
+  private int unaryOperand() {
+    if (top < 0) {
+      throw new UnderflowException();
+    }
+    load(top);
+    return top * LIMBS;
+  }
+
+  // Loads the two top operands as limbs and returns the index of the first limb of the top one
+  private int binaryOperands() {
+    if (top < 1) {
+      throw new UnderflowException();
+    }
+    load(top);
+    load(top - 1);
+    return top * LIMBS;
+  }
+
+  // Drops the top operand, the result of the operation being in the limbs of the new top
+  private void computed() {
+    entries[top] = null;
+    loaded[top--] = false;
+    entries[top] = null;
+  }
+
+  private void setBoolean(final int index, final boolean value) {
+    limbs[index] = 0;
+    limbs[index + 1] = 0;
+    limbs[index + 2] = 0;
+    limbs[index + 3] = value ? 1 : 0;
+  }
+
+  private int compareUnsigned(final int a, final int b) {
+    for (int i = 0; i < LIMBS; i++) {
+      final int cmp = Long.compareUnsigned(limbs[a + i], limbs[b + i]);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return 0;
+  }
+
+  private int compareSigned(final int a, final int b) {
+    final int cmp = Long.compare(limbs[a], limbs[b]);
+    if (cmp != 0) {
+      return cmp;
+    }
+    for (int i = 1; i < LIMBS; i++) {
+      final int lowCmp = Long.compareUnsigned(limbs[a + i], limbs[b + i]);
+      if (lowCmp != 0) {
+        return lowCmp;
+      }
+    }
+    return 0;
+  }
+
+  // Converts the Bytes of a slot to limbs, reading the 32 least significant bytes
+  private void load(final int slot) {
+    if (loaded[slot]) {
+      return;
+    }
+    final Bytes value = entries[slot];
+    final int index = slot * LIMBS;
+    limbs[index] = 0;
+    limbs[index + 1] = 0;
+    limbs[index + 2] = 0;
+    limbs[index + 3] = 0;
+    final int size = value.size();
+    final int length = Math.min(size, 32);
+    for (int i = 0; i < length; i++) {
+      final long b = value.get(size - 1 - i) & 0xFFL;
+      limbs[index + LIMBS - 1 - i / 8] |= b << ((i % 8) * 8);
+    }
+    loaded[slot] = true;
+  }
+
+  // Returns the Bytes of a slot, creating the minimal big-endian Bytes of its limbs if needed
+  private Bytes materialize(final int slot) {
+    final Bytes entry = entries[slot];
+    if (entry != null) {
+      return entry;
+    }
+    final int index = slot * LIMBS;
+    int first = 0;
+    while (first < LIMBS && limbs[index + first] == 0) {
+      first++;
+    }
+    if (first == LIMBS) {
+      entries[slot] = Bytes.EMPTY;
+      return Bytes.EMPTY;
+    }
+    final long leading = limbs[index + first];
+    final int leadingBytes = 8 - Long.numberOfLeadingZeros(leading) / 8;
+    final byte[] bytes = new byte[leadingBytes + (LIMBS - 1 - first) * 8];
+    int pos = 0;
+    for (int i = leadingBytes - 1; i >= 0; i--) {
+      bytes[pos++] = (byte) (leading >>> (i * 8));
+    }
+    for (int l = first + 1; l < LIMBS; l++) {
+      final long limb = limbs[index + l];
+      for (int i = 7; i >= 0; i--) {
+        bytes[pos++] = (byte) (limb >>> (i * 8));
+      }
+    }
+    final Bytes value = Bytes.wrap(bytes);
+    entries[slot] = value;
+    return value;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    for (int i = 0; i <= top; ++i) {
+      builder.append(String.format("%n0x%04X ", i)).append(materialize(i));
+    }
+    return builder.toString();
+  }
+
+  @Override
+  public int hashCode() {
+    int result = 1;
+
+    for (int i = 0; i <= top; i++) {
+      result = 31 * result + materialize(i).trimLeadingZeros().hashCode();
+    }
+
+    return result;
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (!(other instanceof OperandStack that)) {
+      return false;
+    }
+
+    if (this.top != that.top) {
+      return false;
+    }
+    for (int i = 0; i <= top; i++) {
+      if (!this.materialize(i).trimLeadingZeros().equals(that.materialize(i).trimLeadingZeros())) {
+        return false;
+      }
+    }
+    return true;
   }
 }
@@ -18,8 +18,6 @@ import org.hyperledger.besu.evm.EVM;
 import org.hyperledger.besu.evm.frame.MessageFrame;
 import org.hyperledger.besu.evm.gascalculator.GasCalculator;
 
-import org.apache.tuweni.bytes.Bytes;
-
 /** The And operation. */
 public class AndOperation extends AbstractFixedCostOperation {
 
@@ -48,11 +46,7 @@ public class AndOperation extends AbstractFixedCostOperation {
    * @return the operation result
    */
   public static OperationResult staticOperation(final MessageFrame frame) {
-    final Bytes value0 = frame.popStackItem();
-    final Bytes value1 = frame.popStackItem();
-
-    final Bytes result = value0.and(value1);
-    frame.pushStackItem(result);
+    frame.getOperandStack().and();
 
     return andSuccess;
   }
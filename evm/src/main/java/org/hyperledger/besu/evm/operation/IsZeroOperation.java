@@ -18,8 +18,6 @@ import org.hyperledger.besu.evm.EVM;
 import org.hyperledger.besu.evm.frame.MessageFrame;
 import org.hyperledger.besu.evm.gascalculator.GasCalculator;
 
-import org.apache.tuweni.bytes.Bytes;
-
 /** The Is zero operation. */
 public class IsZeroOperation extends AbstractFixedCostOperation {
 
@@ -48,9 +46,7 @@ public class IsZeroOperation extends AbstractFixedCostOperation {
    * @return the operation result
    */
   public static OperationResult staticOperation(final MessageFrame frame) {
-    final Bytes value = frame.popStackItem().trimLeadingZeros();
-
-    frame.pushStackItem((value.size() == 0) ? BYTES_ONE : Bytes.EMPTY);
+    frame.getOperandStack().isZero();
 
     return isZeroSuccess;
   }
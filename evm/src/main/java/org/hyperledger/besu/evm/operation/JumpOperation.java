@@ -25,6 +25,9 @@ import org.apache.tuweni.bytes.Bytes;
 /** The Jump operation. */
 public class JumpOperation extends AbstractFixedCostOperation {
 
+  /** The JUMP Opcode number */
+  public static final int OPCODE = 0x56;
+
   private static final Operation.OperationResult invalidJumpResponse =
       new Operation.OperationResult(8L, ExceptionalHaltReason.INVALID_JUMP_DESTINATION);
   private static final OperationResult jumpResponse = new OperationResult(8L, null, 0);
@@ -35,7 +38,7 @@ public class JumpOperation extends AbstractFixedCostOperation {
    * @param gasCalculator the gas calculator
    */
   public JumpOperation(final GasCalculator gasCalculator) {
-    super(0x56, "JUMP", 2, 0, gasCalculator, gasCalculator.getMidTierGasCost());
+    super(OPCODE, "JUMP", 2, 0, gasCalculator, gasCalculator.getMidTierGasCost());
   }
 
   @Override
@@ -25,6 +25,9 @@ import org.apache.tuweni.bytes.Bytes;
 /** The JUMPI operation. */
 public class JumpiOperation extends AbstractFixedCostOperation {
 
+  /** The JUMPI Opcode number */
+  public static final int OPCODE = 0x57;
+
   private static final OperationResult invalidJumpResponse =
       new Operation.OperationResult(10L, ExceptionalHaltReason.INVALID_JUMP_DESTINATION);
   private static final OperationResult jumpiResponse = new OperationResult(10L, null, 0);
@@ -36,7 +39,7 @@ public class JumpiOperation extends AbstractFixedCostOperation {
    * @param gasCalculator the gas calculator
    */
   public JumpiOperation(final GasCalculator gasCalculator) {
-    super(0x57, "JUMPI", 2, 0, gasCalculator, gasCalculator.getHighTierGasCost());
+    super(OPCODE, "JUMPI", 2, 0, gasCalculator, gasCalculator.getHighTierGasCost());
   }
 
   @Override
@@ -18,8 +18,6 @@ import org.hyperledger.besu.evm.EVM;
 import org.hyperledger.besu.evm.frame.MessageFrame;
 import org.hyperledger.besu.evm.gascalculator.GasCalculator;
 
-import org.apache.tuweni.bytes.Bytes;
-
 /** The LT operation. */
 public class LtOperation extends AbstractFixedCostOperation {
 
@@ -48,12 +46,7 @@ public class LtOperation extends AbstractFixedCostOperation {
    * @return the operation result
    */
   public static OperationResult staticOperation(final MessageFrame frame) {
-    final Bytes value0 = frame.popStackItem().trimLeadingZeros();
-    final Bytes value1 = frame.popStackItem().trimLeadingZeros();
-
-    final Bytes result = value0.compareTo(value1) < 0 ? BYTES_ONE : Bytes.EMPTY;
-
-    frame.pushStackItem(result);
+    frame.getOperandStack().lt();
 
     return ltSuccess;
   }
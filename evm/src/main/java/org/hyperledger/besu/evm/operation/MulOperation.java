@@ -18,10 +18,6 @@ import org.hyperledger.besu.evm.EVM;
 import org.hyperledger.besu.evm.frame.MessageFrame;
 import org.hyperledger.besu.evm.gascalculator.GasCalculator;
 
-import java.math.BigInteger;
-
-import org.apache.tuweni.bytes.Bytes;
-
 /** The Mul operation. */
 public class MulOperation extends AbstractFixedCostOperation {
 
@@ -50,16 +46,8 @@ public class MulOperation extends AbstractFixedCostOperation {
    * @return the operation result
    */
   public static OperationResult staticOperation(final MessageFrame frame) {
-    BigInteger a = new BigInteger(1, frame.popStackItem().toArrayUnsafe());
-    BigInteger b = new BigInteger(1, frame.popStackItem().toArrayUnsafe());
-    BigInteger c = a.multiply(b);
-    byte[] cBytes = c.toByteArray();
-    Bytes result = Bytes.wrap(cBytes);
-    if (cBytes.length > 32) {
-      result = result.slice(cBytes.length - 32, 32);
-    }
+    frame.getOperandStack().mul();
 
-    frame.pushStackItem(result);
     return mulSuccess;
   }
 }
@@ -18,9 +18,6 @@ import org.hyperledger.besu.evm.EVM;
 import org.hyperledger.besu.evm.frame.MessageFrame;
 import org.hyperledger.besu.evm.gascalculator.GasCalculator;
 
-import org.apache.tuweni.bytes.Bytes;
-import org.apache.tuweni.bytes.Bytes32;
-
 /** The Not operation. */
 public class NotOperation extends AbstractFixedCostOperation {
 
@@ -49,11 +46,7 @@ public class NotOperation extends AbstractFixedCostOperation {
    * @return the operation result
    */
   public static OperationResult staticOperation(final MessageFrame frame) {
-    final Bytes value = Bytes32.leftPad(frame.popStackItem());
-
-    final Bytes result = value.not();
-
-    frame.pushStackItem(result);
+    frame.getOperandStack().not();
 
     return notSuccess;
   }
@@ -18,11 +18,6 @@ import org.hyperledger.besu.evm.EVM;
 import org.hyperledger.besu.evm.frame.MessageFrame;
 import org.hyperledger.besu.evm.gascalculator.GasCalculator;
 
-import java.math.BigInteger;
-
-import org.apache.tuweni.bytes.Bytes;
-import org.apache.tuweni.bytes.Bytes32;
-
 /** The Sub (Subtract) operation. */
 public class SubOperation extends AbstractFixedCostOperation {
 
@@ -51,20 +46,7 @@ public class SubOperation extends AbstractFixedCostOperation {
    * @return the operation result
    */
   public static OperationResult staticOperation(final MessageFrame frame) {
-    final BigInteger value0 = new BigInteger(1, frame.popStackItem().toArrayUnsafe());
-    final BigInteger value1 = new BigInteger(1, frame.popStackItem().toArrayUnsafe());
-
-    final BigInteger result = value0.subtract(value1);
-
-    byte[] resultArray = result.toByteArray();
-    int length = resultArray.length;
-    if (length >= 32) {
-      frame.pushStackItem(Bytes.wrap(resultArray, length - 32, 32));
-    } else if (result.signum() < 0) {
-      frame.pushStackItem(Bytes32.leftPad(Bytes.wrap(resultArray), (byte) -1));
-    } else {
-      frame.pushStackItem(Bytes.wrap(resultArray));
-    }
+    frame.getOperandStack().sub();
 
     return subSuccess;
   }
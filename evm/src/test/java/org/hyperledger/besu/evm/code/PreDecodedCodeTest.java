@@ -0,0 +1,163 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.evm.code;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hyperledger.besu.evm.frame.MessageFrame.Type.MESSAGE_CALL;
+import static org.mockito.Mockito.mock;
+
+import org.hyperledger.besu.datatypes.Address;
+import org.hyperledger.besu.datatypes.Hash;
+import org.hyperledger.besu.datatypes.Wei;
+import org.hyperledger.besu.evm.EVM;
+import org.hyperledger.besu.evm.MainnetEVMs;
+import org.hyperledger.besu.evm.frame.BlockValues;
+import org.hyperledger.besu.evm.frame.ExceptionalHaltReason;
+import org.hyperledger.besu.evm.frame.MessageFrame;
+import org.hyperledger.besu.evm.internal.EvmConfiguration;
+import org.hyperledger.besu.evm.internal.EvmConfiguration.WorldUpdaterMode;
+import org.hyperledger.besu.evm.tracing.OperationTracer;
+import org.hyperledger.besu.evm.worldstate.WorldUpdater;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import org.apache.tuweni.bytes.Bytes;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class PreDecodedCodeTest {
+
+  // PUSH1 16, JUMPDEST, PUSH1 1, SWAP1, SUB, DUP1, PUSH1 2, JUMPI, STOP
+  private static final Bytes COUNTDOWN_LOOP = Bytes.fromHexString("0x60105b600190038060025700");
+
+  private final EVM interpreted = MainnetEVMs.futureEips(EvmConfiguration.DEFAULT);
+  private final EVM preDecoded =
+      MainnetEVMs.futureEips(new EvmConfiguration(32_000L, WorldUpdaterMode.STACKED, true));
+
+  @Test
+  void decodesBasicBlocks() {
+    final long[] costs = new long[256];
+    Arrays.fill(costs, -1L);
+    costs[0x03] = 3;
+    costs[0x57] = 10;
+    costs[0x5b] = 1;
+    costs[0x60] = 3;
+    costs[0x80] = 3;
+    costs[0x90] = 3;
+
+    final PreDecodedCode code = PreDecodedCode.decode(COUNTDOWN_LOOP.toArrayUnsafe(), costs);
+
+    assertThat(code.blockCount()).isEqualTo(2);
+    assertThat(code.instructionCount()).isEqualTo(7);
+    assertThat(code.blockAt(0)).isZero();
+    assertThat(code.blockAt(2)).isEqualTo(1);
+    assertThat(code.blockAt(3)).isNegative();
+    assertThat(code.blockAt(11)).isNegative();
+    assertThat(code.blockAt(12)).isNegative();
+    assertThat(code.blockGas(0)).isEqualTo(3);
+    assertThat(code.blockGas(1)).isEqualTo(1 + 3 + 3 + 3 + 3 + 3 + 10);
+    assertThat(code.blockNextPc(1)).isEqualTo(11);
+    assertThat(code.immediate(0)).isEqualTo(Bytes.of(0x10));
+    assertThat(code.isDecodedWith(costs)).isTrue();
+    assertThat(code.isDecodedWith(costs.clone())).isFalse();
+  }
+
+  @Test
+  void padsTruncatedPush() {
+    final long[] costs = new long[256];
+    Arrays.fill(costs, 3L);
+
+    final PreDecodedCode code = PreDecodedCode.decode(new byte[] {0x62, 0x01}, costs);
+
+    assertThat(code.immediate(0)).isEqualTo(Bytes.fromHexString("0x010000"));
+    assertThat(code.blockNextPc(0)).isEqualTo(4);
+  }
+
+  @Test
+  void cachedCodeIsDecoded() {
+    final CodeV0 code = (CodeV0) preDecoded.getCode(Hash.hash(COUNTDOWN_LOOP), COUNTDOWN_LOOP);
+
+    assertThat(code.getPreDecodedCodeIfPresent()).isNotNull();
+    assertThat(
+            ((CodeV0) interpreted.getCode(Hash.hash(COUNTDOWN_LOOP), COUNTDOWN_LOOP))
+                .getPreDecodedCodeIfPresent())
+        .isNull();
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    // countdown loop, with enough gas and running out of gas in the middle of a block
+    "0x60105b600190038060025700, 10000",
+    "0x60105b600190038060025700, 100",
+    // stack underflow in the middle of a block
+    "0x600101600101, 10000",
+    // invalid jump destination
+    "0x600a56, 10000",
+    // jump over a non decoded opcode
+    "0x600556fe005b60015000, 10000",
+  })
+  void preDecodedExecutionMatchesInterpreter(final String code, final long gas) {
+    final Bytes bytes = Bytes.fromHexString(code);
+    final MessageFrame expected = run(interpreted, bytes, gas);
+    final MessageFrame actual = run(preDecoded, bytes, gas);
+
+    assertThat(actual.getState()).isEqualTo(expected.getState());
+    assertThat(actual.getExceptionalHaltReason()).isEqualTo(expected.getExceptionalHaltReason());
+    assertThat(actual.getPC()).isEqualTo(expected.getPC());
+    // the remaining gas of a halted frame is discarded, a block being charged upfront
+    if (expected.getState() != MessageFrame.State.EXCEPTIONAL_HALT) {
+      assertThat(actual.getRemainingGas()).isEqualTo(expected.getRemainingGas());
+    }
+    assertThat(actual.stackSize()).isEqualTo(expected.stackSize());
+    for (int i = 0; i < expected.stackSize(); i++) {
+      assertThat(actual.getStackItem(i)).isEqualTo(expected.getStackItem(i));
+    }
+  }
+
+  @Test
+  void outOfGasHaltsOnTheSameInstruction() {
+    final MessageFrame frame = run(preDecoded, COUNTDOWN_LOOP, 100);
+
+    assertThat(frame.getExceptionalHaltReason())
+        .isEqualTo(Optional.of(ExceptionalHaltReason.INSUFFICIENT_GAS));
+  }
+
+  private static MessageFrame run(final EVM evm, final Bytes code, final long gas) {
+    final MessageFrame frame =
+        MessageFrame.builder()
+            .type(MESSAGE_CALL)
+            .worldUpdater(mock(WorldUpdater.class))
+            .initialGas(gas)
+            .address(Address.ZERO)
+            .originator(Address.ZERO)
+            .contract(Address.ZERO)
+            .gasPrice(Wei.ZERO)
+            .inputData(Bytes.EMPTY)
+            .sender(Address.ZERO)
+            .value(Wei.ZERO)
+            .apparentValue(Wei.ZERO)
+            .code(evm.getCode(Hash.hash(code), code))
+            .blockValues(mock(BlockValues.class))
+            .completer(f -> {})
+            .miningBeneficiary(Address.ZERO)
+            .blockHashLookup((__, ___) -> Hash.EMPTY)
+            .build();
+    frame.setState(MessageFrame.State.CODE_EXECUTING);
+    evm.runToHalt(frame, OperationTracer.NO_TRACING);
+    return frame;
+  }
+}
@@ -16,11 +16,18 @@ package org.hyperledger.besu.evm.internal;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import org.hyperledger.besu.datatypes.Hash;
 import org.hyperledger.besu.evm.Code;
 import org.hyperledger.besu.evm.EVM;
 import org.hyperledger.besu.evm.MainnetEVMs;
 import org.hyperledger.besu.evm.operation.JumpDestOperation;
 
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.apache.tuweni.bytes.Bytes;
 import org.junit.jupiter.api.Test;
 
@@ -39,4 +46,108 @@ class CodeCacheTest {
     assertThat(weight)
         .isEqualTo(contractCode.getCodeHash().size() + (contractBytes.size() * 9 + 7) / 8);
   }
+
+  @Test
+  void warmUpRestoresPersistedAnalysis() {
+    final InMemoryCodeAnalysisStore store = new InMemoryCodeAnalysisStore();
+    final EVM evm = MainnetEVMs.futureEips(EvmConfiguration.DEFAULT.withCodeAnalysisStore(store));
+    final Bytes contractBytes = Bytes.fromHexString("0x6000" + op);
+    final Hash codeHash = Hash.hash(contractBytes);
+    // a bitmap without any jump destination, to tell it apart from a calculated one
+    store.put(new CodeAnalysis(codeHash, contractBytes, new long[1], 10));
+
+    assertThat(evm.warmUpCodeCache()).isEqualTo(1);
+    final Code code = evm.getCode(codeHash, contractBytes);
+
+    assertThat(code.isJumpDestInvalid(2)).isTrue();
+    assertThat(evm.getCodeUncached(contractBytes).isJumpDestInvalid(2)).isFalse();
+  }
+
+  @Test
+  void doesNotReadTheStoreOnCacheMiss() {
+    final InMemoryCodeAnalysisStore store = new InMemoryCodeAnalysisStore();
+    final EVM evm = MainnetEVMs.futureEips(EvmConfiguration.DEFAULT.withCodeAnalysisStore(store));
+    final Bytes contractBytes = Bytes.fromHexString("0x6000" + op);
+    final Hash codeHash = Hash.hash(contractBytes);
+    store.put(new CodeAnalysis(codeHash, contractBytes, new long[1], 10));
+
+    assertThat(evm.getCode(codeHash, contractBytes).isJumpDestInvalid(2)).isFalse();
+  }
+
+  @Test
+  void warmUpIgnoresPersistedAnalysisOfTheWrongSize() {
+    final InMemoryCodeAnalysisStore store = new InMemoryCodeAnalysisStore();
+    final EVM evm = MainnetEVMs.futureEips(EvmConfiguration.DEFAULT.withCodeAnalysisStore(store));
+    final Bytes contractBytes = Bytes.fromHexString("0x6000" + op);
+    final Hash codeHash = Hash.hash(contractBytes);
+    store.put(new CodeAnalysis(codeHash, contractBytes, new long[2], 10));
+
+    assertThat(evm.warmUpCodeCache()).isZero();
+    assertThat(evm.getCode(codeHash, contractBytes).isJumpDestInvalid(2)).isFalse();
+  }
+
+  @Test
+  void persistsAnalysisOfMostUsedCode() {
+    final InMemoryCodeAnalysisStore store = new InMemoryCodeAnalysisStore();
+    final EVM evm = MainnetEVMs.futureEips(EvmConfiguration.DEFAULT.withCodeAnalysisStore(store));
+    final Bytes contractBytes = Bytes.fromHexString("0x6000" + op);
+    final Hash codeHash = Hash.hash(contractBytes);
+
+    for (int i = 1; i < CodeCache.PERSIST_THRESHOLD; i++) {
+      evm.getCode(codeHash, contractBytes);
+    }
+    assertThat(store.get(codeHash)).isEmpty();
+
+    evm.getCode(codeHash, contractBytes);
+    assertThat(store.get(codeHash)).isPresent();
+    final CodeAnalysis analysis = store.get(codeHash).orElseThrow();
+    assertThat(analysis.getUses()).isEqualTo(CodeCache.PERSIST_THRESHOLD);
+    assertThat(analysis.getCode()).isEqualTo(contractBytes);
+    assertThat(analysis.getJumpDestinations()).containsExactly(1L << 2);
+
+    for (int i = 0; i < CodeCache.PERSIST_THRESHOLD; i++) {
+      evm.getCode(codeHash, contractBytes);
+    }
+    assertThat(store.get(codeHash).orElseThrow().getUses())
+        .isEqualTo(2 * CodeCache.PERSIST_THRESHOLD);
+  }
+
+  @Test
+  void warmUpLoadsPersistedCode() {
+    final InMemoryCodeAnalysisStore store = new InMemoryCodeAnalysisStore();
+    final EVM evm = MainnetEVMs.futureEips(EvmConfiguration.DEFAULT.withCodeAnalysisStore(store));
+    final Bytes contractBytes = Bytes.fromHexString("0x6000" + op);
+    final Bytes otherBytes = Bytes.fromHexString("0x6001" + op);
+    store.put(new CodeAnalysis(Hash.hash(contractBytes), contractBytes, new long[] {4L}, 100));
+    // stored under the hash of another code, must not be loaded
+    store.put(new CodeAnalysis(Hash.hash(contractBytes.not()), otherBytes, new long[] {4L}, 200));
+
+    assertThat(evm.warmUpCodeCache()).isEqualTo(1);
+  }
+
+  @Test
+  void noStoreByDefault() {
+    final EVM evm = MainnetEVMs.futureEips(EvmConfiguration.DEFAULT);
+    assertThat(evm.warmUpCodeCache()).isZero();
+  }
+
+  private static class InMemoryCodeAnalysisStore implements CodeAnalysisStore {
+    private final Map<Hash, CodeAnalysis> entries = new ConcurrentHashMap<>();
+
+    Optional<CodeAnalysis> get(final Hash codeHash) {
+      return Optional.ofNullable(entries.get(codeHash));
+    }
+
+    @Override
+    public void put(final CodeAnalysis analysis) {
+      entries.put(analysis.getCodeHash(), analysis);
+    }
+
+    @Override
+    public List<CodeAnalysis> getMostUsed(final long maxWeightBytes) {
+      return entries.values().stream()
+          .sorted(Comparator.comparingLong(CodeAnalysis::getUses).reversed())
+          .toList();
+    }
+  }
 }
@@ -17,6 +17,12 @@ package org.hyperledger.besu.evm.internal;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+
+import org.apache.tuweni.bytes.Bytes;
 import org.apache.tuweni.bytes.Bytes32;
 import org.apache.tuweni.units.bigints.UInt256;
 import org.junit.jupiter.api.Test;
@@ -182,4 +188,158 @@ class OperandStackTest {
     }
     assertThatThrownBy(() -> stack.push(UInt256.ONE)).isInstanceOf(OverflowException.class);
   }
+
+  private static final BigInteger TWO_256 = BigInteger.ONE.shiftLeft(256);
+
+  private static final Bytes[] EDGE_VALUES = {
+    Bytes.EMPTY,
+    Bytes.of(0),
+    Bytes.of(1),
+    Bytes.fromHexString("0x8000000000000000"),
+    Bytes.fromHexString("0xffffffffffffffff"),
+    Bytes.fromHexString("0x010000000000000000"),
+    Bytes32.fromHexString("0x8000000000000000000000000000000000000000000000000000000000000000"),
+    Bytes32.fromHexString("0xffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffff"),
+    Bytes32.fromHexString("0x7fffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffff"),
+  };
+
+  @Test
+  void arithmeticMatchesBigInteger() {
+    checkBinary(OperandStack::add, BigInteger::add);
+    checkBinary(OperandStack::sub, BigInteger::subtract);
+    checkBinary(OperandStack::mul, BigInteger::multiply);
+  }
+
+  @Test
+  void comparisonsMatchBigInteger() {
+    checkBinary(OperandStack::lt, (a, b) -> bool(a.compareTo(b) < 0));
+    checkBinary(OperandStack::gt, (a, b) -> bool(a.compareTo(b) > 0));
+    checkBinary(OperandStack::eq, (a, b) -> bool(a.equals(b)));
+    checkBinary(OperandStack::slt, (a, b) -> bool(signed(a).compareTo(signed(b)) < 0));
+    checkBinary(OperandStack::sgt, (a, b) -> bool(signed(a).compareTo(signed(b)) > 0));
+  }
+
+  @Test
+  void bitwiseMatchesBigInteger() {
+    checkBinary(OperandStack::and, BigInteger::and);
+    checkBinary(OperandStack::or, BigInteger::or);
+    checkBinary(OperandStack::xor, BigInteger::xor);
+    for (final Bytes value : testValues()) {
+      final OperandStack stack = new OperandStack(1);
+      stack.push(value);
+      stack.not();
+      assertThat(unsigned(stack.pop()))
+          .isEqualTo(TWO_256.subtract(BigInteger.ONE).xor(unsigned(value)));
+
+      stack.push(value);
+      stack.isZero();
+      assertThat(unsigned(stack.pop())).isEqualTo(bool(unsigned(value).signum() == 0));
+    }
+  }
+
+  @Test
+  void resultsAreMinimalBytes() {
+    final OperandStack stack = new OperandStack(2);
+    stack.push(Bytes32.fromHexString("0x01"));
+    stack.push(Bytes32.fromHexString("0x01"));
+    stack.sub();
+    assertThat(stack.get(0)).isEqualTo(Bytes.EMPTY);
+    stack.push(Bytes32.fromHexString("0xff"));
+    stack.add();
+    assertThat(stack.pop()).isEqualTo(Bytes.fromHexString("0xff"));
+  }
+
+  @Test
+  void computedValuesAreChained() {
+    final OperandStack stack = new OperandStack(8);
+    stack.push(Bytes.of(3));
+    stack.push(Bytes.of(5));
+    stack.push(Bytes.of(7));
+    stack.mul();
+    stack.dup(0);
+    stack.add();
+    stack.swap(1);
+    stack.sub();
+    assertThat(stack.size()).isEqualTo(1);
+    assertThat(unsigned(stack.pop())).isEqualTo(TWO_256.subtract(BigInteger.valueOf(67)));
+  }
+
+  @Test
+  void dupAndSwapKeepComputedValues() {
+    final OperandStack stack = new OperandStack(8);
+    stack.push(Bytes.of(1));
+    stack.push(Bytes.of(2));
+    stack.push(Bytes.of(3));
+    stack.add();
+    stack.dup(1);
+    assertThat(stack.get(0)).isEqualTo(Bytes.of(1));
+    assertThat(stack.get(1)).isEqualTo(Bytes.of(5));
+    stack.swap(2);
+    assertThat(stack.get(0)).isEqualTo(Bytes.of(1));
+    assertThat(stack.get(1)).isEqualTo(Bytes.of(5));
+    assertThat(stack.get(2)).isEqualTo(Bytes.of(1));
+    stack.swap(1);
+    stack.preserveTop(0, 1);
+    assertThat(stack.size()).isEqualTo(1);
+    stack.push(Bytes.of(2));
+    stack.mul();
+    assertThat(stack.pop()).isEqualTo(Bytes.of(10));
+  }
+
+  @Test
+  void operationsUnderflow() {
+    final OperandStack stack = new OperandStack(2);
+    stack.push(Bytes.of(1));
+    assertThatThrownBy(stack::add).isInstanceOf(UnderflowException.class);
+    assertThatThrownBy(() -> stack.dup(1)).isInstanceOf(UnderflowException.class);
+    assertThatThrownBy(() -> stack.swap(1)).isInstanceOf(UnderflowException.class);
+    stack.pop();
+    assertThatThrownBy(stack::not).isInstanceOf(UnderflowException.class);
+  }
+
+  @Test
+  void dupOverflow() {
+    final OperandStack stack = new OperandStack(1);
+    stack.push(Bytes.of(1));
+    assertThatThrownBy(() -> stack.dup(0)).isInstanceOf(OverflowException.class);
+  }
+
+  private static void checkBinary(
+      final Consumer<OperandStack> operation, final BinaryOperator<BigInteger> expected) {
+    final Bytes[] values = testValues();
+    for (final Bytes value0 : values) {
+      for (final Bytes value1 : values) {
+        final OperandStack stack = new OperandStack(2);
+        stack.push(value1);
+        stack.push(value0);
+        operation.accept(stack);
+        assertThat(stack.size()).isEqualTo(1);
+        assertThat(unsigned(stack.pop()))
+            .as("%s and %s", value0, value1)
+            .isEqualTo(expected.apply(unsigned(value0), unsigned(value1)).mod(TWO_256));
+      }
+    }
+  }
+
+  private static Bytes[] testValues() {
+    final Random random = new Random(42);
+    final Bytes[] values = new Bytes[EDGE_VALUES.length + 24];
+    System.arraycopy(EDGE_VALUES, 0, values, 0, EDGE_VALUES.length);
+    for (int i = EDGE_VALUES.length; i < values.length; i++) {
+      values[i] = Bytes.random(1 + random.nextInt(32), random);
+    }
+    return values;
+  }
+
+  private static BigInteger unsigned(final Bytes value) {
+    return value.isEmpty() ? BigInteger.ZERO : value.toUnsignedBigInteger();
+  }
+
+  private static BigInteger signed(final BigInteger value) {
+    return value.testBit(255) ? value.subtract(TWO_256) : value;
+  }
+
+  private static BigInteger bool(final boolean value) {
+    return value ? BigInteger.ONE : BigInteger.ZERO;
+  }
 }
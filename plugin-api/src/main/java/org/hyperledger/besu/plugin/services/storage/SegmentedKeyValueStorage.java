@@ -17,6 +17,8 @@ package org.hyperledger.besu.plugin.services.storage;
 import org.hyperledger.besu.plugin.services.exception.StorageException;
 
 import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
@@ -38,6 +40,25 @@ public interface SegmentedKeyValueStorage extends Closeable {
    */
   Optional<byte[]> get(SegmentIdentifier segment, byte[] key) throws StorageException;
 
+  /**
+   * Get the values associated with several keys of the same segment. Implementations backed by a
+   * database should read all the keys in a single batch, the default implementation reads them one
+   * by one.
+   *
+   * @param segment the segment
+   * @param keys Indexes into persistent data repository.
+   * @return The values persisted at the key indexes, in the same order as the keys.
+   * @throws StorageException the storage exception
+   */
+  default List<Optional<byte[]>> multiGet(final SegmentIdentifier segment, final List<byte[]> keys)
+      throws StorageException {
+    final List<Optional<byte[]>> values = new ArrayList<>(keys.size());
+    for (final byte[] key : keys) {
+      values.add(get(segment, key));
+    }
+    return values;
+  }
+
   /**
    * Finds the key and corresponding value that is "nearest before" the specified key. "Nearest
    * before" is defined as the closest key that is either exactly matching the supplied key or
@@ -91,6 +112,27 @@ public interface SegmentedKeyValueStorage extends Closeable {
    */
   SegmentedKeyValueStorageTransaction startTransaction() throws StorageException;
 
+  /**
+   * Begins a bulk ingestion, a transaction meant for writing large amounts of new data. Storages
+   * that support it accumulate the committed data sorted by key, and add it as a whole in large
+   * files, which is much cheaper than regular writes. Committed data may not be readable until
+   * {@link #flushBulkIngestions()} is called. The default implementation is a regular transaction.
+   *
+   * @return An object representing the bulk ingestion.
+   * @throws StorageException the storage exception
+   */
+  default SegmentedKeyValueStorageTransaction startBulkIngestion() throws StorageException {
+    return startTransaction();
+  }
+
+  /**
+   * Writes the data committed by bulk ingestions that the storage still accumulates, making it
+   * readable. The default implementation does nothing, as bulk ingestions are regular transactions.
+   *
+   * @throws StorageException the storage exception
+   */
+  default void flushBulkIngestions() throws StorageException {}
+
   /**
    * Returns a stream of all keys for the segment.
    *
@@ -0,0 +1,283 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.plugin.services.storage.rocksdb;
+
+import org.hyperledger.besu.plugin.services.exception.StorageException;
+import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.CompressionType;
+import org.rocksdb.EnvOptions;
+import org.rocksdb.IngestExternalFileOptions;
+import org.rocksdb.Options;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.SstFileWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Accumulates the data committed by the bulk ingestions of a database, sorted by key for each
+ * column family, and ingests it as SST files once it reaches a size threshold.
+ *
+ * <p>Committing every bulk ingestion on its own creates many small files whose key ranges overlap,
+ * that RocksDB has to place in level 0. Accumulating the data first writes a single sorted run per
+ * column family for a much larger amount of data.
+ *
+ * <p>The accumulated data is not readable, and is lost on a crash, until it is ingested by {@link
+ * #flush()}, which the database also calls when it is closed. Callers must flush before persisting
+ * anything that records the data as written. The files of the different column families are
+ * ingested one after the other: when a file fails to be ingested, the data of the column families
+ * that were not ingested yet is kept, and ingested by the next flush.
+ *
+ * <p>Ingested files get a sequence number newer than every write already committed, so ingesting
+ * the accumulated data could overwrite a regular write committed after it was accumulated. The
+ * regular transactions of the database are therefore wrapped by {@link
+ * #orderAfterAccumulatedData}, which flushes the accumulated data before committing a transaction
+ * that writes to a column family with accumulated data.
+ */
+public class RocksDBSstFileIngester {
+  private static final Logger LOG = LoggerFactory.getLogger(RocksDBSstFileIngester.class);
+
+  /** Default size of the accumulated data above which it is ingested */
+  public static final long DEFAULT_INGESTION_THRESHOLD = 64 * 1024 * 1024;
+
+  private final Supplier<RocksDB> db;
+  private final Function<SegmentIdentifier, ColumnFamilyHandle> columnFamilyMapper;
+  private final Path ingestionDirectory;
+  private final long ingestionThreshold;
+  // a null value is a removed key
+  private final Map<SegmentIdentifier, NavigableMap<byte[], byte[]>> updatesBySegment =
+      new HashMap<>();
+  // the segments with accumulated data, checked without locking by the regular transactions
+  private final Set<SegmentIdentifier> pendingSegments = ConcurrentHashMap.newKeySet();
+  // approximate, overwritten keys are counted again
+  private long updatesSize = 0;
+
+  /**
+   * Instantiates a new RocksDb SST file ingester, and deletes the files left in the ingestion
+   * directory by a previous run that was interrupted while ingesting.
+   *
+   * @param db supplier of the database to ingest the files into
+   * @param columnFamilyMapper mapper from segment identifier to column family handle
+   * @param ingestionDirectory the directory where the files are written before being ingested
+   * @param ingestionThreshold the size of the accumulated data above which it is ingested
+   */
+  public RocksDBSstFileIngester(
+      final Supplier<RocksDB> db,
+      final Function<SegmentIdentifier, ColumnFamilyHandle> columnFamilyMapper,
+      final Path ingestionDirectory,
+      final long ingestionThreshold) {
+    this.db = db;
+    this.columnFamilyMapper = columnFamilyMapper;
+    this.ingestionDirectory = ingestionDirectory;
+    this.ingestionThreshold = ingestionThreshold;
+    deleteLeftoverFiles(ingestionDirectory);
+  }
+
+  /**
+   * Adds the updates of a committed bulk ingestion, and ingests all the accumulated data if it
+   * reached the threshold.
+   *
+   * @param updates the updates by segment, sorted by key, where a null value is a removed key
+   * @throws StorageException if the accumulated data could not be ingested
+   */
+  public synchronized void add(final Map<SegmentIdentifier, NavigableMap<byte[], byte[]>> updates)
+      throws StorageException {
+    updates.forEach(
+        (segmentId, segmentUpdates) -> {
+          final NavigableMap<byte[], byte[]> accumulated =
+              updatesBySegment.computeIfAbsent(segmentId, key -> newUpdates());
+          pendingSegments.add(segmentId);
+          segmentUpdates.forEach(
+              (key, value) -> {
+                accumulated.put(key, value);
+                updatesSize += key.length + (value == null ? 0 : value.length);
+              });
+        });
+    if (updatesSize >= ingestionThreshold) {
+      flush();
+    }
+  }
+
+  /**
+   * Ingests all the accumulated data, as one SST file per column family. If a file fails to be
+   * ingested, the data of this column family and of the following ones is kept.
+   *
+   * @throws StorageException if the accumulated data could not be ingested
+   */
+  public synchronized void flush() throws StorageException {
+    if (updatesBySegment.isEmpty()) {
+      return;
+    }
+    final List<Path> files = new ArrayList<>();
+    try (final EnvOptions envOptions = new EnvOptions();
+        final Options options = new Options().setCompressionType(CompressionType.LZ4_COMPRESSION);
+        final IngestExternalFileOptions ingestOptions =
+            new IngestExternalFileOptions().setMoveFiles(true)) {
+      Files.createDirectories(ingestionDirectory);
+      final Iterator<Map.Entry<SegmentIdentifier, NavigableMap<byte[], byte[]>>> segments =
+          updatesBySegment.entrySet().iterator();
+      while (segments.hasNext()) {
+        final Map.Entry<SegmentIdentifier, NavigableMap<byte[], byte[]>> segmentUpdates =
+            segments.next();
+        final Path file = Files.createTempFile(ingestionDirectory, "ingest-", ".sst");
+        files.add(file);
+        writeFile(file, segmentUpdates.getValue(), envOptions, options);
+        db.get()
+            .ingestExternalFile(
+                columnFamilyMapper.apply(segmentUpdates.getKey()),
+                List.of(file.toString()),
+                ingestOptions);
+        segments.remove();
+        pendingSegments.remove(segmentUpdates.getKey());
+      }
+    } catch (final RocksDBException | IOException e) {
+      throw new StorageException(e);
+    } finally {
+      updatesSize =
+          updatesBySegment.values().stream().mapToLong(RocksDBSstFileIngester::size).sum();
+      // moved files are already gone, the others were not ingested
+      files.forEach(RocksDBSstFileIngester::deleteIfExists);
+    }
+  }
+
+  /**
+   * Wraps a regular transaction of the database, so that its writes are not overwritten by the
+   * data accumulated before it is committed. The accumulated data is flushed before committing the
+   * transaction, when the transaction writes to a column family with accumulated data.
+   *
+   * @param transaction the regular transaction
+   * @return the wrapped transaction
+   */
+  public SegmentedKeyValueStorageTransaction orderAfterAccumulatedData(
+      final SegmentedKeyValueStorageTransaction transaction) {
+    return new OrderedTransaction(transaction);
+  }
+
+  /**
+   * Creates a map of updates sorted in the same order as the default bytewise comparator of
+   * RocksDB.
+   *
+   * @return the map of updates
+   */
+  static NavigableMap<byte[], byte[]> newUpdates() {
+    return new TreeMap<>(Arrays::compareUnsigned);
+  }
+
+  private static long size(final NavigableMap<byte[], byte[]> updates) {
+    long size = 0;
+    for (final Map.Entry<byte[], byte[]> update : updates.entrySet()) {
+      size += update.getKey().length + (update.getValue() == null ? 0 : update.getValue().length);
+    }
+    return size;
+  }
+
+  private static void writeFile(
+      final Path file,
+      final NavigableMap<byte[], byte[]> updates,
+      final EnvOptions envOptions,
+      final Options options)
+      throws RocksDBException {
+    try (final SstFileWriter writer = new SstFileWriter(envOptions, options)) {
+      writer.open(file.toString());
+      for (final Map.Entry<byte[], byte[]> update : updates.entrySet()) {
+        if (update.getValue() == null) {
+          writer.delete(update.getKey());
+        } else {
+          writer.put(update.getKey(), update.getValue());
+        }
+      }
+      writer.finish();
+    }
+  }
+
+  private static void deleteLeftoverFiles(final Path ingestionDirectory) {
+    if (!Files.isDirectory(ingestionDirectory)) {
+      return;
+    }
+    try (final Stream<Path> files = Files.list(ingestionDirectory)) {
+      files.forEach(RocksDBSstFileIngester::deleteIfExists);
+    } catch (final IOException e) {
+      LOG.warn("Unable to delete the SST files left in {}", ingestionDirectory, e);
+    }
+  }
+
+  private static void deleteIfExists(final Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (final IOException e) {
+      LOG.warn("Unable to delete SST file {}", file, e);
+    }
+  }
+
+  private class OrderedTransaction implements SegmentedKeyValueStorageTransaction {
+    private final SegmentedKeyValueStorageTransaction transaction;
+    private final Set<SegmentIdentifier> segments = new HashSet<>();
+
+    private OrderedTransaction(final SegmentedKeyValueStorageTransaction transaction) {
+      this.transaction = transaction;
+    }
+
+    @Override
+    public void put(final SegmentIdentifier segmentId, final byte[] key, final byte[] value) {
+      segments.add(segmentId);
+      transaction.put(segmentId, key, value);
+    }
+
+    @Override
+    public void remove(final SegmentIdentifier segmentId, final byte[] key) {
+      segments.add(segmentId);
+      transaction.remove(segmentId, key);
+    }
+
+    @Override
+    public void commit() throws StorageException {
+      if (segments.stream().anyMatch(pendingSegments::contains)) {
+        try {
+          flush();
+        } catch (final StorageException e) {
+          transaction.rollback();
+          throw e;
+        }
+      }
+      transaction.commit();
+    }
+
+    @Override
+    public void rollback() {
+      transaction.rollback();
+    }
+  }
+}
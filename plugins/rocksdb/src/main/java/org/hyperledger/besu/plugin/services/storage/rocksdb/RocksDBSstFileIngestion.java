@@ -0,0 +1,85 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.plugin.services.storage.rocksdb;
+
+import org.hyperledger.besu.plugin.services.exception.StorageException;
+import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
+import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+
+/**
+ * A transaction that buffers its writes sorted by key, and on commit hands them to the {@link
+ * RocksDBSstFileIngester} of the database, which ingests them as SST files together with the data
+ * of other bulk ingestions. Ingesting files skips the WAL and the memtable, and files that do not
+ * overlap existing data are placed directly in the last level, so large amounts of new data are not
+ * rewritten by compactions.
+ */
+public class RocksDBSstFileIngestion implements SegmentedKeyValueStorageTransaction {
+
+  private final RocksDBSstFileIngester ingester;
+  private final RocksDBMetrics metrics;
+  // a null value is a removed key
+  private final Map<SegmentIdentifier, NavigableMap<byte[], byte[]>> updatesBySegment =
+      new HashMap<>();
+
+  /**
+   * Instantiates a new RocksDb SST file ingestion.
+   *
+   * @param ingester the ingester of the database
+   * @param metrics the metrics
+   */
+  public RocksDBSstFileIngestion(
+      final RocksDBSstFileIngester ingester, final RocksDBMetrics metrics) {
+    this.ingester = ingester;
+    this.metrics = metrics;
+  }
+
+  @Override
+  public void put(final SegmentIdentifier segmentId, final byte[] key, final byte[] value) {
+    try (final OperationTimer.TimingContext ignored = metrics.getWriteLatency().startTimer()) {
+      updates(segmentId).put(key, value);
+    }
+  }
+
+  @Override
+  public void remove(final SegmentIdentifier segmentId, final byte[] key) {
+    try (final OperationTimer.TimingContext ignored = metrics.getRemoveLatency().startTimer()) {
+      updates(segmentId).put(key, null);
+    }
+  }
+
+  @Override
+  public void commit() throws StorageException {
+    try (final OperationTimer.TimingContext ignored = metrics.getCommitLatency().startTimer()) {
+      ingester.add(updatesBySegment);
+    } finally {
+      updatesBySegment.clear();
+    }
+  }
+
+  @Override
+  public void rollback() {
+    updatesBySegment.clear();
+    metrics.getRollbackCount().inc();
+  }
+
+  private NavigableMap<byte[], byte[]> updates(final SegmentIdentifier segmentId) {
+    return updatesBySegment.computeIfAbsent(segmentId, key -> RocksDBSstFileIngester.newUpdates());
+  }
+}
@@ -84,8 +84,12 @@ public class OptimisticRocksDBColumnarKeyValueStorage extends RocksDBColumnarKey
     final WriteOptions writeOptions = new WriteOptions();
     writeOptions.setIgnoreMissingColumnFamilies(true);
     return new SegmentedKeyValueStorageTransactionValidatorDecorator(
-        new RocksDBTransaction(
-            this::safeColumnHandle, db.beginTransaction(writeOptions), writeOptions, this.metrics),
+        orderAfterBulkIngestions(
+            new RocksDBTransaction(
+                this::safeColumnHandle,
+                db.beginTransaction(writeOptions),
+                writeOptions,
+                this.metrics)),
         this.closed::get);
   }
 
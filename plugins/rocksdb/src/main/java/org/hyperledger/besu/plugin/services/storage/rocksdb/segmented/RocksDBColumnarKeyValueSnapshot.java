@@ -26,6 +26,8 @@ import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBMetrics;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDbIterator;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -115,6 +117,52 @@ public class RocksDBColumnarKeyValueSnapshot
     }
   }
 
+  @Override
+  public List<Optional<byte[]>> multiGet(final SegmentIdentifier segment, final List<byte[]> keys)
+      throws StorageException {
+    throwIfClosed();
+    try (final OperationTimer.TimingContext ignored = metrics.getReadLatency().startTimer()) {
+      final ColumnFamilyHandle handle = columnFamilyMapper.apply(segment);
+      if (isReadCacheEnabledForSnapshots && segment.isEligibleToHighSpecFlag()) {
+        return multiGetFromCacheOrRead(segment.getId(), keys, handle, maybeCache.get());
+      } else {
+        return snapshot.multiGet(handle, readOptions, keys).stream()
+            .map(Optional::ofNullable)
+            .toList();
+      }
+    } catch (final RocksDBException e) {
+      throw new StorageException(e);
+    }
+  }
+
+  private List<Optional<byte[]>> multiGetFromCacheOrRead(
+      final byte[] segmentId,
+      final List<byte[]> keys,
+      final ColumnFamilyHandle handle,
+      final Cache<Bytes, Optional<byte[]>> cache)
+      throws RocksDBException {
+    final List<Optional<byte[]>> values = new ArrayList<>(keys.size());
+    final List<Integer> missingIndexes = new ArrayList<>();
+    final List<byte[]> missingKeys = new ArrayList<>();
+    for (int i = 0; i < keys.size(); i++) {
+      final Optional<byte[]> cached = cache.getIfPresent(makeCacheKey(segmentId, keys.get(i)));
+      if (cached == null) {
+        missingIndexes.add(i);
+        missingKeys.add(keys.get(i));
+      }
+      values.add(cached);
+    }
+    if (!missingKeys.isEmpty()) {
+      final List<byte[]> read = snapshot.multiGet(handle, readOptions, missingKeys);
+      for (int i = 0; i < missingIndexes.size(); i++) {
+        final Optional<byte[]> value = Optional.ofNullable(read.get(i));
+        cache.put(makeCacheKey(segmentId, missingKeys.get(i)), value);
+        values.set(missingIndexes.get(i), value);
+      }
+    }
+    return values;
+  }
+
   private Optional<byte[]> getFromCacheOrRead(
       final byte[] segmentId,
       final byte[] key,
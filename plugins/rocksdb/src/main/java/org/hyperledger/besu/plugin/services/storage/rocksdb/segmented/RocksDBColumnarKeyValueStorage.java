@@ -22,16 +22,21 @@ import org.hyperledger.besu.plugin.services.exception.StorageException;
 import org.hyperledger.besu.plugin.services.metrics.OperationTimer;
 import org.hyperledger.besu.plugin.services.storage.SegmentIdentifier;
 import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
+import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBMetrics;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBMetricsFactory;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDbIterator;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDbSegmentIdentifier;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBSstFileIngester;
+import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDBSstFileIngestion;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.RocksDbUtil;
 import org.hyperledger.besu.plugin.services.storage.rocksdb.configuration.RocksDBConfiguration;
+import org.hyperledger.besu.services.kvstore.SegmentedKeyValueStorageTransactionValidatorDecorator;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -91,6 +96,9 @@ public abstract class RocksDBColumnarKeyValueStorage implements SegmentedKeyValu
   /** RocksDb Time to roll a log file (1 day = 3600 * 24 seconds) */
   private static final long TIME_TO_ROLL_LOG_FILE = 86_400L;
 
+  /** Directory where the SST files of bulk ingestions are written before being ingested */
+  private static final String INGESTION_DIRECTORY = "ingestion";
+
   static {
     RocksDbUtil.loadNativeLibrary();
   }
@@ -119,6 +127,8 @@ public abstract class RocksDBColumnarKeyValueStorage implements SegmentedKeyValu
   /** RocksDB metrics */
   protected RocksDBMetrics metrics;
 
+  private final RocksDBSstFileIngester sstFileIngester;
+
   /** Map of the columns handles by name */
   protected Map<SegmentIdentifier, RocksDbSegmentIdentifier> columnHandlesBySegmentIdentifier;
 
@@ -152,6 +162,12 @@ public abstract class RocksDBColumnarKeyValueStorage implements SegmentedKeyValu
     this.configuration = configuration;
     this.metricsSystem = metricsSystem;
     this.rocksDBMetricsFactory = rocksDBMetricsFactory;
+    this.sstFileIngester =
+        new RocksDBSstFileIngester(
+            this::getDB,
+            this::safeColumnHandle,
+            configuration.getDatabaseDir().resolve(INGESTION_DIRECTORY),
+            RocksDBSstFileIngester.DEFAULT_INGESTION_THRESHOLD);
 
     try {
       trimmedSegments = new ArrayList<>(defaultSegments);
@@ -419,6 +435,48 @@ public abstract class RocksDBColumnarKeyValueStorage implements SegmentedKeyValu
     }
   }
 
+  @Override
+  public List<Optional<byte[]>> multiGet(final SegmentIdentifier segment, final List<byte[]> keys)
+      throws StorageException {
+    throwIfClosed();
+
+    try (final OperationTimer.TimingContext ignored = metrics.getReadLatency().startTimer()) {
+      return getDB()
+          .multiGetAsList(
+              readOptions, Collections.nCopies(keys.size(), safeColumnHandle(segment)), keys)
+          .stream()
+          .map(Optional::ofNullable)
+          .toList();
+    } catch (final RocksDBException e) {
+      throw new StorageException(e);
+    }
+  }
+
+  @Override
+  public SegmentedKeyValueStorageTransaction startBulkIngestion() throws StorageException {
+    throwIfClosed();
+    return new SegmentedKeyValueStorageTransactionValidatorDecorator(
+        new RocksDBSstFileIngestion(sstFileIngester, metrics), this.closed::get);
+  }
+
+  @Override
+  public void flushBulkIngestions() throws StorageException {
+    throwIfClosed();
+    sstFileIngester.flush();
+  }
+
+  /**
+   * Orders a regular transaction after the bulk ingestions committed before it, so that its writes
+   * are not overwritten when the bulk ingestions are flushed.
+   *
+   * @param transaction the regular transaction
+   * @return the ordered transaction
+   */
+  protected SegmentedKeyValueStorageTransaction orderAfterBulkIngestions(
+      final SegmentedKeyValueStorageTransaction transaction) {
+    return sstFileIngester.orderAfterAccumulatedData(transaction);
+  }
+
   @Override
   public Optional<NearestKeyValue> getNearestBefore(
       final SegmentIdentifier segmentIdentifier, final Bytes key) throws StorageException {
@@ -519,6 +577,11 @@ public abstract class RocksDBColumnarKeyValueStorage implements SegmentedKeyValu
   @Override
   public void close() {
     if (closed.compareAndSet(false, true)) {
+      try {
+        sstFileIngester.flush();
+      } catch (final StorageException e) {
+        LOG.warn("Unable to ingest the data of the bulk ingestions before closing", e);
+      }
       txOptions.close();
       options.close();
       tryDeleteOptions.close();
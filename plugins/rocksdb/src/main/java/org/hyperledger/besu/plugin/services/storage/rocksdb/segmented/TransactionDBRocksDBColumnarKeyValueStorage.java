@@ -87,8 +87,9 @@ public class TransactionDBRocksDBColumnarKeyValueStorage extends RocksDBColumnar
     final WriteOptions writeOptions = new WriteOptions();
     writeOptions.setIgnoreMissingColumnFamilies(true);
     return new SegmentedKeyValueStorageTransactionValidatorDecorator(
-        new RocksDBTransaction(
-            this::safeColumnHandle, db.beginTransaction(writeOptions), writeOptions, metrics),
+        orderAfterBulkIngestions(
+            new RocksDBTransaction(
+                this::safeColumnHandle, db.beginTransaction(writeOptions), writeOptions, metrics)),
         this.closed::get);
   }
 }
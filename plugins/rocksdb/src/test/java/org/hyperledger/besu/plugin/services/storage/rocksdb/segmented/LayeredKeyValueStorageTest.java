@@ -86,6 +86,29 @@ public class LayeredKeyValueStorageTest {
     assertArrayEquals(value1, resultList.get(0).getValue());
   }
 
+  @Test
+  void multiGetShouldReadMissingKeysFromParentInOneBatch() {
+    byte[] key1 = {1};
+    byte[] key2 = {2};
+    byte[] key3 = {3};
+    byte[] value1 = {10};
+    byte[] value3 = {30};
+
+    var hashValueStore = createSegmentMap();
+    hashValueStore.get(segmentId).put(Bytes.wrap(key1), Optional.of(value1));
+    hashValueStore.get(segmentId).put(Bytes.wrap(key2), Optional.empty());
+    layeredKeyValueStorage = new LayeredKeyValueStorage(hashValueStore, parentStorage);
+    when(parentStorage.multiGet(segmentId, List.of(key3))).thenReturn(List.of(Optional.of(value3)));
+
+    List<Optional<byte[]>> result =
+        layeredKeyValueStorage.multiGet(segmentId, List.of(key1, key2, key3));
+
+    assertEquals(3, result.size());
+    assertArrayEquals(value1, result.get(0).orElseThrow());
+    assertTrue(result.get(1).isEmpty());
+    assertArrayEquals(value3, result.get(2).orElseThrow());
+  }
+
   @Test
   void shouldReturnLayerDataWhenParentIsEmpty() {
     byte[] key1 = {1};
@@ -38,6 +38,7 @@ import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTran
 import org.hyperledger.besu.services.kvstore.SegmentedKeyValueStorageAdapter;
 
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
@@ -111,6 +112,149 @@ public abstract class RocksDBColumnarKeyValueStorageTest extends AbstractKeyValu
     store.close();
   }
 
+  @Test
+  public void multiGetReturnsValuesInKeyOrder() throws Exception {
+    final SegmentedKeyValueStorage store = createSegmentedStore();
+
+    final SegmentedKeyValueStorageTransaction tx = store.startTransaction();
+    tx.put(TestSegment.FOO, bytesOf(1), bytesOf(10));
+    tx.put(TestSegment.FOO, bytesOf(3), bytesOf(30));
+    tx.put(TestSegment.BAR, bytesOf(2), bytesOf(20));
+    tx.commit();
+
+    final List<Optional<byte[]>> result =
+        store.multiGet(TestSegment.FOO, List.of(bytesOf(3), bytesOf(2), bytesOf(1)));
+
+    assertThat(result).hasSize(3);
+    assertThat(result.get(0)).contains(bytesOf(30));
+    assertThat(result.get(1)).isEmpty();
+    assertThat(result.get(2)).contains(bytesOf(10));
+
+    store.close();
+  }
+
+  @Test
+  public void bulkIngestionWritesEverySegment() throws Exception {
+    final SegmentedKeyValueStorage store = createSegmentedStore();
+
+    final SegmentedKeyValueStorageTransaction existing = store.startTransaction();
+    existing.put(TestSegment.FOO, bytesOf(4), bytesOf(40));
+    existing.put(TestSegment.FOO, bytesOf(5), bytesOf(50));
+    existing.commit();
+
+    // keys are not written in order, and are overwritten or removed in the same ingestion
+    final SegmentedKeyValueStorageTransaction ingestion = store.startBulkIngestion();
+    ingestion.put(TestSegment.FOO, bytesOf(3), bytesOf(30));
+    ingestion.put(TestSegment.FOO, bytesOf(1), bytesOf(1));
+    ingestion.put(TestSegment.FOO, bytesOf(1), bytesOf(10));
+    ingestion.put(TestSegment.FOO, bytesOf(2), bytesOf(20));
+    ingestion.remove(TestSegment.FOO, bytesOf(2));
+    ingestion.remove(TestSegment.FOO, bytesOf(4));
+    ingestion.put(TestSegment.BAR, bytesOf(2), bytesOf(22));
+    ingestion.commit();
+    store.flushBulkIngestions();
+
+    assertThat(store.stream(TestSegment.FOO).map(Pair::getKey))
+        .containsExactly(bytesOf(1), bytesOf(3), bytesOf(5));
+    assertThat(store.get(TestSegment.FOO, bytesOf(1))).contains(bytesOf(10));
+    assertThat(store.get(TestSegment.FOO, bytesOf(3))).contains(bytesOf(30));
+    assertThat(store.get(TestSegment.FOO, bytesOf(5))).contains(bytesOf(50));
+    assertThat(store.get(TestSegment.BAR, bytesOf(2))).contains(bytesOf(22));
+
+    store.close();
+  }
+
+  @Test
+  public void bulkIngestionsAreAccumulatedUntilFlushed() throws Exception {
+    final SegmentedKeyValueStorage store = createSegmentedStore();
+
+    final SegmentedKeyValueStorageTransaction first = store.startBulkIngestion();
+    first.put(TestSegment.FOO, bytesOf(3), bytesOf(30));
+    first.put(TestSegment.FOO, bytesOf(1), bytesOf(10));
+    first.commit();
+    final SegmentedKeyValueStorageTransaction second = store.startBulkIngestion();
+    second.put(TestSegment.FOO, bytesOf(2), bytesOf(20));
+    second.put(TestSegment.FOO, bytesOf(3), bytesOf(33));
+    second.commit();
+
+    assertThat(store.get(TestSegment.FOO, bytesOf(1))).isEmpty();
+
+    store.flushBulkIngestions();
+
+    assertThat(store.stream(TestSegment.FOO).map(Pair::getKey))
+        .containsExactly(bytesOf(1), bytesOf(2), bytesOf(3));
+    assertThat(store.get(TestSegment.FOO, bytesOf(3))).contains(bytesOf(33));
+
+    store.close();
+  }
+
+  @Test
+  public void regularWritesCommittedAfterABulkIngestionAreNotOverwritten() throws Exception {
+    final SegmentedKeyValueStorage store = createSegmentedStore();
+
+    final SegmentedKeyValueStorageTransaction ingestion = store.startBulkIngestion();
+    ingestion.put(TestSegment.FOO, bytesOf(1), bytesOf(10));
+    ingestion.put(TestSegment.FOO, bytesOf(2), bytesOf(20));
+    ingestion.commit();
+    final SegmentedKeyValueStorageTransaction regular = store.startTransaction();
+    regular.put(TestSegment.FOO, bytesOf(1), bytesOf(11));
+    regular.commit();
+
+    // the bulk ingestion was flushed before the regular write was committed
+    assertThat(store.get(TestSegment.FOO, bytesOf(2))).contains(bytesOf(20));
+    store.flushBulkIngestions();
+    assertThat(store.get(TestSegment.FOO, bytesOf(1))).contains(bytesOf(11));
+
+    store.close();
+  }
+
+  @Test
+  public void bulkIngestionsAreFlushedOnClose() throws Exception {
+    final Path testPath = folder.resolve("testdb");
+    final List<SegmentIdentifier> segments =
+        Arrays.asList(TestSegment.DEFAULT, TestSegment.FOO, TestSegment.BAR);
+    final SegmentedKeyValueStorage store = createSegmentedStore(testPath, segments, List.of());
+
+    final SegmentedKeyValueStorageTransaction ingestion = store.startBulkIngestion();
+    ingestion.put(TestSegment.FOO, bytesOf(1), bytesOf(10));
+    ingestion.commit();
+    store.close();
+
+    final SegmentedKeyValueStorage reopened = createSegmentedStore(testPath, segments, List.of());
+    assertThat(reopened.get(TestSegment.FOO, bytesOf(1))).contains(bytesOf(10));
+    reopened.close();
+  }
+
+  @Test
+  public void leftoverIngestionFilesAreDeletedOnOpen() throws Exception {
+    final Path testPath = folder.resolve("testdb");
+    final List<SegmentIdentifier> segments =
+        Arrays.asList(TestSegment.DEFAULT, TestSegment.FOO, TestSegment.BAR);
+    createSegmentedStore(testPath, segments, List.of()).close();
+    final Path leftover =
+        Files.createDirectories(testPath.resolve("ingestion")).resolve("ingest-1.sst");
+    Files.write(leftover, bytesOf(1));
+
+    final SegmentedKeyValueStorage store = createSegmentedStore(testPath, segments, List.of());
+
+    assertThat(leftover).doesNotExist();
+    store.close();
+  }
+
+  @Test
+  public void bulkIngestionRollbackDiscardsWrites() throws Exception {
+    final SegmentedKeyValueStorage store = createSegmentedStore();
+
+    final SegmentedKeyValueStorageTransaction ingestion = store.startBulkIngestion();
+    ingestion.put(TestSegment.FOO, bytesOf(1), bytesOf(10));
+    ingestion.rollback();
+    store.flushBulkIngestions();
+
+    assertThat(store.get(TestSegment.FOO, bytesOf(1))).isEmpty();
+
+    store.close();
+  }
+
   @Test
   public void canRemoveThroughSegmentIteration() throws Exception {
     // we're looping this in order to catch intermittent failures when rocksdb objects are not close
@@ -24,8 +24,10 @@ import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorage;
 import org.hyperledger.besu.plugin.services.storage.SegmentedKeyValueStorageTransaction;
 import org.hyperledger.besu.plugin.services.storage.SnappedKeyValueStorage;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Optional;
@@ -101,6 +103,40 @@ public class LayeredKeyValueStorage extends SegmentedInMemoryKeyValueStorage
     }
   }
 
+  @Override
+  public List<Optional<byte[]>> multiGet(final SegmentIdentifier segmentId, final List<byte[]> keys)
+      throws StorageException {
+    throwIfClosed();
+
+    final Lock lock = rwLock.readLock();
+    lock.lock();
+    try {
+      final Map<Bytes, Optional<byte[]>> segment =
+          hashValueStore.computeIfAbsent(segmentId, __ -> newSegmentMap());
+      final List<Optional<byte[]>> values = new ArrayList<>(keys.size());
+      final List<Integer> parentIndexes = new ArrayList<>();
+      final List<byte[]> parentKeys = new ArrayList<>();
+      for (int i = 0; i < keys.size(); i++) {
+        final Optional<byte[]> foundKey = segment.get(Bytes.wrap(keys.get(i)));
+        if (foundKey == null) {
+          parentIndexes.add(i);
+          parentKeys.add(keys.get(i));
+        }
+        values.add(foundKey);
+      }
+      // read the keys not found in this layer in a single batch from the parent
+      if (!parentKeys.isEmpty()) {
+        final List<Optional<byte[]>> parentValues = parent.multiGet(segmentId, parentKeys);
+        for (int i = 0; i < parentIndexes.size(); i++) {
+          values.set(parentIndexes.get(i), parentValues.get(i));
+        }
+      }
+      return values;
+    } finally {
+      lock.unlock();
+    }
+  }
+
   @Override
   public Optional<NearestKeyValue> getNearestBefore(
       final SegmentIdentifier segmentIdentifier, final Bytes key) throws StorageException {
@@ -0,0 +1,82 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.pipeline;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the hand-off of items between a producer and a consumer stage through the blocking
+ * queue used by default by pipes with the lock-free ring buffer, for each wait strategy, measuring
+ * both the throughput and the latency distribution of the operations.
+ *
+ * <p>Operations are timed, like the ones done by {@link Pipe}, so that no thread stays blocked
+ * forever when the other side of the group stops at the end of an iteration.
+ */
+@State(Scope.Group)
+@Fork(value = 1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PipeQueueBenchmark {
+  private static final Integer ITEM = 1;
+
+  @Param({"BLOCKING", "SPIN", "YIELD", "PARK"})
+  public String queueType;
+
+  @Param({"1024"})
+  public int capacity;
+
+  private BlockingQueue<Integer> queue;
+
+  @Setup(Level.Iteration)
+  public void setup() {
+    queue =
+        queueType.equals("BLOCKING")
+            ? new ArrayBlockingQueue<>(capacity)
+            : new RingBufferQueue<>(capacity, WaitStrategy.valueOf(queueType));
+  }
+
+  @Benchmark
+  @Group("handOff")
+  @GroupThreads(1)
+  public boolean put() throws InterruptedException {
+    return queue.offer(ITEM, 1, TimeUnit.MILLISECONDS);
+  }
+
+  @Benchmark
+  @Group("handOff")
+  @GroupThreads(1)
+  public Integer get() throws InterruptedException {
+    return queue.poll(1, TimeUnit.MILLISECONDS);
+  }
+}
@@ -61,7 +61,47 @@ public class Pipe<T> implements ReadPipe<T>, WritePipe<T> {
       final Counter outputCounter,
       final Counter abortedItemCounter,
       final String pipeName) {
-    queue = new ArrayBlockingQueue<>(capacity);
+    this(
+        new ArrayBlockingQueue<>(capacity),
+        inputCounter,
+        outputCounter,
+        abortedItemCounter,
+        pipeName);
+  }
+
+  /**
+   * Instantiates a new Pipe backed by a lock-free ring buffer instead of a blocking queue, where
+   * readers and writers wait for items or space using the given wait strategy.
+   *
+   * @param capacity the capacity
+   * @param waitStrategy how readers and writers wait
+   * @param inputCounter the input counter
+   * @param outputCounter the output counter
+   * @param abortedItemCounter the aborted item counter
+   * @param pipeName the name of the pipe
+   */
+  public Pipe(
+      final int capacity,
+      final WaitStrategy waitStrategy,
+      final Counter inputCounter,
+      final Counter outputCounter,
+      final Counter abortedItemCounter,
+      final String pipeName) {
+    this(
+        new RingBufferQueue<>(capacity, waitStrategy),
+        inputCounter,
+        outputCounter,
+        abortedItemCounter,
+        pipeName);
+  }
+
+  private Pipe(
+      final BlockingQueue<T> queue,
+      final Counter inputCounter,
+      final Counter outputCounter,
+      final Counter abortedItemCounter,
+      final String pipeName) {
+    this.queue = queue;
     this.inputCounter = inputCounter;
     this.outputCounter = outputCounter;
     this.abortedItemCounter = abortedItemCounter;
@@ -25,6 +25,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -53,6 +54,7 @@ public class PipelineBuilder<I, T> {
   private final LabelledMetric<Counter> outputCounter;
   private final boolean tracingEnabled;
   private final String pipelineName;
+  private final Optional<WaitStrategy> waitStrategy;
 
   /**
    * Instantiates a new Pipeline builder.
@@ -77,6 +79,30 @@ public class PipelineBuilder<I, T> {
       final LabelledMetric<Counter> outputCounter,
       final boolean tracingEnabled,
       final String pipelineName) {
+    this(
+        inputPipe,
+        stages,
+        pipes,
+        lastStageName,
+        pipeEnd,
+        bufferSize,
+        outputCounter,
+        tracingEnabled,
+        pipelineName,
+        Optional.empty());
+  }
+
+  private PipelineBuilder(
+      final Pipe<I> inputPipe,
+      final Collection<Stage> stages,
+      final Collection<Pipe<?>> pipes,
+      final String lastStageName,
+      final ReadPipe<T> pipeEnd,
+      final int bufferSize,
+      final LabelledMetric<Counter> outputCounter,
+      final boolean tracingEnabled,
+      final String pipelineName,
+      final Optional<WaitStrategy> waitStrategy) {
     checkArgument(!pipes.isEmpty(), "Must have at least one pipe in a pipeline");
     this.lastStageName = lastStageName;
     this.outputCounter = outputCounter;
@@ -87,6 +113,7 @@ public class PipelineBuilder<I, T> {
     this.bufferSize = bufferSize;
     this.tracingEnabled = tracingEnabled;
     this.pipelineName = pipelineName;
+    this.waitStrategy = waitStrategy;
   }
 
   /**
@@ -111,7 +138,75 @@ public class PipelineBuilder<I, T> {
       final LabelledMetric<Counter> itemCounter,
       final boolean tracingEnabled,
       final String pipelineName) {
-    final Pipe<T> pipe = createPipe(bufferSize, sourceName, itemCounter);
+    return createPipelineFrom(
+        sourceName,
+        source,
+        bufferSize,
+        itemCounter,
+        tracingEnabled,
+        pipelineName,
+        Optional.empty());
+  }
+
+  /**
+   * Create a new pipeline that processes inputs from <i>source</i>, like {@link
+   * #createPipelineFrom(String, Iterator, int, LabelledMetric, boolean, String)}, but connecting
+   * its stages with lock-free ring buffer pipes that wait using <i>waitStrategy</i>.
+   *
+   * @param <T> the type of items input into the pipeline.
+   * @param sourceName the name of this stage. Used as the label for the output count metric.
+   * @param source the source to pull items from for processing.
+   * @param bufferSize the number of items to be buffered between each stage in the pipeline.
+   * @param itemCounter the counter to increment for each output of a stage. Must accept two labels,
+   *     the stage name and action (output or drained).
+   * @param tracingEnabled whether this pipeline should be traced
+   * @param pipelineName the name of the pipeline for tracing purposes
+   * @param waitStrategy how the stages wait for items or space in the pipes
+   * @return a {@link PipelineBuilder} ready to extend the pipeline with additional stages.
+   */
+  public static <T> PipelineBuilder<T, T> createPipelineFrom(
+      final String sourceName,
+      final Iterator<T> source,
+      final int bufferSize,
+      final LabelledMetric<Counter> itemCounter,
+      final boolean tracingEnabled,
+      final String pipelineName,
+      final WaitStrategy waitStrategy) {
+    return createPipelineFrom(
+        sourceName,
+        source,
+        bufferSize,
+        itemCounter,
+        tracingEnabled,
+        pipelineName,
+        Optional.of(waitStrategy));
+  }
+
+  /**
+   * Create a new pipeline that processes inputs from <i>source</i>, connecting its stages with
+   * lock-free ring buffer pipes if a <i>waitStrategy</i> is given, or with blocking queues
+   * otherwise.
+   *
+   * @param <T> the type of items input into the pipeline.
+   * @param sourceName the name of this stage. Used as the label for the output count metric.
+   * @param source the source to pull items from for processing.
+   * @param bufferSize the number of items to be buffered between each stage in the pipeline.
+   * @param itemCounter the counter to increment for each output of a stage. Must accept two labels,
+   *     the stage name and action (output or drained).
+   * @param tracingEnabled whether this pipeline should be traced
+   * @param pipelineName the name of the pipeline for tracing purposes
+   * @param waitStrategy how the stages wait for items or space in the pipes, if any
+   * @return a {@link PipelineBuilder} ready to extend the pipeline with additional stages.
+   */
+  public static <T> PipelineBuilder<T, T> createPipelineFrom(
+      final String sourceName,
+      final Iterator<T> source,
+      final int bufferSize,
+      final LabelledMetric<Counter> itemCounter,
+      final boolean tracingEnabled,
+      final String pipelineName,
+      final Optional<WaitStrategy> waitStrategy) {
+    final Pipe<T> pipe = createPipe(bufferSize, sourceName, itemCounter, waitStrategy);
     final IteratorSourceStage<T> sourceStage = new IteratorSourceStage<>(sourceName, source, pipe);
     return new PipelineBuilder<>(
         pipe,
@@ -122,7 +217,8 @@ public class PipelineBuilder<I, T> {
         bufferSize,
         itemCounter,
         tracingEnabled,
-        pipelineName);
+        pipelineName,
+        waitStrategy);
   }
 
   /**
@@ -144,7 +240,49 @@ public class PipelineBuilder<I, T> {
       final LabelledMetric<Counter> outputCounter,
       final boolean tracingEnabled,
       final String pipelineName) {
-    final Pipe<T> pipe = createPipe(bufferSize, sourceName, outputCounter);
+    return createPipeline(
+        sourceName, bufferSize, outputCounter, tracingEnabled, pipelineName, Optional.empty());
+  }
+
+  /**
+   * Create a new pipeline that processes inputs added to <i>pipe</i>, like {@link
+   * #createPipeline(String, int, LabelledMetric, boolean, String)}, but connecting its stages with
+   * lock-free ring buffer pipes that wait using <i>waitStrategy</i>.
+   *
+   * @param <T> the type of items input into the pipeline.
+   * @param sourceName the name of this stage. Used as the label for the output count metric.
+   * @param bufferSize the number of items to be buffered between each stage in the pipeline.
+   * @param outputCounter the counter to increment for each output of a stage. Must have a single
+   *     label which will be filled with the stage name.
+   * @param tracingEnabled whether this pipeline should be traced
+   * @param pipelineName the name of the pipeline for tracing purposes
+   * @param waitStrategy how the stages wait for items or space in the pipes
+   * @return a {@link PipelineBuilder} ready to extend the pipeline with additional stages.
+   */
+  public static <T> PipelineBuilder<T, T> createPipeline(
+      final String sourceName,
+      final int bufferSize,
+      final LabelledMetric<Counter> outputCounter,
+      final boolean tracingEnabled,
+      final String pipelineName,
+      final WaitStrategy waitStrategy) {
+    return createPipeline(
+        sourceName,
+        bufferSize,
+        outputCounter,
+        tracingEnabled,
+        pipelineName,
+        Optional.of(waitStrategy));
+  }
+
+  private static <T> PipelineBuilder<T, T> createPipeline(
+      final String sourceName,
+      final int bufferSize,
+      final LabelledMetric<Counter> outputCounter,
+      final boolean tracingEnabled,
+      final String pipelineName,
+      final Optional<WaitStrategy> waitStrategy) {
+    final Pipe<T> pipe = createPipe(bufferSize, sourceName, outputCounter, waitStrategy);
     return new PipelineBuilder<>(
         pipe,
         emptyList(),
@@ -154,7 +292,8 @@ public class PipelineBuilder<I, T> {
         bufferSize,
         outputCounter,
         tracingEnabled,
-        pipelineName);
+        pipelineName,
+        waitStrategy);
   }
 
   /**
@@ -263,7 +402,8 @@ public class PipelineBuilder<I, T> {
         (int) Math.ceil(((double) bufferSize) / maximumBatchSize),
         outputCounter,
         tracingEnabled,
-        pipelineName);
+        pipelineName,
+        waitStrategy);
   }
 
   /**
@@ -293,7 +433,8 @@ public class PipelineBuilder<I, T> {
         (int) Math.ceil(((double) bufferSize) / maximumBatchSize),
         outputCounter,
         tracingEnabled,
-        pipelineName);
+        pipelineName,
+        waitStrategy);
   }
 
   /**
@@ -364,7 +505,7 @@ public class PipelineBuilder<I, T> {
       final Supplier<Processor<T, O>> createProcessor,
       final int numberOfThreads,
       final int newBufferSize) {
-    final Pipe<O> newPipeEnd = createPipe(newBufferSize, stageName, outputCounter);
+    final Pipe<O> newPipeEnd = createPipe(newBufferSize, stageName, outputCounter, waitStrategy);
     final WritePipe<O> outputPipe = new SharedWritePipe<>(newPipeEnd, numberOfThreads);
     final ArrayList<Stage> newStages = new ArrayList<>(stages);
     for (int i = 0; i < numberOfThreads; i++) {
@@ -381,7 +522,8 @@ public class PipelineBuilder<I, T> {
         newBufferSize,
         outputCounter,
         tracingEnabled,
-        pipelineName);
+        pipelineName,
+        waitStrategy);
   }
 
   private <O> PipelineBuilder<I, O> addStage(
@@ -391,7 +533,7 @@ public class PipelineBuilder<I, T> {
 
   private <O> PipelineBuilder<I, O> addStage(
       final Processor<T, O> processor, final int newBufferSize, final String stageName) {
-    final Pipe<O> outputPipe = createPipe(newBufferSize, stageName, outputCounter);
+    final Pipe<O> outputPipe = createPipe(newBufferSize, stageName, outputCounter, waitStrategy);
     final Stage processStage = new ProcessingStage<>(stageName, pipeEnd, outputPipe, processor);
     final List<Stage> newStages = concat(stages, processStage);
     return new PipelineBuilder<>(
@@ -403,7 +545,8 @@ public class PipelineBuilder<I, T> {
         newBufferSize,
         outputCounter,
         tracingEnabled,
-        pipelineName);
+        pipelineName,
+        waitStrategy);
   }
 
   private <X> List<X> concat(final Collection<X> existing, final X newItem) {
@@ -415,13 +558,21 @@ public class PipelineBuilder<I, T> {
   private static <O> Pipe<O> createPipe(
       final int newBufferSize,
       final String stageName,
-      final LabelledMetric<Counter> outputCounter) {
+      final LabelledMetric<Counter> outputCounter,
+      final Optional<WaitStrategy> waitStrategy) {
     final String labelName = stageName + "_outputPipe";
-    return new Pipe<>(
-        newBufferSize,
-        outputCounter.labels(labelName, "added"),
-        outputCounter.labels(labelName, "removed"),
-        outputCounter.labels(labelName, "aborted"),
-        stageName);
+    final Counter inputCounter = outputCounter.labels(labelName, "added");
+    final Counter removedCounter = outputCounter.labels(labelName, "removed");
+    final Counter abortedCounter = outputCounter.labels(labelName, "aborted");
+    if (waitStrategy.isPresent()) {
+      return new Pipe<>(
+          newBufferSize,
+          waitStrategy.get(),
+          inputCounter,
+          removedCounter,
+          abortedCounter,
+          stageName);
+    }
+    return new Pipe<>(newBufferSize, inputCounter, removedCounter, abortedCounter, stageName);
   }
 }
@@ -0,0 +1,322 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.pipeline;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free, multi-producer multi-consumer queue backed by a ring buffer, where every
+ * slot has a sequence number that tells producers and consumers whether the slot is free or holds
+ * an item, so they only need to compete with a CAS on the head or the tail.
+ *
+ * <p>Operations that need to wait, for an item or for space, use the configured {@link
+ * WaitStrategy} instead of locks and conditions.
+ *
+ * <p>Iteration is weakly consistent: the iterator never throws {@link
+ * java.util.ConcurrentModificationException}, it returns the items that are in the queue when it
+ * reaches them, and it may or may not see the items added after its creation. Removing an item from
+ * the middle of the queue leaves an empty slot that consumers skip, so it is still counted by
+ * {@link #size()} until the consumers get past it.
+ *
+ * @param <T> the type of items in the queue
+ */
+class RingBufferQueue<T> extends AbstractQueue<T> implements BlockingQueue<T> {
+  private final int capacity;
+  private final int mask;
+  private final AtomicReferenceArray<T> buffer;
+  private final AtomicLongArray sequences;
+  private final AtomicLong head = new AtomicLong();
+  private final AtomicLong tail = new AtomicLong();
+  private final WaitStrategy waitStrategy;
+
+  /**
+   * Creates a new ring buffer queue
+   *
+   * @param capacity the max number of items in the queue
+   * @param waitStrategy how to wait for an item or for space
+   */
+  RingBufferQueue(final int capacity, final WaitStrategy waitStrategy) {
+    checkArgument(capacity > 0, "Capacity must be greater than 0");
+    this.capacity = capacity;
+    final int ringSize = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+    this.mask = ringSize - 1;
+    this.buffer = new AtomicReferenceArray<>(ringSize);
+    this.sequences = new AtomicLongArray(ringSize);
+    for (int i = 0; i < ringSize; i++) {
+      sequences.set(i, i);
+    }
+    this.waitStrategy = waitStrategy;
+  }
+
+  @Override
+  public boolean offer(final T item) {
+    checkNotNull(item);
+    while (true) {
+      final long pos = tail.get();
+      if (pos - head.get() >= capacity) {
+        return false;
+      }
+      final int index = (int) pos & mask;
+      final long diff = sequences.get(index) - pos;
+      if (diff == 0) {
+        if (tail.compareAndSet(pos, pos + 1)) {
+          buffer.set(index, item);
+          // publish the item to the consumers
+          sequences.set(index, pos + 1);
+          return true;
+        }
+      } else if (diff < 0) {
+        // the slot still holds an item not yet consumed
+        return false;
+      }
+    }
+  }
+
+  @Override
+  public T poll() {
+    while (true) {
+      final long pos = head.get();
+      final int index = (int) pos & mask;
+      final long diff = sequences.get(index) - (pos + 1);
+      if (diff == 0) {
+        if (head.compareAndSet(pos, pos + 1)) {
+          // claim the item atomically, since it could be removed at the same time
+          final T item = buffer.getAndSet(index, null);
+          // release the slot to the producers of the next round
+          sequences.set(index, pos + mask + 1);
+          if (item != null) {
+            return item;
+          }
+          // the item was removed, try with the next one
+        }
+      } else if (diff < 0) {
+        // the slot is not yet published
+        return null;
+      }
+    }
+  }
+
+  @Override
+  public T peek() {
+    for (long pos = head.get(); ; pos++) {
+      final int index = (int) pos & mask;
+      final T item = buffer.get(index);
+      if (sequences.get(index) != pos + 1) {
+        // the slot is not yet published or already consumed
+        return null;
+      }
+      if (item != null) {
+        return item;
+      }
+      // the item was removed, look at the next one
+    }
+  }
+
+  @Override
+  public void put(final T item) throws InterruptedException {
+    int attempt = 0;
+    while (!offer(item)) {
+      checkInterrupted();
+      waitStrategy.idle(attempt++);
+    }
+  }
+
+  @Override
+  public boolean offer(final T item, final long timeout, final TimeUnit unit)
+      throws InterruptedException {
+    final long deadline = System.nanoTime() + unit.toNanos(timeout);
+    int attempt = 0;
+    while (!offer(item)) {
+      checkInterrupted();
+      if (System.nanoTime() - deadline >= 0) {
+        return false;
+      }
+      waitStrategy.idle(attempt++);
+    }
+    return true;
+  }
+
+  @Override
+  public T take() throws InterruptedException {
+    int attempt = 0;
+    T item;
+    while ((item = poll()) == null) {
+      checkInterrupted();
+      waitStrategy.idle(attempt++);
+    }
+    return item;
+  }
+
+  @Override
+  public T poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+    final long deadline = System.nanoTime() + unit.toNanos(timeout);
+    int attempt = 0;
+    T item;
+    while ((item = poll()) == null) {
+      checkInterrupted();
+      if (System.nanoTime() - deadline >= 0) {
+        return null;
+      }
+      waitStrategy.idle(attempt++);
+    }
+    return item;
+  }
+
+  @Override
+  public int size() {
+    final long size = tail.get() - head.get();
+    return (int) Math.max(0, Math.min(size, capacity));
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return peek() == null;
+  }
+
+  @Override
+  public int remainingCapacity() {
+    return capacity - size();
+  }
+
+  @Override
+  public int drainTo(final Collection<? super T> output) {
+    return drainTo(output, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public int drainTo(final Collection<? super T> output, final int maxElements) {
+    int count = 0;
+    T item;
+    while (count < maxElements && (item = poll()) != null) {
+      output.add(item);
+      count++;
+    }
+    return count;
+  }
+
+  @Override
+  public boolean remove(final Object o) {
+    if (o == null) {
+      return false;
+    }
+    final Itr iterator = new Itr();
+    while (iterator.hasNext()) {
+      if (o.equals(iterator.next()) && iterator.removeLastReturned()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    return new Itr();
+  }
+
+  /**
+   * Returns the item at the position, if it is still in the queue
+   *
+   * @param pos the position
+   * @return the item, or null if the slot is not yet published, or its item was consumed or removed
+   */
+  private T itemAt(final long pos) {
+    final int index = (int) pos & mask;
+    final T item = buffer.get(index);
+    // the item belongs to this position only if the slot was not consumed meanwhile
+    return sequences.get(index) == pos + 1 ? item : null;
+  }
+
+  /**
+   * Removes the item at the position, if it is still in the queue, leaving an empty slot that is
+   * skipped by the consumers
+   *
+   * @param pos the position
+   * @param item the item expected at the position
+   * @return true if the item was removed by this call
+   */
+  private boolean removeAt(final long pos, final T item) {
+    final int index = (int) pos & mask;
+    return sequences.get(index) == pos + 1 && buffer.compareAndSet(index, item, null);
+  }
+
+  private static void checkInterrupted() throws InterruptedException {
+    if (Thread.interrupted()) {
+      throw new InterruptedException();
+    }
+  }
+
+  /** Weakly consistent iterator, from the head to the tail seen at its creation. */
+  private class Itr implements Iterator<T> {
+    private final long end = tail.get();
+    private long pos = head.get();
+    private T next;
+    private T lastReturned;
+    private long lastReturnedPos;
+
+    private Itr() {
+      advance();
+    }
+
+    private void advance() {
+      next = null;
+      // skip what was consumed since the last call
+      pos = Math.max(pos, head.get());
+      while (next == null && pos < end) {
+        next = itemAt(pos++);
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public T next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      lastReturned = next;
+      lastReturnedPos = pos - 1;
+      advance();
+      return lastReturned;
+    }
+
+    @Override
+    public void remove() {
+      if (lastReturned == null) {
+        throw new IllegalStateException();
+      }
+      removeLastReturned();
+    }
+
+    private boolean removeLastReturned() {
+      final boolean removed = removeAt(lastReturnedPos, lastReturned);
+      lastReturned = null;
+      return removed;
+    }
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.pipeline;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How a thread waits for a lock-free pipe to have an item to read or space to write. The
+ * strategies trade the latency of noticing that the pipe is ready with the CPU burnt while waiting.
+ */
+public enum WaitStrategy {
+  /**
+   * Busy spin, the lowest latency but keeps a core busy for every waiting thread, so it should only
+   * be used when there are more cores available than threads reading and writing the pipes.
+   */
+  SPIN {
+    @Override
+    void idle(final int attempt) {
+      Thread.onSpinWait();
+    }
+  },
+  /** Spin for a short while, then yield the CPU to other threads. */
+  YIELD {
+    @Override
+    void idle(final int attempt) {
+      if (attempt < SPIN_ATTEMPTS) {
+        Thread.onSpinWait();
+      } else {
+        Thread.yield();
+      }
+    }
+  },
+  /** Spin, then yield, and finally park the thread for a short time, the most CPU friendly. */
+  PARK {
+    @Override
+    void idle(final int attempt) {
+      if (attempt < SPIN_ATTEMPTS) {
+        Thread.onSpinWait();
+      } else if (attempt < SPIN_ATTEMPTS + YIELD_ATTEMPTS) {
+        Thread.yield();
+      } else {
+        LockSupport.parkNanos(PARK_NANOS);
+      }
+    }
+  };
+
+  private static final int SPIN_ATTEMPTS = 100;
+  private static final int YIELD_ATTEMPTS = 100;
+  private static final long PARK_NANOS = 50_000;
+
+  /**
+   * Wait a bit before trying again
+   *
+   * @param attempt the number of attempts already done, starting from 0
+   */
+  abstract void idle(int attempt);
+}
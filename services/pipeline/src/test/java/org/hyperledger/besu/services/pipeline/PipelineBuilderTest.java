@@ -102,6 +102,22 @@ public class PipelineBuilderTest {
             "1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12", "13", "14", "15");
   }
 
+  @Test
+  public void shouldProcessInParallelThroughRingBufferPipes() throws Exception {
+    final List<String> output = new CopyOnWriteArrayList<>();
+    final Pipeline<Integer> pipeline =
+        PipelineBuilder.createPipelineFrom(
+                "input", tasks, 4, NO_OP_LABELLED_2_COUNTER, false, "test", WaitStrategy.PARK)
+            .thenProcessInParallel("toString", Object::toString, 3)
+            .andFinishWith("end", output::add);
+
+    final CompletableFuture<?> result = pipeline.start(executorService);
+    result.get(10, SECONDS);
+    assertThat(output)
+        .containsExactlyInAnyOrder(
+            "1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12", "13", "14", "15");
+  }
+
   @Test
   public void shouldCombineIntoBatches() throws Exception {
     final BlockingQueue<List<Integer>> output = new ArrayBlockingQueue<>(10);
@@ -0,0 +1,207 @@
+/*
+ * Copyright contributors to Besu.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.hyperledger.besu.services.pipeline;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import org.hyperledger.besu.plugin.services.metrics.Counter;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+public class RingBufferQueueTest {
+
+  @Test
+  public void shouldRespectCapacityThatIsNotAPowerOfTwo() {
+    final RingBufferQueue<Integer> queue = new RingBufferQueue<>(3, WaitStrategy.PARK);
+
+    assertThat(queue.offer(1)).isTrue();
+    assertThat(queue.offer(2)).isTrue();
+    assertThat(queue.offer(3)).isTrue();
+    assertThat(queue.offer(4)).isFalse();
+    assertThat(queue.size()).isEqualTo(3);
+    assertThat(queue.remainingCapacity()).isZero();
+  }
+
+  @Test
+  public void shouldReturnItemsInOrderAcrossWrapAround() {
+    final RingBufferQueue<Integer> queue = new RingBufferQueue<>(2, WaitStrategy.PARK);
+
+    for (int i = 0; i < 10; i++) {
+      assertThat(queue.offer(i)).isTrue();
+      assertThat(queue.peek()).isEqualTo(i);
+      assertThat(queue.poll()).isEqualTo(i);
+    }
+    assertThat(queue.poll()).isNull();
+    assertThat(queue.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void shouldTimeoutWhenEmptyOrFull() throws Exception {
+    final RingBufferQueue<Integer> queue = new RingBufferQueue<>(1, WaitStrategy.PARK);
+
+    assertThat(queue.poll(10, MILLISECONDS)).isNull();
+    assertThat(queue.offer(1, 10, MILLISECONDS)).isTrue();
+    assertThat(queue.offer(2, 10, MILLISECONDS)).isFalse();
+  }
+
+  @Test
+  public void shouldIterateOverItemsInOrderAcrossWrapAround() {
+    final RingBufferQueue<Integer> queue = new RingBufferQueue<>(4, WaitStrategy.PARK);
+    queue.offer(0);
+    queue.offer(1);
+    queue.poll();
+    queue.poll();
+    queue.offer(2);
+    queue.offer(3);
+    queue.offer(4);
+
+    assertThat(queue.iterator()).toIterable().containsExactly(2, 3, 4);
+    assertThat(queue.contains(3)).isTrue();
+    assertThat(queue.contains(0)).isFalse();
+    assertThat(queue).hasToString("[2, 3, 4]");
+  }
+
+  @Test
+  public void shouldSkipItemsConsumedAfterIteratorCreation() {
+    final RingBufferQueue<Integer> queue = new RingBufferQueue<>(4, WaitStrategy.PARK);
+    queue.offer(1);
+    queue.offer(2);
+    queue.offer(3);
+    queue.offer(4);
+
+    final Iterator<Integer> iterator = queue.iterator();
+    queue.poll();
+    queue.poll();
+    queue.poll();
+
+    // like other weakly consistent iterators, the next item is read ahead
+    assertThat(iterator).toIterable().containsExactly(1, 4);
+  }
+
+  @Test
+  public void shouldRemoveItemsFromTheMiddleOfTheQueue() {
+    final RingBufferQueue<Integer> queue = new RingBufferQueue<>(4, WaitStrategy.PARK);
+    queue.offer(1);
+    queue.offer(2);
+    queue.offer(3);
+
+    assertThat(queue.remove(Integer.valueOf(2))).isTrue();
+    assertThat(queue.remove(Integer.valueOf(2))).isFalse();
+    assertThat(queue).containsExactly(1, 3);
+
+    final Iterator<Integer> iterator = queue.iterator();
+    assertThat(iterator.next()).isEqualTo(1);
+    iterator.remove();
+    assertThatThrownBy(iterator::remove).isInstanceOf(IllegalStateException.class);
+
+    assertThat(queue.peek()).isEqualTo(3);
+    assertThat(queue.poll()).isEqualTo(3);
+    assertThat(queue.poll()).isNull();
+    assertThat(queue.isEmpty()).isTrue();
+    // the slots of removed items are reusable
+    for (int i = 0; i < 4; i++) {
+      assertThat(queue.offer(i)).isTrue();
+    }
+    assertThat(queue).containsExactly(0, 1, 2, 3);
+  }
+
+  @Test
+  public void shouldThrowWhenInterruptedWhileWaiting() {
+    final RingBufferQueue<Integer> queue = new RingBufferQueue<>(1, WaitStrategy.PARK);
+
+    Thread.currentThread().interrupt();
+    assertThatThrownBy(queue::take).isInstanceOf(InterruptedException.class);
+  }
+
+  @Test
+  public void shouldCountAbortedItemsOfRingBufferPipe() {
+    final Counter abortedItemCounter = mock(Counter.class);
+    final Pipe<String> pipe =
+        new Pipe<>(
+            5,
+            WaitStrategy.PARK,
+            mock(Counter.class),
+            mock(Counter.class),
+            abortedItemCounter,
+            "test_pipe");
+    pipe.put("A");
+    pipe.put("B");
+    pipe.abort();
+
+    assertThat(pipe.hasMore()).isFalse();
+    verify(abortedItemCounter).inc(2);
+  }
+
+  @ParameterizedTest
+  // spinning threads starve each other when there are fewer cores than threads
+  @EnumSource(value = WaitStrategy.class, names = {"YIELD", "PARK"})
+  public void shouldDeliverEveryItemOnceWithConcurrentProducersAndConsumers(
+      final WaitStrategy waitStrategy) throws Exception {
+    final int producers = 3;
+    final int consumers = 3;
+    final int itemsPerProducer = 10_000;
+    final RingBufferQueue<Integer> queue = new RingBufferQueue<>(16, waitStrategy);
+    final Set<Integer> received = ConcurrentHashMap.newKeySet();
+    final ExecutorService executor = Executors.newFixedThreadPool(producers + consumers);
+    try {
+      final List<Future<?>> futures = new ArrayList<>();
+      for (int p = 0; p < producers; p++) {
+        final int offset = p * itemsPerProducer;
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (int i = 0; i < itemsPerProducer; i++) {
+                    queue.put(offset + i);
+                  }
+                  return null;
+                }));
+      }
+      for (int c = 0; c < consumers; c++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (int i = 0; i < itemsPerProducer; i++) {
+                    assertThat(received.add(queue.take())).isTrue();
+                  }
+                  return null;
+                }));
+      }
+      for (final Future<?> future : futures) {
+        future.get(30, SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(received).hasSize(producers * itemsPerProducer);
+    assertThat(queue.isEmpty()).isTrue();
+  }
+}